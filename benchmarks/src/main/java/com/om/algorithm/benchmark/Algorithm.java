@@ -0,0 +1,82 @@
+package com.om.algorithm.benchmark;
+
+import com.om.algorithm.*;
+
+/**
+ * Every {@link IAlgoShortestPath} implementation under benchmark, created empty or loaded with
+ * a generated graph.
+ */
+public enum Algorithm {
+    DIJKSTRA {
+        @Override
+        public AbstractAlgoShortestPath create() {
+            return new DijkstraAlgoShortestPathImpl();
+        }
+    },
+    BIDIRECTIONAL_DIJKSTRA {
+        @Override
+        public AbstractAlgoShortestPath create() {
+            return new BidirectionalDijkstraAlgoShortestPathImpl();
+        }
+    },
+    A_STAR {
+        @Override
+        public AbstractAlgoShortestPath create() {
+            return new AStarAlgoShortestPathImpl();
+        }
+    },
+    A_STAR_LANDMARKS {
+        @Override
+        public AbstractAlgoShortestPath create() {
+            return new AStarAlgoShortestPathImpl(4, 16, LandmarkIndex.Selection.AVOID);
+        }
+    },
+    BIDIRECTIONAL_A_STAR {
+        @Override
+        public AbstractAlgoShortestPath create() {
+            return new BidirectionalAStarAlgoShortestPathImpl();
+        }
+    },
+    BELLMAN_FORD {
+        @Override
+        public AbstractAlgoShortestPath create() {
+            return new BellmanFordAlgoShortestPathImpl();
+        }
+    },
+    JOHNSON {
+        @Override
+        public AbstractAlgoShortestPath create() {
+            return new JohnsonAlgoShortestPathImpl();
+        }
+    },
+    CONTRACTION_HIERARCHIES {
+        @Override
+        public AbstractAlgoShortestPath create() {
+            return new ContractionHierarchiesAlgoShortestPathImpl();
+        }
+    },
+    HUB_LABELING {
+        @Override
+        public AbstractAlgoShortestPath create() {
+            return new HubLabelingAlgoShortestPathImpl();
+        }
+    },
+    DELTA_STEPPING {
+        @Override
+        public AbstractAlgoShortestPath create() {
+            return new DeltaSteppingAlgoShortestPathImpl();
+        }
+    };
+
+    public abstract AbstractAlgoShortestPath create();
+
+    // Generated graphs hold each undirected edge once; directed implementations get both directions
+    public AbstractAlgoShortestPath load(CsrGraph graph) {
+        AbstractAlgoShortestPath algo = create();
+        algo.importGraph(graph);
+        if (algo.isDirected()) {
+            algo.importGraph(graph.reverse());
+        }
+        return algo;
+    }
+}
@@ -0,0 +1,66 @@
+package com.om.algorithm.benchmark;
+
+import com.om.algorithm.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to get from a generated graph to the first answered query: bulk import, or one addEdge
+ * call per edge, plus whatever preprocessing the first query triggers. Like
+ * {@link QueryBenchmark} the defaults span every implementation and 1k to 10M nodes; narrow them
+ * with {@code -p} and raise the heap for the largest sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ConstructionBenchmark {
+
+    @Param({"GRID", "RANDOM_GEOMETRIC", "SCALE_FREE", "ROAD_LIKE"})
+    public GraphShape shape;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int nodes;
+
+    @Param({"DIJKSTRA", "BIDIRECTIONAL_DIJKSTRA", "A_STAR", "A_STAR_LANDMARKS", "BIDIRECTIONAL_A_STAR",
+            "BELLMAN_FORD", "JOHNSON", "CONTRACTION_HIERARCHIES", "HUB_LABELING", "DELTA_STEPPING"})
+    public Algorithm algorithm;
+
+    private CsrGraph graph;
+    private String first;
+    private String last;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = shape.generate(nodes, GraphShape.SEED);
+        first = graph.nameOf(0);
+        last = graph.nameOf(graph.nodeCount() - 1);
+    }
+
+    @Benchmark
+    public PathResult importGraph() {
+        IAlgoShortestPath algo = algorithm.load(graph);
+        return algo.findShortestPath(first, last);
+    }
+
+    @Benchmark
+    public PathResult addEdges() {
+        AbstractAlgoShortestPath algo = algorithm.create();
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            algo.addNode(graph.nameOf(u), graph.x(u), graph.y(u));
+        }
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            for (int i = 0; i < graph.degree(u); i++) {
+                String target = graph.nameOf(graph.target(u, i));
+                algo.addEdge(graph.nameOf(u), target, graph.weight(u, i));
+                if (algo.isDirected()) {
+                    algo.addEdge(target, graph.nameOf(u), graph.weight(u, i));
+                }
+            }
+        }
+        return algo.findShortestPath(first, last);
+    }
+}
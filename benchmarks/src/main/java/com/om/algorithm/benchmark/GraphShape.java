@@ -0,0 +1,39 @@
+package com.om.algorithm.benchmark;
+
+import com.om.algorithm.CsrGraph;
+import com.om.algorithm.GraphGenerator;
+
+/**
+ * The synthetic graph families benchmarks run on, all generated from a fixed seed.
+ */
+public enum GraphShape {
+    GRID {
+        @Override
+        public CsrGraph generate(int nodes, long seed) {
+            int side = (int) Math.ceil(Math.sqrt(nodes));
+            return GraphGenerator.grid(side, Math.max(1, (nodes + side - 1) / side), seed);
+        }
+    },
+    RANDOM_GEOMETRIC {
+        @Override
+        public CsrGraph generate(int nodes, long seed) {
+            return GraphGenerator.randomGeometric(nodes, 6.0, seed);
+        }
+    },
+    SCALE_FREE {
+        @Override
+        public CsrGraph generate(int nodes, long seed) {
+            return GraphGenerator.scaleFree(nodes, 3, seed);
+        }
+    },
+    ROAD_LIKE {
+        @Override
+        public CsrGraph generate(int nodes, long seed) {
+            return GraphGenerator.roadLike(nodes, seed);
+        }
+    };
+
+    public static final long SEED = 20240611L;
+
+    public abstract CsrGraph generate(int nodes, long seed);
+}
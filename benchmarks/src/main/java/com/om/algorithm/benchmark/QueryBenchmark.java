@@ -0,0 +1,72 @@
+package com.om.algorithm.benchmark;
+
+import com.om.algorithm.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-to-point query throughput and latency distribution on a preloaded graph, for path and
+ * for distance-only queries. Preprocessing (landmarks, hierarchies, hub labels, potentials)
+ * happens during setup, so it is not part of the numbers. Run with {@code -prof gc} for the
+ * allocation rate per query. The defaults cover every implementation from 1k to 10M nodes, which
+ * takes days; pick a slice with {@code -p}, and give the 1M and 10M runs a larger heap with
+ * {@code -jvmArgsAppend "-Xms24g -Xmx24g"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class QueryBenchmark {
+    private static final int PAIRS = 1024;
+
+    @Param({"GRID", "RANDOM_GEOMETRIC", "SCALE_FREE", "ROAD_LIKE"})
+    public GraphShape shape;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int nodes;
+
+    @Param({"DIJKSTRA", "BIDIRECTIONAL_DIJKSTRA", "A_STAR", "A_STAR_LANDMARKS", "BIDIRECTIONAL_A_STAR",
+            "BELLMAN_FORD", "JOHNSON", "CONTRACTION_HIERARCHIES", "HUB_LABELING", "DELTA_STEPPING"})
+    public Algorithm algorithm;
+
+    private IAlgoShortestPath algo;
+    private String[] starts;
+    private String[] ends;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CsrGraph graph = shape.generate(nodes, GraphShape.SEED);
+        algo = algorithm.load(graph);
+        // Same query pairs for every algorithm on the same graph
+        SplittableRandom random = new SplittableRandom(GraphShape.SEED);
+        starts = new String[PAIRS];
+        ends = new String[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            starts[i] = graph.nameOf(random.nextInt(graph.nodeCount()));
+            ends[i] = graph.nameOf(random.nextInt(graph.nodeCount()));
+        }
+        algo.findShortestPath(starts[0], ends[0]); // builds any preprocessing
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public PathResult query(Cursor cursor) {
+        int i = cursor.next++ & (PAIRS - 1);
+        return algo.findShortestPath(starts[i], ends[i]);
+    }
+
+    // Same pairs without building a path, which hub labels and hierarchies answer from their tables alone
+    @Benchmark
+    public double distance(Cursor cursor) {
+        int i = cursor.next++ & (PAIRS - 1);
+        return algo.findShortestDistance(starts[i], ends[i]);
+    }
+}
@@ -0,0 +1,60 @@
+package com.om.algorithm.benchmark;
+
+import com.om.algorithm.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full single-source computations: sequential Dijkstra against delta-stepping on pools of
+ * growing size. Pass {@code -p threads=1,8,64} to match the machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class SingleSourceBenchmark {
+
+    @Param({"ROAD_LIKE", "RANDOM_GEOMETRIC"})
+    public GraphShape shape;
+
+    @Param({"2000000"})
+    public int nodes;
+
+    @Param({"1", "4", "16"})
+    public int threads;
+
+    private ForkJoinPool pool;
+    private DijkstraAlgoShortestPathImpl dijkstra;
+    private DeltaSteppingAlgoShortestPathImpl deltaStepping;
+    private String source;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CsrGraph graph = shape.generate(nodes, GraphShape.SEED);
+        pool = new ForkJoinPool(threads);
+        dijkstra = new DijkstraAlgoShortestPathImpl();
+        dijkstra.importGraph(graph);
+        deltaStepping = new DeltaSteppingAlgoShortestPathImpl(pool);
+        deltaStepping.importGraph(graph);
+        source = graph.nameOf(nodes / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public SingleSourcePaths dijkstra() {
+        return dijkstra.computeShortestPaths(source);
+    }
+
+    @Benchmark
+    public SingleSourcePaths deltaStepping() {
+        return deltaStepping.computeShortestPaths(source);
+    }
+}
@@ -1,145 +1,242 @@
 package com.om.algorithm;
 
-import java.awt.geom.Point2D;
-import java.util.*;
+import java.nio.ByteBuffer;
+import java.util.Map;
 
-public class AStarAlgoShortestPathImpl implements IAlgoShortestPath {
+public class AStarAlgoShortestPathImpl extends AbstractAlgoShortestPath {
 
-    private final Map<String, List<Edge>> graph = new HashMap<>();
-    private final Map<String, Point2D> positions = new HashMap<>();
+    static final String ARTIFACT = "landmarks";
 
-    @Override
-    public void addNode(String nodeName, double x, double y) {
-        graph.putIfAbsent(nodeName, new ArrayList<>());
-        positions.putIfAbsent(nodeName, new Point2D.Double(x, y));
+    private final int heapArity;
+    private final int landmarkCount;
+    private final LandmarkIndex.Selection landmarkSelection;
+    private volatile LandmarkIndex landmarks; // built for the graph version it reports as base()
+    private volatile long loosenedAt; // last store version in which a distance may have become shorter
+
+    public AStarAlgoShortestPathImpl() {
+        this(IndexedDaryHeap.DEFAULT_ARITY);
     }
 
-    @Override
-    public void addEdge(String fromNode, String toNode, double weight) {
-        graph.putIfAbsent(fromNode, new ArrayList<>());
-        graph.putIfAbsent(toNode, new ArrayList<>());
-        graph.get(fromNode).add(new Edge(fromNode, toNode, weight));
-        graph.get(toNode).add(new Edge(toNode, fromNode, weight)); // Assuming undirected graph
+    // heapArity is the number of children per node in the open set
+    public AStarAlgoShortestPathImpl(int heapArity) {
+        this(heapArity, 0, LandmarkIndex.Selection.AVOID);
     }
 
-    @Override
-    public void removeNode(String nodeName) {
-        graph.remove(nodeName);
-        positions.remove(nodeName);
-        for (List<Edge> edges : graph.values()) {
-            edges.removeIf(edge -> edge.getToNode().equals(nodeName));
+    /**
+     * With landmarkCount > 0 the heuristic is the ALT lower bound from that many landmarks
+     * instead of the Euclidean distance between coordinates. The landmark tables are built on
+     * the first query and again after a change that can shorten a distance: an added edge, a
+     * lowered weight or an import. Removals, heavier weights and nodes without edges keep them.
+     */
+    public AStarAlgoShortestPathImpl(int heapArity, int landmarkCount, LandmarkIndex.Selection landmarkSelection) {
+        this(heapArity, landmarkCount, landmarkSelection, GraphStorage.HEAP);
+    }
+
+    // Landmark tables stay on the heap whatever the storage; an off-heap graph is searched in place to build them
+    public AStarAlgoShortestPathImpl(int heapArity, int landmarkCount, LandmarkIndex.Selection landmarkSelection,
+                                     GraphStorage storage) {
+        super(false, storage); // Assuming undirected graph
+        if (heapArity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2: " + heapArity);
         }
+        if (landmarkCount < 0) {
+            throw new IllegalArgumentException("Landmark count must not be negative: " + landmarkCount);
+        }
+        this.heapArity = heapArity;
+        this.landmarkCount = landmarkCount;
+        this.landmarkSelection = landmarkSelection;
     }
 
-    @Override
-    public void removeEdge(String fromNode, String toNode) {
-        List<Edge> edgesFrom = graph.get(fromNode);
-        if (edgesFrom != null) {
-            edgesFrom.removeIf(edge -> edge.getToNode().equals(toNode));
+    // Brings the landmark tables up to the current graph, searching from the landmarks again only if needed
+    public LandmarkIndex rebuild() {
+        if (landmarkCount == 0) {
+            throw new IllegalStateException("A* without landmarks has no tables to rebuild");
         }
-        List<Edge> edgesTo = graph.get(toNode);
-        if (edgesTo != null) {
-            edgesTo.removeIf(edge -> edge.getToNode().equals(fromNode));
+        return landmarksFor(currentView());
+    }
+
+    // True when the landmark tables are valid bounds for the current graph, or there are none
+    public boolean isUpToDate() {
+        if (landmarkCount == 0) {
+            return true;
         }
+        LandmarkIndex current = landmarks;
+        IGraphView view = currentView();
+        return current != null && (current.base() == view || keepsBounds(current.base(), view));
     }
 
     @Override
-    public PathResult findShortestPath(String startNode, String endNode) {
-        if(startNode == null || endNode == null || !graph.containsKey(startNode) || !graph.containsKey(endNode)) {
-            throw new IllegalArgumentException("Start or end node does not exist in the graph: " + startNode + " → " + endNode);
+    public void addEdge(String fromNode, String toNode, double weight) {
+        synchronized (graph) {
+            loosen();
+            super.addEdge(fromNode, toNode, weight);
         }
+    }
 
-        // Collect all nodes in the graph for initialization
-        Set<String> allNodes = new HashSet<>();
-        for (Map.Entry<String, List<Edge>> entry : graph.entrySet()) {
-            allNodes.add(entry.getKey());
-            for (Edge edge : entry.getValue()) {
-                allNodes.add(edge.getToNode());
+    @Override
+    public void updateEdgeWeight(String fromNode, String toNode, double weight) {
+        synchronized (graph) {
+            if (lowers(fromNode, toNode, weight)) {
+                loosen();
             }
+            super.updateEdgeWeight(fromNode, toNode, weight);
         }
-        // g(n): Cost from start to n
-        Map<String, Double> gScore = new HashMap<>();
-        // f(n): Estimated total cost from start to goal through n
-        Map<String, Double> fScore = new HashMap<>();
-        // For path reconstruction
-        Map<String, String> cameFrom = new HashMap<>(); // To reconstruct the path
+    }
 
-        // Initialize scores to infinity for all nodes
-        for(String node : allNodes) {
-            gScore.put(node, Double.POSITIVE_INFINITY);
-            fScore.put(node, Double.POSITIVE_INFINITY);
+    @Override
+    public void importGraph(IGraphView view) {
+        synchronized (graph) {
+            loosen();
+            super.importGraph(view);
         }
+    }
 
-        // Initialize start node with g=0 and f=heuristic estimate
-        gScore.put(startNode, 0.0);
-        fScore.put(startNode, heuristic(startNode, endNode));
+    @Override
+    public PathResult findShortestPath(String startNode, String endNode) {
+        IGraphView view = viewFor(startNode, endNode);
+        int end = view.indexOf(endNode);
+        SearchContext context = search(view, view.indexOf(startNode), end, true);
+        return context != null ? context.pathTo(view, end) : Paths.noPath(); // No path found
+    }
+
+    // Same search without parent links or a path
+    @Override
+    public double findShortestDistance(String startNode, String endNode) {
+        IGraphView view = viewFor(startNode, endNode);
+        int end = view.indexOf(endNode);
+        SearchContext context = search(view, view.indexOf(startNode), end, false);
+        return context != null ? context.distance(end) : Double.POSITIVE_INFINITY;
+    }
 
-        // Priority queue ordered by fScore (estimated total cost)
-        PriorityQueue<NodeEntry> openSet = new PriorityQueue<>(Comparator.comparingDouble(n -> n.fScore));
-        openSet.add(new NodeEntry(startNode, 0.0 , fScore.get(startNode)));
+    // Searches until end is settled and returns the context holding g(end), or null if end is unreachable
+    private SearchContext search(IGraphView view, int start, int end, boolean withParents) {
+        LandmarkIndex alt = landmarkCount > 0 ? landmarksFor(view) : null;
 
-        while(!openSet.isEmpty()) {
-            NodeEntry current = openSet.poll();
+        // g(n) and the parent links for path reconstruction live in the pooled context;
+        // nodes the search never reaches are implicitly at infinity
+        SearchContext context = SearchContext.forThread(view.nodeCount(), heapArity);
+        // Priority queue ordered by fScore (estimated total cost), one entry per node
+        IndexedDaryHeap openSet = context.heap();
+
+        // Initialize start node with g=0 and f=heuristic estimate
+        context.update(start, 0.0, -1);
+        openSet.push(start, heuristic(view, alt, start, end));
+
+        while (!openSet.isEmpty()) {
+            int u = openSet.poll();
 
             // Check if we reached the end node
-            if (current.name.equals(endNode)) {
-                return reconstructPath(cameFrom, endNode, gScore.get(endNode));
+            if (u == end) {
+                return context;
             }
 
             // Explore neighbors
-            for (Edge edge : graph.getOrDefault(current.name, new ArrayList<>())) {
-                String neighbor = edge.getToNode();
-                double tentativeG = gScore.get(current.name) + edge.getWeight(); // Cost from start to neighbor
+            double gU = context.distance(u);
+            context.counters().relaxed += view.degree(u);
+            for (int i = 0, degree = view.degree(u); i < degree; i++) {
+                int neighbor = view.target(u, i);
+                double tentativeG = gU + view.weight(u, i); // Cost from start to neighbor
 
                 // If we found a better path to neighbor
-                if (tentativeG < gScore.get(neighbor)) {
-                    cameFrom.put(neighbor, current.name);
-                    gScore.put(neighbor, tentativeG);
-                    // Update fScore with new g + heuristic
-                    fScore.put(neighbor, tentativeG + heuristic(neighbor, endNode));
-
-                    openSet.add(new NodeEntry(neighbor, tentativeG, fScore.get(neighbor)));
+                if (tentativeG < context.distance(neighbor)) {
+                    if (withParents) {
+                        context.update(neighbor, tentativeG, u);
+                    } else {
+                        context.updateDistance(neighbor, tentativeG);
+                    }
+                    // fScore is the new g + heuristic; a settled neighbor is only reopened
+                    // when the heuristic is inconsistent
+                    double fScore = tentativeG + heuristic(view, alt, neighbor, end);
+                    if (fScore != Double.POSITIVE_INFINITY) { // infinite means the goal is unreachable from neighbor
+                        openSet.push(neighbor, fScore);
+                    }
                 }
             }
         }
-        return new PathResult(Collections.emptyList(), Double.POSITIVE_INFINITY); // No path found
-
+        return null;
     }
 
-    private PathResult reconstructPath(Map<String, String> cameFrom, String end, double totalDist) {
-        List<String> path = new ArrayList<>();
-        String current = end;
+    @Override
+    protected Map<String, ByteBuffer> artifactsFor(IGraphView view) {
+        return landmarkCount > 0 ? Map.of(ARTIFACT, landmarksFor(view).toArtifact()) : Map.of();
+    }
 
-        while (current != null) {
-            path.add(current);
-            current = cameFrom.get(current);
+    @Override
+    protected void loadArtifacts(MappedGraph mapped) {
+        ByteBuffer data = mapped.artifact(ARTIFACT);
+        if (landmarkCount > 0 && data != null) {
+            landmarks = LandmarkIndex.fromArtifact(mapped, data);
         }
+    }
 
-        Collections.reverse(path);
-        return new PathResult(path, totalDist);
+    // Landmark tables for this graph version: the current ones if they still bound it, else new ones
+    private LandmarkIndex landmarksFor(IGraphView view) {
+        LandmarkIndex current = landmarks;
+        if (current != null && current.base() == view) {
+            return current;
+        }
+        if (current != null && keepsBounds(current.base(), view)) {
+            current = current.rebase(view); // no search, so no lock either
+            landmarks = current;
+            return current;
+        }
+        return buildFor(view);
     }
 
-    // Heuristic function to estimate the distance from a node to the goal
-    private double heuristic(String from, String to){
-        Point2D p1 = positions.get(from);
-        Point2D p2 = positions.get(to);
-        if(p1 == null || p2 == null) {
-            return Double.MAX_VALUE; // or some large value
+    private synchronized LandmarkIndex buildFor(IGraphView view) {
+        LandmarkIndex current = landmarks;
+        if (current == null || current.base() != view) {
+            current = LandmarkIndex.build(view, !isDirected(), landmarkCount, landmarkSelection);
+            landmarks = current;
         }
-        return p1.distance(p2); // Euclidean distance
+        return current;
     }
 
-    private static class NodeEntry {
-        String name;
-        double gScore; // Cost from start to this node
-        double fScore; // Estimated cost from start to goal through this node
+    // Whether tables built on base bound distances in view: both are store versions, and none in between shortened a distance
+    private boolean keepsBounds(IGraphView base, IGraphView view) {
+        long built = versionOf(base);
+        return built != -1 && versionOf(view) >= built && loosenedAt <= built;
+    }
 
-        NodeEntry(String name, double gScore, double fScore) {
-            this.name = name;
-            this.gScore = gScore;
-            this.fScore = fScore;
+    // Records that the next published version may shorten a distance; caller holds the store lock
+    private void loosen() {
+        if (landmarkCount > 0) {
+            loosenedAt = graph.snapshot().version() + 1;
         }
     }
-}
 
+    // Whether the new weight is below the lightest fromNode -> toNode edge; caller holds the store lock
+    private boolean lowers(String fromNode, String toNode, double weight) {
+        int from = graph.indexOf(fromNode);
+        int to = graph.indexOf(toNode);
+        GraphSnapshot.NodeRecord record = from == -1 ? null : graph.draft().get(from);
+        double lightest = Double.NaN;
+        for (int i = 0, degree = record == null ? 0 : record.degree; i < degree; i++) {
+            if (record.targets[i] == to && !(record.weights[i] >= lightest)) {
+                lightest = record.weights[i];
+            }
+        }
+        return weight < lightest; // false without such an edge
+    }
+
+    // Store version a view belongs to, or -1 for an attached graph
+    private static long versionOf(IGraphView view) {
+        if (view instanceof GraphSnapshot) {
+            return ((GraphSnapshot) view).version();
+        }
+        return view instanceof CsrGraph ? ((CsrGraph) view).version() : -1;
+    }
 
+    // Heuristic function to estimate the distance from a node to the goal
+    private static double heuristic(IGraphView view, LandmarkIndex alt, int from, int to) {
+        if (alt != null) {
+            return alt.lowerBound(from, to); // ALT triangle inequality bound
+        }
+        double x1 = view.x(from);
+        double x2 = view.x(to);
+        if (Double.isNaN(x1) || Double.isNaN(x2)) {
+            return 0.0; // no estimate without coordinates, zero keeps the heuristic admissible
+        }
+        return Math.hypot(x1 - x2, view.y(from) - view.y(to)); // Euclidean distance
+    }
+}
@@ -0,0 +1,400 @@
+package com.om.algorithm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Base class for implementations backed by a {@link GraphStore}. It owns the mutation side of
+ * {@link IAlgoShortestPath}; subclasses only implement the search over a graph view.
+ * Queries never lock: each one runs against the immutable {@link GraphSnapshot} current when it
+ * started, so mutations from other threads are safe at any time.
+ */
+public abstract class AbstractAlgoShortestPath implements IAlgoShortestPath {
+
+    protected final GraphStore graph = new GraphStore();
+    private final boolean directed;
+    private final GraphStorage storage;
+    private volatile boolean snapshotMode;
+    private volatile MappedGraph attached; // searched instead of the empty store until the first mutation, or for good off heap
+    private final NodeLocator locator = new NodeLocator();
+    private final List<ShortestPathTree> trees = new CopyOnWriteArrayList<>();
+
+    protected AbstractAlgoShortestPath(boolean directed) {
+        this(directed, GraphStorage.HEAP);
+    }
+
+    protected AbstractAlgoShortestPath(boolean directed, GraphStorage storage) {
+        this.directed = directed;
+        this.storage = Objects.requireNonNull(storage, "storage");
+    }
+
+    @Override
+    public void addNode(String nodeName, double x, double y) {
+        synchronized (graph) {
+            detach();
+            boolean located = graph.hasCoordinates(nodeName);
+            int id = graph.addNode(nodeName, x, y);
+            if (!located && !Double.isNaN(x) && !Double.isNaN(y)) {
+                locator.added(id);
+            }
+            repairTrees(new int[]{id}, 1, null, 0); // may bring back a tree's source
+        }
+    }
+
+    @Override
+    public void addEdge(String fromNode, String toNode, double weight) {
+        synchronized (graph) { // both directions land in the same version
+            detach();
+            checkTreeWeight(weight);
+            graph.addEdge(fromNode, toNode, weight);
+            if (!directed) {
+                graph.addEdge(toNode, fromNode, weight);
+            }
+            repairTrees(fromNode, toNode);
+        }
+    }
+
+    @Override
+    public void removeNode(String nodeName) {
+        synchronized (graph) {
+            detach();
+            int id = graph.indexOf(nodeName);
+            int[] heads = trees.isEmpty() || id == -1 ? null : targetsOf(new int[]{id}, 1);
+            if (graph.removeNode(nodeName)) {
+                locator.removed(1);
+                if (heads != null) {
+                    repairTrees(heads, heads.length, new int[]{id}, 1);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void removeEdge(String fromNode, String toNode) {
+        synchronized (graph) {
+            detach();
+            graph.removeEdge(fromNode, toNode);
+            if (!directed) {
+                graph.removeEdge(toNode, fromNode);
+            }
+            repairTrees(fromNode, toNode);
+        }
+    }
+
+    @Override
+    public void removeNodes(Collection<String> nodeNames) {
+        synchronized (graph) {
+            detach();
+            int[] removed = new int[nodeNames.size()];
+            int removedCount = 0;
+            for (String nodeName : nodeNames) {
+                int id = graph.indexOf(nodeName);
+                if (id != -1) {
+                    removed[removedCount++] = id;
+                }
+            }
+            int[] heads = trees.isEmpty() ? null : targetsOf(removed, removedCount);
+            locator.removed(graph.removeNodes(nodeNames));
+            if (heads != null) {
+                repairTrees(heads, heads.length, removed, removedCount);
+            }
+        }
+    }
+
+    @Override
+    public void removeEdges(Collection<Edge> edges) {
+        synchronized (graph) {
+            detach();
+            graph.removeEdges(edges, !directed);
+            if (!trees.isEmpty()) {
+                int[] heads = new int[2 * edges.size()];
+                int headCount = 0;
+                for (Edge edge : edges) {
+                    headCount = addHead(heads, headCount, graph.indexOf(edge.getFromNode()));
+                    headCount = addHead(heads, headCount, graph.indexOf(edge.getToNode()));
+                }
+                repairTrees(heads, headCount, null, 0);
+            }
+        }
+    }
+
+    // As the interface describes; maintained ShortestPathTrees only redo the part the change affects
+    @Override
+    public void updateEdgeWeight(String fromNode, String toNode, double weight) {
+        synchronized (graph) {
+            detach();
+            checkTreeWeight(weight);
+            if (graph.updateEdgeWeight(fromNode, toNode, weight) == 0) {
+                throw new IllegalArgumentException("Edge does not exist in the graph: " + fromNode + " → " + toNode);
+            }
+            if (!directed) {
+                graph.updateEdgeWeight(toNode, fromNode, weight);
+            }
+            repairTrees(fromNode, toNode);
+        }
+    }
+
+    /**
+     * Starts maintaining the shortest-path tree from the source. The tree stays current with
+     * every later mutation of this instance until it is closed. All weights must be
+     * non-negative while any tree is maintained.
+     */
+    public ShortestPathTree maintainShortestPathTree(String sourceNode) {
+        synchronized (graph) {
+            detach();
+            if (!graph.contains(sourceNode)) {
+                throw new IllegalArgumentException("Node does not exist in the graph: " + sourceNode);
+            }
+            GraphSnapshot.Builder draft = graph.draft();
+            for (int u = 0; u < draft.idLimit(); u++) {
+                GraphSnapshot.NodeRecord record = draft.get(u);
+                for (int i = 0, degree = record == null ? 0 : record.degree; i < degree; i++) {
+                    if (record.weights[i] < 0) {
+                        throw new IllegalArgumentException("Shortest-path trees need non-negative weights: "
+                                + record.name + " → " + draft.get(record.targets[i]).name + " has " + record.weights[i]);
+                    }
+                }
+            }
+            ShortestPathTree tree = new ShortestPathTree(this, graph, sourceNode);
+            trees.add(tree);
+            return tree;
+        }
+    }
+
+    void release(ShortestPathTree tree) {
+        trees.remove(tree);
+    }
+
+    /**
+     * Adds all nodes and edges of a graph in one step, as the equivalent addNode and addEdge
+     * calls would, but with adjacency arrays allocated once at their final size. Meant for
+     * graphs produced by {@link GraphLoader}. With {@link GraphStorage#OFF_HEAP} storage the import
+     * into the empty instance is served from direct buffers instead, as if attached, and is the
+     * only change the instance accepts.
+     */
+    public void importGraph(IGraphView view) {
+        synchronized (graph) {
+            if (storage == GraphStorage.OFF_HEAP && attached == null && graph.nodeCount() == 0) {
+                attached = MappedGraph.copyOf(view, !directed);
+                locator.reset();
+                return;
+            }
+            detach();
+            if (!trees.isEmpty()) {
+                for (int u = 0; u < view.nodeCount(); u++) {
+                    for (int i = 0, degree = view.nameOf(u) == null ? 0 : view.degree(u); i < degree; i++) {
+                        checkTreeWeight(view.weight(u, i));
+                    }
+                }
+            }
+            graph.importGraph(view, !directed);
+            locator.reset();
+            for (ShortestPathTree tree : trees) {
+                tree.recompute();
+            }
+        }
+    }
+
+    /**
+     * Up to k nodes closest to (x, y) by straight-line distance, closest first. Only nodes added
+     * with coordinates take part. Lookups go through a k-d tree over the node coordinates that
+     * follows node additions and removals.
+     */
+    public List<String> findNearestNodes(double x, double y, int k) {
+        return locator.nearest(currentView(), x, y, k);
+    }
+
+    // Nodes whose coordinates lie inside the box, borders included, in no particular order
+    public List<String> findNodesWithin(double minX, double minY, double maxX, double maxY) {
+        if (minX > maxX || minY > maxY) {
+            throw new IllegalArgumentException("Empty box: (" + minX + ", " + minY + ") to (" + maxX + ", " + maxY + ")");
+        }
+        return locator.within(currentView(), minX, minY, maxX, maxY);
+    }
+
+    // Snaps both points to their nearest node and finds the shortest path between those nodes
+    public PathResult findShortestPath(double fromX, double fromY, double toX, double toY) {
+        IGraphView view = currentView();
+        List<String> from = locator.nearest(view, fromX, fromY, 1);
+        List<String> to = locator.nearest(view, toX, toY, 1);
+        if (from.isEmpty() || to.isEmpty()) {
+            throw new IllegalArgumentException("The graph has no nodes with coordinates");
+        }
+        return findShortestPath(from.get(0), to.get(0));
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    public GraphStorage getStorage() {
+        return storage;
+    }
+
+    /**
+     * In snapshot mode mutations stay invisible to queries until {@link #publish()}, and queries
+     * search the published snapshot directly instead of a CSR copy of it, so publishing costs
+     * memory and time proportional to the change rather than to the graph. Turning the mode
+     * off publishes pending changes with the next query.
+     */
+    public void setSnapshotMode(boolean snapshotMode) {
+        this.snapshotMode = snapshotMode;
+        graph.setAutoPublish(!snapshotMode);
+    }
+
+    public boolean isSnapshotMode() {
+        return snapshotMode;
+    }
+
+    // Atomically makes all mutations so far visible to queries that start afterwards
+    public GraphSnapshot publish() {
+        return graph.publish();
+    }
+
+    // The in-memory graph version the next query will run against unless a graph file is attached
+    public GraphSnapshot snapshot() {
+        return graph.snapshot();
+    }
+
+    /**
+     * Writes the current graph version in the {@link MappedGraph} file format, together with the
+     * preprocessing this implementation keeps for it, so a later {@link #attach} skips both
+     * loading and preprocessing.
+     */
+    public void save(Path file) throws IOException {
+        IGraphView view = currentView();
+        MappedGraph.write(file, view, artifactsFor(view));
+    }
+
+    /**
+     * Serves queries straight from a memory-mapped graph file. Only allowed while this instance
+     * has no nodes. The first mutation afterwards copies the mapped graph into the in-memory
+     * store, and queries move over to it.
+     */
+    public void attach(MappedGraph mapped) {
+        synchronized (graph) {
+            if (attached != null || graph.nodeCount() > 0) {
+                throw new IllegalStateException("Can only attach a graph file to an empty graph");
+            }
+            loadArtifacts(mapped);
+            attached = mapped;
+        }
+    }
+
+    // The mapped or off-heap graph queries currently run on, or null when they run on the in-memory store
+    public MappedGraph attached() {
+        return attached;
+    }
+
+    // Preprocessing results for the view, keyed by artifact name; none by default
+    protected Map<String, ByteBuffer> artifactsFor(IGraphView view) {
+        return Map.of();
+    }
+
+    // Picks up preprocessing results stored in a file being attached
+    protected void loadArtifacts(MappedGraph mapped) {
+    }
+
+    // The store behind this implementation, for components that work on the same graph
+    GraphStore graph() {
+        return graph;
+    }
+
+    // Whether the node exists in the graph queries run on
+    boolean hasNode(String nodeName) {
+        MappedGraph mapped = attached;
+        return mapped != null ? mapped.indexOf(nodeName) != -1 : graph.contains(nodeName);
+    }
+
+    // Current version as searched by queries: the snapshot itself in snapshot mode, its CSR copy otherwise
+    protected IGraphView currentView() {
+        MappedGraph mapped = attached;
+        if (mapped != null) {
+            return mapped;
+        }
+        GraphSnapshot snapshot = graph.snapshot();
+        return snapshotMode ? snapshot : snapshot.compact();
+    }
+
+    // View of one graph version after checking that both query endpoints exist in it
+    protected IGraphView viewFor(String startNode, String endNode) {
+        IGraphView view = currentView();
+        checkEndpoints(view, startNode, endNode);
+        return view;
+    }
+
+    // Moves an attached graph into the store ahead of a mutation; caller holds the store lock
+    private void detach() {
+        if (storage == GraphStorage.OFF_HEAP) {
+            throw new IllegalStateException("Graphs kept off heap are read-only: import the changed graph into a new instance");
+        }
+        MappedGraph mapped = attached;
+        if (mapped != null) {
+            graph.importGraph(mapped);
+            graph.publish(); // queries switch over to a version equal to the file
+            attached = null;
+            locator.reset(); // the store may number the nodes differently
+            for (ShortestPathTree tree : trees) {
+                tree.recompute();
+            }
+        }
+    }
+
+    private void checkTreeWeight(double weight) {
+        if (weight < 0 && !trees.isEmpty()) {
+            throw new IllegalArgumentException("Shortest-path trees need non-negative weights: " + weight);
+        }
+    }
+
+    // Targets of the nodes' outgoing edges, read before the nodes are removed
+    private int[] targetsOf(int[] ids, int count) {
+        GraphSnapshot.Builder draft = graph.draft();
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            total += draft.get(ids[i]).degree;
+        }
+        int[] targets = new int[total];
+        int next = 0;
+        for (int i = 0; i < count; i++) {
+            GraphSnapshot.NodeRecord record = draft.get(ids[i]);
+            System.arraycopy(record.targets, 0, targets, next, record.degree);
+            next += record.degree;
+        }
+        return targets;
+    }
+
+    private void repairTrees(String fromNode, String toNode) {
+        if (!trees.isEmpty()) {
+            int[] heads = new int[2];
+            int headCount = addHead(heads, 0, graph.indexOf(fromNode));
+            headCount = addHead(heads, headCount, graph.indexOf(toNode));
+            repairTrees(heads, headCount, null, 0);
+        }
+    }
+
+    // Caller holds the store lock
+    private void repairTrees(int[] heads, int headCount, int[] removed, int removedCount) {
+        for (ShortestPathTree tree : trees) {
+            tree.repair(heads, headCount, removed, removedCount);
+        }
+    }
+
+    private static int addHead(int[] heads, int headCount, int id) {
+        if (id != -1) {
+            heads[headCount++] = id;
+        }
+        return headCount;
+    }
+
+    private static void checkEndpoints(IGraphView view, String startNode, String endNode) {
+        if (startNode == null || endNode == null || view.indexOf(startNode) == -1 || view.indexOf(endNode) == -1) {
+            throw new IllegalArgumentException("Start or end node does not exist in the graph: " + startNode + " → " + endNode);
+        }
+    }
+}
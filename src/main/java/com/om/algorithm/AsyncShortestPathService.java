@@ -0,0 +1,236 @@
+package com.om.algorithm;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Non-blocking front for the queries of an {@link IAlgoShortestPath}. By default the searches run
+ * on maxConcurrency long-lived worker threads, so each worker keeps reusing its pooled search
+ * state instead of allocating graph-sized arrays per query, and at most maxQueued more units of
+ * work may wait for a turn; past that, new requests fail at once with a
+ * {@link RejectedExecutionException} instead of queueing without bound.
+ *
+ * <p>A request for a (start, end) pair that is already pending gets the pending future. A request
+ * from a start that has a batch still waiting for its turn joins that batch, and the batch is
+ * answered by one {@link IAlgoShortestPath#findShortestPaths} call, which implementations such as
+ * {@link DijkstraAlgoShortestPathImpl} serve with a single search tree. Under load, queries from a
+ * popular start therefore merge on their own; when idle, a batch starts at once and adds no delay.
+ */
+public final class AsyncShortestPathService implements AutoCloseable {
+    private final IAlgoShortestPath algo;
+    private final ExecutorService executor;
+    private final Semaphore running;
+    private final int maxAdmitted;
+    private final Map<RouteKey, CompletableFuture<PathResult>> pending = new ConcurrentHashMap<>();
+    // Guarded by itself; batches not yet running, by start node
+    private final Map<String, Batch> waiting = new HashMap<>();
+    private int admitted; // guarded by waiting: batches running or waiting
+    private boolean closed; // guarded by waiting
+
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder batched = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public AsyncShortestPathService(IAlgoShortestPath algo, int maxConcurrency, int maxQueued) {
+        this(algo, maxConcurrency, maxQueued, newWorkerPool(maxConcurrency));
+    }
+
+    /**
+     * Runs the queries on the given executor, which close() shuts down. Searches keep their state
+     * per thread, so an executor that starts a thread per task, such as a virtual thread per task
+     * executor, allocates that state anew for every query.
+     */
+    public AsyncShortestPathService(IAlgoShortestPath algo, int maxConcurrency, int maxQueued, ExecutorService executor) {
+        if (maxConcurrency < 1 || maxQueued < 0) {
+            throw new IllegalArgumentException("Need at least one running query and no negative queue: "
+                    + maxConcurrency + ", " + maxQueued);
+        }
+        this.algo = Objects.requireNonNull(algo, "algo");
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.running = new Semaphore(maxConcurrency);
+        this.maxAdmitted = maxConcurrency + maxQueued;
+    }
+
+    /**
+     * Future for the shortest path, completed on a worker thread. It fails with the exception
+     * the query throws, e.g. IllegalArgumentException for unknown nodes, or with
+     * RejectedExecutionException when the service is saturated or closed.
+     */
+    public CompletableFuture<PathResult> findShortestPath(String startNode, String endNode) {
+        RouteKey key = new RouteKey(startNode, endNode);
+        CompletableFuture<PathResult> existing = pending.get(key);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+        Batch batch;
+        CompletableFuture<PathResult> future;
+        synchronized (waiting) {
+            existing = pending.get(key); // may have been added since the lock-free check
+            if (existing != null) {
+                coalesced.increment();
+                return existing;
+            }
+            future = new CompletableFuture<>();
+            batch = waiting.get(startNode);
+            if (batch != null) {
+                batch.ends.put(endNode, future);
+                pending.put(key, future);
+                batched.increment();
+                return future;
+            }
+            if (closed || admitted >= maxAdmitted) {
+                rejected.increment();
+                future.completeExceptionally(new RejectedExecutionException(closed
+                        ? "Service is closed" : "Too many queries in flight: " + admitted));
+                return future;
+            }
+            admitted++;
+            batch = new Batch(startNode);
+            batch.ends.put(endNode, future);
+            pending.put(key, future);
+            waiting.put(startNode, batch);
+        }
+        Batch submitted = batch;
+        try {
+            executor.execute(() -> run(submitted));
+        } catch (RejectedExecutionException e) {
+            synchronized (waiting) {
+                waiting.remove(startNode, submitted);
+                admitted--;
+            }
+            rejected.increment();
+            fail(submitted, submitted.ends, e);
+        }
+        return future;
+    }
+
+    // Requests answered by a pending future for the same pair
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    // Requests that joined a waiting batch from the same start
+    public long getBatchedCount() {
+        return batched.sum();
+    }
+
+    // Requests turned away because the service was saturated or closed
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public IAlgoShortestPath getDelegate() {
+        return algo;
+    }
+
+    // Rejects new requests; those already admitted still complete
+    @Override
+    public void close() {
+        synchronized (waiting) {
+            closed = true;
+        }
+        executor.shutdown();
+    }
+
+    private void run(Batch batch) {
+        boolean acquired = false;
+        try {
+            running.acquire();
+            acquired = true;
+            Map<String, CompletableFuture<PathResult>> ends;
+            synchronized (waiting) {
+                waiting.remove(batch.start, batch); // later requests from this start open a new batch
+                ends = new LinkedHashMap<>(batch.ends);
+            }
+            answer(batch, ends);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            synchronized (waiting) {
+                waiting.remove(batch.start, batch);
+            }
+            fail(batch, batch.ends, new RejectedExecutionException("Interrupted while waiting to run", e));
+        } finally {
+            if (acquired) {
+                running.release();
+            }
+            synchronized (waiting) {
+                admitted--;
+            }
+        }
+    }
+
+    private void answer(Batch batch, Map<String, CompletableFuture<PathResult>> ends) {
+        List<String> endNodes = new ArrayList<>(ends.keySet());
+        try {
+            List<PathResult> results = endNodes.size() == 1
+                    ? List.of(algo.findShortestPath(batch.start, endNodes.get(0)))
+                    : algo.findShortestPaths(batch.start, endNodes);
+            for (int i = 0; i < endNodes.size(); i++) {
+                complete(batch.start, endNodes.get(i), ends.get(endNodes.get(i)), results.get(i), null);
+            }
+        } catch (RuntimeException | Error e) {
+            if (endNodes.size() == 1) {
+                complete(batch.start, endNodes.get(0), ends.get(endNodes.get(0)), null, e);
+                return;
+            }
+            // One bad end node must not fail the others, so answer them one by one
+            for (String endNode : endNodes) {
+                try {
+                    complete(batch.start, endNode, ends.get(endNode), algo.findShortestPath(batch.start, endNode), null);
+                } catch (RuntimeException | Error single) {
+                    complete(batch.start, endNode, ends.get(endNode), null, single);
+                }
+            }
+        }
+    }
+
+    private void fail(Batch batch, Map<String, CompletableFuture<PathResult>> ends, Throwable failure) {
+        for (Map.Entry<String, CompletableFuture<PathResult>> entry : ends.entrySet()) {
+            complete(batch.start, entry.getKey(), entry.getValue(), null, failure);
+        }
+    }
+
+    // Unregisters the pair before completing, so requests from then on start a fresh computation
+    private void complete(String start, String end, CompletableFuture<PathResult> future, PathResult result, Throwable failure) {
+        pending.remove(new RouteKey(start, end), future);
+        if (failure != null) {
+            future.completeExceptionally(failure);
+        } else {
+            future.complete(result);
+        }
+    }
+
+    // Fixed daemon workers; a task waits in the executor's queue, which admission keeps bounded
+    private static ExecutorService newWorkerPool(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Need at least one running query: " + maxConcurrency);
+        }
+        return Executors.newFixedThreadPool(maxConcurrency, task -> {
+            Thread thread = new Thread(task, "shortest-path-query");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Queries from one start waiting for a turn; ends is guarded by the service's waiting lock
+    private static final class Batch {
+        final String start;
+        final Map<String, CompletableFuture<PathResult>> ends = new LinkedHashMap<>();
+
+        Batch(String start) {
+            this.start = start;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.om.algorithm;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Single-source (or multi-source) shortest paths with negative edge weights. Sources start at
+ * distance zero; nodes no source reaches stay at infinity. Every kernel throws
+ * {@link NegativeCycleException} naming the cycle when one is reachable from a source.
+ */
+final class BellmanFordSearch {
+    // Nodes per task in the parallel rounds
+    private static final int PARALLEL_GRAIN = 2048;
+
+    private final IGraphView view;
+    private final double[] distances;
+    private final int[] parents;
+
+    private BellmanFordSearch(IGraphView view) {
+        this.view = view;
+        int n = view.nodeCount();
+        this.distances = new double[n];
+        this.parents = new int[n];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(parents, -1);
+    }
+
+    double distance(int node) {
+        return distances[node];
+    }
+
+    // Distances of every node, indexed by id; must not be modified
+    double[] distances() {
+        return distances;
+    }
+
+    PathResult pathTo(int end) {
+        if (distances[end] == Double.POSITIVE_INFINITY) {
+            return Paths.noPath();
+        }
+        return Paths.fromParents(view, parents, end, distances[end]);
+    }
+
+    /**
+     * Classic rounds over every reached node, stopping after the first round that changes
+     * nothing. A round that still improves something after |V| - 1 rounds proves a cycle.
+     */
+    static BellmanFordSearch passes(IGraphView view, int... sources) {
+        BellmanFordSearch search = new BellmanFordSearch(view);
+        search.start(sources);
+        int n = view.nodeCount();
+        double[] dist = search.distances;
+        SearchCounters counters = SearchCounters.forThread();
+        for (int pass = 1; pass <= n; pass++) {
+            int lastChanged = -1;
+            for (int u = 0; u < n; u++) {
+                double distU = dist[u];
+                if (distU == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                counters.settled++;
+                counters.relaxed += view.degree(u);
+                for (int i = 0, degree = view.degree(u); i < degree; i++) {
+                    int v = view.target(u, i);
+                    double newDist = distU + view.weight(u, i);
+                    if (newDist < dist[v]) {
+                        dist[v] = newDist;
+                        search.parents[v] = u;
+                        lastChanged = v;
+                    }
+                }
+            }
+            if (lastChanged == -1) {
+                return search; // nothing left to improve
+            }
+            if (pass == n) {
+                // v was improved in round |V|, so walking |V| parents back from it lands on the cycle
+                int node = lastChanged;
+                for (int i = 0; i < n; i++) {
+                    node = search.parents[node];
+                }
+                throw search.cycleThrough(node);
+            }
+        }
+        return search;
+    }
+
+    /**
+     * Queue-based Bellman-Ford (SPFA): only nodes whose distance dropped are scanned again.
+     * Each node tracks the number of edges on its current tentative path; a path of |V| edges
+     * must repeat a node, and with strict improvements the repeated part is a negative cycle,
+     * which is then looked up in the parent links.
+     */
+    static BellmanFordSearch queue(IGraphView view, int... sources) {
+        BellmanFordSearch search = new BellmanFordSearch(view);
+        search.start(sources);
+        int n = view.nodeCount();
+        double[] dist = search.distances;
+        int[] parents = search.parents;
+        int[] length = new int[n]; // edges on the tentative path
+        boolean[] queued = new boolean[n];
+        int[] ring = new int[Math.max(1, n)]; // FIFO; every node is queued at most once at a time
+        int head = 0;
+        int size = 0;
+        SearchCounters counters = SearchCounters.forThread();
+        for (int source : sources) {
+            if (!queued[source]) {
+                queued[source] = true;
+                ring[(head + size++) % ring.length] = source;
+                counters.pushes++;
+            }
+        }
+        long relaxations = 0;
+        long lastCycleScan = Long.MIN_VALUE / 2;
+        while (size > 0) {
+            int u = ring[head];
+            head = (head + 1) % ring.length;
+            size--;
+            queued[u] = false;
+            counters.pops++;
+            counters.settled++;
+            counters.relaxed += view.degree(u);
+            double distU = dist[u];
+            for (int i = 0, degree = view.degree(u); i < degree; i++) {
+                int v = view.target(u, i);
+                double newDist = distU + view.weight(u, i);
+                if (newDist < dist[v]) {
+                    dist[v] = newDist;
+                    parents[v] = u;
+                    length[v] = length[u] + 1;
+                    relaxations++;
+                    // Scanning the parent links costs O(V), so do it at most once every V relaxations
+                    if (length[v] >= n && relaxations - lastCycleScan >= n) {
+                        lastCycleScan = relaxations;
+                        int onCycle = search.findParentCycle();
+                        if (onCycle != -1) {
+                            throw search.cycleThrough(onCycle);
+                        }
+                    }
+                    if (!queued[v]) {
+                        queued[v] = true;
+                        ring[(head + size++) % ring.length] = v;
+                        counters.pushes++;
+                    }
+                }
+            }
+        }
+        return search;
+    }
+
+    /**
+     * Synchronous rounds split across the pool: in each round every node pulls the best offer
+     * over its incoming edges from nodes that changed in the previous round, so tasks write
+     * disjoint entries and need no locking. A negative cycle is reported through {@link #queue}.
+     */
+    static BellmanFordSearch parallel(CsrGraph view, ForkJoinPool pool, int... sources) {
+        BellmanFordSearch search = new BellmanFordSearch(view);
+        search.start(sources);
+        int n = view.nodeCount();
+        CsrGraph incoming = view.reverse();
+        double[] current = search.distances;
+        double[] next = current.clone();
+        boolean[] changed = new boolean[n];
+        boolean[] nextChanged = new boolean[n];
+        for (int source : sources) {
+            changed[source] = true;
+        }
+        SearchCounters counters = SearchCounters.forThread();
+        for (int round = 1; round <= n; round++) {
+            // Every round looks at each incoming edge of each node, on the pool's threads
+            counters.settled += n;
+            counters.relaxed += incoming.edgeCount();
+            RoundTask task = new RoundTask(incoming, current, next, changed, nextChanged, search.parents, 0, n);
+            if (!pool.invoke(task)) {
+                System.arraycopy(current, 0, search.distances, 0, n);
+                return search;
+            }
+            if (round == n) {
+                return queue(view, sources); // still improving after |V| - 1 rounds: find and report the cycle
+            }
+            double[] swapDist = current;
+            current = next;
+            next = swapDist;
+            boolean[] swapChanged = changed;
+            changed = nextChanged;
+            nextChanged = swapChanged;
+        }
+        System.arraycopy(current, 0, search.distances, 0, n);
+        return search;
+    }
+
+    private void start(int[] sources) {
+        for (int source : sources) {
+            distances[source] = 0.0;
+        }
+    }
+
+    // A node on a cycle of parent links, or -1; such a cycle always has negative weight
+    private int findParentCycle() {
+        int n = parents.length;
+        int[] walk = new int[n]; // 1 + id of the walk that first visited the node
+        for (int s = 0; s < n; s++) {
+            int node = s;
+            while (node != -1 && walk[node] == 0) {
+                walk[node] = s + 1;
+                node = parents[node];
+            }
+            if (node != -1 && walk[node] == s + 1) {
+                return node;
+            }
+        }
+        return -1;
+    }
+
+    private NegativeCycleException cycleThrough(int node) {
+        // Parent links point backward along the cycle
+        List<String> names = new ArrayList<>();
+        double weight = 0.0;
+        int current = node;
+        do {
+            int previous = parents[current];
+            names.add(view.nameOf(current));
+            weight += edgeWeight(previous, current);
+            current = previous;
+        } while (current != node);
+        names.add(view.nameOf(node));
+        Collections.reverse(names);
+        return new NegativeCycleException(names, weight);
+    }
+
+    // Lightest edge from -> to
+    private double edgeWeight(int from, int to) {
+        double best = Double.POSITIVE_INFINITY;
+        for (int i = 0, degree = view.degree(from); i < degree; i++) {
+            if (view.target(from, i) == to) {
+                best = Math.min(best, view.weight(from, i));
+            }
+        }
+        return best;
+    }
+
+    // One synchronous round over nodes [from, to); returns whether any distance improved
+    private static class RoundTask extends RecursiveTask<Boolean> {
+        private static final long serialVersionUID = 1L;
+
+        private final CsrGraph incoming;
+        private final double[] current;
+        private final double[] next;
+        private final boolean[] changed;
+        private final boolean[] nextChanged;
+        private final int[] parents;
+        private final int from;
+        private final int to;
+
+        RoundTask(CsrGraph incoming, double[] current, double[] next, boolean[] changed, boolean[] nextChanged,
+                  int[] parents, int from, int to) {
+            this.incoming = incoming;
+            this.current = current;
+            this.next = next;
+            this.changed = changed;
+            this.nextChanged = nextChanged;
+            this.parents = parents;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Boolean compute() {
+            if (to - from > PARALLEL_GRAIN) {
+                int middle = (from + to) >>> 1;
+                RoundTask left = new RoundTask(incoming, current, next, changed, nextChanged, parents, from, middle);
+                left.fork();
+                boolean right = new RoundTask(incoming, current, next, changed, nextChanged, parents, middle, to).compute();
+                return left.join() | right;
+            }
+            boolean any = false;
+            for (int v = from; v < to; v++) {
+                double best = current[v];
+                int parent = -1;
+                for (int i = 0, degree = incoming.degree(v); i < degree; i++) {
+                    int u = incoming.target(v, i);
+                    if (changed[u]) {
+                        double offer = current[u] + incoming.weight(v, i);
+                        if (offer < best) {
+                            best = offer;
+                            parent = u;
+                        }
+                    }
+                }
+                next[v] = best;
+                nextChanged[v] = parent != -1;
+                if (parent != -1) {
+                    parents[v] = parent;
+                    any = true;
+                }
+            }
+            return any;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.om.algorithm;
+
+/**
+ * Bidirectional A* over the addNode coordinates. Both searches share the average potential
+ * p(v) = (dist(v, end) - dist(v, start)) / 2, which keeps the meet-in-the-middle stopping rule
+ * of bidirectional Dijkstra valid. The Euclidean estimate is only used when every node has
+ * coordinates and no edge is shorter than the straight line between its endpoints; otherwise
+ * the search falls back to plain bidirectional Dijkstra, so results stay exact.
+ */
+public class BidirectionalAStarAlgoShortestPathImpl extends BidirectionalDijkstraAlgoShortestPathImpl {
+
+    private volatile Check check; // consistency of the Euclidean potential for the last graph version queried
+
+    // Result of the consistency scan for one graph version; replaced as a whole, never changed
+    private static final class Check {
+        final IGraphView view;
+        final boolean consistent;
+
+        Check(IGraphView view, boolean consistent) {
+            this.view = view;
+            this.consistent = consistent;
+        }
+    }
+
+    public BidirectionalAStarAlgoShortestPathImpl() {
+        super();
+    }
+
+    public BidirectionalAStarAlgoShortestPathImpl(int heapArity) {
+        super(heapArity);
+    }
+
+    public BidirectionalAStarAlgoShortestPathImpl(int heapArity, GraphStorage storage) {
+        super(heapArity, storage);
+    }
+
+    // Scans each new version once without a lock; racing queries may both scan it, with the same answer
+    @Override
+    protected boolean prepare(IGraphView view) {
+        Check current = check;
+        if (current == null || current.view != view) {
+            current = new Check(view, isEuclideanConsistent(view));
+            check = current;
+        }
+        return current.consistent;
+    }
+
+    @Override
+    protected double potential(IGraphView view, int node, int start, int end) {
+        return (distance(view, node, end) - distance(view, node, start)) / 2;
+    }
+
+    private static boolean isEuclideanConsistent(IGraphView view) {
+        for (int u = 0; u < view.nodeCount(); u++) {
+            if (view.nameOf(u) == null) {
+                continue; // removed node
+            }
+            if (Double.isNaN(view.x(u))) {
+                return false;
+            }
+            for (int i = 0, degree = view.degree(u); i < degree; i++) {
+                int v = view.target(u, i);
+                if (Double.isNaN(view.x(v)) || view.weight(u, i) < distance(view, u, v)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static double distance(IGraphView view, int from, int to) {
+        return Math.hypot(view.x(from) - view.x(to), view.y(from) - view.y(to)); // Euclidean distance
+    }
+}
@@ -0,0 +1,154 @@
+package com.om.algorithm;
+
+import java.util.*;
+
+/**
+ * Point-to-point Dijkstra that grows one search from the start and one from the end and stops
+ * when they meet. Both searches order their queues by distance plus a potential; subclasses can
+ * override {@link #potential} to turn this into bidirectional A*.
+ */
+public class BidirectionalDijkstraAlgoShortestPathImpl extends AbstractAlgoShortestPath {
+
+    private final int heapArity;
+
+    public BidirectionalDijkstraAlgoShortestPathImpl() {
+        this(IndexedDaryHeap.DEFAULT_ARITY);
+    }
+
+    public BidirectionalDijkstraAlgoShortestPathImpl(int heapArity) {
+        this(heapArity, GraphStorage.HEAP);
+    }
+
+    public BidirectionalDijkstraAlgoShortestPathImpl(int heapArity, GraphStorage storage) {
+        super(false, storage); // Assuming undirected graph
+        if (heapArity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2: " + heapArity);
+        }
+        this.heapArity = heapArity;
+    }
+
+    @Override
+    public PathResult findShortestPath(String startNode, String endNode) {
+        IGraphView view = viewFor(startNode, endNode);
+        int start = view.indexOf(startNode);
+        int end = view.indexOf(endNode);
+        if (start == end) {
+            return new PathResult(List.of(startNode), 0.0);
+        }
+        SearchContext forward = SearchContext.forThread(view.nodeCount(), heapArity);
+        SearchContext backward = SearchContext.backwardForThread(view.nodeCount(), heapArity);
+        int meeting = meet(view, start, end, forward, backward, true);
+        if (meeting == -1) {
+            return Paths.noPath();
+        }
+
+        // Forward half is collected back to front, the backward half front to back
+        int forwardLength = 0;
+        for (int node = meeting; node != -1; node = forward.parent(node)) {
+            forwardLength++;
+        }
+        int length = forwardLength;
+        for (int node = backward.parent(meeting); node != -1; node = backward.parent(node)) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int node = meeting, i = forwardLength - 1; node != -1; node = forward.parent(node)) {
+            path[i--] = node;
+        }
+        for (int node = backward.parent(meeting), i = forwardLength; node != -1; node = backward.parent(node)) {
+            path[i++] = node;
+        }
+        return new CompactPathResult(view, path, forward.distance(meeting) + backward.distance(meeting));
+    }
+
+    // Same search without parent links or a path
+    @Override
+    public double findShortestDistance(String startNode, String endNode) {
+        IGraphView view = viewFor(startNode, endNode);
+        int start = view.indexOf(startNode);
+        int end = view.indexOf(endNode);
+        if (start == end) {
+            return 0.0;
+        }
+        SearchContext forward = SearchContext.forThread(view.nodeCount(), heapArity);
+        SearchContext backward = SearchContext.backwardForThread(view.nodeCount(), heapArity);
+        int meeting = meet(view, start, end, forward, backward, false);
+        return meeting == -1 ? Double.POSITIVE_INFINITY : forward.distance(meeting) + backward.distance(meeting);
+    }
+
+    /**
+     * Runs both searches until no better path can appear and returns the node where the best
+     * one meets, or -1. Its length is the sum of the two distances of that node, since every
+     * later improvement of either distance also lowers the best path and moves the meeting there.
+     */
+    private int meet(IGraphView view, int start, int end, SearchContext forward, SearchContext backward,
+                     boolean withParents) {
+        // Every edge is stored both ways, so the backward search reads the same view in place,
+        // also when it is an off-heap or mapped graph
+        IGraphView backwardView = view;
+        boolean guided = prepare(view); // read once, so the whole query uses one potential
+        IndexedDaryHeap forwardQueue = forward.heap();
+        IndexedDaryHeap backwardQueue = backward.heap();
+
+        // Forward keys are d(start, v) + p(v), backward keys d(v, end) - p(v)
+        forward.update(start, 0.0, -1);
+        forwardQueue.push(start, guided ? potential(view, start, start, end) : 0.0);
+        backward.update(end, 0.0, -1);
+        backwardQueue.push(end, guided ? -potential(view, end, start, end) : 0.0);
+
+        double best = Double.POSITIVE_INFINITY; // length of the best start-end path seen so far
+        int meeting = -1;
+        while (!forwardQueue.isEmpty() && !backwardQueue.isEmpty()) {
+            // No path through an unsettled node can beat the best one found
+            if (forwardQueue.peekKey() + backwardQueue.peekKey() >= best) {
+                break;
+            }
+            // Expand the side with the smaller frontier
+            boolean expandForward = forwardQueue.size() <= backwardQueue.size();
+            SearchContext self = expandForward ? forward : backward;
+            SearchContext other = expandForward ? backward : forward;
+            IGraphView graphSide = expandForward ? view : backwardView;
+            double sign = expandForward ? 1.0 : -1.0;
+
+            IndexedDaryHeap queue = self.heap();
+            int u = queue.poll();
+            double distU = self.distance(u);
+            self.counters().relaxed += graphSide.degree(u);
+            for (int i = 0, degree = graphSide.degree(u); i < degree; i++) {
+                int v = graphSide.target(u, i);
+                if (queue.isSettled(v)) {
+                    continue;
+                }
+                double newDist = distU + graphSide.weight(u, i);
+                if (newDist < self.distance(v)) {
+                    if (withParents) {
+                        self.update(v, newDist, u);
+                    } else {
+                        self.updateDistance(v, newDist);
+                    }
+                    queue.push(v, guided ? newDist + sign * potential(view, v, start, end) : newDist);
+                    // Meet-in-the-middle candidate
+                    double through = newDist + other.distance(v);
+                    if (through < best) {
+                        best = through;
+                        meeting = v;
+                    }
+                }
+            }
+        }
+        return meeting;
+    }
+
+    // Called once per query before searching; false means potential() is not valid for the graph and the query runs without it
+    protected boolean prepare(IGraphView view) {
+        return true;
+    }
+
+    /**
+     * Potential of node for the forward search; the backward search uses its negation.
+     * It has to be consistent (reduced edge weights stay non-negative) in both directions.
+     */
+    protected double potential(IGraphView view, int node, int start, int end) {
+        return 0.0;
+    }
+}
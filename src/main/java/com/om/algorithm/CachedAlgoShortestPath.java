@@ -0,0 +1,661 @@
+package com.om.algorithm;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caches the {@link PathResult} of every (start, end) query answered by another
+ * {@link IAlgoShortestPath}. The cache is bounded by entry count and by an estimate of the
+ * memory its entries hold, and evicts by LRU or W-TinyLFU. Lookups are lock-free; eviction
+ * bookkeeping runs under a lock that readers only try to take, so under contention a hit may
+ * skip its recency update.
+ *
+ * <p>Mutations must go through this wrapper. They only drop the entries they can affect:
+ * removing a node or edge drops the routes that use it, and adding an edge u -> v of weight w, or
+ * lowering an edge to w, drops a cached s -> t route only if d(s, u) + w + d(v, t) < d(s, t), and
+ * for undirected delegates the same through v -> u. The distances come from one search towards u
+ * and one from v over the delegate's graph, each stopped at the longest cached distance, so a
+ * cached "no path" result lets them cover everything the edge's ends reach. When the delegate's
+ * graph cannot be searched that way, every route longer than w is dropped instead, and once a
+ * weight is negative every route is.
+ *
+ * <p>A delegate in snapshot mode answers from its last published version, which may predate
+ * mutations the cache has already applied, so such a delegate is rejected, and no result is
+ * cached while a delegate is switched to snapshot mode later.
+ */
+public class CachedAlgoShortestPath implements IAlgoShortestPath {
+
+    public enum Eviction {
+        // Least recently used entry goes first
+        LRU,
+        // Small LRU window in front of a segmented LRU, with admission to the main part by frequency
+        TINY_LFU
+    }
+
+    // Rough heap cost of one entry and of each node on its path, including the index entries
+    private static final long ENTRY_BYTES = 160;
+    private static final long PATH_NODE_BYTES = 48;
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final int REMOVED = -1;
+
+    private final IAlgoShortestPath delegate;
+    private final Eviction eviction;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final ConcurrentHashMap<RouteKey, Entry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock
+    private final AccessOrder window = new AccessOrder();
+    private final AccessOrder probation = new AccessOrder();
+    private final AccessOrder protectedOrder = new AccessOrder();
+    private final Map<String, Set<Entry>> byNode = new HashMap<>(); // entries whose route starts, ends or passes here
+    private final TreeSet<Entry> byDistance = new TreeSet<>(
+            Comparator.comparingDouble((Entry e) -> e.result.getTotalWeight()).thenComparingLong(e -> e.sequence));
+    private final FrequencySketch sketch;
+    private long sequence;
+    private long totalBytes;
+    private boolean nonNegative; // every weight in the graph is >= 0
+    private volatile long version; // bumped by every mutation; results computed across one are not cached
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public CachedAlgoShortestPath(IAlgoShortestPath delegate, int maxEntries) {
+        this(delegate, maxEntries, Long.MAX_VALUE, Eviction.TINY_LFU);
+    }
+
+    // maxBytes bounds the estimated memory held by the cached paths
+    public CachedAlgoShortestPath(IAlgoShortestPath delegate, int maxEntries, long maxBytes, Eviction eviction) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache must hold at least one entry: " + maxEntries);
+        }
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("Cache memory bound must be positive: " + maxBytes);
+        }
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        if (inSnapshotMode(delegate)) {
+            throw new IllegalArgumentException("Cannot cache a delegate in snapshot mode: its answers may lag behind mutations");
+        }
+        this.eviction = Objects.requireNonNull(eviction, "eviction");
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.sketch = eviction == Eviction.TINY_LFU ? new FrequencySketch(maxEntries) : null;
+        this.nonNegative = hasOnlyNonNegativeWeights(delegate);
+    }
+
+    @Override
+    public PathResult findShortestPath(String startNode, String endNode) {
+        RouteKey key = new RouteKey(startNode, endNode);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            hits.increment();
+            if (lock.tryLock()) {
+                try {
+                    onHit(entry);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return entry.result;
+        }
+        misses.increment();
+        long before = version;
+        PathResult result = delegate.findShortestPath(startNode, endNode); // cached as is, a compact result stays compact
+        lock.lock();
+        try {
+            offer(key, result, before);
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    // Cached ends are answered here; the rest go to the delegate in one batch and are cached like single queries
+    @Override
+    public List<PathResult> findShortestPaths(String startNode, List<String> endNodes) {
+        PathResult[] results = new PathResult[endNodes.size()];
+        List<String> missed = new ArrayList<>();
+        List<Integer> missedAt = new ArrayList<>();
+        lock.lock(); // taken once for the whole batch rather than tried per hit
+        try {
+            for (int i = 0; i < results.length; i++) {
+                Entry entry = entries.get(new RouteKey(startNode, endNodes.get(i)));
+                if (entry != null) {
+                    hits.increment();
+                    onHit(entry);
+                    results[i] = entry.result;
+                } else {
+                    misses.increment();
+                    missed.add(endNodes.get(i));
+                    missedAt.add(i);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (!missed.isEmpty()) {
+            long before = version;
+            List<PathResult> computed = delegate.findShortestPaths(startNode, missed);
+            lock.lock();
+            try {
+                for (int i = 0; i < missed.size(); i++) {
+                    PathResult result = computed.get(i);
+                    results[missedAt.get(i)] = result;
+                    offer(new RouteKey(startNode, missed.get(i)), result, before);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    // Counts a missed query and caches its result unless a mutation ran since before. Caller holds the lock.
+    private void offer(RouteKey key, PathResult result, long before) {
+        if (sketch != null) {
+            sketch.increment(key.hashCode());
+        }
+        if (version == before && !entries.containsKey(key) && !inSnapshotMode(delegate)) {
+            admit(new Entry(key, result, sequence++));
+        }
+    }
+
+    // Answered from a cached path when there is one; otherwise by the delegate's distance query, which is not cached
+    @Override
+    public double findShortestDistance(String startNode, String endNode) {
+        Entry entry = entries.get(new RouteKey(startNode, endNode));
+        if (entry == null) {
+            misses.increment();
+            return delegate.findShortestDistance(startNode, endNode);
+        }
+        hits.increment();
+        if (lock.tryLock()) {
+            try {
+                onHit(entry);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return entry.result.getTotalWeight();
+    }
+
+    @Override
+    public void addNode(String nodeName, double x, double y) {
+        delegate.addNode(nodeName, x, y); // an isolated node changes no route
+    }
+
+    @Override
+    public void addEdge(String fromNode, String toNode, double weight) {
+        lock.lock(); // mutations are serialized so the graph searched below is the one the edge joins
+        try {
+            List<Entry> undercut = nonNegative && weight >= 0 ? undercutBy(fromNode, toNode, weight) : null;
+            delegate.addEdge(fromNode, toNode, weight);
+            version++;
+            nonNegative &= weight >= 0;
+            removeAll(nonNegative ? undercut : new ArrayList<>(byDistance)); // negative weights void the distance bound
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void removeNode(String nodeName) {
+        lock.lock();
+        try {
+            delegate.removeNode(nodeName);
+            version++;
+            Set<Entry> affected = byNode.get(nodeName);
+            if (affected != null) {
+                removeAll(new ArrayList<>(affected));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void removeEdge(String fromNode, String toNode) {
+        lock.lock();
+        try {
+            delegate.removeEdge(fromNode, toNode);
+            version++;
+            removeAll(routesThrough(fromNode, toNode));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void updateEdgeWeight(String fromNode, String toNode, double weight) {
+        lock.lock();
+        try {
+            // A dearer edge only spoils the routes over it; a cheaper one also those it may now undercut
+            List<Entry> undercut = nonNegative && weight >= 0 && lowers(fromNode, toNode, weight)
+                    ? undercutBy(fromNode, toNode, weight) : List.of();
+            delegate.updateEdgeWeight(fromNode, toNode, weight);
+            version++;
+            nonNegative &= weight >= 0;
+            if (!nonNegative) {
+                removeAll(new ArrayList<>(byDistance));
+                return;
+            }
+            Set<Entry> affected = Collections.newSetFromMap(new IdentityHashMap<>());
+            affected.addAll(routesThrough(fromNode, toNode));
+            affected.addAll(undercut);
+            removeAll(new ArrayList<>(affected));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void removeNodes(Collection<String> nodeNames) {
+        lock.lock();
+        try {
+            delegate.removeNodes(nodeNames);
+            version++;
+            Set<Entry> affected = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (String nodeName : nodeNames) {
+                affected.addAll(byNode.getOrDefault(nodeName, Set.of()));
+            }
+            removeAll(new ArrayList<>(affected));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void removeEdges(Collection<Edge> edges) {
+        lock.lock();
+        try {
+            delegate.removeEdges(edges);
+            version++;
+            Set<Entry> affected = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Edge edge : edges) {
+                for (Entry entry : byNode.getOrDefault(edge.getFromNode(), Set.of())) {
+                    PathResult path = entry.result;
+                    if (hasStep(path, edge.getFromNode(), edge.getToNode()) || hasStep(path, edge.getToNode(), edge.getFromNode())) {
+                        affected.add(entry);
+                    }
+                }
+            }
+            removeAll(new ArrayList<>(affected));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Cached routes that use the edge in either direction, since undirected implementations change both
+    private List<Entry> routesThrough(String fromNode, String toNode) {
+        List<Entry> affected = new ArrayList<>();
+        for (Entry entry : byNode.getOrDefault(fromNode, Set.of())) {
+            if (hasStep(entry.result, fromNode, toNode) || hasStep(entry.result, toNode, fromNode)) {
+                affected.add(entry);
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * Cached routes that a way over fromNode -> toNode of the given weight would shorten, found as
+     * the class comment describes. Runs before the mutation, on the graph without the new weight.
+     * Caller holds the lock.
+     */
+    private List<Entry> undercutBy(String fromNode, String toNode, double weight) {
+        Entry bound = new Entry(null, new PathResult(List.of(), weight), Long.MAX_VALUE);
+        SortedSet<Entry> longer = byDistance.tailSet(bound, false); // a route through the edge is at least weight long
+        GraphSnapshot graph = searchableGraph();
+        if (graph == null) {
+            // A node that did not exist cannot be an inner node of a shortest path
+            return isNew(fromNode) || isNew(toNode) ? List.of() : new ArrayList<>(longer);
+        }
+        int u = graph.indexOf(fromNode);
+        int v = graph.indexOf(toNode);
+        if (longer.isEmpty() || u == -1 || v == -1) {
+            return List.of();
+        }
+        boolean directed = ((AbstractAlgoShortestPath) delegate).isDirected();
+        double cap = byDistance.last().result.getTotalWeight() - weight;
+        // d(s, u) by a backward search, which on an undirected graph is the forward one; d(v, t) forward
+        SearchContext toU = search(graph, SearchContext.forThread(graph.nodeCount(), IndexedDaryHeap.DEFAULT_ARITY), u, directed, cap);
+        SearchContext fromV = search(graph, SearchContext.backwardForThread(graph.nodeCount(), IndexedDaryHeap.DEFAULT_ARITY), v, false, cap);
+        List<Entry> affected = new ArrayList<>();
+        for (Entry entry : longer) {
+            int start = graph.indexOf(entry.key.start);
+            int end = graph.indexOf(entry.key.end);
+            double distance = entry.result.getTotalWeight();
+            if (start == -1 || end == -1
+                    || settled(toU, start) + weight + settled(fromV, end) < distance
+                    || !directed && settled(fromV, start) + weight + settled(toU, end) < distance) {
+                affected.add(entry);
+            }
+        }
+        return affected;
+    }
+
+    // Whether the weight is below the lightest fromNode -> toNode edge, or that is unknown
+    private boolean lowers(String fromNode, String toNode, double weight) {
+        GraphSnapshot graph = searchableGraph();
+        int u = graph == null ? -1 : graph.indexOf(fromNode);
+        int v = graph == null ? -1 : graph.indexOf(toNode);
+        if (u == -1 || v == -1) {
+            return true;
+        }
+        return weight < arcWeight(graph, u, v);
+    }
+
+    // The graph the delegate's next query searches, or null if that is not a store version of it
+    private GraphSnapshot searchableGraph() {
+        if (!(delegate instanceof AbstractAlgoShortestPath)) {
+            return null;
+        }
+        AbstractAlgoShortestPath algo = (AbstractAlgoShortestPath) delegate;
+        return algo.attached() != null || algo.isSnapshotMode() ? null : algo.snapshot();
+    }
+
+    // Settles every node within cap of from, following edges backwards if asked
+    private static SearchContext search(GraphSnapshot graph, SearchContext context, int from, boolean backward, double cap) {
+        IndexedDaryHeap queue = context.heap();
+        context.updateDistance(from, 0.0);
+        queue.push(from, 0.0);
+        while (!queue.isEmpty() && queue.peekKey() <= cap) {
+            int x = queue.poll();
+            double distance = context.distance(x);
+            for (int i = 0, degree = backward ? graph.inDegree(x) : graph.degree(x); i < degree; i++) {
+                int y = backward ? graph.source(x, i) : graph.target(x, i);
+                if (queue.isSettled(y)) {
+                    continue;
+                }
+                double through = distance + (backward ? arcWeight(graph, y, x) : graph.weight(x, i));
+                if (through < context.distance(y)) {
+                    context.updateDistance(y, through);
+                    queue.push(y, through);
+                }
+            }
+        }
+        return context;
+    }
+
+    // Distance of a settled node; a node the search did not settle is beyond the cap or unreachable
+    private static double settled(SearchContext context, int node) {
+        return context.heap().isSettled(node) ? context.distance(node) : Double.POSITIVE_INFINITY;
+    }
+
+    // Lightest edge from -> to, infinity if there is none
+    private static double arcWeight(GraphSnapshot graph, int from, int to) {
+        double lightest = Double.POSITIVE_INFINITY;
+        for (int i = 0, degree = graph.degree(from); i < degree; i++) {
+            if (graph.target(from, i) == to) {
+                lightest = Math.min(lightest, graph.weight(from, i));
+            }
+        }
+        return lightest;
+    }
+
+    // Drops every cached route
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            version++;
+            removeAll(new ArrayList<>(byDistance));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public IAlgoShortestPath getDelegate() {
+        return delegate;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    // Entries dropped to stay within the bounds
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    // Entries dropped because a mutation could have changed them
+    public long invalidationCount() {
+        return invalidations.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Estimated memory held by the cached entries
+    public long estimatedBytes() {
+        lock.lock();
+        try {
+            return totalBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CachedAlgoShortestPath[size=" + size() + ", hits=" + hitCount() + ", misses=" + missCount()
+                + ", evictions=" + evictionCount() + ", invalidations=" + invalidationCount() + "]";
+    }
+
+    // Only nodes that certainly did not exist can be treated as new
+    private boolean isNew(String nodeName) {
+        return delegate instanceof AbstractAlgoShortestPath
+                && !((AbstractAlgoShortestPath) delegate).hasNode(nodeName);
+    }
+
+    // Answers from the last published version, which need not include every mutation
+    private static boolean inSnapshotMode(IAlgoShortestPath delegate) {
+        return delegate instanceof AbstractAlgoShortestPath && ((AbstractAlgoShortestPath) delegate).isSnapshotMode();
+    }
+
+    private static boolean hasOnlyNonNegativeWeights(IAlgoShortestPath delegate) {
+        if (!(delegate instanceof AbstractAlgoShortestPath)) {
+            return false; // unknown graph, assume the worst
+        }
+        IGraphView graph = ((AbstractAlgoShortestPath) delegate).currentView();
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            for (int i = 0, degree = graph.degree(u); i < degree; i++) {
+                if (graph.weight(u, i) < 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Reads the path node by node, so a compact result never builds its name list for this
+    private static boolean hasStep(PathResult path, String from, String to) {
+        for (int i = 0, count = path.getNodeCount(); i + 1 < count; i++) {
+            if (path.getNode(i).equals(from) && path.getNode(i + 1).equals(to)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void admit(Entry entry) {
+        entries.put(entry.key, entry);
+        totalBytes += entry.bytes;
+        byDistance.add(entry);
+        for (String node : entry.nodes()) {
+            byNode.computeIfAbsent(node, k -> Collections.newSetFromMap(new IdentityHashMap<>())).add(entry);
+        }
+        if (eviction == Eviction.LRU) {
+            entry.queue = PROBATION;
+            probation.addFirst(entry);
+        } else {
+            entry.queue = WINDOW;
+            window.addFirst(entry);
+        }
+        evict();
+    }
+
+    private void onHit(Entry entry) {
+        if (entry.queue == REMOVED) {
+            return;
+        }
+        if (sketch != null) {
+            sketch.increment(entry.key.hashCode());
+        }
+        if (entry.queue == WINDOW) {
+            window.moveToFirst(entry);
+        } else if (entry.queue == PROTECTED || eviction == Eviction.LRU) {
+            orderOf(entry).moveToFirst(entry);
+        } else {
+            // Second hit in the main space: promote, demoting the oldest protected entries if needed
+            probation.remove(entry);
+            entry.queue = PROTECTED;
+            protectedOrder.addFirst(entry);
+            while (protectedOrder.count > 1 && exceeds(protectedOrder, 0.8)) {
+                Entry demoted = protectedOrder.last();
+                protectedOrder.remove(demoted);
+                demoted.queue = PROBATION;
+                probation.addFirst(demoted);
+            }
+        }
+    }
+
+    private void evict() {
+        Entry candidate = null; // newest entry moved out of the window, competing for admission
+        while (window.count > 1 && exceeds(window, 0.01)) {
+            candidate = window.last();
+            window.remove(candidate);
+            candidate.queue = PROBATION;
+            probation.addFirst(candidate);
+        }
+        while (entries.size() > maxEntries || totalBytes > maxBytes) {
+            Entry victim = probation.last() != null ? probation.last()
+                    : protectedOrder.last() != null ? protectedOrder.last() : window.last();
+            if (candidate != null && candidate != victim && candidate.queue == PROBATION
+                    && sketch.frequency(candidate.key.hashCode()) <= sketch.frequency(victim.key.hashCode())) {
+                victim = candidate; // not popular enough to displace the main space's victim
+            }
+            if (victim == candidate) {
+                candidate = null;
+            }
+            remove(victim);
+            evictions.increment();
+        }
+    }
+
+    // Whether the queue holds more than its share of either bound
+    private boolean exceeds(AccessOrder order, double share) {
+        return order.count > Math.max(1, (long) (maxEntries * share)) || order.bytes > maxBytes * share;
+    }
+
+    private void removeAll(List<Entry> affected) {
+        for (Entry entry : affected) {
+            remove(entry);
+            invalidations.increment();
+        }
+    }
+
+    private void remove(Entry entry) {
+        entries.remove(entry.key, entry);
+        orderOf(entry).remove(entry);
+        entry.queue = REMOVED;
+        totalBytes -= entry.bytes;
+        byDistance.remove(entry);
+        for (String node : entry.nodes()) {
+            Set<Entry> set = byNode.get(node);
+            if (set != null && set.remove(entry) && set.isEmpty()) {
+                byNode.remove(node);
+            }
+        }
+    }
+
+    private AccessOrder orderOf(Entry entry) {
+        return entry.queue == WINDOW ? window : entry.queue == PROTECTED ? protectedOrder : probation;
+    }
+
+    private static final class Entry {
+        final RouteKey key;
+        final PathResult result;
+        final long sequence;
+        final long bytes;
+        int queue;
+        Entry previous;
+        Entry next;
+
+        Entry(RouteKey key, PathResult result, long sequence) {
+            this.key = key;
+            this.result = result;
+            this.sequence = sequence;
+            this.bytes = ENTRY_BYTES + PATH_NODE_BYTES * result.getNodeCount();
+        }
+
+        // Endpoints and every node on the route
+        Set<String> nodes() {
+            Set<String> nodes = new HashSet<>();
+            for (int i = 0, count = result.getNodeCount(); i < count; i++) {
+                nodes.add(result.getNode(i));
+            }
+            nodes.add(key.start);
+            nodes.add(key.end);
+            return nodes;
+        }
+    }
+
+    // Intrusive doubly linked list, most recently used first
+    private static final class AccessOrder {
+        Entry head;
+        Entry tail;
+        int count;
+        long bytes;
+
+        void addFirst(Entry entry) {
+            entry.previous = null;
+            entry.next = head;
+            if (head != null) {
+                head.previous = entry;
+            } else {
+                tail = entry;
+            }
+            head = entry;
+            count++;
+            bytes += entry.bytes;
+        }
+
+        void remove(Entry entry) {
+            if (entry.previous != null) {
+                entry.previous.next = entry.next;
+            } else {
+                head = entry.next;
+            }
+            if (entry.next != null) {
+                entry.next.previous = entry.previous;
+            } else {
+                tail = entry.previous;
+            }
+            entry.previous = null;
+            entry.next = null;
+            count--;
+            bytes -= entry.bytes;
+        }
+
+        void moveToFirst(Entry entry) {
+            if (head != entry) {
+                remove(entry);
+                addFirst(entry);
+            }
+        }
+
+        Entry last() {
+            return tail;
+        }
+    }
+}
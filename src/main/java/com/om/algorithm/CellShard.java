@@ -0,0 +1,221 @@
+package com.om.algorithm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One cell of a partitioned graph and the only part of it a shard process holds: the cell's
+ * nodes and inner edges, its boundary nodes and the edges that leave it. It answers the
+ * requests of a {@link PartitionedShortestPath} coordinator, encoded as byte buffers so they can
+ * cross any {@link IShardTransport}. All searches stay inside the cell.
+ *
+ * <p>Requests start with an op byte. Strings are an int byte count and UTF-8 bytes, distances
+ * are doubles, infinity when unreachable.
+ * <ul>
+ * <li>OVERLAY: replies with the boundary names, the boundary-to-boundary distance table row by
+ * row, and the leaving edges as (boundary index of the tail, head name, weight)</li>
+ * <li>FROM name / TO name: replies with a found byte and, if found, the distances from the node
+ * to every boundary node, or from every boundary node to it</li>
+ * <li>PATH from to withPath: replies with a found byte and, if both nodes are in the cell, the
+ * distance and, with withPath, the node names of the path</li>
+ * </ul>
+ */
+public final class CellShard {
+    static final byte OVERLAY = 1;
+    static final byte FROM = 2;
+    static final byte TO = 3;
+    static final byte PATH = 4;
+
+    private static final String ARTIFACT = "cell";
+
+    private final IGraphView graph;
+    private final int[] boundary; // node ids in the cell graph
+    private final boolean[] isBoundary;
+    private final int[] cutFrom;
+    private final String[] cutTo;
+    private final double[] cutWeight;
+    private volatile CsrGraph reverse; // built on the first TO request
+
+    CellShard(IGraphView graph, int[] boundary, int[] cutFrom, String[] cutTo, double[] cutWeight) {
+        this.graph = graph;
+        this.boundary = boundary;
+        this.isBoundary = new boolean[graph.nodeCount()];
+        for (int node : boundary) {
+            isBoundary[node] = true;
+        }
+        this.cutFrom = cutFrom;
+        this.cutTo = cutTo;
+        this.cutWeight = cutWeight;
+    }
+
+    // Reads a cell written by save(), memory-mapping its graph
+    public static CellShard open(Path file) throws IOException {
+        MappedGraph mapped = MappedGraph.open(file);
+        ByteBuffer data = mapped.artifact(ARTIFACT);
+        if (data == null) {
+            throw new IOException("Not a cell file: " + file);
+        }
+        int[] boundary = new int[data.getInt()];
+        for (int i = 0; i < boundary.length; i++) {
+            boundary[i] = data.getInt();
+        }
+        int cuts = data.getInt();
+        int[] cutFrom = new int[cuts];
+        String[] cutTo = new String[cuts];
+        double[] cutWeight = new double[cuts];
+        for (int i = 0; i < cuts; i++) {
+            cutFrom[i] = data.getInt();
+            cutTo[i] = getString(data);
+            cutWeight[i] = data.getDouble();
+        }
+        return new CellShard(mapped, boundary, cutFrom, cutTo, cutWeight);
+    }
+
+    // Writes the cell in the graph file format, boundary and leaving edges as an artifact
+    public void save(Path file) throws IOException {
+        byte[][] targets = new byte[cutTo.length][];
+        int bytes = 8 + 4 * boundary.length;
+        for (int i = 0; i < cutTo.length; i++) {
+            targets[i] = cutTo[i].getBytes(StandardCharsets.UTF_8);
+            bytes += 16 + targets[i].length;
+        }
+        ByteBuffer data = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        data.putInt(boundary.length);
+        for (int node : boundary) {
+            data.putInt(node);
+        }
+        data.putInt(cutTo.length);
+        for (int i = 0; i < cutTo.length; i++) {
+            data.putInt(cutFrom[i]).putInt(targets[i].length).put(targets[i]).putDouble(cutWeight[i]);
+        }
+        MappedGraph.write(file, graph, Map.of(ARTIFACT, data.flip()));
+    }
+
+    public int getNodeCount() {
+        int count = 0;
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            count += graph.nameOf(u) != null ? 1 : 0;
+        }
+        return count;
+    }
+
+    public int getBoundaryCount() {
+        return boundary.length;
+    }
+
+    // Edges from this cell into others
+    public int getCutEdgeCount() {
+        return cutTo.length;
+    }
+
+    // Answers one encoded request; safe to call from several threads at once
+    public ByteBuffer handle(ByteBuffer request) {
+        ByteBuffer in = request.duplicate();
+        byte op = in.get();
+        switch (op) {
+            case OVERLAY:
+                return overlay();
+            case FROM:
+            case TO: {
+                int node = graph.indexOf(getString(in));
+                if (node == -1) {
+                    return ByteBuffer.allocate(1).put((byte) 0).flip();
+                }
+                double[] row = new double[boundary.length];
+                DijkstraAlgoShortestPathImpl.distancesTo(op == FROM ? graph : reverse(), node, boundary, isBoundary,
+                        boundary.length, row, 0, IndexedDaryHeap.DEFAULT_ARITY);
+                ByteBuffer out = ByteBuffer.allocate(1 + 8 * row.length).put((byte) 1);
+                for (double distance : row) {
+                    out.putDouble(distance);
+                }
+                return out.flip();
+            }
+            case PATH: {
+                int from = graph.indexOf(getString(in));
+                int to = graph.indexOf(getString(in));
+                boolean withPath = in.get() != 0;
+                if (from == -1 || to == -1) {
+                    return ByteBuffer.allocate(1).put((byte) 0).flip();
+                }
+                if (!withPath) {
+                    double distance = DijkstraAlgoShortestPathImpl.shortestDistance(graph, from, to, IndexedDaryHeap.DEFAULT_ARITY);
+                    return ByteBuffer.allocate(9).put((byte) 1).putDouble(distance).flip();
+                }
+                PathResult path = DijkstraAlgoShortestPathImpl.shortestPath(graph, from, to, IndexedDaryHeap.DEFAULT_ARITY);
+                List<String> names = path.getPath();
+                byte[][] encoded = new byte[names.size()][];
+                int bytes = 13;
+                for (int i = 0; i < encoded.length; i++) {
+                    encoded[i] = names.get(i).getBytes(StandardCharsets.UTF_8);
+                    bytes += 4 + encoded[i].length;
+                }
+                ByteBuffer out = ByteBuffer.allocate(bytes).put((byte) 1).putDouble(path.getTotalWeight()).putInt(encoded.length);
+                for (byte[] name : encoded) {
+                    out.putInt(name.length).put(name);
+                }
+                return out.flip();
+            }
+            default:
+                throw new IllegalArgumentException("Unknown shard request: " + op);
+        }
+    }
+
+    private ByteBuffer overlay() {
+        int b = boundary.length;
+        double[] table = new double[b * b];
+        for (int i = 0; i < b; i++) {
+            DijkstraAlgoShortestPathImpl.distancesTo(graph, boundary[i], boundary, isBoundary, b, table, i * b,
+                    IndexedDaryHeap.DEFAULT_ARITY);
+        }
+        byte[][] names = new byte[b][];
+        int bytes = 8 + 8 * table.length;
+        for (int i = 0; i < b; i++) {
+            names[i] = graph.nameOf(boundary[i]).getBytes(StandardCharsets.UTF_8);
+            bytes += 4 + names[i].length;
+        }
+        byte[][] targets = new byte[cutTo.length][];
+        for (int i = 0; i < cutTo.length; i++) {
+            targets[i] = cutTo[i].getBytes(StandardCharsets.UTF_8);
+            bytes += 16 + targets[i].length;
+        }
+        ByteBuffer out = ByteBuffer.allocate(bytes).putInt(b);
+        for (byte[] name : names) {
+            out.putInt(name.length).put(name);
+        }
+        for (double distance : table) {
+            out.putDouble(distance);
+        }
+        out.putInt(cutTo.length);
+        for (int i = 0; i < cutTo.length; i++) {
+            int from = Arrays.binarySearch(boundary, cutFrom[i]); // boundary ids are ascending
+            out.putInt(from).putInt(targets[i].length).put(targets[i]).putDouble(cutWeight[i]);
+        }
+        return out.flip();
+    }
+
+    private CsrGraph reverse() {
+        CsrGraph result = reverse;
+        if (result == null) {
+            result = CsrGraph.of(graph).reverse();
+            reverse = result;
+        }
+        return result;
+    }
+
+    static void putString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putInt(bytes.length).put(bytes);
+    }
+
+    static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,95 @@
+package com.om.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A path held as the node ids of the graph version it was found in. Node names, the edge list
+ * and sub-paths are only built when asked for, so callers that read the weight, the node count
+ * or a few nodes never pay for the whole path in strings. Keeps the graph version reachable.
+ */
+public final class CompactPathResult extends PathResult {
+    private final IGraphView view;
+    private final int[] nodes;
+    private volatile List<String> names; // built on first getPath()
+
+    CompactPathResult(IGraphView view, int[] nodes, double totalWeight) {
+        super(totalWeight);
+        this.view = view;
+        this.nodes = nodes;
+    }
+
+    @Override
+    public List<String> getPath() {
+        List<String> result = names;
+        if (result == null) {
+            String[] array = new String[nodes.length];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = view.nameOf(nodes[i]);
+            }
+            result = Collections.unmodifiableList(Arrays.asList(array));
+            names = result;
+        }
+        return result;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return nodes.length;
+    }
+
+    @Override
+    public String getNode(int index) {
+        List<String> built = names;
+        return built != null ? built.get(index) : view.nameOf(nodes[index]);
+    }
+
+    // The edges along the path; between parallel edges the cheapest one is taken, as the search did
+    public List<Edge> getEdges() {
+        List<Edge> edges = new ArrayList<>(Math.max(0, nodes.length - 1));
+        for (int i = 0; i + 1 < nodes.length; i++) {
+            edges.add(new Edge(getNode(i), getNode(i + 1), hopWeight(i)));
+        }
+        return edges;
+    }
+
+    /**
+     * The part of the path from node fromIndex to node toIndex - 1, as {@link List#subList} counts,
+     * with the weight of the edges inside it.
+     */
+    public CompactPathResult slice(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > nodes.length || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Slice [" + fromIndex + ", " + toIndex + ") of " + nodes.length + " nodes");
+        }
+        double weight = fromIndex == toIndex ? Double.POSITIVE_INFINITY : 0.0;
+        for (int i = fromIndex; i + 1 < toIndex; i++) {
+            weight += hopWeight(i);
+        }
+        return new CompactPathResult(view, Arrays.copyOfRange(nodes, fromIndex, toIndex), weight);
+    }
+
+    // The same nodes on another view of the same graph version, weighed with that view's edges
+    CompactPathResult reweigh(IGraphView other) {
+        double weight = 0.0;
+        for (int i = 0; i + 1 < nodes.length; i++) {
+            weight += hopWeight(other, nodes[i], nodes[i + 1]);
+        }
+        return new CompactPathResult(other, nodes, weight);
+    }
+
+    private double hopWeight(int i) {
+        return hopWeight(view, nodes[i], nodes[i + 1]);
+    }
+
+    private static double hopWeight(IGraphView view, int u, int v) {
+        double best = Double.POSITIVE_INFINITY;
+        for (int e = 0, degree = view.degree(u); e < degree; e++) {
+            if (view.target(u, e) == v) {
+                best = Math.min(best, view.weight(u, e));
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,78 @@
+package com.om.algorithm;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Shortest paths through a contraction hierarchy. Preprocessing runs over the current graph and
+ * is kept until the graph changes: call {@link #rebuild()} after a batch of addEdge/removeEdge/
+ * removeNode calls to pay for it up front. A query against a stale hierarchy rebuilds it first.
+ * {@link #save} stores the hierarchy in the graph file and {@link #attach} reuses it.
+ */
+public class ContractionHierarchiesAlgoShortestPathImpl extends AbstractAlgoShortestPath {
+
+    static final String ARTIFACT = "contraction-hierarchy";
+
+    private volatile ContractionHierarchy hierarchy;
+
+    public ContractionHierarchiesAlgoShortestPathImpl() {
+        this(GraphStorage.HEAP);
+    }
+
+    public ContractionHierarchiesAlgoShortestPathImpl(GraphStorage storage) {
+        super(false, storage); // Assuming undirected graph
+    }
+
+    // Re-runs preprocessing for the current graph if it changed since the last build
+    public ContractionHierarchy rebuild() {
+        return hierarchyFor(currentView());
+    }
+
+    // True when the hierarchy reflects every mutation made so far
+    public boolean isUpToDate() {
+        ContractionHierarchy current = hierarchy;
+        return current != null && current.base() == currentView();
+    }
+
+    @Override
+    public PathResult findShortestPath(String startNode, String endNode) {
+        IGraphView view = viewFor(startNode, endNode);
+        ContractionHierarchy current = hierarchy;
+        if (current == null || current.base() != view) {
+            current = hierarchyFor(view);
+        }
+        return current.findShortestPath(view.indexOf(startNode), view.indexOf(endNode));
+    }
+
+    @Override
+    public double findShortestDistance(String startNode, String endNode) {
+        IGraphView view = viewFor(startNode, endNode);
+        ContractionHierarchy current = hierarchy;
+        if (current == null || current.base() != view) {
+            current = hierarchyFor(view);
+        }
+        return current.findShortestDistance(view.indexOf(startNode), view.indexOf(endNode));
+    }
+
+    @Override
+    protected Map<String, ByteBuffer> artifactsFor(IGraphView view) {
+        return Map.of(ARTIFACT, hierarchyFor(view).toArtifact());
+    }
+
+    @Override
+    protected void loadArtifacts(MappedGraph mapped) {
+        ByteBuffer data = mapped.artifact(ARTIFACT);
+        if (data != null) {
+            hierarchy = ContractionHierarchy.fromArtifact(mapped, data);
+        }
+    }
+
+    private synchronized ContractionHierarchy hierarchyFor(IGraphView view) {
+        ContractionHierarchy current = hierarchy;
+        if (current == null || current.base() != view) {
+            current = ContractionHierarchy.build(view);
+            hierarchy = current;
+        }
+        return current;
+    }
+}
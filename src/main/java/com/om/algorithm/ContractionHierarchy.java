@@ -0,0 +1,259 @@
+package com.om.algorithm;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+
+/**
+ * Result of contraction hierarchies preprocessing over one graph version.
+ * Every node has a rank; queries only follow edges towards higher ranked nodes, forward from
+ * the start and backward from the end, and unpack the shortcuts on the best meeting path.
+ */
+public final class ContractionHierarchy {
+    private final IGraphView base;
+    private final int[] rank;
+    private final Edges up; // up[u]: u -> v with rank[v] > rank[u]
+    private final Edges down; // down[v]: u -> v with rank[u] > rank[v], stored as v -> u
+
+    ContractionHierarchy(IGraphView base, int[] rank, Edges up, Edges down) {
+        this.base = base;
+        this.rank = rank;
+        this.up = up;
+        this.down = down;
+    }
+
+    // Orders and contracts every node of the graph; the graph itself is not modified
+    public static ContractionHierarchy build(IGraphView graph) {
+        return new ContractionHierarchyBuilder(graph).build();
+    }
+
+    // The graph version this hierarchy was built from
+    public IGraphView base() {
+        return base;
+    }
+
+    // Ranks and both edge sets in little-endian binary form, for storing next to the graph
+    public ByteBuffer toArtifact() {
+        int n = rank.length;
+        ByteBuffer data = ByteBuffer.allocate(4 + 4 * n + up.byteSize() + down.byteSize()).order(ByteOrder.LITTLE_ENDIAN);
+        data.putInt(n);
+        for (int r : rank) {
+            data.putInt(r);
+        }
+        up.writeTo(data);
+        down.writeTo(data);
+        return data.flip();
+    }
+
+    // Reads a hierarchy written by toArtifact() for the given graph, which must have the same node ids
+    public static ContractionHierarchy fromArtifact(IGraphView base, ByteBuffer artifact) {
+        ByteBuffer data = artifact.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int n = data.getInt();
+        if (n != base.nodeCount()) {
+            throw new IllegalArgumentException("Hierarchy was built for " + n + " nodes, graph has " + base.nodeCount());
+        }
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            rank[i] = data.getInt();
+        }
+        Edges up = Edges.readFrom(data, n);
+        Edges down = Edges.readFrom(data, n);
+        return new ContractionHierarchy(base, rank, up, down);
+    }
+
+    // Contraction order of the node, -1 for removed nodes; higher ranks were contracted later
+    int rank(int node) {
+        return rank[node];
+    }
+
+    // Number of edges in the hierarchy that do not exist in the original graph
+    public int shortcutCount() {
+        return up.shortcutCount() + down.shortcutCount();
+    }
+
+    PathResult findShortestPath(int start, int end) {
+        if (start == end) {
+            return new PathResult(List.of(base.nameOf(start)), 0.0);
+        }
+        int n = base.nodeCount();
+        SearchContext forward = SearchContext.forThread(n, IndexedDaryHeap.DEFAULT_ARITY);
+        SearchContext backward = SearchContext.backwardForThread(n, IndexedDaryHeap.DEFAULT_ARITY);
+        int meeting = meet(start, end, forward, backward, true);
+        if (meeting == -1) {
+            return Paths.noPath();
+        }
+        double best = forward.distance(meeting) + backward.distance(meeting);
+
+        // Hierarchy nodes on the meeting path, start to end
+        List<Integer> hierarchyPath = new ArrayList<>();
+        for (int node = meeting; node != -1; node = forward.parent(node)) {
+            hierarchyPath.add(node);
+        }
+        Collections.reverse(hierarchyPath);
+        for (int node = backward.parent(meeting); node != -1; node = backward.parent(node)) {
+            hierarchyPath.add(node);
+        }
+
+        List<String> path = new ArrayList<>();
+        path.add(base.nameOf(start));
+        for (int i = 0; i + 1 < hierarchyPath.size(); i++) {
+            unpack(hierarchyPath.get(i), hierarchyPath.get(i + 1), path);
+        }
+        return new PathResult(path, best);
+    }
+
+    // Upward searches only, with no parent links and no shortcut unpacking
+    double findShortestDistance(int start, int end) {
+        if (start == end) {
+            return 0.0;
+        }
+        int n = base.nodeCount();
+        SearchContext forward = SearchContext.forThread(n, IndexedDaryHeap.DEFAULT_ARITY);
+        SearchContext backward = SearchContext.backwardForThread(n, IndexedDaryHeap.DEFAULT_ARITY);
+        int meeting = meet(start, end, forward, backward, false);
+        return meeting == -1 ? Double.POSITIVE_INFINITY : forward.distance(meeting) + backward.distance(meeting);
+    }
+
+    // Runs both upward searches and returns the node where the shortest path meets, or -1
+    private int meet(int start, int end, SearchContext forward, SearchContext backward, boolean withParents) {
+        forward.update(start, 0.0, -1);
+        forward.heap().push(start, 0.0);
+        backward.update(end, 0.0, -1);
+        backward.heap().push(end, 0.0);
+
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        while (true) {
+            IndexedDaryHeap forwardQueue = forward.heap();
+            IndexedDaryHeap backwardQueue = backward.heap();
+            double forwardKey = forwardQueue.isEmpty() ? Double.POSITIVE_INFINITY : forwardQueue.peekKey();
+            double backwardKey = backwardQueue.isEmpty() ? Double.POSITIVE_INFINITY : backwardQueue.peekKey();
+            // Upward searches cannot stop at the first meeting, only once both frontiers pass the best path
+            if (Math.min(forwardKey, backwardKey) >= best) {
+                break;
+            }
+            boolean expandForward = forwardKey <= backwardKey;
+            SearchContext self = expandForward ? forward : backward;
+            SearchContext other = expandForward ? backward : forward;
+            Edges edges = expandForward ? up : down;
+
+            IndexedDaryHeap queue = self.heap();
+            int u = queue.poll();
+            double distU = self.distance(u);
+            self.counters().relaxed += edges.offsets[u + 1] - edges.offsets[u];
+            for (int e = edges.offsets[u]; e < edges.offsets[u + 1]; e++) {
+                int v = edges.targets[e];
+                double newDist = distU + edges.weights[e];
+                if (newDist < self.distance(v)) {
+                    if (withParents) {
+                        self.update(v, newDist, u);
+                    } else {
+                        self.updateDistance(v, newDist);
+                    }
+                    queue.push(v, newDist);
+                    double through = newDist + other.distance(v);
+                    if (through < best) {
+                        best = through;
+                        meeting = v;
+                    }
+                }
+            }
+        }
+        return meeting;
+    }
+
+    // Appends the original nodes after from on the hierarchy edge from -> to
+    private void unpack(int from, int to, List<String> path) {
+        Deque<int[]> stack = new ArrayDeque<>();
+        stack.push(new int[]{from, to});
+        while (!stack.isEmpty()) {
+            int[] edge = stack.pop();
+            int middle = middleOf(edge[0], edge[1]);
+            if (middle == -1) {
+                path.add(base.nameOf(edge[1]));
+            } else {
+                stack.push(new int[]{middle, edge[1]}); // second half is handled after the first
+                stack.push(new int[]{edge[0], middle});
+            }
+        }
+    }
+
+    private int middleOf(int from, int to) {
+        Edges edges = rank[from] < rank[to] ? up : down;
+        int owner = rank[from] < rank[to] ? from : to;
+        int other = owner == from ? to : from;
+        for (int e = edges.offsets[owner]; e < edges.offsets[owner + 1]; e++) {
+            if (edges.targets[e] == other) {
+                return edges.middles[e];
+            }
+        }
+        throw new IllegalStateException("Hierarchy edge missing: " + base.nameOf(from) + " → " + base.nameOf(to));
+    }
+
+    // CSR arrays of one search direction; middles[e] is the node a shortcut bypasses or -1
+    static final class Edges {
+        final int[] offsets;
+        final int[] targets;
+        final double[] weights;
+        final int[] middles;
+
+        Edges(int[] offsets, int[] targets, double[] weights, int[] middles) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+            this.middles = middles;
+        }
+
+        int byteSize() {
+            return 4 + 4 * offsets.length + 16 * targets.length;
+        }
+
+        // Edge count, offsets, then targets, weights and middles
+        void writeTo(ByteBuffer data) {
+            data.putInt(targets.length);
+            for (int offset : offsets) {
+                data.putInt(offset);
+            }
+            for (int target : targets) {
+                data.putInt(target);
+            }
+            for (double weight : weights) {
+                data.putDouble(weight);
+            }
+            for (int middle : middles) {
+                data.putInt(middle);
+            }
+        }
+
+        static Edges readFrom(ByteBuffer data, int n) {
+            int m = data.getInt();
+            int[] offsets = new int[n + 1];
+            int[] targets = new int[m];
+            double[] weights = new double[m];
+            int[] middles = new int[m];
+            for (int i = 0; i <= n; i++) {
+                offsets[i] = data.getInt();
+            }
+            for (int e = 0; e < m; e++) {
+                targets[e] = data.getInt();
+            }
+            for (int e = 0; e < m; e++) {
+                weights[e] = data.getDouble();
+            }
+            for (int e = 0; e < m; e++) {
+                middles[e] = data.getInt();
+            }
+            return new Edges(offsets, targets, weights, middles);
+        }
+
+        int shortcutCount() {
+            int count = 0;
+            for (int middle : middles) {
+                if (middle != -1) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.om.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Contracts the nodes of a graph one by one, cheapest first, and adds a shortcut u -> w for
+ * every path u -> v -> w through the contracted node v that has no equally short witness path
+ * around v. Node priorities combine the edge difference, the number of already contracted
+ * neighbors and the node's level in the hierarchy; they are recomputed for the neighbors of each contracted node and checked again
+ * when a node reaches the top of the queue.
+ */
+final class ContractionHierarchyBuilder {
+    // Witness searches give up after this many settled nodes and add the shortcut instead;
+    // priority estimates use a much smaller budget than real contractions
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+    private static final int SIMULATION_SETTLE_LIMIT = 50;
+
+    private final IGraphView graph;
+    private final int n;
+    private final EdgeLists out; // remaining graph: edges between uncontracted nodes only
+    private final EdgeLists in;
+    private final EdgeLists up; // per node: edges to higher ranked nodes, recorded at contraction
+    private final EdgeLists down; // per node: edges from higher ranked nodes, stored reversed
+    private final boolean[] contracted;
+    private final int[] contractedNeighbors;
+    private final int[] levels; // 1 + highest level of a contracted neighbor
+    private final int[] rank;
+    private final SearchContext witness = new SearchContext();
+
+    ContractionHierarchyBuilder(IGraphView graph) {
+        this.graph = graph;
+        this.n = graph.nodeCount();
+        this.out = new EdgeLists(n);
+        this.in = new EdgeLists(n);
+        this.up = new EdgeLists(n);
+        this.down = new EdgeLists(n);
+        this.contracted = new boolean[n];
+        this.contractedNeighbors = new int[n];
+        this.levels = new int[n];
+        this.rank = new int[n];
+        Arrays.fill(rank, -1);
+        for (int u = 0; u < n; u++) {
+            for (int i = 0, degree = graph.degree(u); i < degree; i++) {
+                int v = graph.target(u, i);
+                if (v != u) { // self loops never lie on a shortest path
+                    out.addOrImprove(u, v, graph.weight(u, i), -1);
+                    in.addOrImprove(v, u, graph.weight(u, i), -1);
+                }
+            }
+        }
+    }
+
+    ContractionHierarchy build() {
+        IndexedDaryHeap queue = new IndexedDaryHeap(n);
+        for (int v = 0; v < n; v++) {
+            if (graph.nameOf(v) != null) {
+                queue.push(v, priority(v));
+            }
+        }
+        int order = 0;
+        while (!queue.isEmpty()) {
+            int v = queue.poll();
+            double current = priority(v);
+            if (!queue.isEmpty() && current > queue.peekKey()) {
+                queue.push(v, current); // priority went up since it was queued, try again later
+                continue;
+            }
+            contract(v, false);
+            int[] neighbors = recordUpwardEdges(v);
+            contracted[v] = true;
+            rank[v] = order++;
+            for (int neighbor : neighbors) {
+                queue.update(neighbor, priority(neighbor));
+            }
+        }
+        return new ContractionHierarchy(graph, rank, up.toCsr(), down.toCsr());
+    }
+
+    private double priority(int v) {
+        int edges = liveDegree(out, v) + liveDegree(in, v);
+        return 2.0 * (contract(v, true) - edges) + contractedNeighbors[v] + levels[v];
+    }
+
+    // Adds (or with simulate only counts) the shortcuts needed to remove v from the remaining graph
+    private int contract(int v, boolean simulate) {
+        int shortcuts = 0;
+        for (int i = 0; i < in.size[v]; i++) {
+            int u = in.to[v][i];
+            if (contracted[u]) {
+                continue;
+            }
+            double toV = in.weight[v][i];
+            double maxVia = Double.NEGATIVE_INFINITY;
+            for (int j = 0; j < out.size[v]; j++) {
+                int w = out.to[v][j];
+                if (!contracted[w] && w != u) {
+                    maxVia = Math.max(maxVia, toV + out.weight[v][j]);
+                }
+            }
+            if (maxVia == Double.NEGATIVE_INFINITY) {
+                continue;
+            }
+            witnessSearch(u, v, maxVia, simulate ? SIMULATION_SETTLE_LIMIT : WITNESS_SETTLE_LIMIT);
+            for (int j = 0; j < out.size[v]; j++) {
+                int w = out.to[v][j];
+                if (contracted[w] || w == u) {
+                    continue;
+                }
+                double via = toV + out.weight[v][j];
+                if (witness.distance(w) > via) {
+                    shortcuts++;
+                    if (!simulate) {
+                        out.addOrImprove(u, w, via, v);
+                        in.addOrImprove(w, u, via, v);
+                    }
+                }
+            }
+        }
+        return shortcuts;
+    }
+
+    // Bounded Dijkstra from source in the remaining graph without the node being contracted
+    private void witnessSearch(int source, int skipped, double maxDistance, int settleLimit) {
+        witness.reset(n, IndexedDaryHeap.DEFAULT_ARITY);
+        IndexedDaryHeap queue = witness.heap();
+        witness.update(source, 0.0, -1);
+        queue.push(source, 0.0);
+        int settled = 0;
+        while (!queue.isEmpty() && queue.peekKey() <= maxDistance && settled++ < settleLimit) {
+            int x = queue.poll();
+            double distX = witness.distance(x);
+            for (int i = 0; i < out.size[x]; i++) {
+                int y = out.to[x][i];
+                if (y == skipped || contracted[y] || queue.isSettled(y)) {
+                    continue;
+                }
+                double newDist = distX + out.weight[x][i];
+                if (newDist < witness.distance(y)) {
+                    witness.update(y, newDist, x);
+                    queue.push(y, newDist);
+                }
+            }
+        }
+    }
+
+    // Moves v's remaining edges into the hierarchy and returns its uncontracted neighbors
+    private int[] recordUpwardEdges(int v) {
+        int[] neighbors = new int[out.size[v] + in.size[v]];
+        int count = 0;
+        for (int i = 0; i < out.size[v]; i++) {
+            int w = out.to[v][i];
+            if (!contracted[w]) {
+                up.addOrImprove(v, w, out.weight[v][i], out.middle[v][i]);
+                in.remove(w, v);
+                contractedNeighbors[w]++;
+                levels[w] = Math.max(levels[w], levels[v] + 1);
+                neighbors[count++] = w;
+            }
+        }
+        for (int i = 0; i < in.size[v]; i++) {
+            int u = in.to[v][i];
+            if (!contracted[u]) {
+                down.addOrImprove(v, u, in.weight[v][i], in.middle[v][i]);
+                out.remove(u, v);
+                if (!up.contains(v, u)) {
+                    contractedNeighbors[u]++;
+                    levels[u] = Math.max(levels[u], levels[v] + 1);
+                    neighbors[count++] = u;
+                }
+            }
+        }
+        // v leaves the remaining graph
+        out.clear(v);
+        in.clear(v);
+        return Arrays.copyOf(neighbors, count);
+    }
+
+    private int liveDegree(EdgeLists lists, int v) {
+        int degree = 0;
+        for (int i = 0; i < lists.size[v]; i++) {
+            if (!contracted[lists.to[v][i]]) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+    // Growable per-node edge lists keeping at most one edge per (node, target) pair
+    static final class EdgeLists {
+        final int[][] to;
+        final double[][] weight;
+        final int[][] middle; // contracted node a shortcut bypasses, -1 for original edges
+        final int[] size;
+
+        EdgeLists(int n) {
+            to = new int[n][];
+            weight = new double[n][];
+            middle = new int[n][];
+            size = new int[n];
+        }
+
+        void addOrImprove(int node, int target, double edgeWeight, int via) {
+            int count = size[node];
+            for (int i = 0; i < count; i++) {
+                if (to[node][i] == target) {
+                    if (edgeWeight < weight[node][i]) {
+                        weight[node][i] = edgeWeight;
+                        middle[node][i] = via;
+                    }
+                    return;
+                }
+            }
+            if (to[node] == null || count == to[node].length) {
+                int capacity = Math.max(4, count * 2);
+                to[node] = to[node] == null ? new int[capacity] : Arrays.copyOf(to[node], capacity);
+                weight[node] = weight[node] == null ? new double[capacity] : Arrays.copyOf(weight[node], capacity);
+                middle[node] = middle[node] == null ? new int[capacity] : Arrays.copyOf(middle[node], capacity);
+            }
+            to[node][count] = target;
+            weight[node][count] = edgeWeight;
+            middle[node][count] = via;
+            size[node] = count + 1;
+        }
+
+        boolean contains(int node, int target) {
+            for (int i = 0; i < size[node]; i++) {
+                if (to[node][i] == target) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void remove(int node, int target) {
+            int count = size[node];
+            for (int i = 0; i < count; i++) {
+                if (to[node][i] == target) {
+                    to[node][i] = to[node][count - 1];
+                    weight[node][i] = weight[node][count - 1];
+                    middle[node][i] = middle[node][count - 1];
+                    size[node] = count - 1;
+                    return;
+                }
+            }
+        }
+
+        void clear(int node) {
+            to[node] = null;
+            weight[node] = null;
+            middle[node] = null;
+            size[node] = 0;
+        }
+
+        ContractionHierarchy.Edges toCsr() {
+            int n = size.length;
+            int[] offsets = new int[n + 1];
+            for (int u = 0; u < n; u++) {
+                offsets[u + 1] = offsets[u] + size[u];
+            }
+            int total = offsets[n];
+            int[] targets = new int[total];
+            double[] weights = new double[total];
+            int[] middles = new int[total];
+            for (int u = 0; u < n; u++) {
+                if (size[u] > 0) {
+                    System.arraycopy(to[u], 0, targets, offsets[u], size[u]);
+                    System.arraycopy(weight[u], 0, weights, offsets[u], size[u]);
+                    System.arraycopy(middle[u], 0, middles, offsets[u], size[u]);
+                }
+            }
+            return new ContractionHierarchy.Edges(offsets, targets, weights, middles);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.om.algorithm;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable compressed-sparse-row adjacency: the outgoing edges of node {@code u} are
+ * {@code targets[offsets[u] .. offsets[u + 1])} with the matching entries of {@code weights}.
+ */
+public final class CsrGraph implements IGraphView {
+    private final Map<String, Integer> ids;
+    private final String[] names;
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final long version; // of the snapshot this copies, -1 when it copies no snapshot
+    private volatile CsrGraph reverse; // built on first use
+
+    CsrGraph(Map<String, Integer> ids, String[] names, double[] xs, double[] ys,
+             int[] offsets, int[] targets, double[] weights) {
+        this(ids, names, xs, ys, offsets, targets, weights, -1);
+    }
+
+    CsrGraph(Map<String, Integer> ids, String[] names, double[] xs, double[] ys,
+             int[] offsets, int[] targets, double[] weights, long version) {
+        this.version = version;
+        this.ids = ids;
+        this.names = names;
+        this.xs = xs;
+        this.ys = ys;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    // Version of the GraphSnapshot this is the compact form of, or -1
+    long version() {
+        return version;
+    }
+
+    // CSR form of any view: the view itself, the snapshot's cached copy, or a fresh copy
+    public static CsrGraph of(IGraphView view) {
+        if (view instanceof CsrGraph) {
+            return (CsrGraph) view;
+        }
+        if (view instanceof GraphSnapshot) {
+            return ((GraphSnapshot) view).compact();
+        }
+        if (view instanceof MappedGraph) {
+            return ((MappedGraph) view).toCsr();
+        }
+        return copyOf(view);
+    }
+
+    // Copies the view node by node, keeping its ids
+    static CsrGraph copyOf(IGraphView view) {
+        int n = view.nodeCount();
+        Map<String, Integer> ids = new HashMap<>();
+        String[] names = new String[n];
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            names[u] = view.nameOf(u);
+            xs[u] = view.x(u);
+            ys[u] = view.y(u);
+            if (names[u] != null) {
+                ids.put(names[u], u);
+            }
+            offsets[u + 1] = offsets[u] + (names[u] != null ? view.degree(u) : 0);
+        }
+        int[] targets = new int[offsets[n]];
+        double[] weights = new double[offsets[n]];
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                targets[e] = view.target(u, e - offsets[u]);
+                weights[e] = view.weight(u, e - offsets[u]);
+            }
+        }
+        return new CsrGraph(ids, names, xs, ys, offsets, targets, weights);
+    }
+
+    // Builds the CSR arrays from the first arcCount entries of parallel arc arrays, in arc order per node
+    static CsrGraph fromArcs(String[] names, double[] xs, double[] ys,
+                             int[] from, int[] to, double[] weight, int arcCount) {
+        int n = names.length;
+        Map<String, Integer> ids = new HashMap<>(Math.max(16, (int) (n / 0.75f) + 1));
+        for (int u = 0; u < n; u++) {
+            ids.put(names[u], u);
+        }
+        int[] offsets = new int[n + 1];
+        for (int e = 0; e < arcCount; e++) {
+            offsets[from[e] + 1]++;
+        }
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+        int[] fill = Arrays.copyOf(offsets, n);
+        int[] targets = new int[arcCount];
+        double[] weights = new double[arcCount];
+        for (int e = 0; e < arcCount; e++) {
+            int slot = fill[from[e]]++;
+            targets[slot] = to[e];
+            weights[slot] = weight[e];
+        }
+        return new CsrGraph(ids, names, xs, ys, offsets, targets, weights);
+    }
+
+    @Override
+    public int nodeCount() {
+        return names.length;
+    }
+
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    @Override
+    public int indexOf(String nodeName) {
+        // The dictionary is shared with later versions, so the name must also be live here
+        Integer id = nodeName == null ? null : ids.get(nodeName);
+        return id != null && id < names.length && names[id] != null ? id : -1;
+    }
+
+    @Override
+    public String nameOf(int node) {
+        return names[node];
+    }
+
+    @Override
+    public double x(int node) {
+        return xs[node];
+    }
+
+    @Override
+    public double y(int node) {
+        return ys[node];
+    }
+
+    @Override
+    public int degree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    @Override
+    public int target(int node, int i) {
+        return targets[offsets[node] + i];
+    }
+
+    @Override
+    public double weight(int node, int i) {
+        return weights[offsets[node] + i];
+    }
+
+    // Same nodes with every edge flipped, used by searches that run backward from the target
+    public CsrGraph reverse() {
+        CsrGraph result = reverse;
+        if (result == null) {
+            int n = names.length;
+            int[] reverseOffsets = new int[n + 1];
+            for (int target : targets) {
+                reverseOffsets[target + 1]++;
+            }
+            for (int i = 0; i < n; i++) {
+                reverseOffsets[i + 1] += reverseOffsets[i];
+            }
+            int[] fill = new int[n];
+            int[] reverseTargets = new int[targets.length];
+            double[] reverseWeights = new double[targets.length];
+            for (int u = 0; u < n; u++) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    int slot = reverseOffsets[v] + fill[v]++;
+                    reverseTargets[slot] = u;
+                    reverseWeights[slot] = weights[e];
+                }
+            }
+            result = new CsrGraph(ids, names, xs, ys, reverseOffsets, reverseTargets, reverseWeights);
+            result.reverse = this;
+            reverse = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,73 @@
+package com.om.algorithm;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Delta-stepping on a fork-join pool, for full single-source computations on very large
+ * graphs with non-negative weights. Nodes are grouped into distance buckets of width delta and
+ * each bucket is relaxed in parallel; see {@link DeltaSteppingSearch}. Point-to-point queries
+ * stop once the end node's bucket is done. Undirected, like {@link DijkstraAlgoShortestPathImpl}.
+ * Searches read the queried version in place, whether a CSR copy, a snapshot in snapshot mode,
+ * or an attached or off-heap graph.
+ */
+public class DeltaSteppingAlgoShortestPathImpl extends AbstractAlgoShortestPath {
+
+    private final ForkJoinPool pool;
+    private final double delta; // NaN picks one per graph version
+
+    public DeltaSteppingAlgoShortestPathImpl() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    // Bucket width chosen from the weight distribution of the graph searched
+    public DeltaSteppingAlgoShortestPathImpl(ForkJoinPool pool) {
+        this(pool, GraphStorage.HEAP);
+    }
+
+    public DeltaSteppingAlgoShortestPathImpl(ForkJoinPool pool, GraphStorage storage) {
+        super(false, storage);
+        this.pool = Objects.requireNonNull(pool, "pool");
+        this.delta = Double.NaN;
+    }
+
+    /**
+     * Fixed bucket width. Small values approach Dijkstra with little parallel work per bucket,
+     * large ones approach Bellman-Ford with nodes relaxed several times.
+     */
+    public DeltaSteppingAlgoShortestPathImpl(ForkJoinPool pool, double delta) {
+        this(pool, delta, GraphStorage.HEAP);
+    }
+
+    public DeltaSteppingAlgoShortestPathImpl(ForkJoinPool pool, double delta, GraphStorage storage) {
+        super(false, storage);
+        if (!(delta > 0) || delta == Double.POSITIVE_INFINITY) {
+            throw new IllegalArgumentException("Delta must be positive and finite: " + delta);
+        }
+        this.pool = Objects.requireNonNull(pool, "pool");
+        this.delta = delta;
+    }
+
+    // The fixed bucket width, or NaN when it is chosen per graph
+    public double getDelta() {
+        return delta;
+    }
+
+    @Override
+    public PathResult findShortestPath(String startNode, String endNode) {
+        IGraphView view = viewFor(startNode, endNode);
+        int end = view.indexOf(endNode);
+        return DeltaSteppingSearch.run(view, view.indexOf(startNode), end, deltaFor(view), pool).pathTo(end);
+    }
+
+    // Distances and parents from the source to every node of the current graph version
+    public SingleSourcePaths computeShortestPaths(String sourceNode) {
+        IGraphView view = viewFor(sourceNode, sourceNode);
+        DeltaSteppingSearch search = DeltaSteppingSearch.run(view, view.indexOf(sourceNode), -1, deltaFor(view), pool);
+        return new SingleSourcePaths(view, sourceNode, search.distances(), search.parents());
+    }
+
+    private double deltaFor(IGraphView view) {
+        return Double.isNaN(delta) ? DeltaSteppingSearch.autoDelta(view) : delta;
+    }
+}
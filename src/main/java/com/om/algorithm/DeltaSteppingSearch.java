@@ -0,0 +1,350 @@
+package com.om.algorithm;
+
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Delta-stepping single-source shortest paths (Meyer and Sanders) for non-negative weights.
+ * Tentative distances sort nodes into buckets of width delta. The smallest bucket is emptied
+ * in phases that relax the light edges (weight at most delta) of all its nodes at once, since
+ * those may refill it; the heavy edges of everything it held are relaxed once at the end.
+ *
+ * <p>Each phase runs in two parallel steps with no shared writes: frontier chunks turn their
+ * edges into relaxation requests grouped by the owning shard of the target node, then every
+ * shard applies the requests for its own nodes and files them into its own buckets.
+ */
+final class DeltaSteppingSearch {
+    // Frontier nodes, or relaxation requests, per task
+    private static final int GRAIN = 4096;
+    private static final int WEIGHT_SAMPLE = 1024;
+
+    private final IGraphView graph;
+    private final double delta;
+    private final ForkJoinPool pool;
+    private final double[] distances;
+    private final int[] parents;
+    private final long[] bucketOf; // bucket the node is filed in, or -1
+    private final int[] lastRound; // bucket round that last counted the node as emptied
+    private final int[] stamps; // phase that last changed the node
+    private final Shard[] shards;
+    private int phase;
+
+    private DeltaSteppingSearch(IGraphView graph, double delta, ForkJoinPool pool) {
+        this.graph = graph;
+        this.delta = delta;
+        this.pool = pool;
+        int n = graph.nodeCount();
+        distances = new double[n];
+        parents = new int[n];
+        bucketOf = new long[n];
+        lastRound = new int[n];
+        stamps = new int[n];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(parents, -1);
+        Arrays.fill(bucketOf, -1);
+        shards = new Shard[pool.getParallelism() == 1 ? 1 : 2 * pool.getParallelism()];
+        for (int s = 0; s < shards.length; s++) {
+            shards[s] = new Shard();
+        }
+    }
+
+    /**
+     * Bucket width for the graph: the mean of an evenly spread sample of its positive weights,
+     * so a bucket spans about one typical edge. Narrower buckets leave the pool idle with tiny
+     * frontiers; much wider ones make nodes settle several times.
+     */
+    static double autoDelta(IGraphView graph) {
+        int n = graph.nodeCount();
+        int stride = Math.max(1, n / WEIGHT_SAMPLE);
+        double sum = 0;
+        int count = 0;
+        for (int u = 0; u < n && count < WEIGHT_SAMPLE; u += stride) {
+            for (int i = 0, degree = graph.degree(u); i < degree; i++) {
+                double weight = graph.weight(u, i);
+                if (weight > 0 && weight < Double.POSITIVE_INFINITY) {
+                    sum += weight;
+                    count++;
+                }
+            }
+        }
+        return count == 0 ? 1.0 : sum / count;
+    }
+
+    // Distances from source; with a target != -1 it stops once the target's bucket is done
+    static DeltaSteppingSearch run(IGraphView graph, int source, int target, double delta, ForkJoinPool pool) {
+        DeltaSteppingSearch search = new DeltaSteppingSearch(graph, delta, pool);
+        search.distances[source] = 0.0;
+        search.file(search.shards[search.shardOf(source)], source);
+        SearchCounters counters = SearchCounters.forThread();
+        counters.pushes++;
+        IntList emptied = new IntList();
+        int round = 0;
+        for (long bucket = search.nextBucket(); bucket != -1; bucket = search.nextBucket()) {
+            if (target != -1 && search.distances[target] < bucket * delta) {
+                break; // every later bucket is farther than the target
+            }
+            round++;
+            emptied.size = 0;
+            IntList frontier;
+            while ((frontier = search.take(bucket, emptied, round)).size > 0) {
+                counters.settled += frontier.size;
+                search.relax(frontier, true, counters);
+            }
+            search.relax(emptied, false, counters);
+        }
+        return search;
+    }
+
+    double distance(int node) {
+        return distances[node];
+    }
+
+    // Distances of every node, indexed by id; must not be modified
+    double[] distances() {
+        return distances;
+    }
+
+    // Parent of every node on its shortest path, -1 for the source and unreached nodes; must not be modified
+    int[] parents() {
+        return parents;
+    }
+
+    PathResult pathTo(int end) {
+        if (distances[end] == Double.POSITIVE_INFINITY) {
+            return Paths.noPath();
+        }
+        return Paths.fromParents(graph, parents, end, distances[end]);
+    }
+
+    private int shardOf(int node) {
+        return node % shards.length;
+    }
+
+    private long bucketFor(double distance) {
+        return (long) (distance / delta);
+    }
+
+    // Files the node in the bucket of its distance unless it is already there; only the owning shard calls this
+    private boolean file(Shard shard, int node) {
+        long bucket = bucketFor(distances[node]);
+        if (bucketOf[node] == bucket) {
+            return false;
+        }
+        bucketOf[node] = bucket;
+        shard.buckets.computeIfAbsent(bucket, b -> new IntList()).add(node);
+        return true;
+    }
+
+    // Smallest non-empty bucket over all shards, or -1
+    private long nextBucket() {
+        long lowest = -1;
+        for (Shard shard : shards) {
+            if (!shard.buckets.isEmpty() && (lowest == -1 || shard.buckets.firstKey() < lowest)) {
+                lowest = shard.buckets.firstKey();
+            }
+        }
+        return lowest;
+    }
+
+    // Removes the bucket from every shard, dropping entries of nodes that have moved on since they were filed
+    private IntList take(long bucket, IntList emptied, int round) {
+        IntList frontier = new IntList();
+        for (Shard shard : shards) {
+            IntList nodes = shard.buckets.remove(bucket);
+            if (nodes == null) {
+                continue;
+            }
+            for (int i = 0; i < nodes.size; i++) {
+                int v = nodes.values[i];
+                if (bucketOf[v] == bucket) {
+                    bucketOf[v] = -1;
+                    frontier.add(v);
+                    if (lastRound[v] != round) {
+                        lastRound[v] = round;
+                        emptied.add(v);
+                    }
+                }
+            }
+        }
+        return frontier;
+    }
+
+    // Relaxes the light or the heavy edges of the nodes and files every improved target
+    private void relax(IntList nodes, boolean light, SearchCounters counters) {
+        if (nodes.size == 0) {
+            return;
+        }
+        phase++;
+        Requests[] chunks = new Requests[(nodes.size + GRAIN - 1) / GRAIN];
+        forEach(chunks.length, c -> chunks[c] = requests(nodes, c * GRAIN, Math.min(nodes.size, (c + 1) * GRAIN), light));
+        long requestCount = 0;
+        for (Requests chunk : chunks) {
+            counters.relaxed += chunk.scanned;
+            requestCount += chunk.count;
+        }
+        if (requestCount == 0) {
+            return;
+        }
+        if (requestCount < GRAIN) {
+            for (int s = 0; s < shards.length; s++) {
+                apply(s, chunks);
+            }
+        } else {
+            forEach(shards.length, s -> apply(s, chunks));
+        }
+        for (Shard shard : shards) {
+            counters.pushes += shard.filed;
+            counters.decreaseKeys += shard.improved - shard.filed;
+            shard.filed = 0;
+            shard.improved = 0;
+        }
+    }
+
+    // One request per edge of the right class out of nodes[from, to), sorted by the shard of the target
+    private Requests requests(IntList nodes, int from, int to, boolean light) {
+        IntList targets = new IntList();
+        IntList sources = new IntList();
+        double[] offers = new double[64];
+        int[] perShard = new int[shards.length + 1];
+        long scanned = 0;
+        for (int k = from; k < to; k++) {
+            int u = nodes.values[k];
+            double distance = distances[u];
+            int degree = graph.degree(u);
+            scanned += degree;
+            for (int i = 0; i < degree; i++) {
+                double weight = graph.weight(u, i);
+                if ((weight <= delta) != light) {
+                    continue;
+                }
+                int v = graph.target(u, i);
+                double offer = distance + weight;
+                if (offer < distances[v]) { // distances only change between the two steps
+                    if (targets.size == offers.length) {
+                        offers = Arrays.copyOf(offers, 2 * offers.length);
+                    }
+                    offers[targets.size] = offer;
+                    targets.add(v);
+                    sources.add(u);
+                    perShard[shardOf(v) + 1]++;
+                }
+            }
+        }
+        Requests result = new Requests(targets.size, shards.length, scanned);
+        for (int s = 0; s < shards.length; s++) {
+            perShard[s + 1] += perShard[s];
+        }
+        System.arraycopy(perShard, 0, result.offsets, 0, perShard.length);
+        for (int r = 0; r < targets.size; r++) {
+            int slot = perShard[shardOf(targets.values[r])]++;
+            result.targets[slot] = targets.values[r];
+            result.sources[slot] = sources.values[r];
+            result.offers[slot] = offers[r];
+        }
+        return result;
+    }
+
+    // Applies every request for the shard's nodes, then files the nodes that improved
+    private void apply(int s, Requests[] chunks) {
+        Shard shard = shards[s];
+        IntList changed = shard.changed;
+        changed.size = 0;
+        for (Requests chunk : chunks) {
+            for (int r = chunk.offsets[s], end = chunk.offsets[s + 1]; r < end; r++) {
+                int v = chunk.targets[r];
+                if (chunk.offers[r] < distances[v]) {
+                    distances[v] = chunk.offers[r];
+                    parents[v] = chunk.sources[r];
+                    if (stamps[v] != phase) {
+                        stamps[v] = phase;
+                        changed.add(v);
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < changed.size; i++) {
+            shard.improved++;
+            if (file(shard, changed.values[i])) {
+                shard.filed++;
+            }
+        }
+    }
+
+    // Runs body for 0 .. count - 1 on the pool, inline when there is a single index
+    private void forEach(int count, IndexBody body) {
+        if (count == 1) {
+            body.run(0);
+        } else {
+            pool.invoke(new IndexTask(body, 0, count));
+        }
+    }
+
+    private interface IndexBody {
+        void run(int index);
+    }
+
+    private static final class IndexTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final IndexBody body;
+        private final int from;
+        private final int to;
+
+        IndexTask(IndexBody body, int from, int to) {
+            this.body = body;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                body.run(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new IndexTask(body, from, middle), new IndexTask(body, middle, to));
+        }
+    }
+
+    // Relaxation requests of one frontier chunk; those for shard s are at [offsets[s], offsets[s + 1])
+    private static final class Requests {
+        final int count;
+        final int[] targets;
+        final int[] sources;
+        final double[] offers;
+        final int[] offsets;
+        final long scanned;
+
+        Requests(int count, int shardCount, long scanned) {
+            this.count = count;
+            this.targets = new int[count];
+            this.sources = new int[count];
+            this.offers = new double[count];
+            this.offsets = new int[shardCount + 1];
+            this.scanned = scanned;
+        }
+    }
+
+    // The buckets of the nodes with id % shardCount == index; touched by one thread at a time
+    private static final class Shard {
+        final TreeMap<Long, IntList> buckets = new TreeMap<>();
+        final IntList changed = new IntList();
+        long filed;
+        long improved;
+    }
+
+    private static final class IntList {
+        int[] values = new int[16];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            values[size++] = value;
+        }
+    }
+}
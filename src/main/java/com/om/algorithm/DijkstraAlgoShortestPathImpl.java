@@ -1,121 +1,301 @@
 package com.om.algorithm;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
-public class DijkstraAlgoShortestPathImpl implements IAlgoShortestPath {
+public class DijkstraAlgoShortestPathImpl extends AbstractAlgoShortestPath implements IAlgoDistanceMatrix {
 
-    private final Map<String, List<Edge>> graph = new HashMap<>();
+    private final int heapArity;
 
-    @Override
-    public void addNode(String nodeName, double x, double y) {
-        graph.putIfAbsent(nodeName, new ArrayList<>());
+    public DijkstraAlgoShortestPathImpl() {
+        this(IndexedDaryHeap.DEFAULT_ARITY);
     }
 
-    @Override
-    public void addEdge(String fromNode, String toNode, double weight) {
-        graph.putIfAbsent(fromNode, new ArrayList<>());
-        graph.putIfAbsent(toNode, new ArrayList<>());
-        graph.get(fromNode).add(new Edge(fromNode, toNode, weight));
-        graph.get(toNode).add(new Edge(toNode, fromNode, weight)); // Assuming undirected graph
+    // heapArity is the number of children per node in the priority queue
+    public DijkstraAlgoShortestPathImpl(int heapArity) {
+        this(heapArity, GraphStorage.HEAP);
+    }
 
+    public DijkstraAlgoShortestPathImpl(int heapArity, GraphStorage storage) {
+        super(false, storage); // Assuming undirected graph
+        if (heapArity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2: " + heapArity);
+        }
+        this.heapArity = heapArity;
     }
 
     @Override
-    public void removeNode(String nodeName) {
-        graph.remove(nodeName);
-        for (List<Edge> edges : graph.values()) {
-            edges.removeIf(edge -> edge.getToNode().equals(nodeName));
-
-        }
+    public PathResult findShortestPath(String startNode, String endNode) {
+        IGraphView view = viewFor(startNode, endNode);
+        return shortestPath(view, view.indexOf(startNode), view.indexOf(endNode), heapArity);
     }
 
+    // Same search without parent links or a path, so it allocates nothing per query
+    @Override
+    public double findShortestDistance(String startNode, String endNode) {
+        IGraphView view = viewFor(startNode, endNode);
+        return shortestDistance(view, view.indexOf(startNode), view.indexOf(endNode), heapArity);
+    }
 
+    // One search from the start that runs until every end node is settled, then reads all paths off its tree
     @Override
-    public void removeEdge(String fromNode, String toNode) {
-        List<Edge> edgesFrom = graph.get(fromNode);
-        if (edgesFrom != null) {
-            edgesFrom.removeIf(edge -> edge.getToNode().equals(toNode));
+    public List<PathResult> findShortestPaths(String startNode, List<String> endNodes) {
+        IGraphView view = viewFor(startNode, startNode);
+        int[] ends = resolve(view, endNodes);
+        if (ends.length == 0) {
+            return List.of(); // nothing would stop the search early
+        }
+        // Distinct end ids in order, so marking them costs O(ends) rather than O(V) per batch
+        int[] sorted = ends.clone();
+        Arrays.sort(sorted);
+        int remaining = 0;
+        for (int end : sorted) {
+            if (remaining == 0 || sorted[remaining - 1] != end) {
+                sorted[remaining++] = end;
+            }
         }
-        List<Edge> edgesTo = graph.get(toNode);
-        if (edgesTo != null) {
-            edgesTo.removeIf(edge -> edge.getToNode().equals(fromNode));
+        int distinct = remaining;
+        SearchContext context = SearchContext.forThread(view.nodeCount(), heapArity);
+        IndexedDaryHeap queue = context.heap();
+        int start = view.indexOf(startNode);
+        context.update(start, 0.0, -1);
+        queue.push(start, 0.0);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            if (Arrays.binarySearch(sorted, 0, distinct, u) >= 0 && --remaining == 0) {
+                break;
+            }
+            double distU = context.distance(u);
+            context.counters().relaxed += view.degree(u);
+            for (int i = 0, degree = view.degree(u); i < degree; i++) {
+                int neighbor = view.target(u, i);
+                if (queue.isSettled(neighbor)) {
+                    continue;
+                }
+                double newDist = distU + view.weight(u, i);
+                if (newDist < context.distance(neighbor)) {
+                    context.update(neighbor, newDist, u);
+                    queue.push(neighbor, newDist);
+                }
+            }
         }
+        List<PathResult> results = new ArrayList<>(ends.length);
+        for (int end : ends) {
+            results.add(context.pathTo(view, end));
+        }
+        return results;
+    }
 
+    // Distances and parents from the source to every node of the current graph version
+    public SingleSourcePaths computeShortestPaths(String sourceNode) {
+        IGraphView view = viewFor(sourceNode, sourceNode);
+        int source = view.indexOf(sourceNode);
+        SearchContext context = SearchContext.forThread(view.nodeCount(), heapArity);
+        IndexedDaryHeap queue = context.heap();
+        context.update(source, 0.0, -1);
+        queue.push(source, 0.0);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            double distU = context.distance(u);
+            context.counters().relaxed += view.degree(u);
+            for (int i = 0, degree = view.degree(u); i < degree; i++) {
+                int neighbor = view.target(u, i);
+                double newDist = distU + view.weight(u, i);
+                if (newDist < context.distance(neighbor)) {
+                    context.update(neighbor, newDist, u);
+                    queue.push(neighbor, newDist);
+                }
+            }
+        }
+        double[] distances = new double[view.nodeCount()];
+        int[] parents = new int[view.nodeCount()];
+        for (int u = 0; u < distances.length; u++) {
+            distances[u] = context.distance(u);
+            parents[u] = context.parent(u);
+        }
+        return new SingleSourcePaths(view, sourceNode, distances, parents);
+    }
 
+    // Every node within budget of the source, streamed to the consumer; returns how many there were
+    public int findReachable(String sourceNode, double budget, IReachableConsumer consumer) {
+        return findReachable(List.of(sourceNode), budget, consumer);
     }
 
+    /**
+     * Streams every node whose distance to the nearest of the sources is at most budget, with that
+     * distance, in increasing order; returns how many nodes it reported. The search never queues a
+     * node beyond the budget, so it costs time in proportion to the area reached, not to the graph.
+     * The consumer runs inside the search and must not start another query on the same thread.
+     */
+    public int findReachable(Collection<String> sourceNodes, double budget, IReachableConsumer consumer) {
+        if (!(budget >= 0)) {
+            throw new IllegalArgumentException("Budget must be non-negative: " + budget);
+        }
+        if (sourceNodes.isEmpty()) {
+            throw new IllegalArgumentException("At least one source node is required");
+        }
+        IGraphView view = currentView();
+        return reachable(view, resolve(view, List.copyOf(sourceNodes)), budget, consumer, heapArity);
+    }
 
+    // Multi-source search pruned at budget that reports each node as it is settled
+    static int reachable(IGraphView view, int[] sources, double budget, IReachableConsumer consumer, int heapArity) {
+        SearchContext context = SearchContext.forThread(view.nodeCount(), heapArity);
+        IndexedDaryHeap queue = context.heap();
+        for (int source : sources) {
+            context.update(source, 0.0, -1);
+            queue.push(source, 0.0); // a repeated source is queued once
+        }
+        int reported = 0;
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            double distU = context.distance(u);
+            consumer.accept(view.nameOf(u), distU);
+            reported++;
+            context.counters().relaxed += view.degree(u);
+            for (int i = 0, degree = view.degree(u); i < degree; i++) {
+                int neighbor = view.target(u, i);
+                if (queue.isSettled(neighbor)) {
+                    continue;
+                }
+                double newDist = distU + view.weight(u, i);
+                if (newDist <= budget && newDist < context.distance(neighbor)) {
+                    context.update(neighbor, newDist, u);
+                    queue.push(neighbor, newDist);
+                }
+            }
+        }
+        return reported;
+    }
 
     @Override
-    public PathResult findShortestPath(String startNode, String endNode) {
-        if(startNode == null || endNode == null || !graph.containsKey(startNode) || !graph.containsKey(endNode)) {
-            throw new IllegalArgumentException("Start or end node does not exist in the graph: " + startNode + " → " + endNode);
-        }
+    public DistanceMatrix computeDistanceMatrix(List<String> sources, List<String> targets) {
+        return computeDistanceMatrix(sources, targets, ForkJoinPool.commonPool());
+    }
 
-        Set<String> allNodes = new HashSet<>(); // Set to store all nodes
-        Map<String, Double> distances = new HashMap<>(); // store the current shortest distance to each node
-        Map<String, String> previousNodes = new HashMap<>(); //store the previous nodes in the shortest path
-        PriorityQueue<NodeEntry> queue = new PriorityQueue<>(Comparator.comparingDouble(n -> n.distance)); // Priority queue for Dijkstra's algorithm
+    /**
+     * Runs one search per source on the given pool. Each search stops once it has settled every
+     * target, and the sources are split across the pool's workers.
+     */
+    public DistanceMatrix computeDistanceMatrix(List<String> sources, List<String> targets, ForkJoinPool pool) {
+        IGraphView view = currentView();
+        double[] distances = distanceRows(view, resolve(view, sources), resolve(view, targets), pool, heapArity);
+        return new DistanceMatrix(List.copyOf(sources), List.copyOf(targets), distances, view,
+                (start, end) -> shortestPath(view, start, end, heapArity));
+    }
 
-        // collect all nodes in the graph including the start(fromNode) and end nodes(ToNode)
-        for(Map.Entry<String, List<Edge>> entry : graph.entrySet()){
-            String fromNode = entry.getKey();
-            allNodes.add(fromNode);
-            for(Edge edge : entry.getValue()){
-                allNodes.add(edge.getToNode());
+    // Row-major distances from every source to every target, one search per source on the pool
+    static double[] distanceRows(IGraphView view, int[] sourceIds, int[] targetIds, ForkJoinPool pool, int heapArity) {
+        boolean[] isTarget = new boolean[view.nodeCount()];
+        int distinctTargets = 0;
+        for (int target : targetIds) {
+            if (!isTarget[target]) {
+                isTarget[target] = true;
+                distinctTargets++;
             }
         }
-        //Initialize distances and previous nodes for all nodes
-        for (String node : allNodes) {
-            distances.put(node, Double.POSITIVE_INFINITY);
-            previousNodes.put(node, null);
+        double[] distances = new double[sourceIds.length * targetIds.length];
+        if (distances.length > 0) {
+            int targetCount = distinctTargets;
+            pool.invoke(new MatrixTask((row, out, offset) -> distancesTo(view, sourceIds[row], targetIds, isTarget,
+                    targetCount, out, offset, heapArity), targetIds.length, distances, 0, sourceIds.length));
         }
+        return distances;
+    }
 
-        distances.put(startNode, 0.0);
-        queue.add(new NodeEntry(startNode, 0.0));
+    static PathResult shortestPath(IGraphView view, int start, int end, int heapArity) {
+        SearchContext context = search(view, start, end, heapArity, true);
+        //if no path found , return empty path and infinite distance
+        return context != null ? context.pathTo(view, end) : Paths.noPath();
+    }
+
+    static double shortestDistance(IGraphView view, int start, int end, int heapArity) {
+        SearchContext context = search(view, start, end, heapArity, false);
+        return context != null ? context.distance(end) : Double.POSITIVE_INFINITY;
+    }
+
+    // Searches until end is settled and returns the context holding its distance, or null if end is unreachable
+    private static SearchContext search(IGraphView view, int start, int end, int heapArity, boolean withParents) {
+        // Distances, previous nodes and the queue come from the pooled per-thread context,
+        // so only the nodes the search touches are ever initialized
+        SearchContext context = SearchContext.forThread(view.nodeCount(), heapArity);
+        IndexedDaryHeap queue = context.heap(); // Priority queue for Dijkstra's algorithm, one entry per node
+
+        context.update(start, 0.0, -1);
+        queue.push(start, 0.0);
         // Dijkstra's algorithm
-        while(!queue.isEmpty()){
-            NodeEntry current = queue.poll();
+        while (!queue.isEmpty()) {
+            int u = queue.poll(); // u is settled, its distance is final
+            if (u == end) {
+                return context;
+            }
 
             //iterate through all edges of the current node
-            for (Edge edge : graph.getOrDefault(current.name, new ArrayList<>())) { // Get edges for the current node
-                String neighbor = edge.getToNode();
-                double newDist = distances.get(current.name) + edge.getWeight();
+            double distU = context.distance(u);
+            context.counters().relaxed += view.degree(u);
+            for (int i = 0, degree = view.degree(u); i < degree; i++) {
+                int neighbor = view.target(u, i);
+                if (queue.isSettled(neighbor)) {
+                    continue;
+                }
+                double newDist = distU + view.weight(u, i);
                 //Relaxation step
-                if (newDist < distances.get(neighbor)) {
-                    distances.put(neighbor, newDist);
-                    previousNodes.put(neighbor, current.name);
-                    queue.add(new NodeEntry(neighbor, newDist));
+                if (newDist < context.distance(neighbor)) {
+                    if (withParents) {
+                        context.update(neighbor, newDist, u);
+                    } else {
+                        context.updateDistance(neighbor, newDist);
+                    }
+                    queue.push(neighbor, newDist); // insert or decrease-key
                 }
-
             }
-
         }
-        // Reconstruct the shortest path
-        List<String> path = new ArrayList<>();
-        String currentNode = endNode;
-        while (currentNode != null && previousNodes.containsKey(currentNode)) {
-            path.add(currentNode);
-            currentNode = previousNodes.get(currentNode);
+        return null;
+    }
+
+    // Distances from source to every target, written to row[offset ..]; stops once all targets are settled
+    static void distancesTo(IGraphView view, int source, int[] targets, boolean[] isTarget, int distinctTargets,
+                            double[] row, int offset, int heapArity) {
+        SearchContext context = SearchContext.forThread(view.nodeCount(), heapArity);
+        IndexedDaryHeap queue = context.heap();
+        context.update(source, 0.0, -1);
+        queue.push(source, 0.0);
+        int remaining = distinctTargets;
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            if (isTarget[u] && --remaining == 0) {
+                break;
+            }
+            double distU = context.distance(u);
+            context.counters().relaxed += view.degree(u);
+            for (int i = 0, degree = view.degree(u); i < degree; i++) {
+                int neighbor = view.target(u, i);
+                if (queue.isSettled(neighbor)) {
+                    continue;
+                }
+                double newDist = distU + view.weight(u, i);
+                if (newDist < context.distance(neighbor)) {
+                    context.updateDistance(neighbor, newDist); // rows never need the paths
+                    queue.push(neighbor, newDist);
+                }
+            }
         }
-        Collections.reverse(path);// Reverse the path to get the correct order
-        //if no path found , return empty path and infinite distance
-        if (path.isEmpty() || !path.get(0).equals(startNode)) {
-            return new PathResult(Collections.emptyList(), Double.POSITIVE_INFINITY);
+        for (int j = 0; j < targets.length; j++) {
+            row[offset + j] = context.distance(targets[j]);
         }
-        double totalDistance = distances.get(endNode);
-        return new PathResult(path, totalDistance); // Return the path and total distance
     }
 
-    private static class NodeEntry { // Helper class for priority queue
-        String name;
-        double distance;
-
-        NodeEntry(String name, double distance) {
-            this.name = name;
-            this.distance = distance;
+    static int[] resolve(IGraphView view, List<String> nodes) {
+        int[] ids = new int[nodes.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = view.indexOf(nodes.get(i));
+            if (ids[i] == -1) {
+                throw new IllegalArgumentException("Node does not exist in the graph: " + nodes.get(i));
+            }
         }
+        return ids;
     }
 }
-
-
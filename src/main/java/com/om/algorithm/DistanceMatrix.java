@@ -0,0 +1,60 @@
+package com.om.algorithm;
+
+import java.util.*;
+
+/**
+ * Distances from a list of sources to a list of targets, stored row-major.
+ * Unreachable pairs hold {@code Double.POSITIVE_INFINITY}. Paths are not kept; {@link #getPath}
+ * recomputes one against the graph version the matrix was computed on.
+ */
+public class DistanceMatrix {
+    private final List<String> sources;
+    private final List<String> targets;
+    private final double[] distances;
+    private final IGraphView view;
+    private final PathFinder paths;
+
+    // Point-to-point search on the matrix's graph version, by node id
+    interface PathFinder {
+        PathResult find(int start, int end);
+    }
+
+    DistanceMatrix(List<String> sources, List<String> targets, double[] distances, IGraphView view, PathFinder paths) {
+        this.sources = sources;
+        this.targets = targets;
+        this.distances = distances;
+        this.view = view;
+        this.paths = paths;
+    }
+
+    public List<String> getSources() {
+        return sources;
+    }
+
+    public List<String> getTargets() {
+        return targets;
+    }
+
+    public double getDistance(int sourceIndex, int targetIndex) {
+        return distances[sourceIndex * targets.size() + Objects.checkIndex(targetIndex, targets.size())];
+    }
+
+    public PathResult getPath(int sourceIndex, int targetIndex) {
+        int start = view.indexOf(sources.get(sourceIndex));
+        int end = view.indexOf(targets.get(targetIndex));
+        return paths.find(start, end);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < sources.size(); i++) {
+            result.append(sources.get(i)).append(':');
+            for (int j = 0; j < targets.size(); j++) {
+                result.append(' ').append(getDistance(i, j));
+            }
+            result.append('\n');
+        }
+        return result.toString();
+    }
+}
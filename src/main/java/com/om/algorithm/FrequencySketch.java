@@ -0,0 +1,64 @@
+package com.om.algorithm;
+
+/**
+ * Count-min sketch of how often keys were seen recently, the admission filter of W-TinyLFU.
+ * Counters saturate at 15 and are all halved once the number of recorded accesses reaches ten
+ * times the width, so popularity from long ago fades out. Not thread-safe.
+ */
+final class FrequencySketch {
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x97cb3127, 0xb1a4f0c5, 0x4b1e6cd3, 0x2f6a82ed};
+
+    private final byte[] counters; // DEPTH rows of width counters
+    private final int width;
+    private final int sampleSize;
+    private int additions;
+
+    // expectedKeys is rounded up to a power of two, at least 16
+    FrequencySketch(int expectedKeys) {
+        int width = 16;
+        while (width < expectedKeys && width < (1 << 24)) {
+            width <<= 1;
+        }
+        this.width = width;
+        this.counters = new byte[DEPTH * width];
+        this.sampleSize = 10 * width;
+    }
+
+    void increment(int hash) {
+        boolean added = false;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = indexOf(hash, row);
+            if (counters[index] < MAX_COUNT) {
+                counters[index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    // Estimated number of recent accesses; never less than the true count since the last reset
+    int frequency(int hash) {
+        int min = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, counters[indexOf(hash, row)]);
+        }
+        return min;
+    }
+
+    private void reset() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] >>= 1;
+        }
+        additions /= 2;
+    }
+
+    private int indexOf(int hash, int row) {
+        int h = (hash + SEEDS[row]) * 0x9e3779b9;
+        h ^= h >>> 16;
+        return row * width + (h & (width - 1));
+    }
+}
@@ -0,0 +1,226 @@
+package com.om.algorithm;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded synthetic graphs for tests and benchmarks; the same arguments always give the same
+ * graph. Nodes are named {@code "0"} to {@code "n-1"}. Each undirected edge is stored once, so
+ * undirected implementations can {@code importGraph} the result as is, while directed ones also
+ * import its {@link CsrGraph#reverse()}. Weights are never below the Euclidean distance of the
+ * endpoints, so the A* heuristic stays admissible on the graphs with coordinates.
+ */
+public final class GraphGenerator {
+
+    private GraphGenerator() {
+    }
+
+    // width x height lattice with 4-neighbour edges, weights 1 to 10 per unit step
+    public static CsrGraph grid(int width, int height, long seed) {
+        checkPositive(width, "width");
+        checkPositive(height, "height");
+        SplittableRandom random = new SplittableRandom(seed);
+        int n = Math.multiplyExact(width, height);
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        Arcs arcs = new Arcs(2L * n);
+        for (int row = 0; row < height; row++) {
+            for (int column = 0; column < width; column++) {
+                int u = row * width + column;
+                xs[u] = column;
+                ys[u] = row;
+                if (column + 1 < width) {
+                    arcs.add(u, u + 1, 1 + random.nextInt(10));
+                }
+                if (row + 1 < height) {
+                    arcs.add(u, u + width, 1 + random.nextInt(10));
+                }
+            }
+        }
+        return arcs.build(xs, ys);
+    }
+
+    /**
+     * n points uniform in the unit square, joined when closer than the radius that gives the
+     * requested average degree; weights are the distances.
+     */
+    public static CsrGraph randomGeometric(int n, double averageDegree, long seed) {
+        checkPositive(n, "node count");
+        SplittableRandom random = new SplittableRandom(seed);
+        double radius = Math.sqrt(averageDegree / (Math.PI * n));
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int u = 0; u < n; u++) {
+            xs[u] = random.nextDouble();
+            ys[u] = random.nextDouble();
+        }
+        // Bucket the points into cells of side >= radius, so neighbours lie in adjacent cells
+        int cells = Math.max(1, Math.min((int) (1 / radius), (int) Math.sqrt(n) + 1));
+        int[] cellStart = new int[cells * cells + 1];
+        int[] cellOf = new int[n];
+        for (int u = 0; u < n; u++) {
+            cellOf[u] = cell(ys[u], cells) * cells + cell(xs[u], cells);
+            cellStart[cellOf[u] + 1]++;
+        }
+        for (int c = 0; c < cells * cells; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        int[] fill = Arrays.copyOf(cellStart, cells * cells);
+        int[] members = new int[n];
+        for (int u = 0; u < n; u++) {
+            members[fill[cellOf[u]]++] = u;
+        }
+        Arcs arcs = new Arcs((long) (averageDegree * n / 2) + 16);
+        for (int u = 0; u < n; u++) {
+            int cx = cellOf[u] % cells;
+            int cy = cellOf[u] / cells;
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    int x = cx + dx;
+                    int y = cy + dy;
+                    if (x < 0 || y < 0 || x >= cells || y >= cells) {
+                        continue;
+                    }
+                    int c = y * cells + x;
+                    for (int i = cellStart[c]; i < cellStart[c + 1]; i++) {
+                        int v = members[i];
+                        double distance = Math.hypot(xs[u] - xs[v], ys[u] - ys[v]);
+                        if (v > u && distance <= radius) {
+                            arcs.add(u, v, distance);
+                        }
+                    }
+                }
+            }
+        }
+        return arcs.build(xs, ys);
+    }
+
+    /**
+     * Barabási–Albert preferential attachment: each new node links to edgesPerNode distinct
+     * earlier nodes chosen in proportion to their degree. No coordinates; weights 1 to 100.
+     */
+    public static CsrGraph scaleFree(int n, int edgesPerNode, long seed) {
+        checkPositive(n, "node count");
+        checkPositive(edgesPerNode, "edges per node");
+        SplittableRandom random = new SplittableRandom(seed);
+        // Every edge endpoint once, so a uniform pick from it is a degree-proportional pick
+        int[] endpoints = new int[Math.toIntExact(2L * n * edgesPerNode)];
+        int endpointCount = 0;
+        Arcs arcs = new Arcs((long) n * edgesPerNode);
+        int[] chosen = new int[edgesPerNode];
+        for (int u = 1; u < n; u++) {
+            int links = Math.min(edgesPerNode, u);
+            for (int i = 0; i < links; i++) {
+                int v;
+                do {
+                    v = endpointCount == 0 || random.nextInt(4) == 0 ? random.nextInt(u) : endpoints[random.nextInt(endpointCount)];
+                } while (contains(chosen, i, v));
+                chosen[i] = v;
+                arcs.add(u, v, 1 + random.nextInt(100));
+                endpoints[endpointCount++] = u;
+                endpoints[endpointCount++] = v;
+            }
+        }
+        double[] noCoordinates = new double[n];
+        Arrays.fill(noCoordinates, Double.NaN);
+        return arcs.build(noCoordinates, noCoordinates);
+    }
+
+    /**
+     * Road-network stand-in with about n nodes: a jittered lattice with a fifth of the local
+     * streets missing, occasional diagonals, and arterial rows and columns every 16 blocks that
+     * are cheaper to drive than local streets. Weights are distance times a slowdown of 1 to 2.
+     */
+    public static CsrGraph roadLike(int n, long seed) {
+        checkPositive(n, "node count");
+        SplittableRandom random = new SplittableRandom(seed);
+        int side = (int) Math.ceil(Math.sqrt(n));
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int u = 0; u < n; u++) {
+            xs[u] = u % side + random.nextDouble(-0.3, 0.3);
+            ys[u] = u / side + random.nextDouble(-0.3, 0.3);
+        }
+        Arcs arcs = new Arcs(3L * n);
+        for (int u = 0; u < n; u++) {
+            int column = u % side;
+            int row = u / side;
+            if (column + 1 < side && u + 1 < n) {
+                boolean arterial = row % 16 == 0;
+                if (arterial || random.nextInt(5) != 0) {
+                    arcs.add(u, u + 1, road(xs, ys, u, u + 1, arterial, random));
+                }
+            }
+            if (u + side < n) {
+                boolean arterial = column % 16 == 0;
+                if (arterial || random.nextInt(5) != 0) {
+                    arcs.add(u, u + side, road(xs, ys, u, u + side, arterial, random));
+                }
+            }
+            if (column + 1 < side && u + side + 1 < n && random.nextInt(10) == 0) {
+                arcs.add(u, u + side + 1, road(xs, ys, u, u + side + 1, false, random));
+            }
+        }
+        return arcs.build(xs, ys);
+    }
+
+    private static double road(double[] xs, double[] ys, int u, int v, boolean arterial, SplittableRandom random) {
+        double distance = Math.hypot(xs[u] - xs[v], ys[u] - ys[v]);
+        return distance * (arterial ? 1.0 : 1.0 + random.nextDouble());
+    }
+
+    private static int cell(double coordinate, int cells) {
+        return Math.min(cells - 1, (int) (coordinate * cells));
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void checkPositive(int value, String what) {
+        if (value < 1) {
+            throw new IllegalArgumentException("The " + what + " must be positive: " + value);
+        }
+    }
+
+    // Growable parallel arc arrays
+    private static final class Arcs {
+        private int[] from;
+        private int[] to;
+        private double[] weights;
+        private int count;
+
+        Arcs(long expected) {
+            int capacity = (int) Math.min(Math.max(16, expected), Integer.MAX_VALUE - 8);
+            from = new int[capacity];
+            to = new int[capacity];
+            weights = new double[capacity];
+        }
+
+        void add(int u, int v, double weight) {
+            if (count == from.length) {
+                int capacity = (int) Math.min(2L * count, Integer.MAX_VALUE - 8);
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            from[count] = u;
+            to[count] = v;
+            weights[count] = weight;
+            count++;
+        }
+
+        CsrGraph build(double[] xs, double[] ys) {
+            String[] names = new String[xs.length];
+            for (int u = 0; u < names.length; u++) {
+                names[u] = Integer.toString(u);
+            }
+            return CsrGraph.fromArcs(names, xs, ys, from, to, weights, count);
+        }
+    }
+}
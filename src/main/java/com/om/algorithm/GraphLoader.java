@@ -0,0 +1,541 @@
+package com.om.algorithm;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Bulk reader for DIMACS shortest path files ({@code .gr} arcs, {@code .co} coordinates) and CSV
+ * edge lists. The file is read in large chunks that end at a line break, the chunks are parsed
+ * in parallel on a fork-join pool straight from the bytes, and the parsed arcs are counted per
+ * node before one CSR build, so there are no per-edge objects and no growing adjacency lists.
+ * Hand the result to {@link AbstractAlgoShortestPath#importGraph} or {@link GraphStore#importGraph}.
+ *
+ * <p>DIMACS node {@code k} becomes the node named {@code "k"}. CSV lines are
+ * {@code from,to,weight} without quoting; a header line and lines starting with {@code #} are
+ * skipped.
+ */
+public final class GraphLoader {
+    public static final int DEFAULT_CHUNK_BYTES = 8 << 20;
+
+    // Receives progress after every parsed chunk, on the thread that called load
+    public interface ProgressListener {
+        void progress(Path file, long bytesParsed, long totalBytes, long records, long elapsedNanos);
+    }
+
+    private final ForkJoinPool pool;
+    private final int chunkBytes;
+    private final ProgressListener listener;
+
+    public GraphLoader() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_BYTES, null);
+    }
+
+    // listener may be null; chunkBytes bounds the bytes handed to one parsing task
+    public GraphLoader(ForkJoinPool pool, int chunkBytes, ProgressListener listener) {
+        if (chunkBytes < 64) {
+            throw new IllegalArgumentException("Chunk size must be at least 64 bytes: " + chunkBytes);
+        }
+        this.pool = Objects.requireNonNull(pool, "pool");
+        this.chunkBytes = chunkBytes;
+        this.listener = listener;
+    }
+
+    public CsrGraph loadDimacs(Path graphFile) throws IOException {
+        return loadDimacs(graphFile, null);
+    }
+
+    // Arcs from a .gr file and, if coordinateFile is not null, coordinates from a .co file
+    public CsrGraph loadDimacs(Path graphFile, Path coordinateFile) throws IOException {
+        List<ArcChunk> arcs = parse(graphFile, GraphLoader::parseArcs);
+        int n = 0;
+        for (ArcChunk chunk : arcs) {
+            n = Math.max(n, Math.max(chunk.declaredNodes, chunk.maxNode));
+        }
+        String[] names = new String[n];
+        Map<String, Integer> ids = new HashMap<>(Math.max(16, (int) (n / 0.75f) + 1));
+        for (int i = 0; i < n; i++) {
+            names[i] = Integer.toString(i + 1);
+            ids.put(names[i], i);
+        }
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        Arrays.fill(xs, Double.NaN);
+        Arrays.fill(ys, Double.NaN);
+        if (coordinateFile != null) {
+            for (CoordinateChunk chunk : parse(coordinateFile, GraphLoader::parseCoordinates)) {
+                for (int i = 0; i < chunk.records; i++) {
+                    int node = chunk.nodes[i];
+                    if (node >= n) {
+                        throw new IOException("Coordinates for unknown node " + (node + 1) + " in " + coordinateFile);
+                    }
+                    xs[node] = chunk.xs[i];
+                    ys[node] = chunk.ys[i];
+                }
+            }
+        }
+        return build(ids, names, xs, ys, arcs);
+    }
+
+    public CsrGraph loadCsv(Path edgeFile) throws IOException {
+        List<CsvChunk> chunks = parse(edgeFile, GraphLoader::parseCsv);
+        // Interning stays sequential so ids follow the order of first appearance in the file
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        List<ArcChunk> arcs = new ArrayList<>(chunks.size());
+        for (CsvChunk chunk : chunks) {
+            for (int i = 0; i < chunk.records; i++) {
+                chunk.from[i] = intern(chunk.fromNames[i], ids, names);
+                chunk.to[i] = intern(chunk.toNames[i], ids, names);
+            }
+            chunk.fromNames = null;
+            chunk.toNames = null;
+            arcs.add(chunk);
+        }
+        double[] xs = new double[names.size()];
+        double[] ys = new double[names.size()];
+        Arrays.fill(xs, Double.NaN);
+        Arrays.fill(ys, Double.NaN);
+        return build(ids, names.toArray(new String[0]), xs, ys, arcs);
+    }
+
+    private static int intern(String name, Map<String, Integer> ids, List<String> names) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = names.size();
+            ids.put(name, id);
+            names.add(name);
+        }
+        return id;
+    }
+
+    // Two passes over the parsed arcs: count the out-degrees, then place every arc in its slot
+    private static CsrGraph build(Map<String, Integer> ids, String[] names, double[] xs, double[] ys, List<ArcChunk> arcs) {
+        int n = names.length;
+        int[] offsets = new int[n + 1];
+        for (ArcChunk chunk : arcs) {
+            for (int i = 0; i < chunk.records; i++) {
+                offsets[chunk.from[i] + 1]++;
+            }
+        }
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+        int[] fill = Arrays.copyOf(offsets, n);
+        int[] targets = new int[offsets[n]];
+        double[] weights = new double[offsets[n]];
+        for (ArcChunk chunk : arcs) {
+            for (int i = 0; i < chunk.records; i++) {
+                int slot = fill[chunk.from[i]]++;
+                targets[slot] = chunk.to[i];
+                weights[slot] = chunk.weights[i];
+            }
+        }
+        return new CsrGraph(ids, names, xs, ys, offsets, targets, weights);
+    }
+
+    /**
+     * Reads the file in chunks cut after the last line break, parses up to two chunks per pool
+     * thread ahead of the consumer and returns the parsed chunks in file order.
+     */
+    private <T extends Chunk> List<T> parse(Path file, Parser<T> parser) throws IOException {
+        long started = System.nanoTime();
+        List<T> results = new ArrayList<>();
+        Deque<Future<T>> pending = new ArrayDeque<>();
+        int maxPending = 2 * pool.getParallelism();
+        long parsedBytes = 0;
+        long records = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long totalBytes = channel.size();
+            ByteBuffer buffer = ByteBuffer.allocate(chunkBytes);
+            byte[] carry = new byte[0]; // start of a line that continues in the next read
+            long position = 0; // file offset of the next chunk
+            boolean done = false;
+            while (!done) {
+                buffer.clear();
+                int count = channel.read(buffer);
+                byte[] chunk;
+                if (count < 0) {
+                    chunk = carry;
+                    carry = new byte[0];
+                    done = true;
+                } else {
+                    int end = count;
+                    while (end > 0 && buffer.get(end - 1) != '\n') {
+                        end--;
+                    }
+                    if (end == 0) { // no line break yet, the line goes on
+                        chunk = new byte[0];
+                        carry = concat(carry, buffer.array(), count);
+                    } else {
+                        chunk = concat(carry, buffer.array(), end);
+                        carry = Arrays.copyOfRange(buffer.array(), end, count);
+                    }
+                }
+                if (chunk.length > 0) {
+                    long offset = position;
+                    position += chunk.length;
+                    pending.add(pool.submit(() -> parser.parse(new Cursor(file, chunk, offset))));
+                }
+                while (!pending.isEmpty() && (done || pending.size() > maxPending)) {
+                    T result = join(pending.poll(), pending);
+                    results.add(result);
+                    parsedBytes += result.bytes;
+                    records += result.records;
+                    if (listener != null) {
+                        listener.progress(file, parsedBytes, totalBytes, records, System.nanoTime() - started);
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private static <T> T join(Future<T> future, Deque<Future<T>> pending) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(pending);
+            throw new InterruptedIOException("Interrupted while loading graph");
+        } catch (ExecutionException e) {
+            cancel(pending);
+            // The pool wraps checked exceptions of the parser, possibly more than once
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static <T> void cancel(Deque<Future<T>> pending) {
+        for (Future<T> future : pending) {
+            future.cancel(true);
+        }
+    }
+
+    private static byte[] concat(byte[] head, byte[] tail, int tailLength) {
+        byte[] result = Arrays.copyOf(head, head.length + tailLength);
+        System.arraycopy(tail, 0, result, head.length, tailLength);
+        return result;
+    }
+
+    // "p sp <nodes> <arcs>" and "a <from> <to> <weight>" lines, 1-based node ids
+    private static ArcChunk parseArcs(Cursor cursor) throws IOException {
+        ArcChunk chunk = new ArcChunk(cursor.length() / 16);
+        while (cursor.nextLine()) {
+            switch (cursor.nextChar()) {
+                case 'a':
+                    int from = cursor.nextNode();
+                    int to = cursor.nextNode();
+                    chunk.add(from, to, cursor.nextNumber());
+                    chunk.maxNode = Math.max(chunk.maxNode, Math.max(from, to) + 1);
+                    break;
+                case 'p':
+                    cursor.nextWord(); // problem type, "sp"
+                    chunk.declaredNodes = (int) cursor.nextNumber();
+                    break;
+                case 'c':
+                case 0:
+                    break;
+                default:
+                    throw cursor.malformed();
+            }
+        }
+        return chunk.finish(cursor);
+    }
+
+    // "v <node> <x> <y>" lines; the "p aux sp co <nodes>" header is not needed
+    private static CoordinateChunk parseCoordinates(Cursor cursor) throws IOException {
+        CoordinateChunk chunk = new CoordinateChunk(cursor.length() / 16);
+        while (cursor.nextLine()) {
+            switch (cursor.nextChar()) {
+                case 'v':
+                    int node = cursor.nextNode();
+                    chunk.add(node, cursor.nextNumber(), cursor.nextNumber());
+                    break;
+                case 'p':
+                case 'c':
+                case 0:
+                    break;
+                default:
+                    throw cursor.malformed();
+            }
+        }
+        chunk.bytes = cursor.length();
+        return chunk;
+    }
+
+    private static CsvChunk parseCsv(Cursor cursor) throws IOException {
+        CsvChunk chunk = new CsvChunk(cursor.length() / 16);
+        boolean first = cursor.offset() == 0;
+        while (cursor.nextLine()) {
+            if (cursor.isBlank() || cursor.startsWith('#')) {
+                continue;
+            }
+            String from = cursor.nextField();
+            String to = cursor.nextField();
+            String weight = cursor.nextField();
+            double value;
+            try {
+                value = Double.parseDouble(weight);
+            } catch (NumberFormatException e) {
+                if (first) {
+                    first = false;
+                    continue; // header line
+                }
+                throw cursor.malformed();
+            }
+            first = false;
+            if (from.isEmpty() || to.isEmpty()) {
+                throw cursor.malformed();
+            }
+            chunk.add(from, to, value);
+        }
+        return (CsvChunk) chunk.finish(cursor);
+    }
+
+    private interface Parser<T extends Chunk> {
+        T parse(Cursor cursor) throws IOException;
+    }
+
+    private abstract static class Chunk {
+        long bytes;
+        int records;
+    }
+
+    private static class ArcChunk extends Chunk {
+        int[] from;
+        int[] to;
+        double[] weights;
+        int declaredNodes;
+        int maxNode;
+
+        ArcChunk(int capacity) {
+            int initial = Math.max(16, capacity);
+            from = new int[initial];
+            to = new int[initial];
+            weights = new double[initial];
+        }
+
+        void add(int u, int v, double weight) {
+            if (records == from.length) {
+                grow(records * 2);
+            }
+            from[records] = u;
+            to[records] = v;
+            weights[records] = weight;
+            records++;
+        }
+
+        void grow(int capacity) {
+            from = Arrays.copyOf(from, capacity);
+            to = Arrays.copyOf(to, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+
+        ArcChunk finish(Cursor cursor) {
+            bytes = cursor.length();
+            return this;
+        }
+    }
+
+    private static final class CsvChunk extends ArcChunk {
+        String[] fromNames;
+        String[] toNames;
+
+        CsvChunk(int capacity) {
+            super(capacity);
+            fromNames = new String[from.length];
+            toNames = new String[from.length];
+        }
+
+        void add(String u, String v, double weight) {
+            int index = records;
+            add(-1, -1, weight);
+            fromNames[index] = u;
+            toNames[index] = v;
+        }
+
+        @Override
+        void grow(int capacity) {
+            super.grow(capacity);
+            fromNames = Arrays.copyOf(fromNames, capacity);
+            toNames = Arrays.copyOf(toNames, capacity);
+        }
+    }
+
+    private static final class CoordinateChunk extends Chunk {
+        int[] nodes;
+        double[] xs;
+        double[] ys;
+
+        CoordinateChunk(int capacity) {
+            int initial = Math.max(16, capacity);
+            nodes = new int[initial];
+            xs = new double[initial];
+            ys = new double[initial];
+        }
+
+        void add(int node, double x, double y) {
+            if (records == nodes.length) {
+                nodes = Arrays.copyOf(nodes, records * 2);
+                xs = Arrays.copyOf(xs, records * 2);
+                ys = Arrays.copyOf(ys, records * 2);
+            }
+            nodes[records] = node;
+            xs[records] = x;
+            ys[records] = y;
+            records++;
+        }
+    }
+
+    // Line and token reader over the raw bytes of one chunk
+    private static final class Cursor {
+        private final Path file;
+        private final byte[] data;
+        private final long offset;
+        private int next; // start of the next line
+        private int lineStart;
+        private int lineEnd;
+        private int pos;
+
+        Cursor(Path file, byte[] data, long offset) {
+            this.file = file;
+            this.data = data;
+            this.offset = offset;
+        }
+
+        int length() {
+            return data.length;
+        }
+
+        long offset() {
+            return offset;
+        }
+
+        boolean nextLine() {
+            if (next >= data.length) {
+                return false;
+            }
+            lineStart = next;
+            int end = lineStart;
+            while (end < data.length && data[end] != '\n') {
+                end++;
+            }
+            next = end + 1;
+            lineEnd = end > lineStart && data[end - 1] == '\r' ? end - 1 : end;
+            pos = lineStart;
+            return true;
+        }
+
+        boolean isBlank() {
+            skipSpaces();
+            return pos == lineEnd;
+        }
+
+        boolean startsWith(char c) {
+            skipSpaces();
+            return pos < lineEnd && data[pos] == c;
+        }
+
+        // First character of the next token, or 0 at the end of the line
+        char nextChar() {
+            skipSpaces();
+            if (pos == lineEnd) {
+                return 0;
+            }
+            return (char) data[pos++];
+        }
+
+        void nextWord() throws IOException {
+            skipSpaces();
+            int start = pos;
+            while (pos < lineEnd && data[pos] != ' ' && data[pos] != '\t') {
+                pos++;
+            }
+            if (pos == start) {
+                throw malformed();
+            }
+        }
+
+        // 1-based DIMACS node id as a 0-based index
+        int nextNode() throws IOException {
+            double id = nextNumber();
+            if (id < 1 || id > Integer.MAX_VALUE || id != Math.rint(id)) {
+                throw malformed();
+            }
+            return (int) id - 1;
+        }
+
+        // Integers are parsed from the bytes; anything else goes through Double.parseDouble
+        double nextNumber() throws IOException {
+            skipSpaces();
+            int start = pos;
+            boolean negative = pos < lineEnd && data[pos] == '-';
+            if (negative) {
+                pos++;
+            }
+            long value = 0;
+            int digits = 0;
+            while (pos < lineEnd && data[pos] >= '0' && data[pos] <= '9' && digits < 18) {
+                value = value * 10 + (data[pos++] - '0');
+                digits++;
+            }
+            if (digits > 0 && (pos == lineEnd || data[pos] == ' ' || data[pos] == '\t')) {
+                return negative ? -value : value;
+            }
+            while (pos < lineEnd && data[pos] != ' ' && data[pos] != '\t') {
+                pos++;
+            }
+            try {
+                return Double.parseDouble(new String(data, start, pos - start, StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                throw malformed();
+            }
+        }
+
+        // Trimmed text up to the next comma or the end of the line
+        String nextField() {
+            int start = pos;
+            while (pos < lineEnd && data[pos] != ',') {
+                pos++;
+            }
+            int end = pos;
+            if (pos < lineEnd) {
+                pos++; // the comma
+            }
+            while (start < end && data[start] <= ' ') {
+                start++;
+            }
+            while (end > start && data[end - 1] <= ' ') {
+                end--;
+            }
+            return new String(data, start, end - start, StandardCharsets.UTF_8);
+        }
+
+        IOException malformed() {
+            String line = new String(data, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+            return new IOException("Malformed line at byte " + (offset + lineStart) + " of " + file + ": " + line);
+        }
+
+        private void skipSpaces() {
+            while (pos < lineEnd && (data[pos] == ' ' || data[pos] == '\t')) {
+                pos++;
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.om.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits a graph into cells for {@link PartitionedShortestPath}. Cells come from recursive
+ * inertial bisection of the node coordinates: each step projects the nodes of a part onto the
+ * principal axis of their spread and cuts at the quantile that keeps the sizes in proportion to
+ * the number of cells each side still has to produce. On road networks this yields compact
+ * cells with few boundary nodes. Nodes without coordinates join the cell of a node that reaches
+ * them, or cell 0 if none does.
+ *
+ * <p>Edges are taken as the view stores them, one direction each. For an undirected
+ * implementation pass its own view, e.g. {@code algo.snapshot().compact()}, which holds both.
+ */
+public final class GraphPartitioner {
+
+    private GraphPartitioner() {
+    }
+
+    // Cells of the nodes of the graph, split by inertial bisection
+    public static List<CellShard> partition(IGraphView graph, int cellCount) {
+        return split(graph, inertialBisection(graph, cellCount), cellCount);
+    }
+
+    // Cell of every node id, -1 for ids of removed nodes
+    public static int[] inertialBisection(IGraphView graph, int cellCount) {
+        if (cellCount < 1) {
+            throw new IllegalArgumentException("Need at least one cell: " + cellCount);
+        }
+        int n = graph.nodeCount();
+        int[] cellOf = new int[n];
+        Arrays.fill(cellOf, -1);
+        int located = 0;
+        for (int u = 0; u < n; u++) {
+            if (graph.nameOf(u) != null && !Double.isNaN(graph.x(u)) && !Double.isNaN(graph.y(u))) {
+                located++;
+            }
+        }
+        int[] ids = new int[located];
+        for (int u = 0, next = 0; u < n; u++) {
+            if (graph.nameOf(u) != null && !Double.isNaN(graph.x(u)) && !Double.isNaN(graph.y(u))) {
+                ids[next++] = u;
+            }
+        }
+        bisect(graph, ids, new double[located], 0, located, 0, cellCount, cellOf);
+        spreadToUnlocated(graph, cellOf);
+        return cellOf;
+    }
+
+    /**
+     * Cuts the graph along the given cells. Each cell keeps its nodes with their names and
+     * coordinates, the edges between them, and the edges that leave it; a node is on the
+     * boundary of its cell when an edge leaves or enters it from another cell.
+     */
+    public static List<CellShard> split(IGraphView graph, int[] cellOf, int cellCount) {
+        int n = graph.nodeCount();
+        int[] local = new int[n];
+        int[] sizes = new int[cellCount];
+        boolean[] boundary = new boolean[n];
+        for (int u = 0; u < n; u++) {
+            if (graph.nameOf(u) == null) {
+                continue;
+            }
+            if (cellOf[u] < 0 || cellOf[u] >= cellCount) {
+                throw new IllegalArgumentException("Node " + graph.nameOf(u) + " has no cell in [0, " + cellCount + "): " + cellOf[u]);
+            }
+            local[u] = sizes[cellOf[u]]++;
+            for (int i = 0, degree = graph.degree(u); i < degree; i++) {
+                int v = graph.target(u, i);
+                if (cellOf[v] != cellOf[u]) {
+                    boundary[u] = true;
+                    boundary[v] = true;
+                }
+            }
+        }
+        List<CellShard> cells = new ArrayList<>(cellCount);
+        for (int cell = 0; cell < cellCount; cell++) {
+            cells.add(cell(graph, cellOf, local, boundary, cell, sizes[cell]));
+        }
+        return cells;
+    }
+
+    private static CellShard cell(IGraphView graph, int[] cellOf, int[] local, boolean[] boundary, int cell, int size) {
+        String[] names = new String[size];
+        double[] xs = new double[size];
+        double[] ys = new double[size];
+        int arcCount = 0;
+        int cutCount = 0;
+        int boundaryCount = 0;
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            if (graph.nameOf(u) == null || cellOf[u] != cell) {
+                continue;
+            }
+            names[local[u]] = graph.nameOf(u);
+            xs[local[u]] = graph.x(u);
+            ys[local[u]] = graph.y(u);
+            boundaryCount += boundary[u] ? 1 : 0;
+            for (int i = 0, degree = graph.degree(u); i < degree; i++) {
+                if (cellOf[graph.target(u, i)] == cell) {
+                    arcCount++;
+                } else {
+                    cutCount++;
+                }
+            }
+        }
+        int[] from = new int[arcCount];
+        int[] to = new int[arcCount];
+        double[] weight = new double[arcCount];
+        int[] boundaryIds = new int[boundaryCount];
+        int[] cutFrom = new int[cutCount];
+        String[] cutTo = new String[cutCount];
+        double[] cutWeight = new double[cutCount];
+        int arc = 0;
+        int cut = 0;
+        int next = 0;
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            if (graph.nameOf(u) == null || cellOf[u] != cell) {
+                continue;
+            }
+            if (boundary[u]) {
+                boundaryIds[next++] = local[u];
+            }
+            for (int i = 0, degree = graph.degree(u); i < degree; i++) {
+                int v = graph.target(u, i);
+                if (cellOf[v] == cell) {
+                    from[arc] = local[u];
+                    to[arc] = local[v];
+                    weight[arc++] = graph.weight(u, i);
+                } else {
+                    cutFrom[cut] = local[u];
+                    cutTo[cut] = graph.nameOf(v);
+                    cutWeight[cut++] = graph.weight(u, i);
+                }
+            }
+        }
+        return new CellShard(CsrGraph.fromArcs(names, xs, ys, from, to, weight, arcCount),
+                boundaryIds, cutFrom, cutTo, cutWeight);
+    }
+
+    // Splits ids[from, to) into cells [firstCell, firstCell + cells)
+    private static void bisect(IGraphView graph, int[] ids, double[] keys, int from, int to,
+                               int firstCell, int cells, int[] cellOf) {
+        if (cells == 1 || to - from <= 1) {
+            for (int i = from; i < to; i++) {
+                cellOf[ids[i]] = firstCell;
+            }
+            return;
+        }
+        // Principal axis of the point cloud from its covariance
+        double meanX = 0;
+        double meanY = 0;
+        for (int i = from; i < to; i++) {
+            meanX += graph.x(ids[i]);
+            meanY += graph.y(ids[i]);
+        }
+        meanX /= to - from;
+        meanY /= to - from;
+        double sxx = 0;
+        double sxy = 0;
+        double syy = 0;
+        for (int i = from; i < to; i++) {
+            double dx = graph.x(ids[i]) - meanX;
+            double dy = graph.y(ids[i]) - meanY;
+            sxx += dx * dx;
+            sxy += dx * dy;
+            syy += dy * dy;
+        }
+        double angle = 0.5 * Math.atan2(2 * sxy, sxx - syy);
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
+        for (int i = from; i < to; i++) {
+            keys[i] = graph.x(ids[i]) * cos + graph.y(ids[i]) * sin;
+        }
+        int leftCells = cells / 2;
+        int middle = from + (int) ((long) (to - from) * leftCells / cells);
+        select(ids, keys, from, to, middle);
+        bisect(graph, ids, keys, from, middle, firstCell, leftCells, cellOf);
+        bisect(graph, ids, keys, middle, to, firstCell + leftCells, cells - leftCells, cellOf);
+    }
+
+    // Reorders [lo, hi) so that position k holds its sorted entry, smaller keys before it
+    private static void select(int[] ids, double[] keys, int lo, int hi, int k) {
+        while (hi - lo > 1) {
+            double pivot = keys[(lo + hi) >>> 1];
+            int i = lo;
+            int j = hi - 1;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(ids, keys, i++, j--);
+                }
+            }
+            if (k <= j) {
+                hi = j + 1;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static void swap(int[] ids, double[] keys, int a, int b) {
+        int id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        double key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+    }
+
+    // Breadth-first from every placed node along out-edges; nodes nothing reaches go to cell 0
+    private static void spreadToUnlocated(IGraphView graph, int[] cellOf) {
+        int n = graph.nodeCount();
+        int[] queue = new int[n];
+        int tail = 0;
+        for (int u = 0; u < n; u++) {
+            if (cellOf[u] != -1) {
+                queue[tail++] = u;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int u = queue[head];
+            for (int i = 0, degree = graph.degree(u); i < degree; i++) {
+                int v = graph.target(u, i);
+                if (cellOf[v] == -1) {
+                    cellOf[v] = cellOf[u];
+                    queue[tail++] = v;
+                }
+            }
+        }
+        for (int u = 0; u < n; u++) {
+            if (cellOf[u] == -1 && graph.nameOf(u) != null) {
+                cellOf[u] = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,583 @@
+package com.om.algorithm;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+
+/**
+ * One immutable version of a {@link GraphStore}. Node records sit in a two-level page table
+ * (blocks of leaves of records), and a new version copies only the root, the blocks and leaves
+ * on the way to a changed node, and the changed records themselves; everything else is shared
+ * with the previous version. Any number of threads can search a snapshot without locking.
+ */
+public final class GraphSnapshot implements IGraphView {
+    private static final int LEAF_BITS = 6;
+    private static final int LEAF_SIZE = 1 << LEAF_BITS;
+    private static final int BLOCK_BITS = 10;
+    private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+    private static final int[] NO_TARGETS = new int[0];
+    private static final double[] NO_WEIGHTS = new double[0];
+
+    private final Map<String, Integer> dictionary; // shared by all versions, names keep their id forever
+    private final Block[] root;
+    private final int idLimit;
+    private final int nodeCount;
+    private final int edgeCount;
+    private final long version;
+    private volatile CsrGraph compacted;
+
+    private GraphSnapshot(Map<String, Integer> dictionary, Block[] root, int idLimit,
+                          int nodeCount, int edgeCount, long version) {
+        this.dictionary = dictionary;
+        this.root = root;
+        this.idLimit = idLimit;
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        this.version = version;
+    }
+
+    static GraphSnapshot empty(Map<String, Integer> dictionary) {
+        return new GraphSnapshot(dictionary, new Block[0], 0, 0, 0, 0);
+    }
+
+    // Increases by one with every published version of the same store
+    public long version() {
+        return version;
+    }
+
+    @Override
+    public int nodeCount() {
+        return idLimit;
+    }
+
+    // Number of nodes in this version, without removed ids
+    public int liveNodeCount() {
+        return nodeCount;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public int indexOf(String nodeName) {
+        Integer id = nodeName == null ? null : dictionary.get(nodeName);
+        return id != null && id < idLimit && record(id) != null ? id : -1;
+    }
+
+    public boolean contains(String nodeName) {
+        return indexOf(nodeName) != -1;
+    }
+
+    @Override
+    public String nameOf(int node) {
+        NodeRecord record = record(node);
+        return record == null ? null : record.name;
+    }
+
+    @Override
+    public double x(int node) {
+        NodeRecord record = record(node);
+        return record == null ? Double.NaN : record.x;
+    }
+
+    @Override
+    public double y(int node) {
+        NodeRecord record = record(node);
+        return record == null ? Double.NaN : record.y;
+    }
+
+    @Override
+    public int degree(int node) {
+        NodeRecord record = record(node);
+        return record == null ? 0 : record.degree;
+    }
+
+    @Override
+    public int target(int node, int i) {
+        return record(node).targets[i];
+    }
+
+    // Number of edges ending at node, counting parallel edges separately
+    public int inDegree(int node) {
+        NodeRecord record = record(node);
+        return record == null ? 0 : record.inDegree;
+    }
+
+    // Start of the i-th edge ending at node
+    public int source(int node, int i) {
+        return record(node).sources[i];
+    }
+
+    @Override
+    public double weight(int node, int i) {
+        return record(node).weights[i];
+    }
+
+    // CSR copy of this version, built on first use and kept with the snapshot
+    public CsrGraph compact() {
+        CsrGraph result = compacted;
+        if (result == null) {
+            int n = idLimit;
+            String[] names = new String[n];
+            double[] xs = new double[n];
+            double[] ys = new double[n];
+            int[] offsets = new int[n + 1];
+            int[] targets = new int[edgeCount];
+            double[] weights = new double[edgeCount];
+            Arrays.fill(xs, Double.NaN);
+            Arrays.fill(ys, Double.NaN);
+            for (int u = 0; u < n; u++) {
+                NodeRecord record = record(u);
+                int degree = 0;
+                if (record != null) {
+                    names[u] = record.name;
+                    xs[u] = record.x;
+                    ys[u] = record.y;
+                    degree = record.degree;
+                    System.arraycopy(record.targets, 0, targets, offsets[u], degree);
+                    System.arraycopy(record.weights, 0, weights, offsets[u], degree);
+                }
+                offsets[u + 1] = offsets[u] + degree;
+            }
+            result = new CsrGraph(dictionary, names, xs, ys, offsets, targets, weights, version);
+            compacted = result;
+        }
+        return result;
+    }
+
+    private NodeRecord record(int id) {
+        int blockIndex = id >>> (LEAF_BITS + BLOCK_BITS);
+        if (id < 0 || blockIndex >= root.length) {
+            return null;
+        }
+        Block block = root[blockIndex];
+        Leaf leaf = block == null ? null : block.leaves[(id >>> LEAF_BITS) & (BLOCK_SIZE - 1)];
+        return leaf == null ? null : leaf.records[id & (LEAF_SIZE - 1)];
+    }
+
+    /**
+     * Mutable draft of the next version. Pages and records it has copied are tagged with the
+     * builder's current owner token and edited in place; {@link #build()} publishes them and
+     * switches to a fresh token, so later edits copy again and never touch a published version.
+     */
+    static final class Builder {
+        private final Map<String, Integer> dictionary;
+        private Block[] root;
+        private boolean rootOwned;
+        private Object owner = new Object();
+        private int idLimit;
+        private int nodeCount;
+        private int edgeCount;
+        private long version;
+
+        Builder(GraphSnapshot base) {
+            this.dictionary = base.dictionary;
+            this.root = base.root;
+            this.idLimit = base.idLimit;
+            this.nodeCount = base.nodeCount;
+            this.edgeCount = base.edgeCount;
+            this.version = base.version;
+        }
+
+        GraphSnapshot build() {
+            GraphSnapshot snapshot = new GraphSnapshot(dictionary, root, idLimit, nodeCount, edgeCount, ++version);
+            owner = new Object();
+            rootOwned = false;
+            return snapshot;
+        }
+
+        int idLimit() {
+            return idLimit;
+        }
+
+        int nodeCount() {
+            return nodeCount;
+        }
+
+        int edgeCount() {
+            return edgeCount;
+        }
+
+        // Record of a node in the draft, or null; must not be modified
+        NodeRecord get(int id) {
+            int blockIndex = id >>> (LEAF_BITS + BLOCK_BITS);
+            if (blockIndex >= root.length || root[blockIndex] == null) {
+                return null;
+            }
+            Leaf leaf = root[blockIndex].leaves[(id >>> LEAF_BITS) & (BLOCK_SIZE - 1)];
+            return leaf == null ? null : leaf.records[id & (LEAF_SIZE - 1)];
+        }
+
+        // Creates the record for a new or removed id, or returns the existing one
+        NodeRecord addNode(int id, String name) {
+            NodeRecord existing = get(id);
+            if (existing != null) {
+                return existing;
+            }
+            idLimit = Math.max(idLimit, id + 1);
+            nodeCount++;
+            NodeRecord record = new NodeRecord(name, owner);
+            leafFor(id).records[id & (LEAF_SIZE - 1)] = record;
+            return record;
+        }
+
+        // Removes the node with its edges; touches only the node's neighbors
+        void removeNode(int id) {
+            NodeRecord record = get(id);
+            if (record == null) {
+                return;
+            }
+            for (int i = 0; i < record.inDegree; i++) {
+                int u = record.sources[i];
+                if (u != id && get(u).hasTarget(id)) {
+                    edgeCount -= edit(u).removeTarget(id);
+                }
+            }
+            for (int i = 0; i < record.degree; i++) {
+                int v = record.targets[i];
+                if (v != id && get(v).hasSource(id)) {
+                    edit(v).removeSource(id);
+                }
+            }
+            edgeCount -= record.degree;
+            nodeCount--;
+            leafFor(id).records[id & (LEAF_SIZE - 1)] = null;
+        }
+
+        // Removes all the nodes, editing each surviving neighbor once however many of them it loses
+        void removeNodes(int[] ids) {
+            BitSet removed = new BitSet(idLimit);
+            for (int id : ids) {
+                if (get(id) != null) {
+                    removed.set(id);
+                }
+            }
+            BitSet sources = new BitSet(idLimit);
+            BitSet targets = new BitSet(idLimit);
+            for (int id = removed.nextSetBit(0); id >= 0; id = removed.nextSetBit(id + 1)) {
+                NodeRecord record = get(id);
+                for (int i = 0; i < record.inDegree; i++) {
+                    sources.set(record.sources[i]);
+                }
+                for (int i = 0; i < record.degree; i++) {
+                    targets.set(record.targets[i]);
+                }
+            }
+            sources.andNot(removed);
+            targets.andNot(removed);
+            for (int u = sources.nextSetBit(0); u >= 0; u = sources.nextSetBit(u + 1)) {
+                edgeCount -= edit(u).removeTargets(removed);
+            }
+            for (int v = targets.nextSetBit(0); v >= 0; v = targets.nextSetBit(v + 1)) {
+                edit(v).removeSources(removed);
+            }
+            for (int id = removed.nextSetBit(0); id >= 0; id = removed.nextSetBit(id + 1)) {
+                edgeCount -= get(id).degree;
+                nodeCount--;
+                leafFor(id).records[id & (LEAF_SIZE - 1)] = null;
+            }
+        }
+
+        // Record of an existing node that may be modified in place
+        NodeRecord edit(int id) {
+            NodeRecord record = get(id);
+            if (record.owner != owner) {
+                record = record.copy(owner);
+                leafFor(id).records[id & (LEAF_SIZE - 1)] = record;
+            }
+            return record;
+        }
+
+        void addArc(int from, int to, double weight) {
+            edit(from).append(to, weight);
+            edit(to).appendSource(from);
+            edgeCount++;
+        }
+
+        // Removes all arcs from -> to and returns how many there were
+        int removeArcs(int from, int to) {
+            NodeRecord record = get(from);
+            if (record == null || !record.hasTarget(to)) {
+                return 0;
+            }
+            int removed = edit(from).removeTarget(to);
+            edit(to).removeSource(from);
+            edgeCount -= removed;
+            return removed;
+        }
+
+        /**
+         * Removes all arcs of every from -> to pair, packed as from << 32 | to, in one pass: the
+         * pairs are grouped by start, then the removed arcs by end, so each node is edited once
+         * however many of its arcs go. Sorts the array; returns how many arcs were removed.
+         */
+        int removeArcs(long[] pairs) {
+            Arrays.sort(pairs);
+            long[] reversed = new long[pairs.length]; // to << 32 | from of the pairs that had arcs
+            int reversedCount = 0;
+            int[] group = new int[pairs.length];
+            int removed = 0;
+            for (int i = 0; i < pairs.length; ) {
+                int from = (int) (pairs[i] >>> 32);
+                int count = 0;
+                for (; i < pairs.length && (int) (pairs[i] >>> 32) == from; i++) {
+                    group[count++] = (int) pairs[i]; // ascending, so duplicates are harmless to binary search
+                }
+                NodeRecord record = get(from);
+                if (record == null) {
+                    continue;
+                }
+                int before = reversedCount;
+                for (int k = 0; k < count; k++) {
+                    if ((k == 0 || group[k] != group[k - 1]) && record.hasTarget(group[k])) {
+                        reversed[reversedCount++] = (long) group[k] << 32 | from;
+                    }
+                }
+                if (reversedCount > before) {
+                    removed += edit(from).removeTargets(group, count);
+                }
+            }
+            Arrays.sort(reversed, 0, reversedCount);
+            for (int i = 0; i < reversedCount; ) {
+                int to = (int) (reversed[i] >>> 32);
+                int count = 0;
+                for (; i < reversedCount && (int) (reversed[i] >>> 32) == to; i++) {
+                    group[count++] = (int) reversed[i];
+                }
+                edit(to).removeSources(group, count);
+            }
+            edgeCount -= removed;
+            return removed;
+        }
+
+        // Gives every arc from -> to the weight and returns how many there were; the incoming index is unaffected
+        int setWeights(int from, int to, double weight) {
+            NodeRecord record = get(from);
+            if (record == null || !record.hasTarget(to)) {
+                return 0;
+            }
+            return edit(from).setWeight(to, weight);
+        }
+
+        // Owned leaf for the id, copying the root, block and leaf on the way when needed
+        private Leaf leafFor(int id) {
+            int blockIndex = id >>> (LEAF_BITS + BLOCK_BITS);
+            if (!rootOwned || blockIndex >= root.length) {
+                root = Arrays.copyOf(root, Math.max(root.length, blockIndex + 1));
+                rootOwned = true;
+            }
+            Block block = root[blockIndex];
+            if (block == null || block.owner != owner) {
+                block = block == null ? new Block(owner) : block.copy(owner);
+                root[blockIndex] = block;
+            }
+            int leafIndex = (id >>> LEAF_BITS) & (BLOCK_SIZE - 1);
+            Leaf leaf = block.leaves[leafIndex];
+            if (leaf == null || leaf.owner != owner) {
+                leaf = leaf == null ? new Leaf(owner) : leaf.copy(owner);
+                block.leaves[leafIndex] = leaf;
+            }
+            return leaf;
+        }
+    }
+
+    private static final class Block {
+        final Leaf[] leaves;
+        final Object owner;
+
+        Block(Object owner) {
+            this(new Leaf[BLOCK_SIZE], owner);
+        }
+
+        private Block(Leaf[] leaves, Object owner) {
+            this.leaves = leaves;
+            this.owner = owner;
+        }
+
+        Block copy(Object newOwner) {
+            return new Block(leaves.clone(), newOwner);
+        }
+    }
+
+    private static final class Leaf {
+        final NodeRecord[] records;
+        final Object owner;
+
+        Leaf(Object owner) {
+            this(new NodeRecord[LEAF_SIZE], owner);
+        }
+
+        private Leaf(NodeRecord[] records, Object owner) {
+            this.records = records;
+            this.owner = owner;
+        }
+
+        Leaf copy(Object newOwner) {
+            return new Leaf(records.clone(), newOwner);
+        }
+    }
+
+    // A node with its outgoing edges and the starts of its incoming edges; arrays may have spare capacity
+    static final class NodeRecord {
+        final String name;
+        final Object owner;
+        double x = Double.NaN;
+        double y = Double.NaN;
+        int[] targets = NO_TARGETS;
+        double[] weights = NO_WEIGHTS;
+        int degree;
+        int[] sources = NO_TARGETS; // one entry per incoming edge
+        int inDegree;
+
+        NodeRecord(String name, Object owner) {
+            this.name = name;
+            this.owner = owner;
+        }
+
+        NodeRecord copy(Object newOwner) {
+            NodeRecord copy = new NodeRecord(name, newOwner);
+            copy.x = x;
+            copy.y = y;
+            copy.targets = Arrays.copyOf(targets, degree);
+            copy.weights = Arrays.copyOf(weights, degree);
+            copy.degree = degree;
+            copy.sources = Arrays.copyOf(sources, inDegree);
+            copy.inDegree = inDegree;
+            return copy;
+        }
+
+        void append(int target, double weight) {
+            if (degree == targets.length) {
+                int capacity = Math.max(4, degree * 2);
+                targets = Arrays.copyOf(targets, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            targets[degree] = target;
+            weights[degree] = weight;
+            degree++;
+        }
+
+        // Grows the arrays to exactly fit that many more outgoing and incoming edges
+        void reserve(int outgoing, int incoming) {
+            if (degree + outgoing > targets.length) {
+                targets = Arrays.copyOf(targets, degree + outgoing);
+                weights = Arrays.copyOf(weights, degree + outgoing);
+            }
+            if (inDegree + incoming > sources.length) {
+                sources = Arrays.copyOf(sources, inDegree + incoming);
+            }
+        }
+
+        void appendSource(int source) {
+            if (inDegree == sources.length) {
+                sources = Arrays.copyOf(sources, Math.max(4, inDegree * 2));
+            }
+            sources[inDegree++] = source;
+        }
+
+        boolean hasSource(int source) {
+            for (int i = 0; i < inDegree; i++) {
+                if (sources[i] == source) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean hasTarget(int target) {
+            for (int i = 0; i < degree; i++) {
+                if (targets[i] == target) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int setWeight(int target, double weight) {
+            int changed = 0;
+            for (int i = 0; i < degree; i++) {
+                if (targets[i] == target) {
+                    weights[i] = weight;
+                    changed++;
+                }
+            }
+            return changed;
+        }
+
+        // Removes every edge to target, keeping the order of the others
+        int removeTarget(int target) {
+            int kept = 0;
+            for (int i = 0; i < degree; i++) {
+                if (targets[i] != target) {
+                    targets[kept] = targets[i];
+                    weights[kept] = weights[i];
+                    kept++;
+                }
+            }
+            int removed = degree - kept;
+            degree = kept;
+            return removed;
+        }
+
+        // Removes every edge to a node in the set and returns how many there were
+        int removeTargets(BitSet removedTargets) {
+            int kept = 0;
+            for (int i = 0; i < degree; i++) {
+                if (!removedTargets.get(targets[i])) {
+                    targets[kept] = targets[i];
+                    weights[kept] = weights[i];
+                    kept++;
+                }
+            }
+            int removed = degree - kept;
+            degree = kept;
+            return removed;
+        }
+
+        // Removes every edge to a target in the ascending sorted[0, count) and returns how many there were
+        int removeTargets(int[] sorted, int count) {
+            int kept = 0;
+            for (int i = 0; i < degree; i++) {
+                if (Arrays.binarySearch(sorted, 0, count, targets[i]) < 0) {
+                    targets[kept] = targets[i];
+                    weights[kept] = weights[i];
+                    kept++;
+                }
+            }
+            int removed = degree - kept;
+            degree = kept;
+            return removed;
+        }
+
+        void removeSource(int source) {
+            int kept = 0;
+            for (int i = 0; i < inDegree; i++) {
+                if (sources[i] != source) {
+                    sources[kept++] = sources[i];
+                }
+            }
+            inDegree = kept;
+        }
+
+        void removeSources(int[] sorted, int count) {
+            int kept = 0;
+            for (int i = 0; i < inDegree; i++) {
+                if (Arrays.binarySearch(sorted, 0, count, sources[i]) < 0) {
+                    sources[kept++] = sources[i];
+                }
+            }
+            inDegree = kept;
+        }
+
+        void removeSources(BitSet removedSources) {
+            int kept = 0;
+            for (int i = 0; i < inDegree; i++) {
+                if (!removedSources.get(sources[i])) {
+                    sources[kept++] = sources[i];
+                }
+            }
+            inDegree = kept;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.om.algorithm;
+
+/**
+ * Where an implementation keeps the graph it searches, chosen when it is constructed.
+ * Search state is pooled primitive arrays either way, see {@link SearchContext}.
+ */
+public enum GraphStorage {
+    // Node records and CSR arrays on the Java heap
+    HEAP,
+    /**
+     * {@link AbstractAlgoShortestPath#importGraph} into an empty instance copies the graph into
+     * direct buffers, names included, and queries search it there as they would a mapped file.
+     * The backend is read-only: every later mutation, a second import included, throws
+     * IllegalStateException rather than copying the graph back onto the heap.
+     */
+    OFF_HEAP
+}
@@ -0,0 +1,265 @@
+package com.om.algorithm;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mutable graph storage shared by the algorithm implementations.
+ * Node names are interned to dense int ids and each node keeps its outgoing edges, plus the
+ * start of every incoming edge so removals only touch the neighbors, in primitive arrays. Writers change a private draft under the store's lock; readers get an
+ * immutable {@link GraphSnapshot} and never lock. By default {@link #snapshot()} publishes pending
+ * changes on demand, so every read sees every earlier write. With auto-publish turned off,
+ * readers keep seeing the last {@link #publish()}ed version while a batch of writes is applied.
+ */
+public class GraphStore {
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>(); // names are never dropped, ids never reused
+    private final GraphSnapshot.Builder draft;
+    private volatile GraphSnapshot published;
+    private volatile boolean dirty; // draft has changes the published version does not
+    private volatile boolean autoPublish = true;
+
+    public GraphStore() {
+        published = GraphSnapshot.empty(ids);
+        draft = new GraphSnapshot.Builder(published);
+    }
+
+    // Interns the node name and returns its id; existing nodes keep their id
+    public synchronized int addNode(String nodeName) {
+        Integer existing = ids.get(nodeName);
+        int id = existing != null ? existing : ids.size();
+        if (existing == null) {
+            ids.put(nodeName, id);
+        }
+        if (draft.get(id) == null) {
+            draft.addNode(id, nodeName);
+            dirty = true;
+        }
+        return id;
+    }
+
+    // Like addNode(String), but also records the coordinates unless the node already has some
+    public synchronized int addNode(String nodeName, double x, double y) {
+        int id = addNode(nodeName);
+        if (Double.isNaN(draft.get(id).x)) {
+            GraphSnapshot.NodeRecord record = draft.edit(id);
+            record.x = x;
+            record.y = y;
+            dirty = true;
+        }
+        return id;
+    }
+
+    // Adds a directed edge, creating missing endpoints
+    public synchronized void addEdge(String fromNode, String toNode, double weight) {
+        int from = addNode(fromNode);
+        int to = addNode(toNode);
+        addArc(from, to, weight);
+    }
+
+    // Removes every directed edge fromNode -> toNode
+    public synchronized void removeEdge(String fromNode, String toNode) {
+        int from = indexOf(fromNode);
+        int to = indexOf(toNode);
+        if (from != -1 && to != -1) {
+            removeArcs(from, to);
+        }
+    }
+
+    /**
+     * Sets the weight of every directed edge fromNode -> toNode in place, so parallel edges stay
+     * separate edges and the node keeps its edge order. Returns how many edges there were.
+     */
+    public synchronized int updateEdgeWeight(String fromNode, String toNode, double weight) {
+        int from = indexOf(fromNode);
+        int to = indexOf(toNode);
+        int changed = from != -1 && to != -1 ? draft.setWeights(from, to, weight) : 0;
+        if (changed > 0) {
+            dirty = true;
+        }
+        return changed;
+    }
+
+    // Removes every listed directed edge; weights are ignored
+    public synchronized void removeEdges(Collection<Edge> edges) {
+        removeEdges(edges, false);
+    }
+
+    /**
+     * Removes every listed edge, and with bothDirections also its reverse, as undirected
+     * implementations do. Each node that loses edges is edited once for the whole batch.
+     */
+    public synchronized void removeEdges(Collection<Edge> edges, boolean bothDirections) {
+        long[] pairs = new long[(bothDirections ? 2 : 1) * edges.size()];
+        int count = 0;
+        for (Edge edge : edges) {
+            int from = indexOf(edge.getFromNode());
+            int to = indexOf(edge.getToNode());
+            if (from != -1 && to != -1) {
+                pairs[count++] = (long) from << 32 | to;
+                if (bothDirections) {
+                    pairs[count++] = (long) to << 32 | from;
+                }
+            }
+        }
+        if (count > 0 && draft.removeArcs(Arrays.copyOf(pairs, count)) > 0) {
+            dirty = true;
+        }
+    }
+
+    // Removes the node together with its outgoing and incoming edges, in O(degree) via the incoming-edge index
+    public synchronized boolean removeNode(String nodeName) {
+        int id = indexOf(nodeName);
+        if (id == -1) {
+            return false;
+        }
+        draft.removeNode(id);
+        dirty = true;
+        return true;
+    }
+
+    // Removes the nodes in one pass over their neighbors and returns how many existed
+    public synchronized int removeNodes(Collection<String> nodeNames) {
+        int[] removed = new int[nodeNames.size()];
+        int count = 0;
+        for (String nodeName : nodeNames) {
+            int id = indexOf(nodeName);
+            if (id != -1) {
+                removed[count++] = id;
+            }
+        }
+        if (count > 0) {
+            draft.removeNodes(Arrays.copyOf(removed, count));
+            dirty = true;
+        }
+        return count;
+    }
+
+    // Adds every node, with its coordinates, and every edge of the view
+    public synchronized void importGraph(IGraphView view) {
+        importGraph(view, false);
+    }
+
+    /**
+     * Bulk version of addNode/addEdge: counts the new edges per node first so every adjacency
+     * array is allocated once at its final size. With bothDirections each edge is also added
+     * reversed, as undirected implementations do.
+     */
+    public synchronized void importGraph(IGraphView view, boolean bothDirections) {
+        int n = view.nodeCount();
+        int[] local = new int[n];
+        int[] outgoing = new int[n];
+        int[] incoming = new int[n];
+        for (int u = 0; u < n; u++) {
+            String name = view.nameOf(u);
+            local[u] = name == null ? -1 : Double.isNaN(view.x(u)) ? addNode(name) : addNode(name, view.x(u), view.y(u));
+        }
+        for (int u = 0; u < n; u++) {
+            for (int i = 0, degree = local[u] == -1 ? 0 : view.degree(u); i < degree; i++) {
+                int v = view.target(u, i);
+                outgoing[u]++;
+                incoming[v]++;
+                if (bothDirections) {
+                    outgoing[v]++;
+                    incoming[u]++;
+                }
+            }
+        }
+        for (int u = 0; u < n; u++) {
+            if (local[u] != -1 && (outgoing[u] > 0 || incoming[u] > 0)) {
+                draft.edit(local[u]).reserve(outgoing[u], incoming[u]);
+            }
+        }
+        for (int u = 0; u < n; u++) {
+            for (int i = 0, degree = local[u] == -1 ? 0 : view.degree(u); i < degree; i++) {
+                int v = local[view.target(u, i)];
+                double weight = view.weight(u, i);
+                draft.addArc(local[u], v, weight);
+                if (bothDirections) {
+                    draft.addArc(v, local[u], weight);
+                }
+            }
+        }
+        dirty = true;
+    }
+
+    public synchronized boolean contains(String nodeName) {
+        return indexOf(nodeName) != -1;
+    }
+
+    // Id of the node, or -1 if it does not exist
+    public synchronized int indexOf(String nodeName) {
+        Integer id = nodeName == null ? null : ids.get(nodeName);
+        return id != null && draft.get(id) != null ? id : -1;
+    }
+
+    // Whether the node exists and has coordinates, published or not
+    synchronized boolean hasCoordinates(String nodeName) {
+        int id = indexOf(nodeName);
+        return id != -1 && !Double.isNaN(draft.get(id).x);
+    }
+
+    // Number of nodes currently in the graph, published or not
+    public synchronized int nodeCount() {
+        return draft.nodeCount();
+    }
+
+    public synchronized int edgeCount() {
+        return draft.edgeCount();
+    }
+
+    /**
+     * The version readers should search. With auto-publish on this first publishes any pending
+     * change; otherwise it is whatever {@link #publish()} last made visible. Never blocks unless
+     * it has to publish.
+     */
+    public GraphSnapshot snapshot() {
+        if (autoPublish && dirty) {
+            return publish();
+        }
+        return published;
+    }
+
+    // Makes every change so far visible to readers as one new version
+    public synchronized GraphSnapshot publish() {
+        if (dirty) {
+            published = draft.build();
+            dirty = false;
+        }
+        return published;
+    }
+
+    public boolean isAutoPublish() {
+        return autoPublish;
+    }
+
+    // Turning auto-publish back on publishes the pending changes with the next read
+    public void setAutoPublish(boolean autoPublish) {
+        this.autoPublish = autoPublish;
+    }
+
+    // CSR form of snapshot(); repeated calls without new versions return the same instance
+    public CsrGraph compact() {
+        return snapshot().compact();
+    }
+
+    // The unpublished next version; only to be read while holding the store lock
+    GraphSnapshot.Builder draft() {
+        return draft;
+    }
+
+    synchronized void addArc(int from, int to, double weight) {
+        draft.addArc(from, to, weight);
+        dirty = true;
+    }
+
+    // Removes all arcs from -> to, keeping the order of the remaining ones
+    synchronized int removeArcs(int from, int to) {
+        int removed = draft.removeArcs(from, to);
+        if (removed > 0) {
+            dirty = true;
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,104 @@
+package com.om.algorithm;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Distance oracle over hub labels. A query intersects two sorted label arrays and never
+ * searches the graph, which suits heavy distance-only traffic on a graph that rarely changes.
+ * Labels are built for the current graph and kept until it changes, like the hierarchy of
+ * {@link ContractionHierarchiesAlgoShortestPathImpl}: call {@link #rebuild()} after a batch of
+ * mutations, or the next query rebuilds them first. {@link #save} stores the labels in the graph
+ * file and {@link #attach} reuses them. Labels built without paths answer path queries with a
+ * Dijkstra search, which never waits for a rebuild.
+ */
+public class HubLabelingAlgoShortestPathImpl extends AbstractAlgoShortestPath {
+
+    static final String ARTIFACT = "hub-labels";
+
+    private final HubLabels.Order order;
+    private final boolean withPaths;
+    private final ForkJoinPool pool;
+    private volatile HubLabels labels;
+
+    public HubLabelingAlgoShortestPathImpl() {
+        this(HubLabels.Order.DEGREE, true, ForkJoinPool.commonPool());
+    }
+
+    // withPaths keeps one path link per label entry, about a third more memory, so paths need no search
+    public HubLabelingAlgoShortestPathImpl(HubLabels.Order order, boolean withPaths, ForkJoinPool pool) {
+        this(order, withPaths, pool, GraphStorage.HEAP);
+    }
+
+    public HubLabelingAlgoShortestPathImpl(HubLabels.Order order, boolean withPaths, ForkJoinPool pool, GraphStorage storage) {
+        super(false, storage); // Assuming undirected graph
+        this.order = order;
+        this.withPaths = withPaths;
+        this.pool = pool;
+    }
+
+    // Re-runs labeling for the current graph if it changed since the last build
+    public HubLabels rebuild() {
+        return labelsFor(currentView());
+    }
+
+    // True when the labels reflect every mutation made so far
+    public boolean isUpToDate() {
+        HubLabels current = labels;
+        return current != null && current.base() == currentView();
+    }
+
+    @Override
+    public PathResult findShortestPath(String startNode, String endNode) {
+        IGraphView view = viewFor(startNode, endNode);
+        HubLabels current = labels;
+        if (current == null || current.base() != view) {
+            if (!withPaths) {
+                return search(view, startNode, endNode); // labels without paths would not answer it, so do not build them
+            }
+            current = labelsFor(view);
+        }
+        if (!current.hasPaths()) {
+            return search(view, startNode, endNode);
+        }
+        return current.findShortestPath(view.indexOf(startNode), view.indexOf(endNode));
+    }
+
+    @Override
+    public double findShortestDistance(String startNode, String endNode) {
+        IGraphView view = viewFor(startNode, endNode);
+        HubLabels current = labels;
+        if (current == null || current.base() != view) {
+            current = labelsFor(view);
+        }
+        return current.findShortestDistance(view.indexOf(startNode), view.indexOf(endNode));
+    }
+
+    @Override
+    protected Map<String, ByteBuffer> artifactsFor(IGraphView view) {
+        return Map.of(ARTIFACT, labelsFor(view).toArtifact());
+    }
+
+    @Override
+    protected void loadArtifacts(MappedGraph mapped) {
+        ByteBuffer data = mapped.artifact(ARTIFACT);
+        if (data != null) {
+            labels = HubLabels.fromArtifact(mapped, data);
+        }
+    }
+
+    private static PathResult search(IGraphView view, String startNode, String endNode) {
+        return DijkstraAlgoShortestPathImpl.shortestPath(view, view.indexOf(startNode), view.indexOf(endNode),
+                IndexedDaryHeap.DEFAULT_ARITY);
+    }
+
+    private synchronized HubLabels labelsFor(IGraphView view) {
+        HubLabels current = labels;
+        if (current == null || current.base() != view) {
+            current = HubLabels.build(view, order, withPaths, pool);
+            labels = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,233 @@
+package com.om.algorithm;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Hub labels of one graph version, built by pruned landmark labeling. Every node v has an out
+ * label of (hub, d(v, hub)) and an in label of (hub, d(hub, v)) entries, sorted by hub rank, such
+ * that every shortest s-t path passes through a hub in both out(s) and in(t). A distance query is
+ * one merge of two short sorted arrays and touches no graph data at all.
+ *
+ * <p>Built with paths, each entry also keeps the neighbor of v on its path to or from the hub,
+ * so a path is recovered by following entries of the same hub from both ends.
+ */
+public final class HubLabels {
+
+    public enum Order {
+        // Hubs by number of incident edges, highest first
+        DEGREE,
+        // Hubs in reverse contraction order of a contraction hierarchy; slower to build, smaller labels on road networks
+        CONTRACTION
+    }
+
+    private final IGraphView base;
+    private final int[] hubs; // node of every hub rank
+    private final Labels in; // in[v]: d(hub, v) and the node before v on that path
+    private final Labels out; // out[v]: d(v, hub) and the node after v; the same labels as in for symmetric graphs
+
+    HubLabels(IGraphView base, int[] hubs, Labels in, Labels out) {
+        this.base = base;
+        this.hubs = hubs;
+        this.in = in;
+        this.out = out;
+    }
+
+    // Labels of every node from the default pool, with paths
+    public static HubLabels build(IGraphView graph, Order order) {
+        return build(graph, order, true, ForkJoinPool.commonPool());
+    }
+
+    // Runs the pruned searches of each batch of hubs in parallel on the pool; withPaths keeps the path links
+    public static HubLabels build(IGraphView graph, Order order, boolean withPaths, ForkJoinPool pool) {
+        return new HubLabelsBuilder(graph, order, withPaths, pool).build();
+    }
+
+    // The graph version these labels were built from
+    public IGraphView base() {
+        return base;
+    }
+
+    public boolean hasPaths() {
+        return in.parents != null;
+    }
+
+    // Total entries over all in and out labels
+    public long entryCount() {
+        return in == out ? 2L * in.hubs.length : (long) in.hubs.length + out.hubs.length;
+    }
+
+    // Hub ranks and labels in little-endian binary form, for storing next to the graph
+    public ByteBuffer toArtifact() {
+        int n = hubs.length;
+        long bytes = 6 + 4L * n + in.byteSize() + (in == out ? 0 : out.byteSize());
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Labels too large for one artifact: " + bytes + " bytes");
+        }
+        ByteBuffer data = ByteBuffer.allocate((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+        data.putInt(n).put((byte) (in == out ? 1 : 0)).put((byte) (hasPaths() ? 1 : 0));
+        for (int hub : hubs) {
+            data.putInt(hub);
+        }
+        in.writeTo(data);
+        if (in != out) {
+            out.writeTo(data);
+        }
+        return data.flip();
+    }
+
+    // Reads labels written by toArtifact() for the given graph, which must have the same node ids
+    public static HubLabels fromArtifact(IGraphView base, ByteBuffer artifact) {
+        ByteBuffer data = artifact.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int n = data.getInt();
+        if (n != base.nodeCount()) {
+            throw new IllegalArgumentException("Labels were built for " + n + " nodes, graph has " + base.nodeCount());
+        }
+        boolean symmetric = data.get() != 0;
+        boolean withPaths = data.get() != 0;
+        int[] hubs = new int[n];
+        for (int i = 0; i < n; i++) {
+            hubs[i] = data.getInt();
+        }
+        Labels in = Labels.readFrom(data, n, withPaths);
+        Labels out = symmetric ? in : Labels.readFrom(data, n, withPaths);
+        return new HubLabels(base, hubs, in, out);
+    }
+
+    double findShortestDistance(int start, int end) {
+        if (start == end) {
+            return 0.0;
+        }
+        long entries = meet(start, end);
+        return entries == -1 ? Double.POSITIVE_INFINITY : out.distances[(int) (entries >>> 32)] + in.distances[(int) entries];
+    }
+
+    // Walks the entries of the meeting hub from both ends; needs labels built with paths
+    PathResult findShortestPath(int start, int end) {
+        if (!hasPaths()) {
+            throw new IllegalStateException("Labels were built without paths");
+        }
+        if (start == end) {
+            return new PathResult(List.of(base.nameOf(start)), 0.0);
+        }
+        long entries = meet(start, end);
+        if (entries == -1) {
+            return Paths.noPath();
+        }
+        int outEntry = (int) (entries >>> 32);
+        int inEntry = (int) entries;
+        int rank = out.hubs[outEntry];
+        List<String> path = new ArrayList<>();
+        for (int node = start; node != -1; node = out.next(node, rank)) {
+            path.add(base.nameOf(node)); // start up to the hub, following the links towards it
+        }
+        List<String> tail = new ArrayList<>();
+        for (int node = end; node != hubs[rank]; node = in.next(node, rank)) {
+            tail.add(base.nameOf(node));
+        }
+        Collections.reverse(tail);
+        path.addAll(tail);
+        return new PathResult(path, out.distances[outEntry] + in.distances[inEntry]);
+    }
+
+    // Entry indexes in out(start) and in(end) of the best common hub, packed high and low, or -1
+    private long meet(int start, int end) {
+        int i = out.offsets[start];
+        int iEnd = out.offsets[start + 1];
+        int j = in.offsets[end];
+        int jEnd = in.offsets[end + 1];
+        double best = Double.POSITIVE_INFINITY;
+        long entries = -1;
+        while (i < iEnd && j < jEnd) {
+            int a = out.hubs[i];
+            int b = in.hubs[j];
+            if (a < b) {
+                i++;
+            } else if (a > b) {
+                j++;
+            } else {
+                double through = out.distances[i] + in.distances[j];
+                if (through < best) {
+                    best = through;
+                    entries = (long) i << 32 | j;
+                }
+                i++;
+                j++;
+            }
+        }
+        return entries;
+    }
+
+    // One label per node in CSR form: hub ranks ascending, distances, and the path links when kept
+    static final class Labels {
+        final int[] offsets;
+        final int[] hubs;
+        final double[] distances;
+        final int[] parents;
+
+        Labels(int[] offsets, int[] hubs, double[] distances, int[] parents) {
+            this.offsets = offsets;
+            this.hubs = hubs;
+            this.distances = distances;
+            this.parents = parents;
+        }
+
+        // Neighbor of node on its path to or from the hub of the rank, -1 at the hub itself
+        int next(int node, int rank) {
+            int entry = Arrays.binarySearch(hubs, offsets[node], offsets[node + 1], rank);
+            if (entry < 0) {
+                throw new IllegalStateException("Label of node " + node + " lost hub " + rank);
+            }
+            return parents[entry];
+        }
+
+        long byteSize() {
+            return 4 + 4L * offsets.length + (parents != null ? 16L : 12L) * hubs.length;
+        }
+
+        // Entry count, offsets, then hubs, distances and the path links if any
+        void writeTo(ByteBuffer data) {
+            data.putInt(hubs.length);
+            for (int offset : offsets) {
+                data.putInt(offset);
+            }
+            for (int hub : hubs) {
+                data.putInt(hub);
+            }
+            for (double distance : distances) {
+                data.putDouble(distance);
+            }
+            if (parents != null) {
+                for (int parent : parents) {
+                    data.putInt(parent);
+                }
+            }
+        }
+
+        static Labels readFrom(ByteBuffer data, int n, boolean withPaths) {
+            int m = data.getInt();
+            int[] offsets = new int[n + 1];
+            int[] hubs = new int[m];
+            double[] distances = new double[m];
+            int[] parents = withPaths ? new int[m] : null;
+            for (int i = 0; i <= n; i++) {
+                offsets[i] = data.getInt();
+            }
+            for (int e = 0; e < m; e++) {
+                hubs[e] = data.getInt();
+            }
+            for (int e = 0; e < m; e++) {
+                distances[e] = data.getDouble();
+            }
+            for (int e = 0; withPaths && e < m; e++) {
+                parents[e] = data.getInt();
+            }
+            return new Labels(offsets, hubs, distances, parents);
+        }
+    }
+}
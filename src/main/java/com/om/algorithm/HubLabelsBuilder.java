@@ -0,0 +1,300 @@
+package com.om.algorithm;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Pruned landmark labeling. Hubs are taken in order, and a Dijkstra search from each hub adds it
+ * to the label of every node it settles, except that it stops at nodes whose distance the labels
+ * built so far already give; later hubs thus only cover what earlier ones miss and their searches
+ * stay small. Searches of one batch of hubs run in parallel and prune only against the labels of
+ * earlier batches, which can leave a few extra entries but never a wrong distance. Batches start
+ * at a single hub, while the important hubs still prune heavily, and grow as searches shrink.
+ * Graphs whose every edge has a reverse of equal weight get one label per node for both directions.
+ */
+final class HubLabelsBuilder {
+    private static final int BATCHES_PER_WORKER = 8; // largest batch, per worker of the pool
+
+    private final CsrGraph graph;
+    private final CsrGraph reverse;
+    private final IGraphView base;
+    private final int n;
+    private final int[] hubs;
+    private final boolean symmetric;
+    private final boolean withPaths;
+    private final ForkJoinPool pool;
+    private final Growing in;
+    private final Growing out;
+    private final ConcurrentLinkedQueue<Scratch> scratch = new ConcurrentLinkedQueue<>(); // idle search states
+
+    HubLabelsBuilder(IGraphView base, HubLabels.Order order, boolean withPaths, ForkJoinPool pool) {
+        this.base = base;
+        this.graph = CsrGraph.of(base);
+        this.n = graph.nodeCount();
+        this.symmetric = isSymmetric(graph);
+        this.reverse = symmetric ? graph : graph.reverse();
+        this.hubs = order == HubLabels.Order.CONTRACTION ? contractionOrder(base) : degreeOrder(graph, reverse);
+        this.withPaths = withPaths;
+        this.pool = pool;
+        this.in = new Growing(n);
+        this.out = symmetric ? in : new Growing(n);
+    }
+
+    HubLabels build() {
+        int live = 0;
+        while (live < n && graph.nameOf(hubs[live]) != null) {
+            live++; // removed nodes are ordered last and are no hubs
+        }
+        int maxBatch = Math.max(1, BATCHES_PER_WORKER * pool.getParallelism());
+        Found[] forward = new Found[maxBatch];
+        Found[] backward = new Found[maxBatch];
+        for (int first = 0, batch = 1; first < live; first += batch, batch = Math.min(2 * batch, maxBatch)) {
+            int size = Math.min(batch, live - first);
+            pool.invoke(new BatchTask(this, first, forward, backward, 0, size));
+            for (int i = 0; i < size; i++) { // ranks ascending, so every label stays sorted
+                forward[i].appendTo(in, first + i);
+                if (!symmetric) {
+                    backward[i].appendTo(out, first + i);
+                }
+            }
+        }
+        HubLabels.Labels inLabels = in.toLabels(withPaths);
+        return new HubLabels(base, hubs, inLabels, symmetric ? inLabels : out.toLabels(withPaths));
+    }
+
+    // Forward search of the hub of the rank fills in labels, backward search out labels
+    private void searchFrom(int rank, Found[] forward, Found[] backward, int slot) {
+        forward[slot] = search(rank, graph, out, in);
+        if (!symmetric) {
+            backward[slot] = search(rank, reverse, in, out);
+        }
+    }
+
+    // Dijkstra from the hub over g, skipping every node that hub labels and target labels already cover
+    private Found search(int rank, CsrGraph g, Growing hubLabels, Growing targetLabels) {
+        Scratch local = scratch.poll();
+        if (local == null) {
+            local = new Scratch(n);
+        }
+        int hub = hubs[rank];
+        double[] viaHub = local.viaHub;
+        int[] hubEntries = hubLabels.hubs[hub];
+        for (int i = 0; i < hubLabels.sizes[hub]; i++) {
+            viaHub[hubEntries[i]] = hubLabels.distances[hub][i];
+        }
+        SearchContext context = local.context.reset(n, IndexedDaryHeap.DEFAULT_ARITY);
+        IndexedDaryHeap queue = context.heap();
+        Found found = new Found();
+        context.update(hub, 0.0, -1);
+        queue.push(hub, 0.0);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            double distU = context.distance(u);
+            if (covered(viaHub, targetLabels, u, distU)) {
+                continue; // an earlier hub already gives this distance, and everything behind u
+            }
+            found.add(u, distU, context.parent(u));
+            for (int i = 0, degree = g.degree(u); i < degree; i++) {
+                int neighbor = g.target(u, i);
+                if (queue.isSettled(neighbor)) {
+                    continue;
+                }
+                double newDist = distU + g.weight(u, i);
+                if (newDist < context.distance(neighbor)) {
+                    context.update(neighbor, newDist, u);
+                    queue.push(neighbor, newDist);
+                }
+            }
+        }
+        for (int i = 0; i < hubLabels.sizes[hub]; i++) {
+            viaHub[hubEntries[i]] = Double.POSITIVE_INFINITY;
+        }
+        scratch.offer(local);
+        return found;
+    }
+
+    private static boolean covered(double[] viaHub, Growing labels, int node, double distance) {
+        int[] entries = labels.hubs[node];
+        double[] distances = labels.distances[node];
+        for (int i = 0, size = labels.sizes[node]; i < size; i++) {
+            if (viaHub[entries[i]] + distances[i] <= distance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // True when every edge has a reverse edge of the same weight, as in undirected implementations
+    private static boolean isSymmetric(CsrGraph graph) {
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            for (int i = 0, degree = graph.degree(u); i < degree; i++) {
+                int v = graph.target(u, i);
+                double weight = graph.weight(u, i);
+                boolean found = false;
+                for (int j = 0, back = graph.degree(v); j < back && !found; j++) {
+                    found = graph.target(v, j) == u && graph.weight(v, j) == weight;
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Nodes by in plus out degree, highest first, ties by id; removed nodes last
+    private static int[] degreeOrder(CsrGraph graph, CsrGraph reverse) {
+        int n = graph.nodeCount();
+        long[] keys = new long[n];
+        for (int u = 0; u < n; u++) {
+            long degree = graph.nameOf(u) == null ? -1 : graph.degree(u) + (reverse != graph ? reverse.degree(u) : 0);
+            keys[u] = (Integer.MAX_VALUE - 1 - degree) << 32 | u;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    // Nodes contracted last come first, as they lie on the most shortest paths
+    private static int[] contractionOrder(IGraphView base) {
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(base);
+        int n = base.nodeCount();
+        int[] order = new int[n];
+        int next = n;
+        for (int u = 0; u < n; u++) {
+            if (hierarchy.rank(u) == -1) {
+                order[--next] = u;
+            }
+        }
+        for (int u = 0; u < n; u++) {
+            if (hierarchy.rank(u) != -1) {
+                order[next - 1 - hierarchy.rank(u)] = u;
+            }
+        }
+        return order;
+    }
+
+    // Search state of one worker; viaHub holds the hub's own label by hub rank during a search and infinity otherwise
+    private static final class Scratch {
+        final SearchContext context = new SearchContext();
+        final double[] viaHub;
+
+        Scratch(int n) {
+            viaHub = new double[n];
+            Arrays.fill(viaHub, Double.POSITIVE_INFINITY);
+        }
+    }
+
+    // Nodes one search labels, with their distance and parent in the search tree
+    private static final class Found {
+        int size;
+        int[] nodes = new int[16];
+        double[] distances = new double[16];
+        int[] parents = new int[16];
+
+        void add(int node, double distance, int parent) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, 2 * size);
+                distances = Arrays.copyOf(distances, 2 * size);
+                parents = Arrays.copyOf(parents, 2 * size);
+            }
+            nodes[size] = node;
+            distances[size] = distance;
+            parents[size++] = parent;
+        }
+
+        void appendTo(Growing labels, int rank) {
+            for (int i = 0; i < size; i++) {
+                labels.add(nodes[i], rank, distances[i], parents[i]);
+            }
+        }
+    }
+
+    // Labels under construction, one growable array per node
+    private static final class Growing {
+        final int[][] hubs;
+        final double[][] distances;
+        final int[][] parents;
+        final int[] sizes;
+
+        Growing(int n) {
+            hubs = new int[n][];
+            distances = new double[n][];
+            parents = new int[n][];
+            sizes = new int[n];
+            Arrays.fill(hubs, new int[0]);
+            Arrays.fill(distances, new double[0]);
+            Arrays.fill(parents, new int[0]);
+        }
+
+        void add(int node, int rank, double distance, int parent) {
+            int size = sizes[node];
+            if (size == hubs[node].length) {
+                int capacity = Math.max(4, 2 * size);
+                hubs[node] = Arrays.copyOf(hubs[node], capacity);
+                distances[node] = Arrays.copyOf(distances[node], capacity);
+                parents[node] = Arrays.copyOf(parents[node], capacity);
+            }
+            hubs[node][size] = rank;
+            distances[node][size] = distance;
+            parents[node][size] = parent;
+            sizes[node] = size + 1;
+        }
+
+        HubLabels.Labels toLabels(boolean withPaths) {
+            int n = sizes.length;
+            int[] offsets = new int[n + 1];
+            for (int u = 0; u < n; u++) {
+                offsets[u + 1] = offsets[u] + sizes[u];
+            }
+            int[] flatHubs = new int[offsets[n]];
+            double[] flatDistances = new double[offsets[n]];
+            int[] flatParents = withPaths ? new int[offsets[n]] : null;
+            for (int u = 0; u < n; u++) {
+                System.arraycopy(hubs[u], 0, flatHubs, offsets[u], sizes[u]);
+                System.arraycopy(distances[u], 0, flatDistances, offsets[u], sizes[u]);
+                if (withPaths) {
+                    System.arraycopy(parents[u], 0, flatParents, offsets[u], sizes[u]);
+                }
+            }
+            return new HubLabels.Labels(offsets, flatHubs, flatDistances, flatParents);
+        }
+    }
+
+    // Runs the searches of one batch, splitting the batch in halves until a task holds a single hub
+    private static final class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final HubLabelsBuilder builder;
+        private final int firstRank;
+        private final Found[] forward;
+        private final Found[] backward;
+        private final int from;
+        private final int to;
+
+        BatchTask(HubLabelsBuilder builder, int firstRank, Found[] forward, Found[] backward, int from, int to) {
+            this.builder = builder;
+            this.firstRank = firstRank;
+            this.forward = forward;
+            this.backward = backward;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                builder.searchFrom(firstRank + from, forward, backward, from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BatchTask(builder, firstRank, forward, backward, from, middle),
+                    new BatchTask(builder, firstRank, forward, backward, middle, to));
+        }
+    }
+}
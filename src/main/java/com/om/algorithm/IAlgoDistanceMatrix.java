@@ -0,0 +1,9 @@
+package com.om.algorithm;
+
+import java.util.List;
+
+public interface IAlgoDistanceMatrix {
+
+    // Shortest path distances from every source to every target; paths are computed on demand
+    DistanceMatrix computeDistanceMatrix(List<String> sources, List<String> targets);
+}
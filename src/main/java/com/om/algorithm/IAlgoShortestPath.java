@@ -1,5 +1,9 @@
 package com.om.algorithm;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 public interface IAlgoShortestPath{
 
     void addNode(String nodeName, double x, double y);
@@ -11,4 +15,39 @@ public interface IAlgoShortestPath{
     void removeEdge(String fromNode, String toNode);
 
     PathResult findShortestPath(String startNode, String endNode);
+
+    // Length of the shortest path, infinity when there is none; implementations may skip building the path
+    default double findShortestDistance(String startNode, String endNode) {
+        return findShortestPath(startNode, endNode).getTotalWeight();
+    }
+
+    // Paths from one start to each end node, in order; implementations may share one search among them
+    default List<PathResult> findShortestPaths(String startNode, List<String> endNodes) {
+        List<PathResult> results = new ArrayList<>(endNodes.size());
+        for (String endNode : endNodes) {
+            results.add(findShortestPath(startNode, endNode));
+        }
+        return results;
+    }
+
+    /**
+     * Sets the weight of every existing fromNode -> toNode edge in place, and of the reverse edges
+     * in undirected implementations. Parallel edges all get the weight but stay separate edges, and
+     * no edge is ever created: without such an edge this throws IllegalArgumentException.
+     */
+    void updateEdgeWeight(String fromNode, String toNode, double weight);
+
+    // Removes a batch of nodes; implementations may apply it in a single pass
+    default void removeNodes(Collection<String> nodeNames) {
+        for (String nodeName : nodeNames) {
+            removeNode(nodeName);
+        }
+    }
+
+    // Removes a batch of edges as removeEdge would; the weights of the given edges are ignored
+    default void removeEdges(Collection<Edge> edges) {
+        for (Edge edge : edges) {
+            removeEdge(edge.getFromNode(), edge.getToNode());
+        }
+    }
 }
@@ -0,0 +1,27 @@
+package com.om.algorithm;
+
+/**
+ * Read-only view of a graph whose nodes are interned to dense int ids in {@code [0, nodeCount())}.
+ * Search kernels work against this view so they never touch node names or boxed values.
+ */
+public interface IGraphView {
+
+    // Upper bound (exclusive) of node ids; removed ids inside the range have no name and no edges
+    int nodeCount();
+
+    // Id of the node, or -1 if the node is not in the graph
+    int indexOf(String nodeName);
+
+    String nameOf(int node);
+
+    // Coordinates given to addNode, NaN when the node has none
+    double x(int node);
+
+    double y(int node);
+
+    int degree(int node);
+
+    int target(int node, int i);
+
+    double weight(int node, int i);
+}
@@ -0,0 +1,6 @@
+package com.om.algorithm;
+
+// Receives the statistics of every query answered through an InstrumentedAlgoShortestPath, on the querying thread
+public interface IQueryListener {
+    void onQuery(SearchStats stats, PathResult result);
+}
@@ -0,0 +1,6 @@
+package com.om.algorithm;
+
+// Receives the nodes of a range search in order of distance, on the querying thread, as each one is settled
+public interface IReachableConsumer {
+    void accept(String node, double distance);
+}
@@ -0,0 +1,16 @@
+package com.om.algorithm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// Carries encoded requests from a PartitionedShortestPath coordinator to the shards holding the cells
+public interface IShardTransport extends AutoCloseable {
+
+    int shardCount();
+
+    // Sends the request to the shard and waits for its reply; must allow calls from several threads at once
+    ByteBuffer call(int shard, ByteBuffer request) throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
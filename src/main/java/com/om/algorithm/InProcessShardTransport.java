@@ -0,0 +1,27 @@
+package com.om.algorithm;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+// Shards held in this JVM, for tests and single-host setups; requests are still encoded as they would be on the wire
+public final class InProcessShardTransport implements IShardTransport {
+    private final List<CellShard> shards;
+
+    public InProcessShardTransport(List<CellShard> shards) {
+        this.shards = List.copyOf(shards);
+    }
+
+    @Override
+    public int shardCount() {
+        return shards.size();
+    }
+
+    @Override
+    public ByteBuffer call(int shard, ByteBuffer request) {
+        return shards.get(shard).handle(request);
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,191 @@
+package com.om.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Indexed d-ary min-heap over int node ids with double keys.
+ * Each node is in the heap at most once, so pushing an already queued node decreases its key
+ * instead of adding a duplicate entry. Polled nodes are remembered as settled.
+ * Node state is tagged with an epoch, so {@link #clear()} is O(1) and the heap can be reused
+ * across searches without touching every node.
+ */
+final class IndexedDaryHeap {
+    static final int DEFAULT_ARITY = 4;
+
+    private static final int ABSENT = -1;
+    private static final int SETTLED = -2;
+
+    private final int arity;
+    private final SearchCounters counters;
+    private int[] nodes; // heap order
+    private double[] keys; // keys[i] belongs to nodes[i]
+    private int[] positions; // heap index of each node, or ABSENT / SETTLED
+    private int[] stamps; // positions[node] is only meaningful when stamps[node] == epoch
+    private int epoch = 1;
+    private int size;
+
+    IndexedDaryHeap(int capacity) {
+        this(capacity, DEFAULT_ARITY);
+    }
+
+    IndexedDaryHeap(int capacity, int arity) {
+        this(capacity, arity, new SearchCounters());
+    }
+
+    // Pushes, key decreases and polls are added to counters
+    IndexedDaryHeap(int capacity, int arity, SearchCounters counters) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2: " + arity);
+        }
+        this.arity = arity;
+        this.counters = counters;
+        this.nodes = new int[Math.max(1, capacity)];
+        this.keys = new double[nodes.length];
+        this.positions = new int[nodes.length];
+        this.stamps = new int[nodes.length];
+    }
+
+    int arity() {
+        return arity;
+    }
+
+    // Forgets every queued and settled node
+    void clear() {
+        size = 0;
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+    }
+
+    // Makes room for node ids below capacity, keeping the current contents
+    void ensureCapacity(int capacity) {
+        if (capacity > nodes.length) {
+            int length = Math.max(capacity, nodes.length + (nodes.length >> 1));
+            nodes = Arrays.copyOf(nodes, length);
+            keys = Arrays.copyOf(keys, length);
+            positions = Arrays.copyOf(positions, length);
+            stamps = Arrays.copyOf(stamps, length);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean contains(int node) {
+        return position(node) >= 0;
+    }
+
+    boolean isSettled(int node) {
+        return position(node) == SETTLED;
+    }
+
+    // Smallest key in the heap; only valid when the heap is not empty
+    double peekKey() {
+        return keys[0];
+    }
+
+    int peek() {
+        return nodes[0];
+    }
+
+    // Key of a queued node
+    double keyOf(int node) {
+        return keys[positions[node]];
+    }
+
+    /**
+     * Inserts the node, or lowers its key if it is already queued. A settled node is queued again,
+     * which lets searches with an inconsistent heuristic reopen it. Returns false when a queued
+     * node already has a key that is not larger.
+     */
+    boolean push(int node, double key) {
+        int position = position(node);
+        if (position >= 0) {
+            if (key >= keys[position]) {
+                return false;
+            }
+            siftUp(position, node, key);
+            counters.decreaseKeys++;
+            return true;
+        }
+        siftUp(size++, node, key);
+        counters.pushes++;
+        return true;
+    }
+
+    // Sets the key of a queued node to any value, or queues the node with that key
+    void update(int node, double key) {
+        int position = position(node);
+        if (position >= 0 && key > keys[position]) {
+            siftDown(position, node, key);
+        } else {
+            push(node, key);
+        }
+    }
+
+    // Removes the node with the smallest key and marks it settled; searches scan every polled node
+    int poll() {
+        int top = nodes[0];
+        positions[top] = SETTLED;
+        counters.pops++;
+        counters.settled++;
+        int last = --size;
+        if (last > 0) {
+            siftDown(0, nodes[last], keys[last]);
+        }
+        return top;
+    }
+
+    private int position(int node) {
+        return stamps[node] == epoch ? positions[node] : ABSENT;
+    }
+
+    private void siftUp(int position, int node, double key) {
+        while (position > 0) {
+            int parent = (position - 1) / arity;
+            if (keys[parent] <= key) {
+                break;
+            }
+            move(nodes[parent], keys[parent], position);
+            position = parent;
+        }
+        move(node, key, position);
+    }
+
+    private void siftDown(int position, int node, double key) {
+        while (true) {
+            int firstChild = position * arity + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int lastChild = Math.min(firstChild + arity, size);
+            int best = firstChild;
+            double bestKey = keys[firstChild];
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                if (keys[child] < bestKey) {
+                    best = child;
+                    bestKey = keys[child];
+                }
+            }
+            if (bestKey >= key) {
+                break;
+            }
+            move(nodes[best], bestKey, position);
+            position = best;
+        }
+        move(node, key, position);
+    }
+
+    private void move(int node, double key, int position) {
+        nodes[position] = node;
+        keys[position] = key;
+        positions[node] = position;
+        stamps[node] = epoch;
+    }
+}
@@ -0,0 +1,192 @@
+package com.om.algorithm;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Measures every query answered by another {@link IAlgoShortestPath}: nodes settled, edges
+ * relaxed, heap pushes, decrease-keys, pops and stale pops, and wall time. Each query's
+ * {@link SearchStats} go to the registered listeners, into lock-free histograms, and into a
+ * {@code com.om.algorithm.ShortestPathQuery} JFR event when a recording enables it.
+ *
+ * <p>The search kernels keep running per-thread totals regardless, at the cost of a few plain
+ * increments per settled node; this wrapper only takes the difference around the query, and
+ * {@link #setEnabled(boolean) disabled} it passes queries straight through. Work the delegate
+ * hands to other threads, such as parallel Bellman-Ford rounds, is counted by the caller only
+ * where the kernel can account for it up front.
+ */
+public class InstrumentedAlgoShortestPath implements IAlgoShortestPath {
+
+    private final IAlgoShortestPath delegate;
+    private final String algorithm;
+    private final List<IQueryListener> listeners = new CopyOnWriteArrayList<>();
+    private final Histogram wallNanos = new Histogram();
+    private final Histogram settled = new Histogram();
+    private final Histogram relaxed = new Histogram();
+    private volatile boolean enabled = true;
+
+    public InstrumentedAlgoShortestPath(IAlgoShortestPath delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.algorithm = delegate.getClass().getSimpleName();
+    }
+
+    public void addListener(IQueryListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    public void removeListener(IQueryListener listener) {
+        listeners.remove(listener);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    // A MeasuredPathResult while enabled, the delegate's result otherwise
+    @Override
+    public PathResult findShortestPath(String startNode, String endNode) {
+        if (!enabled) {
+            return delegate.findShortestPath(startNode, endNode);
+        }
+        return findShortestPathWithStats(startNode, endNode);
+    }
+
+    // Measures the query even while disabled
+    public MeasuredPathResult findShortestPathWithStats(String startNode, String endNode) {
+        ShortestPathQueryEvent event = new ShortestPathQueryEvent();
+        event.begin();
+        SearchCounters counters = SearchCounters.forThread();
+        SearchCounters before = counters.copy();
+        long started = System.nanoTime();
+        PathResult result = delegate.findShortestPath(startNode, endNode);
+        long elapsed = System.nanoTime() - started;
+        SearchStats stats = new SearchStats(algorithm, startNode, endNode, before, counters, elapsed);
+
+        record(event, stats, result.getNodeCount() > 0, result.getTotalWeight());
+        for (IQueryListener listener : listeners) {
+            listener.onQuery(stats, result);
+        }
+        return new MeasuredPathResult(result, stats);
+    }
+
+    // Distance queries go into the histograms and JFR events; listeners only see path queries
+    @Override
+    public double findShortestDistance(String startNode, String endNode) {
+        if (!enabled) {
+            return delegate.findShortestDistance(startNode, endNode);
+        }
+        ShortestPathQueryEvent event = new ShortestPathQueryEvent();
+        event.begin();
+        SearchCounters counters = SearchCounters.forThread();
+        SearchCounters before = counters.copy();
+        long started = System.nanoTime();
+        double distance = delegate.findShortestDistance(startNode, endNode);
+        long elapsed = System.nanoTime() - started;
+        SearchStats stats = new SearchStats(algorithm, startNode, endNode, before, counters, elapsed);
+        record(event, stats, distance != Double.POSITIVE_INFINITY, distance);
+        return distance;
+    }
+
+    // One batch is one measured query, reported with the batch's first end node and its result
+    @Override
+    public List<PathResult> findShortestPaths(String startNode, List<String> endNodes) {
+        if (!enabled || endNodes.isEmpty()) {
+            return delegate.findShortestPaths(startNode, endNodes);
+        }
+        ShortestPathQueryEvent event = new ShortestPathQueryEvent();
+        event.begin();
+        SearchCounters counters = SearchCounters.forThread();
+        SearchCounters before = counters.copy();
+        long started = System.nanoTime();
+        List<PathResult> results = delegate.findShortestPaths(startNode, endNodes);
+        long elapsed = System.nanoTime() - started;
+        SearchStats stats = new SearchStats(algorithm, startNode, endNodes.get(0), before, counters, elapsed);
+        PathResult first = results.get(0);
+        record(event, stats, first.getNodeCount() > 0, first.getTotalWeight());
+        return results;
+    }
+
+    private void record(ShortestPathQueryEvent event, SearchStats stats, boolean found, double totalWeight) {
+        wallNanos.record(stats.getWallNanos());
+        settled.record(stats.getSettled());
+        relaxed.record(stats.getRelaxed());
+        if (event.shouldCommit()) {
+            event.algorithm = algorithm;
+            event.startNode = stats.getStartNode();
+            event.endNode = stats.getEndNode();
+            event.found = found;
+            event.totalWeight = totalWeight;
+            event.settled = stats.getSettled();
+            event.relaxed = stats.getRelaxed();
+            event.pushes = stats.getPushes();
+            event.decreaseKeys = stats.getDecreaseKeys();
+            event.pops = stats.getPops();
+            event.stalePops = stats.getStalePops();
+            event.commit();
+        }
+    }
+
+    // Query wall time in nanoseconds
+    public Histogram getWallNanosHistogram() {
+        return wallNanos;
+    }
+
+    public Histogram getSettledHistogram() {
+        return settled;
+    }
+
+    public Histogram getRelaxedHistogram() {
+        return relaxed;
+    }
+
+    public IAlgoShortestPath getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void addNode(String nodeName, double x, double y) {
+        delegate.addNode(nodeName, x, y);
+    }
+
+    @Override
+    public void addEdge(String fromNode, String toNode, double weight) {
+        delegate.addEdge(fromNode, toNode, weight);
+    }
+
+    @Override
+    public void removeNode(String nodeName) {
+        delegate.removeNode(nodeName);
+    }
+
+    @Override
+    public void removeEdge(String fromNode, String toNode) {
+        delegate.removeEdge(fromNode, toNode);
+    }
+
+    @Override
+    public void updateEdgeWeight(String fromNode, String toNode, double weight) {
+        delegate.updateEdgeWeight(fromNode, toNode, weight);
+    }
+
+    @Override
+    public void removeNodes(Collection<String> nodeNames) {
+        delegate.removeNodes(nodeNames);
+    }
+
+    @Override
+    public void removeEdges(Collection<Edge> edges) {
+        delegate.removeEdges(edges);
+    }
+
+    @Override
+    public String toString() {
+        return "InstrumentedAlgoShortestPath[" + algorithm + ", wallNanos{" + wallNanos + "}, settled{" + settled
+                + "}, relaxed{" + relaxed + "}]";
+    }
+}
@@ -0,0 +1,128 @@
+package com.om.algorithm;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Johnson's algorithm for directed graphs with negative edge weights. One Bellman-Ford search
+ * from a virtual source joined to every node yields vertex potentials that make all edge
+ * weights non-negative; the potentials are kept until the graph changes and every query is a
+ * Dijkstra search on the reweighted edges. A negative cycle anywhere in the graph makes queries
+ * throw {@link NegativeCycleException}, not only one reachable from the start.
+ */
+public class JohnsonAlgoShortestPathImpl extends AbstractAlgoShortestPath implements IAlgoDistanceMatrix {
+
+    private final int heapArity;
+    private volatile ReweightedView reweighted; // potentials for the graph version it reports as base()
+
+    public JohnsonAlgoShortestPathImpl() {
+        this(IndexedDaryHeap.DEFAULT_ARITY);
+    }
+
+    public JohnsonAlgoShortestPathImpl(int heapArity) {
+        this(heapArity, GraphStorage.HEAP);
+    }
+
+    public JohnsonAlgoShortestPathImpl(int heapArity, GraphStorage storage) {
+        super(true, storage);
+        if (heapArity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2: " + heapArity);
+        }
+        this.heapArity = heapArity;
+    }
+
+    // Recomputes the potentials for the current graph if it changed since they were computed
+    public void refreshPotentials() {
+        reweightedFor(currentView());
+    }
+
+    // True when the potentials reflect every mutation made so far
+    public boolean isUpToDate() {
+        ReweightedView current = reweighted;
+        return current != null && current.base() == currentView();
+    }
+
+    @Override
+    public PathResult findShortestPath(String startNode, String endNode) {
+        IGraphView view = viewFor(startNode, endNode);
+        ReweightedView reduced = reweightedFor(view);
+        return originalWeights(view, DijkstraAlgoShortestPathImpl.shortestPath(reduced, view.indexOf(startNode),
+                view.indexOf(endNode), heapArity));
+    }
+
+    // The reduced distance converts back through the potentials, so no path is needed
+    @Override
+    public double findShortestDistance(String startNode, String endNode) {
+        IGraphView view = viewFor(startNode, endNode);
+        ReweightedView reduced = reweightedFor(view);
+        int start = view.indexOf(startNode);
+        int end = view.indexOf(endNode);
+        return reduced.originalDistance(start, end, DijkstraAlgoShortestPathImpl.shortestDistance(reduced, start, end, heapArity));
+    }
+
+    @Override
+    public DistanceMatrix computeDistanceMatrix(List<String> sources, List<String> targets) {
+        return computeDistanceMatrix(sources, targets, ForkJoinPool.commonPool());
+    }
+
+    // One reweighted Dijkstra search per source, split across the pool's workers
+    public DistanceMatrix computeDistanceMatrix(List<String> sources, List<String> targets, ForkJoinPool pool) {
+        IGraphView view = currentView();
+        ReweightedView reduced = reweightedFor(view);
+        int[] sourceIds = DijkstraAlgoShortestPathImpl.resolve(view, sources);
+        int[] targetIds = DijkstraAlgoShortestPathImpl.resolve(view, targets);
+        double[] distances = DijkstraAlgoShortestPathImpl.distanceRows(reduced, sourceIds, targetIds, pool, heapArity);
+        for (int i = 0; i < sourceIds.length; i++) {
+            for (int j = 0; j < targetIds.length; j++) {
+                int cell = i * targetIds.length + j;
+                distances[cell] = reduced.originalDistance(sourceIds[i], targetIds[j], distances[cell]);
+            }
+        }
+        return new DistanceMatrix(List.copyOf(sources), List.copyOf(targets), distances, view,
+                (start, end) -> originalWeights(view, DijkstraAlgoShortestPathImpl.shortestPath(reduced, start, end, heapArity)));
+    }
+
+    // Distances between every pair of nodes, rows and columns in the same order
+    public DistanceMatrix computeAllPairs(ForkJoinPool pool) {
+        IGraphView view = currentView();
+        List<String> nodes = new ArrayList<>();
+        for (int v = 0; v < view.nodeCount(); v++) {
+            if (view.nameOf(v) != null) {
+                nodes.add(view.nameOf(v));
+            }
+        }
+        return computeDistanceMatrix(nodes, nodes, pool);
+    }
+
+    private ReweightedView reweightedFor(IGraphView view) {
+        ReweightedView current = reweighted;
+        if (current != null && current.base() == view) {
+            return current;
+        }
+        synchronized (this) {
+            current = reweighted;
+            if (current == null || current.base() != view) {
+                current = new ReweightedView(view, potentials(view));
+                reweighted = current;
+            }
+            return current;
+        }
+    }
+
+    // h(v) = shortest distance from a virtual source with a zero-weight edge to every node
+    private static double[] potentials(IGraphView view) {
+        int[] nodes = new int[view.nodeCount()];
+        int count = 0;
+        for (int v = 0; v < view.nodeCount(); v++) {
+            if (view.nameOf(v) != null) {
+                nodes[count++] = v;
+            }
+        }
+        return BellmanFordSearch.queue(view, Arrays.copyOf(nodes, count)).distances();
+    }
+
+    // The path found on the reduced weights, moved to the view with the original ones summed over its node ids
+    private static PathResult originalWeights(IGraphView view, PathResult reduced) {
+        return reduced.getNodeCount() == 0 ? reduced : ((CompactPathResult) reduced).reweigh(view);
+    }
+}
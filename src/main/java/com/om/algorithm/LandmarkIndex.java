@@ -0,0 +1,317 @@
+package com.om.algorithm;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Precomputed distances to and from a small set of landmark nodes (the ALT technique).
+ * By the triangle inequality {@code d(L, t) - d(L, v)} and {@code d(v, L) - d(t, L)} are lower
+ * bounds on {@code d(v, t)} for every landmark L, which gives A* an admissible and consistent
+ * heuristic that works on any non-negative weights and needs no node coordinates.
+ */
+public final class LandmarkIndex {
+
+    public enum Selection {
+        // Each landmark is the node farthest from the landmarks chosen so far
+        FARTHEST,
+        // Each landmark is a leaf of the shortest path tree region the current landmarks cover worst
+        AVOID
+    }
+
+    private final IGraphView base;
+    private final int[] landmarks;
+    private final double[] fromLandmark; // d(L, v) at [v * k + i]
+    private final double[] toLandmark; // d(v, L) at [v * k + i]
+
+    private LandmarkIndex(IGraphView base, int[] landmarks, double[] fromLandmark, double[] toLandmark) {
+        this.base = base;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    // Selects up to landmarkCount landmarks and runs a forward and a backward search from each
+    public static LandmarkIndex build(IGraphView base, int landmarkCount, Selection selection) {
+        return build(base, false, landmarkCount, selection);
+    }
+
+    /**
+     * Same for a graph that may be symmetric, i.e. every edge has a reverse of equal weight; then
+     * one search per landmark serves both tables and no reverse graph is built. A mapped or
+     * off-heap graph is searched in place rather than copied to the heap.
+     */
+    static LandmarkIndex build(IGraphView base, boolean symmetric, int landmarkCount, Selection selection) {
+        if (landmarkCount < 1) {
+            throw new IllegalArgumentException("Landmark count must be at least 1: " + landmarkCount);
+        }
+        IGraphView graph = base instanceof MappedGraph ? base : CsrGraph.of(base);
+        IGraphView reverse = symmetric ? graph : CsrGraph.of(base).reverse();
+        int n = graph.nodeCount();
+        SearchContext context = new SearchContext();
+        int[] chosen = new int[landmarkCount];
+        double[][] forward = new double[landmarkCount][];
+        double[][] backward = new double[landmarkCount][];
+        int k = 0;
+        while (k < landmarkCount) {
+            int next = selection == Selection.AVOID
+                    ? avoidCandidate(graph, context, chosen, forward, backward, k)
+                    : farthestCandidate(graph, context, forward, k);
+            if (next == -1 || contains(chosen, k, next)) {
+                break; // fewer useful nodes than requested landmarks
+            }
+            chosen[k] = next;
+            forward[k] = distancesFrom(graph, context, next);
+            backward[k] = reverse == graph ? forward[k] : distancesFrom(reverse, context, next);
+            k++;
+        }
+
+        double[] fromLandmark = new double[n * k];
+        double[] toLandmark = new double[n * k];
+        for (int i = 0; i < k; i++) {
+            for (int v = 0; v < n; v++) {
+                fromLandmark[v * k + i] = forward[i][v];
+                toLandmark[v * k + i] = backward[i][v];
+            }
+        }
+        return new LandmarkIndex(base, Arrays.copyOf(chosen, k), fromLandmark, toLandmark);
+    }
+
+    // The graph version this index was built from
+    public IGraphView base() {
+        return base;
+    }
+
+    /**
+     * The same tables for a later version of the graph in which no distance got shorter, i.e.
+     * edges were only removed or made heavier and nodes only added without edges. The old
+     * distances still bound the new ones from below, and no landmark reaches the new nodes.
+     */
+    LandmarkIndex rebase(IGraphView view) {
+        int k = landmarks.length;
+        int n = base.nodeCount();
+        if (view.nodeCount() < n) {
+            throw new IllegalArgumentException("Graph has fewer nodes than the landmarks were built for: " + view.nodeCount());
+        }
+        if (view.nodeCount() == n || k == 0) {
+            return new LandmarkIndex(view, landmarks, fromLandmark, toLandmark);
+        }
+        double[] from = Arrays.copyOf(fromLandmark, view.nodeCount() * k);
+        double[] to = Arrays.copyOf(toLandmark, view.nodeCount() * k);
+        Arrays.fill(from, n * k, from.length, Double.POSITIVE_INFINITY);
+        Arrays.fill(to, n * k, to.length, Double.POSITIVE_INFINITY);
+        return new LandmarkIndex(view, landmarks, from, to);
+    }
+
+    // Landmarks and both distance tables in little-endian binary form, for storing next to the graph
+    public ByteBuffer toArtifact() {
+        int k = landmarks.length;
+        ByteBuffer data = ByteBuffer.allocate(8 + 4 * k + 8 * (fromLandmark.length + toLandmark.length))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        data.putInt(base.nodeCount()).putInt(k);
+        for (int landmark : landmarks) {
+            data.putInt(landmark);
+        }
+        for (double distance : fromLandmark) {
+            data.putDouble(distance);
+        }
+        for (double distance : toLandmark) {
+            data.putDouble(distance);
+        }
+        return data.flip();
+    }
+
+    // Reads an index written by toArtifact() for the given graph, which must have the same node ids
+    public static LandmarkIndex fromArtifact(IGraphView base, ByteBuffer artifact) {
+        ByteBuffer data = artifact.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int n = data.getInt();
+        int k = data.getInt();
+        if (n != base.nodeCount()) {
+            throw new IllegalArgumentException("Landmarks were built for " + n + " nodes, graph has " + base.nodeCount());
+        }
+        int[] landmarks = new int[k];
+        for (int i = 0; i < k; i++) {
+            landmarks[i] = data.getInt();
+        }
+        double[] fromLandmark = new double[n * k];
+        double[] toLandmark = new double[n * k];
+        for (int i = 0; i < fromLandmark.length; i++) {
+            fromLandmark[i] = data.getDouble();
+        }
+        for (int i = 0; i < toLandmark.length; i++) {
+            toLandmark[i] = data.getDouble();
+        }
+        return new LandmarkIndex(base, landmarks, fromLandmark, toLandmark);
+    }
+
+    public int landmarkCount() {
+        return landmarks.length;
+    }
+
+    public String landmarkName(int i) {
+        return base.nameOf(landmarks[i]);
+    }
+
+    // Largest triangle-inequality lower bound on d(from, to); infinity when to is unreachable
+    public double lowerBound(int from, int to) {
+        int k = landmarks.length;
+        double best = 0.0;
+        for (int i = 0; i < k; i++) {
+            best = Math.max(best, bound(fromLandmark[to * k + i], fromLandmark[from * k + i]));
+            best = Math.max(best, bound(toLandmark[from * k + i], toLandmark[to * k + i]));
+        }
+        return best;
+    }
+
+    // a - b where both are distances; a lower bound only when it is a number
+    private static double bound(double a, double b) {
+        if (b == Double.POSITIVE_INFINITY) {
+            return 0.0; // says nothing about the pair
+        }
+        return a - b;
+    }
+
+    private static int farthestCandidate(IGraphView graph, SearchContext context, double[][] forward, int k) {
+        int n = graph.nodeCount();
+        if (k == 0) {
+            // Start from the node farthest from an arbitrary node
+            int first = firstUsefulNode(graph);
+            if (first == -1) {
+                return -1;
+            }
+            return farthest(graph, distancesFrom(graph, context, first));
+        }
+        double[] coverage = new double[n];
+        Arrays.fill(coverage, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < k; i++) {
+            for (int v = 0; v < n; v++) {
+                coverage[v] = Math.min(coverage[v], forward[i][v]);
+            }
+        }
+        return farthest(graph, coverage);
+    }
+
+    // Node with the largest value, where unreachable nodes count as farthest
+    private static int farthest(IGraphView graph, double[] values) {
+        int best = -1;
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            if (graph.nameOf(v) != null && graph.degree(v) > 0 && (best == -1 || values[v] > values[best])) {
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    private static int avoidCandidate(IGraphView graph, SearchContext context, int[] chosen,
+                                      double[][] forward, double[][] backward, int k) {
+        int n = graph.nodeCount();
+        // Grow the tree from the region the current landmarks are farthest from
+        int root = k == 0 ? firstUsefulNode(graph) : farthestCandidate(graph, context, forward, k);
+        if (root == -1) {
+            return -1;
+        }
+        // Shortest path tree from the root, nodes recorded in settle order
+        int[] order = new int[n];
+        int settled = 0;
+        context.reset(n, IndexedDaryHeap.DEFAULT_ARITY);
+        IndexedDaryHeap queue = context.heap();
+        context.update(root, 0.0, -1);
+        queue.push(root, 0.0);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            order[settled++] = u;
+            relax(graph, context, u);
+        }
+        // weight(v) = how much the current landmarks underestimate d(root, v);
+        // size(v) sums that over the subtree, or is zero if the subtree holds a landmark
+        double[] size = new double[n];
+        boolean[] covered = new boolean[n];
+        for (int i = 0; i < k; i++) {
+            covered[chosen[i]] = true;
+        }
+        for (int j = settled - 1; j >= 0; j--) {
+            int v = order[j];
+            double estimate = 0.0;
+            for (int i = 0; i < k; i++) {
+                estimate = Math.max(estimate, bound(forward[i][v], forward[i][root]));
+                estimate = Math.max(estimate, bound(backward[i][root], backward[i][v]));
+            }
+            double weight = context.distance(v) - estimate;
+            size[v] = covered[v] ? 0.0 : size[v] + Math.max(weight, 0.0);
+            int parent = context.parent(v);
+            if (parent != -1) {
+                covered[parent] |= covered[v];
+                size[parent] += size[v];
+            }
+        }
+        // Walk down from the root along the heaviest child until reaching a leaf
+        int[] bestChild = new int[n];
+        Arrays.fill(bestChild, -1);
+        for (int j = 1; j < settled; j++) {
+            int v = order[j];
+            int parent = context.parent(v);
+            if (bestChild[parent] == -1 || size[v] > size[bestChild[parent]]) {
+                bestChild[parent] = v;
+            }
+        }
+        int node = root;
+        while (bestChild[node] != -1 && size[bestChild[node]] > 0.0) {
+            node = bestChild[node];
+        }
+        while (bestChild[node] != -1) {
+            node = bestChild[node]; // continue to a leaf
+        }
+        return node;
+    }
+
+    private static int firstUsefulNode(IGraphView graph) {
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            if (graph.nameOf(v) != null && graph.degree(v) > 0) {
+                return v;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean contains(int[] nodes, int count, int node) {
+        for (int i = 0; i < count; i++) {
+            if (nodes[i] == node) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Full single-source Dijkstra; unreachable nodes get infinity
+    private static double[] distancesFrom(IGraphView graph, SearchContext context, int source) {
+        int n = graph.nodeCount();
+        context.reset(n, IndexedDaryHeap.DEFAULT_ARITY);
+        IndexedDaryHeap queue = context.heap();
+        context.update(source, 0.0, -1);
+        queue.push(source, 0.0);
+        while (!queue.isEmpty()) {
+            relax(graph, context, queue.poll());
+        }
+        double[] distances = new double[n];
+        for (int v = 0; v < n; v++) {
+            distances[v] = context.distance(v);
+        }
+        return distances;
+    }
+
+    private static void relax(IGraphView graph, SearchContext context, int u) {
+        IndexedDaryHeap queue = context.heap();
+        double distU = context.distance(u);
+        for (int i = 0, degree = graph.degree(u); i < degree; i++) {
+            int v = graph.target(u, i);
+            if (queue.isSettled(v)) {
+                continue;
+            }
+            double newDist = distU + graph.weight(u, i);
+            if (newDist < context.distance(v)) {
+                context.update(v, newDist, u);
+                queue.push(v, newDist);
+            }
+        }
+    }
+}
@@ -0,0 +1,570 @@
+package com.om.algorithm;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * A graph stored in the binary graph file format and opened with {@link FileChannel#map}.
+ * Queries read the mapped sections directly, nothing is deserialized on open, and every JVM on
+ * the host that maps the same file shares its pages through the OS page cache.
+ *
+ * <p>File layout, all numbers little-endian: a 32 byte header (magic, format version, section
+ * count, node count, edge count, directory size), a directory of named sections (name, offset,
+ * length) and the sections themselves, each 8-byte aligned. The graph sections hold node flags,
+ * a UTF-8 name dictionary with an open-addressing hash index, coordinates and the CSR offsets,
+ * targets and weights. Sections named {@code artifact:<name>} carry optional preprocessing
+ * results such as a contraction hierarchy. Node ids are kept as written, so artifacts computed
+ * for the written graph stay valid. Each section must fit in 2 GB. {@link #copyOf} lays out the
+ * same sections in direct buffers for graphs that should live off the Java heap without a file.
+ */
+public final class MappedGraph implements IGraphView {
+    public static final int FORMAT_VERSION = 1;
+
+    private static final long MAGIC = 0x3148504152474d4fL; // "OMGRAPH1"
+    private static final int HEADER_BYTES = 32;
+    private static final String FLAGS = "nodes.flags";
+    private static final String NAME_OFFSETS = "names.offsets";
+    private static final String NAME_DATA = "names.data";
+    private static final String NAME_SLOTS = "names.slots";
+    private static final String XS = "coords.x";
+    private static final String YS = "coords.y";
+    private static final String OFFSETS = "csr.offsets";
+    private static final String TARGETS = "csr.targets";
+    private static final String WEIGHTS = "csr.weights";
+    private static final String ARTIFACT_PREFIX = "artifact:";
+
+    private final Path file;
+    private final int nodeCount;
+    private final int edgeCount;
+    private final ByteBuffer flags; // 1 for live nodes, 0 for ids of removed nodes
+    private final IntBuffer nameOffsets;
+    private final ByteBuffer nameData;
+    private final IntBuffer nameSlots; // node id + 1 per slot, 0 for an empty slot
+    private final DoubleBuffer xs;
+    private final DoubleBuffer ys;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final DoubleBuffer weights;
+    private final Map<String, ByteBuffer> artifacts;
+    private volatile CsrGraph csr;
+
+    private MappedGraph(Path file, int nodeCount, int edgeCount, Map<String, ByteBuffer> sections) throws IOException {
+        this.file = file;
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        this.flags = section(sections, FLAGS, nodeCount);
+        this.nameOffsets = section(sections, NAME_OFFSETS, 4L * (nodeCount + 1)).asIntBuffer();
+        this.nameData = section(sections, NAME_DATA, -1);
+        this.nameSlots = section(sections, NAME_SLOTS, -1).asIntBuffer();
+        this.xs = section(sections, XS, 8L * nodeCount).asDoubleBuffer();
+        this.ys = section(sections, YS, 8L * nodeCount).asDoubleBuffer();
+        this.offsets = section(sections, OFFSETS, 4L * (nodeCount + 1)).asIntBuffer();
+        this.targets = section(sections, TARGETS, 4L * edgeCount).asIntBuffer();
+        this.weights = section(sections, WEIGHTS, 8L * edgeCount).asDoubleBuffer();
+        Map<String, ByteBuffer> found = new TreeMap<>();
+        for (Map.Entry<String, ByteBuffer> entry : sections.entrySet()) {
+            if (entry.getKey().startsWith(ARTIFACT_PREFIX)) {
+                found.put(entry.getKey().substring(ARTIFACT_PREFIX.length()), entry.getValue());
+            }
+        }
+        this.artifacts = Collections.unmodifiableMap(found);
+        int slots = nameSlots.capacity();
+        if (slots == 0 || (slots & (slots - 1)) != 0 || offsets.get(nodeCount) != edgeCount) {
+            throw new IOException("Corrupt graph file: " + file);
+        }
+    }
+
+    // Maps the file read-only; the mapping stays valid after the channel is closed
+    public static MappedGraph open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getLong() != MAGIC) {
+                throw new IOException("Not a graph file: " + file);
+            }
+            int version = header.getInt();
+            if (version < 1 || version > FORMAT_VERSION) {
+                throw new IOException("Unsupported graph file version " + version + ": " + file);
+            }
+            int sectionCount = header.getInt();
+            int nodeCount = header.getInt();
+            int edgeCount = header.getInt();
+            int directoryBytes = header.getInt();
+            ByteBuffer directory = ByteBuffer.allocate(directoryBytes).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, directory, HEADER_BYTES);
+            directory.flip();
+            Map<String, ByteBuffer> sections = new HashMap<>();
+            long size = channel.size();
+            for (int i = 0; i < sectionCount; i++) {
+                byte[] name = new byte[directory.getInt()];
+                directory.get(name);
+                long offset = directory.getLong();
+                long length = directory.getLong();
+                if (offset < 0 || length < 0 || offset + length > size || length > Integer.MAX_VALUE) {
+                    throw new IOException("Corrupt graph file section: " + file);
+                }
+                ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                sections.put(new String(name, StandardCharsets.UTF_8), mapped.order(ByteOrder.LITTLE_ENDIAN));
+            }
+            return new MappedGraph(file, nodeCount, edgeCount, sections);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Corrupt graph file: " + file, e);
+        }
+    }
+
+    public static void write(Path file, IGraphView graph) throws IOException {
+        write(file, graph, Map.of());
+    }
+
+    /**
+     * Writes the graph with the given artifacts (their remaining bytes) to a temporary file next
+     * to the target and moves it into place, so readers never map a half-written file.
+     */
+    public static void write(Path file, IGraphView graph, Map<String, ByteBuffer> artifacts) throws IOException {
+        int n = graph.nodeCount();
+        byte[][] names = new byte[n][];
+        long nameBytes = 0;
+        long edges = 0;
+        int live = 0;
+        for (int u = 0; u < n; u++) {
+            String name = graph.nameOf(u);
+            if (name != null) {
+                names[u] = name.getBytes(StandardCharsets.UTF_8);
+                nameBytes += names[u].length;
+                live++;
+                edges += graph.degree(u);
+            }
+        }
+        if (nameBytes > Integer.MAX_VALUE || edges > Integer.MAX_VALUE / 8) {
+            throw new IOException("Graph too large for format version " + FORMAT_VERSION);
+        }
+        int[] slots = nameSlots(graph, live);
+        int slotCount = slots.length;
+
+        Map<String, Long> lengths = new LinkedHashMap<>();
+        lengths.put(FLAGS, (long) n);
+        lengths.put(NAME_OFFSETS, 4L * (n + 1));
+        lengths.put(NAME_DATA, nameBytes);
+        lengths.put(NAME_SLOTS, 4L * slotCount);
+        lengths.put(XS, 8L * n);
+        lengths.put(YS, 8L * n);
+        lengths.put(OFFSETS, 4L * (n + 1));
+        lengths.put(TARGETS, 4 * edges);
+        lengths.put(WEIGHTS, 8 * edges);
+        for (Map.Entry<String, ByteBuffer> artifact : artifacts.entrySet()) {
+            if (artifact.getKey().isEmpty()) {
+                throw new IllegalArgumentException("Artifact name must not be empty");
+            }
+            lengths.put(ARTIFACT_PREFIX + artifact.getKey(), (long) artifact.getValue().remaining());
+        }
+
+        int directoryBytes = 0;
+        for (String name : lengths.keySet()) {
+            directoryBytes += 4 + name.getBytes(StandardCharsets.UTF_8).length + 16;
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Output out = new Output(channel)) {
+            out.putLong(MAGIC);
+            out.putInt(FORMAT_VERSION);
+            out.putInt(lengths.size());
+            out.putInt(n);
+            out.putInt((int) edges);
+            out.putInt(directoryBytes);
+            out.putInt(0); // reserved
+            long offset = align(HEADER_BYTES + directoryBytes);
+            for (Map.Entry<String, Long> section : lengths.entrySet()) {
+                byte[] name = section.getKey().getBytes(StandardCharsets.UTF_8);
+                out.putInt(name.length);
+                out.put(name);
+                out.putLong(offset);
+                out.putLong(section.getValue());
+                offset = align(offset + section.getValue());
+            }
+
+            out.align();
+            for (int u = 0; u < n; u++) {
+                out.put((byte) (names[u] != null ? 1 : 0));
+            }
+            out.align();
+            int nameOffset = 0;
+            out.putInt(0);
+            for (int u = 0; u < n; u++) {
+                nameOffset += names[u] != null ? names[u].length : 0;
+                out.putInt(nameOffset);
+            }
+            out.align();
+            for (int u = 0; u < n; u++) {
+                if (names[u] != null) {
+                    out.put(names[u]);
+                }
+            }
+            out.align();
+            for (int slot : slots) {
+                out.putInt(slot);
+            }
+            out.align();
+            for (int u = 0; u < n; u++) {
+                out.putDouble(names[u] != null ? graph.x(u) : Double.NaN);
+            }
+            for (int u = 0; u < n; u++) {
+                out.putDouble(names[u] != null ? graph.y(u) : Double.NaN);
+            }
+            int edgeOffset = 0;
+            out.putInt(0);
+            for (int u = 0; u < n; u++) {
+                edgeOffset += names[u] != null ? graph.degree(u) : 0;
+                out.putInt(edgeOffset);
+            }
+            out.align();
+            for (int u = 0; u < n; u++) {
+                for (int i = 0, degree = names[u] != null ? graph.degree(u) : 0; i < degree; i++) {
+                    out.putInt(graph.target(u, i));
+                }
+            }
+            out.align();
+            for (int u = 0; u < n; u++) {
+                for (int i = 0, degree = names[u] != null ? graph.degree(u) : 0; i < degree; i++) {
+                    out.putDouble(graph.weight(u, i));
+                }
+            }
+            for (ByteBuffer artifact : artifacts.values()) {
+                out.align();
+                out.put(artifact.duplicate());
+            }
+            out.align();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Copies the graph into direct buffers laid out like the sections of a file, so it is searched
+     * the same way as a mapped file but takes next to no room on the Java heap. Ids are kept as in
+     * the view. With bothDirections each edge is also stored reversed, as undirected
+     * implementations expect.
+     */
+    public static MappedGraph copyOf(IGraphView graph, boolean bothDirections) {
+        int n = graph.nodeCount();
+        int[] cursor = new int[n]; // degree per node, then the next free edge slot of each node
+        long nameBytes = 0;
+        long edges = 0;
+        int live = 0;
+        for (int u = 0; u < n; u++) {
+            String name = graph.nameOf(u);
+            if (name == null) {
+                continue;
+            }
+            nameBytes += name.getBytes(StandardCharsets.UTF_8).length;
+            live++;
+            int degree = graph.degree(u);
+            cursor[u] += degree;
+            edges += bothDirections ? 2L * degree : degree;
+            for (int i = 0; bothDirections && i < degree; i++) {
+                cursor[graph.target(u, i)]++;
+            }
+        }
+        if (nameBytes > Integer.MAX_VALUE || edges > Integer.MAX_VALUE / 8) {
+            throw new IllegalArgumentException("Graph too large for direct buffers: " + edges + " edges");
+        }
+        int[] slots = nameSlots(graph, live);
+
+        ByteBuffer flags = direct(n);
+        ByteBuffer nameOffsets = direct(4L * (n + 1));
+        ByteBuffer nameData = direct(nameBytes);
+        ByteBuffer nameSlots = direct(4L * slots.length);
+        ByteBuffer xs = direct(8L * n);
+        ByteBuffer ys = direct(8L * n);
+        ByteBuffer offsets = direct(4L * (n + 1));
+        ByteBuffer targets = direct(4 * edges);
+        ByteBuffer weights = direct(8 * edges);
+        int nameOffset = 0;
+        int edgeOffset = 0;
+        for (int u = 0; u < n; u++) {
+            String name = graph.nameOf(u);
+            if (name != null) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                flags.put(u, (byte) 1);
+                nameData.put(nameOffset, bytes);
+                nameOffset += bytes.length;
+            }
+            nameOffsets.putInt(4 * (u + 1), nameOffset);
+            xs.putDouble(8 * u, name != null ? graph.x(u) : Double.NaN);
+            ys.putDouble(8 * u, name != null ? graph.y(u) : Double.NaN);
+            int degree = cursor[u];
+            cursor[u] = edgeOffset;
+            edgeOffset += degree;
+            offsets.putInt(4 * (u + 1), edgeOffset);
+        }
+        for (int slot = 0; slot < slots.length; slot++) {
+            nameSlots.putInt(4 * slot, slots[slot]);
+        }
+        for (int u = 0; u < n; u++) {
+            for (int i = 0, degree = graph.nameOf(u) != null ? graph.degree(u) : 0; i < degree; i++) {
+                int v = graph.target(u, i);
+                double weight = graph.weight(u, i);
+                int slot = cursor[u]++;
+                targets.putInt(4 * slot, v);
+                weights.putDouble(8 * slot, weight);
+                if (bothDirections) {
+                    slot = cursor[v]++;
+                    targets.putInt(4 * slot, u);
+                    weights.putDouble(8 * slot, weight);
+                }
+            }
+        }
+
+        Map<String, ByteBuffer> sections = new HashMap<>();
+        sections.put(FLAGS, flags);
+        sections.put(NAME_OFFSETS, nameOffsets);
+        sections.put(NAME_DATA, nameData);
+        sections.put(NAME_SLOTS, nameSlots);
+        sections.put(XS, xs);
+        sections.put(YS, ys);
+        sections.put(OFFSETS, offsets);
+        sections.put(TARGETS, targets);
+        sections.put(WEIGHTS, weights);
+        try {
+            return new MappedGraph(null, n, (int) edges, sections);
+        } catch (IOException e) {
+            throw new IllegalStateException("Inconsistent in-memory graph sections", e);
+        }
+    }
+
+    // The mapped file, or null for a graph copied into direct buffers
+    public Path file() {
+        return file;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    public Set<String> artifactNames() {
+        return artifacts.keySet();
+    }
+
+    // Read-only little-endian view of an artifact's bytes, or null if the file has none by that name
+    public ByteBuffer artifact(String name) {
+        ByteBuffer data = artifacts.get(name);
+        return data == null ? null : data.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // Whether toCsr() has made its heap copy
+    boolean hasHeapCopy() {
+        return csr != null;
+    }
+
+    // Heap CSR copy of the mapped graph, for the searches that need CSR arrays; built once
+    public CsrGraph toCsr() {
+        CsrGraph result = csr;
+        if (result == null) {
+            result = CsrGraph.copyOf(this);
+            csr = result;
+        }
+        return result;
+    }
+
+    @Override
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public int indexOf(String nodeName) {
+        if (nodeName == null) {
+            return -1;
+        }
+        byte[] key = nodeName.getBytes(StandardCharsets.UTF_8);
+        int mask = nameSlots.capacity() - 1;
+        for (int slot = spread(nodeName.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            int id = nameSlots.get(slot) - 1;
+            if (id == -1) {
+                return -1;
+            }
+            if (nameEquals(id, key)) {
+                return id;
+            }
+        }
+    }
+
+    @Override
+    public String nameOf(int node) {
+        if (flags.get(node) == 0) {
+            return null;
+        }
+        int start = nameOffsets.get(node);
+        byte[] bytes = new byte[nameOffsets.get(node + 1) - start];
+        nameData.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public double x(int node) {
+        return xs.get(node);
+    }
+
+    @Override
+    public double y(int node) {
+        return ys.get(node);
+    }
+
+    @Override
+    public int degree(int node) {
+        return offsets.get(node + 1) - offsets.get(node);
+    }
+
+    @Override
+    public int target(int node, int i) {
+        return targets.get(offsets.get(node) + i);
+    }
+
+    @Override
+    public double weight(int node, int i) {
+        return weights.get(offsets.get(node) + i);
+    }
+
+    private boolean nameEquals(int id, byte[] key) {
+        int start = nameOffsets.get(id);
+        if (nameOffsets.get(id + 1) - start != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (nameData.get(start + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Open-addressing table of node id + 1 by name hash, at least twice as many slots as live nodes
+    private static int[] nameSlots(IGraphView graph, int live) {
+        int slotCount = 2;
+        while (slotCount < 2L * live) {
+            slotCount <<= 1;
+        }
+        int[] slots = new int[slotCount];
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            String name = graph.nameOf(u);
+            if (name != null) {
+                int slot = spread(name.hashCode()) & (slotCount - 1);
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & (slotCount - 1);
+                }
+                slots[slot] = u + 1;
+            }
+        }
+        return slots;
+    }
+
+    private static ByteBuffer direct(long bytes) {
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    private ByteBuffer section(Map<String, ByteBuffer> sections, String name, long expectedLength) throws IOException {
+        ByteBuffer data = sections.get(name);
+        if (data == null || (expectedLength >= 0 && data.capacity() != expectedLength)) {
+            throw new IOException("Graph file is missing section " + name + ": " + file);
+        }
+        return data;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                break;
+            }
+        }
+    }
+
+    // Buffered little-endian writer that also tracks the file position for alignment
+    private static final class Output implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void put(byte value) throws IOException {
+            ensure(1);
+            buffer.put(value);
+            position++;
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+            position += 4;
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+            position += 8;
+        }
+
+        void putDouble(double value) throws IOException {
+            ensure(8);
+            buffer.putDouble(value);
+            position += 8;
+        }
+
+        void put(byte[] bytes) throws IOException {
+            put(ByteBuffer.wrap(bytes));
+        }
+
+        void put(ByteBuffer bytes) throws IOException {
+            while (bytes.hasRemaining()) {
+                ensure(1);
+                int count = Math.min(buffer.remaining(), bytes.remaining());
+                ByteBuffer chunk = bytes.duplicate();
+                chunk.limit(chunk.position() + count);
+                buffer.put(chunk);
+                bytes.position(bytes.position() + count);
+                position += count;
+            }
+        }
+
+        // Pads with zeros up to the next multiple of 8
+        void align() throws IOException {
+            while ((position & 7) != 0) {
+                put((byte) 0);
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.om.algorithm;
+
+import java.util.concurrent.RecursiveAction;
+
+// Fills the rows of a row-major distance matrix, splitting the source rows in halves until a task holds a single source
+final class MatrixTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    // Writes the distances from source row to every target into distances[offset ..]
+    interface Row {
+        void compute(int row, double[] distances, int offset);
+    }
+
+    private final Row row;
+    private final int columns;
+    private final double[] distances;
+    private final int from;
+    private final int to;
+
+    MatrixTask(Row row, int columns, double[] distances, int from, int to) {
+        this.row = row;
+        this.columns = columns;
+        this.distances = distances;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from == 1) {
+            row.compute(from, distances, from * columns);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(new MatrixTask(row, columns, distances, from, middle),
+                new MatrixTask(row, columns, distances, middle, to));
+    }
+}
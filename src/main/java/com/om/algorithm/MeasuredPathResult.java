@@ -0,0 +1,34 @@
+package com.om.algorithm;
+
+import java.util.List;
+
+// A PathResult that also carries the statistics of the search that produced it
+public class MeasuredPathResult extends PathResult {
+    private final PathResult result;
+    private final SearchStats stats;
+
+    public MeasuredPathResult(PathResult result, SearchStats stats) {
+        super(result.getTotalWeight());
+        this.result = result; // left as is, so a lazily built path stays lazy
+        this.stats = stats;
+    }
+
+    @Override
+    public List<String> getPath() {
+        return result.getPath();
+    }
+
+    @Override
+    public int getNodeCount() {
+        return result.getNodeCount();
+    }
+
+    @Override
+    public String getNode(int index) {
+        return result.getNode(index);
+    }
+
+    public SearchStats getStats() {
+        return stats;
+    }
+}
@@ -0,0 +1,30 @@
+package com.om.algorithm;
+
+import java.util.List;
+
+/**
+ * Thrown when a search reaches a cycle whose edge weights sum to less than zero, so shortest
+ * paths through it are undefined. {@link #getCycle()} names the cycle's nodes in edge order.
+ */
+public class NegativeCycleException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    private final List<String> cycle;
+    private final double weight;
+
+    public NegativeCycleException(List<String> cycle, double weight) {
+        super("Graph contains a negative weight cycle: " + String.join(" → ", cycle) + " (weight " + weight + ")");
+        this.cycle = List.copyOf(cycle);
+        this.weight = weight;
+    }
+
+    // Nodes of the cycle, starting and ending with the same node
+    public List<String> getCycle() {
+        return cycle;
+    }
+
+    // Sum of the edge weights around the cycle, always negative
+    public double getWeight() {
+        return weight;
+    }
+}
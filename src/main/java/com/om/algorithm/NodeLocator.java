@@ -0,0 +1,137 @@
+package com.om.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps a {@link SpatialIndex} in step with a mutating graph without rebuilding it per change.
+ * Removed nodes are filtered out at lookup time by the tree itself; nodes added with
+ * coordinates since the last build are scanned linearly until there are enough of them, or
+ * enough removals, to make a rebuild from the current version worth it.
+ */
+final class NodeLocator {
+    private static final int MIN_REBUILD = 256;
+
+    private volatile State state = new State(null, new int[0], 0, 0);
+    private volatile int removedSinceBuild; // written under this
+
+    // Tree, null before the first lookup, plus the ids added after it was built; slots below
+    // addedCount never change once published, and the first carried ones the build could not see
+    private static final class State {
+        final SpatialIndex tree;
+        final int[] added;
+        final int addedCount;
+        final int carried;
+
+        State(SpatialIndex tree, int[] added, int addedCount, int carried) {
+            this.tree = tree;
+            this.added = added;
+            this.addedCount = addedCount;
+            this.carried = carried;
+        }
+    }
+
+    // Records a node that just got coordinates
+    synchronized void added(int id) {
+        State current = state;
+        int[] added = current.added;
+        if (current.addedCount == added.length) {
+            added = Arrays.copyOf(added, Math.max(16, 2 * added.length));
+        }
+        added[current.addedCount] = id;
+        state = new State(current.tree, added, current.addedCount + 1, current.carried);
+    }
+
+    synchronized void removed(int count) {
+        removedSinceBuild += count;
+    }
+
+    // Forgets everything, for changes that may renumber nodes
+    synchronized void reset() {
+        state = new State(null, new int[0], 0, 0);
+        removedSinceBuild = 0;
+    }
+
+    // Up to k nodes of the view closest to (x, y), closest first
+    List<String> nearest(IGraphView view, double x, double y, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("The number of nodes must be positive: " + k);
+        }
+        State current = stateFor(view);
+        SpatialIndex.Nearest best = new SpatialIndex.Nearest(k);
+        current.tree.nearest(view, x, y, best);
+        for (int i = 0; i < current.addedCount; i++) {
+            int id = current.added[i];
+            if (id < view.nodeCount()) {
+                double dx = x - view.x(id);
+                double dy = y - view.y(id);
+                double distance = dx * dx + dy * dy;
+                if (!Double.isNaN(distance)) {
+                    best.offer(id, distance);
+                }
+            }
+        }
+        return namesOf(view, best.sorted());
+    }
+
+    // Nodes of the view inside the box, borders included, in no particular order
+    List<String> within(IGraphView view, double minX, double minY, double maxX, double maxY) {
+        State current = stateFor(view);
+        Set<Integer> found = new LinkedHashSet<>();
+        current.tree.within(view, minX, minY, maxX, maxY, found::add);
+        for (int i = 0; i < current.addedCount; i++) {
+            int id = current.added[i];
+            if (id < view.nodeCount()) {
+                double x = view.x(id);
+                double y = view.y(id);
+                if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                    found.add(id); // a no-op when the tree already had it
+                }
+            }
+        }
+        List<String> result = new ArrayList<>(found.size());
+        for (int id : found) {
+            result.add(view.nameOf(id));
+        }
+        return result;
+    }
+
+    private State stateFor(IGraphView view) {
+        State current = state;
+        if (current.tree != null && !isStale(current)) {
+            return current;
+        }
+        SpatialIndex tree = SpatialIndex.build(view);
+        synchronized (this) {
+            // Keep additions the view does not show yet, such as unpublished ones in snapshot mode
+            current = state;
+            int[] pending = new int[current.addedCount];
+            int count = 0;
+            for (int i = 0; i < pending.length; i++) {
+                int id = current.added[i];
+                if (id >= view.nodeCount() || Double.isNaN(view.x(id))) {
+                    pending[count++] = id;
+                }
+            }
+            removedSinceBuild = 0;
+            state = new State(tree, pending, count, count);
+            return state;
+        }
+    }
+
+    private boolean isStale(State current) {
+        int threshold = MIN_REBUILD + current.tree.size() / 8;
+        return current.addedCount - current.carried > threshold || removedSinceBuild > threshold;
+    }
+
+    private static List<String> namesOf(IGraphView view, int[] ids) {
+        List<String> names = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            names.add(view.nameOf(id));
+        }
+        return names;
+    }
+}
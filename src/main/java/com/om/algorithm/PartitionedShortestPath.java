@@ -0,0 +1,281 @@
+package com.om.algorithm;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers shortest path queries over a graph split into cells by {@link GraphPartitioner}, where
+ * each cell lives in a {@link CellShard} behind an {@link IShardTransport}. The coordinator only
+ * holds the overlay: one node per boundary node, with an arc for every in-cell
+ * boundary-to-boundary distance and for every edge between cells.
+ *
+ * <p>A query asks the shards of its two ends for the distances from the start to the boundary of
+ * its cell and from the boundary of the end's cell to the end, searches the overlay between
+ * them, and compares the result with the in-cell route when both ends share a cell. The path is
+ * expanded by asking the cells along the overlay route for their pieces of it. The ends are
+ * located by asking the shards in turn, as no shard knows the names of the others.
+ *
+ * <p>The graph is fixed once the shards are built. Queries are thread-safe when the transport is.
+ */
+public final class PartitionedShortestPath implements AutoCloseable {
+    private final IShardTransport transport;
+    private final int heapArity;
+    private final CsrGraph overlay;
+    private final int[] cellStart; // overlay ids of cell c are [cellStart[c], cellStart[c + 1]), in boundary order
+    private final int[] cellOf;
+
+    public PartitionedShortestPath(IShardTransport transport) {
+        this(transport, IndexedDaryHeap.DEFAULT_ARITY);
+    }
+
+    // Fetches the boundary tables of every shard and builds the overlay from them
+    public PartitionedShortestPath(IShardTransport transport, int heapArity) {
+        if (heapArity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2: " + heapArity);
+        }
+        this.transport = transport;
+        this.heapArity = heapArity;
+        int cells = transport.shardCount();
+        List<ByteBuffer> replies = new ArrayList<>(cells);
+        cellStart = new int[cells + 1];
+        int arcCount = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            ByteBuffer reply = call(cell, ByteBuffer.allocate(1).put(CellShard.OVERLAY).flip());
+            int b = reply.duplicate().getInt();
+            cellStart[cell + 1] = cellStart[cell] + b;
+            arcCount += b * (b - 1);
+            replies.add(reply);
+        }
+        int n = cellStart[cells];
+        String[] names = new String[n];
+        cellOf = new int[n];
+        Map<String, Integer> ids = new HashMap<>(Math.max(16, (int) (n / 0.75f) + 1));
+        double[][] tables = new double[cells][];
+        for (int cell = 0; cell < cells; cell++) {
+            ByteBuffer reply = replies.get(cell);
+            int b = reply.getInt();
+            for (int i = 0; i < b; i++) {
+                int id = cellStart[cell] + i;
+                names[id] = CellShard.getString(reply);
+                cellOf[id] = cell;
+                if (ids.put(names[id], id) != null) {
+                    throw new IllegalStateException("Boundary node " + names[id] + " is in more than one cell");
+                }
+            }
+            tables[cell] = new double[b * b];
+            for (int i = 0; i < tables[cell].length; i++) {
+                tables[cell][i] = reply.getDouble();
+            }
+            arcCount += reply.duplicate().getInt(); // cut edges follow the table
+        }
+        int[] from = new int[arcCount];
+        int[] to = new int[arcCount];
+        double[] weight = new double[arcCount];
+        int arc = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            int b = cellStart[cell + 1] - cellStart[cell];
+            for (int i = 0; i < b; i++) {
+                for (int j = 0; j < b; j++) {
+                    double distance = tables[cell][i * b + j];
+                    if (i != j && distance < Double.POSITIVE_INFINITY) {
+                        from[arc] = cellStart[cell] + i;
+                        to[arc] = cellStart[cell] + j;
+                        weight[arc++] = distance;
+                    }
+                }
+            }
+            ByteBuffer reply = replies.get(cell);
+            for (int cuts = reply.getInt(); cuts > 0; cuts--) {
+                int tail = cellStart[cell] + reply.getInt();
+                String head = CellShard.getString(reply);
+                Integer target = ids.get(head);
+                if (target == null) {
+                    throw new IllegalStateException("Edge from cell " + cell + " leads to " + head + ", which no cell has on its boundary");
+                }
+                from[arc] = tail;
+                to[arc] = target;
+                weight[arc++] = reply.getDouble();
+            }
+        }
+        double[] unplaced = new double[n];
+        Arrays.fill(unplaced, Double.NaN);
+        overlay = CsrGraph.fromArcs(names, unplaced, unplaced, from, to, weight, arc);
+    }
+
+    public PathResult findShortestPath(String startNode, String endNode) {
+        return route(startNode, endNode, true);
+    }
+
+    // Same query without expanding the path, so it needs no PATH requests for the overlay route
+    public double findShortestDistance(String startNode, String endNode) {
+        return route(startNode, endNode, false).getTotalWeight();
+    }
+
+    public int getCellCount() {
+        return transport.shardCount();
+    }
+
+    public int getOverlayNodeCount() {
+        return overlay.nodeCount();
+    }
+
+    public int getOverlayEdgeCount() {
+        return overlay.edgeCount();
+    }
+
+    @Override
+    public void close() throws IOException {
+        transport.close();
+    }
+
+    private PathResult route(String startNode, String endNode, boolean withPath) {
+        int startCell = -1;
+        double[] fromStart = null;
+        for (int cell = 0; cell < transport.shardCount() && startCell == -1; cell++) {
+            fromStart = boundaryDistances(cell, CellShard.FROM, startNode);
+            startCell = fromStart != null ? cell : -1;
+        }
+        int endCell = -1;
+        double[] toEnd = null;
+        for (int cell = 0; cell < transport.shardCount() && endCell == -1; cell++) {
+            toEnd = boundaryDistances(cell, CellShard.TO, endNode);
+            endCell = toEnd != null ? cell : -1;
+        }
+        if (startCell == -1 || endCell == -1) {
+            throw new IllegalArgumentException("Node does not exist in the graph: " + (startCell == -1 ? startNode : endNode));
+        }
+        if (startNode.equals(endNode)) {
+            return new PathResult(List.of(startNode), 0.0);
+        }
+        double best = Double.POSITIVE_INFINITY;
+        if (startCell == endCell) {
+            best = inCell(startCell, startNode, endNode, false).getTotalWeight();
+        }
+
+        // Overlay search seeded with the start's boundary distances, stopped once nothing queued can beat best
+        SearchContext context = SearchContext.forThread(overlay.nodeCount(), heapArity);
+        IndexedDaryHeap queue = context.heap();
+        for (int i = 0; i < fromStart.length; i++) {
+            if (fromStart[i] < Double.POSITIVE_INFINITY) {
+                context.update(cellStart[startCell] + i, fromStart[i], -1);
+                queue.push(cellStart[startCell] + i, fromStart[i]);
+            }
+        }
+        int exit = -1;
+        while (!queue.isEmpty() && queue.peekKey() < best) {
+            int u = queue.poll();
+            double distU = context.distance(u);
+            if (cellOf[u] == endCell && distU + toEnd[u - cellStart[endCell]] < best) {
+                best = distU + toEnd[u - cellStart[endCell]];
+                exit = u;
+            }
+            context.counters().relaxed += overlay.degree(u);
+            for (int i = 0, degree = overlay.degree(u); i < degree; i++) {
+                int neighbor = overlay.target(u, i);
+                if (queue.isSettled(neighbor)) {
+                    continue;
+                }
+                double newDist = distU + overlay.weight(u, i);
+                if (newDist < context.distance(neighbor)) {
+                    context.update(neighbor, newDist, u);
+                    queue.push(neighbor, newDist);
+                }
+            }
+        }
+        if (best == Double.POSITIVE_INFINITY) {
+            return Paths.noPath();
+        }
+        if (!withPath) {
+            return new PathResult(List.of(), best);
+        }
+        if (exit == -1) {
+            return inCell(startCell, startNode, endNode, true); // the route never leaves the cell
+        }
+        // Read the overlay route before any shard call: in-process shards search on this thread's context
+        int hops = 0;
+        for (int u = exit; u != -1; u = context.parent(u)) {
+            hops++;
+        }
+        int[] route = new int[hops];
+        for (int u = exit; u != -1; u = context.parent(u)) {
+            route[--hops] = u;
+        }
+        List<String> path = new ArrayList<>();
+        append(path, inCell(startCell, startNode, overlay.nameOf(route[0]), true));
+        for (int i = 1; i < route.length; i++) {
+            if (cellOf[route[i]] == cellOf[route[i - 1]]) {
+                append(path, inCell(cellOf[route[i]], overlay.nameOf(route[i - 1]), overlay.nameOf(route[i]), true));
+            } else {
+                path.add(overlay.nameOf(route[i])); // edge between cells
+            }
+        }
+        append(path, inCell(endCell, overlay.nameOf(exit), endNode, true));
+        return new PathResult(path, best);
+    }
+
+    // Appends a piece of the route that starts at the node the path ends with
+    private static void append(List<String> path, PathResult piece) {
+        List<String> nodes = piece.getPath();
+        if (nodes.isEmpty()) {
+            throw new IllegalStateException("A shard has no path for a piece of the overlay route");
+        }
+        path.addAll(path.isEmpty() ? nodes : nodes.subList(1, nodes.size()));
+    }
+
+    // Distances between the node and the boundary of the cell, or null if the node is not in it
+    private double[] boundaryDistances(int cell, byte op, String node) {
+        ByteBuffer reply = call(cell, request(op, node));
+        if (reply.get() == 0) {
+            return null;
+        }
+        double[] distances = new double[cellStart[cell + 1] - cellStart[cell]];
+        for (int i = 0; i < distances.length; i++) {
+            distances[i] = reply.getDouble();
+        }
+        return distances;
+    }
+
+    private PathResult inCell(int cell, String from, String to, boolean withPath) {
+        ByteBuffer request = request(CellShard.PATH, from, to);
+        ByteBuffer reply = call(cell, ByteBuffer.allocate(request.remaining() + 1).put(request).put((byte) (withPath ? 1 : 0)).flip());
+        if (reply.get() == 0) {
+            throw new IllegalStateException("Shard " + cell + " does not hold " + from + " and " + to);
+        }
+        double distance = reply.getDouble();
+        if (!withPath || distance == Double.POSITIVE_INFINITY) {
+            return distance == Double.POSITIVE_INFINITY ? Paths.noPath() : new PathResult(List.of(), distance);
+        }
+        String[] names = new String[reply.getInt()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = CellShard.getString(reply);
+        }
+        return new PathResult(List.of(names), distance);
+    }
+
+    private static ByteBuffer request(byte op, String... strings) {
+        int bytes = 1;
+        for (String string : strings) {
+            bytes += 4 + string.getBytes(StandardCharsets.UTF_8).length;
+        }
+        ByteBuffer out = ByteBuffer.allocate(bytes).put(op);
+        for (String string : strings) {
+            CellShard.putString(out, string);
+        }
+        return out.flip();
+    }
+
+    private ByteBuffer call(int shard, ByteBuffer request) {
+        try {
+            return transport.call(shard, request);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Shard " + shard + " failed", e);
+        }
+    }
+}
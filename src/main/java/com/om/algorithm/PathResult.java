@@ -3,6 +3,8 @@ package com.om.algorithm;
 import java.util.List;
 
 public class PathResult {
+    private static final int PRINTED_NODES = 16; // toString shows this many nodes from each end of longer paths
+
     private final List<String> path;
     private final double totalWeight;
 
@@ -11,16 +13,39 @@ public class PathResult {
         this.totalWeight = totalWeight;
     }
 
+    // For subclasses that keep the path in another form and override the accessors
+    protected PathResult(double totalWeight) {
+        this(null, totalWeight);
+    }
+
     public List<String> getPath() {
         return path;
     }
 
+    // Number of nodes on the path, 0 when there is no path
+    public int getNodeCount() {
+        return getPath().size();
+    }
+
+    public String getNode(int index) {
+        return getPath().get(index);
+    }
+
     public double getTotalWeight() {
         return totalWeight;
     }
 
     @Override
     public String toString() {
-        return "Path: " + String.join(" -> ", path) + "| Distance: " + totalWeight;
+        int count = getNodeCount();
+        StringBuilder text = new StringBuilder("Path: ");
+        for (int i = 0; i < count; i++) {
+            if (count > 2 * PRINTED_NODES && i == PRINTED_NODES) {
+                text.append(" -> ... (").append(count - 2 * PRINTED_NODES).append(" more)");
+                i = count - PRINTED_NODES;
+            }
+            text.append(i == 0 ? "" : " -> ").append(getNode(i));
+        }
+        return text.append("| Distance: ").append(totalWeight).toString();
     }
 }
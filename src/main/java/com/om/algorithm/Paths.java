@@ -0,0 +1,27 @@
+package com.om.algorithm;
+
+import java.util.*;
+
+// Helpers shared by the search kernels to turn int search state back into a PathResult
+final class Paths {
+
+    private Paths() {
+    }
+
+    static PathResult noPath() {
+        return new PathResult(Collections.emptyList(), Double.POSITIVE_INFINITY);
+    }
+
+    // Follows parent links from end until a node whose parent is -1
+    static PathResult fromParents(IGraphView view, int[] parent, int end, double totalWeight) {
+        int length = 0;
+        for (int current = end; current != -1; current = parent[current]) {
+            length++;
+        }
+        int[] nodes = new int[length];
+        for (int current = end; current != -1; current = parent[current]) {
+            nodes[--length] = current;
+        }
+        return new CompactPathResult(view, nodes, totalWeight);
+    }
+}
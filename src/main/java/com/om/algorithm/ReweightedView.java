@@ -0,0 +1,71 @@
+package com.om.algorithm;
+
+/**
+ * A graph view with every edge u -> v reweighted to w + h(u) - h(v) for vertex potentials h.
+ * For feasible potentials the new weights are non-negative, every path from s to t changes by
+ * the same h(s) - h(t), and shortest paths stay shortest, so Dijkstra can run on it.
+ */
+final class ReweightedView implements IGraphView {
+    private final IGraphView base;
+    private final double[] potentials;
+
+    ReweightedView(IGraphView base, double[] potentials) {
+        this.base = base;
+        this.potentials = potentials;
+    }
+
+    // The graph version the potentials were computed for
+    IGraphView base() {
+        return base;
+    }
+
+    double potential(int node) {
+        return potentials[node];
+    }
+
+    // Turns a distance in this view back into the original weights
+    double originalDistance(int from, int to, double distance) {
+        return distance == Double.POSITIVE_INFINITY ? distance : distance - potentials[from] + potentials[to];
+    }
+
+    @Override
+    public int nodeCount() {
+        return base.nodeCount();
+    }
+
+    @Override
+    public int indexOf(String nodeName) {
+        return base.indexOf(nodeName);
+    }
+
+    @Override
+    public String nameOf(int node) {
+        return base.nameOf(node);
+    }
+
+    @Override
+    public double x(int node) {
+        return base.x(node);
+    }
+
+    @Override
+    public double y(int node) {
+        return base.y(node);
+    }
+
+    @Override
+    public int degree(int node) {
+        return base.degree(node);
+    }
+
+    @Override
+    public int target(int node, int i) {
+        return base.target(node, i);
+    }
+
+    @Override
+    public double weight(int node, int i) {
+        // Rounding can leave a tight edge a hair below zero
+        return Math.max(0.0, base.weight(node, i) + potentials[node] - potentials[base.target(node, i)]);
+    }
+}
@@ -0,0 +1,28 @@
+package com.om.algorithm;
+
+import java.util.Objects;
+
+// A (start, end) query as a hash key
+final class RouteKey {
+    final String start;
+    final String end;
+
+    RouteKey(String start, String end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof RouteKey)) {
+            return false;
+        }
+        RouteKey other = (RouteKey) o;
+        return Objects.equals(start, other.start) && Objects.equals(end, other.end);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(start) + Objects.hashCode(end);
+    }
+}
@@ -0,0 +1,103 @@
+package com.om.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Per-thread search state: tentative distances, parent links and the priority queue.
+ * Entries carry an epoch stamp, so starting a new search is O(1) and a query only pays for
+ * the nodes it actually reaches. Contexts are pooled per thread and reused across queries;
+ * a context must not be used by two searches on the same thread at once.
+ */
+final class SearchContext {
+    private static final ThreadLocal<SearchContext> FORWARD =
+            ThreadLocal.withInitial(() -> new SearchContext(SearchCounters.forThread()));
+    private static final ThreadLocal<SearchContext> BACKWARD =
+            ThreadLocal.withInitial(() -> new SearchContext(SearchCounters.forThread()));
+
+    private final SearchCounters counters;
+    private double[] distances = new double[0];
+    private int[] parents = new int[0];
+    private int[] stamps = new int[0]; // distances/parents of a node are valid only when stamps[node] == epoch
+    private int epoch = 1;
+    private IndexedDaryHeap heap;
+
+    // A private context, e.g. for preprocessing, whose work is not counted for the thread
+    SearchContext() {
+        this(new SearchCounters());
+    }
+
+    private SearchContext(SearchCounters counters) {
+        this.counters = counters;
+    }
+
+    // The calling thread's context, reset for a new search over nodeCount nodes
+    static SearchContext forThread(int nodeCount, int heapArity) {
+        return FORWARD.get().reset(nodeCount, heapArity);
+    }
+
+    // A second context of the calling thread, for searches that run from both ends at once
+    static SearchContext backwardForThread(int nodeCount, int heapArity) {
+        return BACKWARD.get().reset(nodeCount, heapArity);
+    }
+
+    SearchContext reset(int nodeCount, int heapArity) {
+        if (nodeCount > stamps.length) {
+            int length = Math.max(nodeCount, stamps.length + (stamps.length >> 1));
+            distances = Arrays.copyOf(distances, length);
+            parents = Arrays.copyOf(parents, length);
+            stamps = Arrays.copyOf(stamps, length);
+        }
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+        if (heap == null || heap.arity() != heapArity) {
+            heap = new IndexedDaryHeap(stamps.length, heapArity, counters);
+        } else {
+            heap.ensureCapacity(stamps.length);
+            heap.clear();
+        }
+        return this;
+    }
+
+    IndexedDaryHeap heap() {
+        return heap;
+    }
+
+    SearchCounters counters() {
+        return counters;
+    }
+
+    boolean isReached(int node) {
+        return stamps[node] == epoch;
+    }
+
+    // Tentative distance, infinity for nodes the search has not reached
+    double distance(int node) {
+        return stamps[node] == epoch ? distances[node] : Double.POSITIVE_INFINITY;
+    }
+
+    int parent(int node) {
+        return stamps[node] == epoch ? parents[node] : -1;
+    }
+
+    void update(int node, double distance, int parent) {
+        distances[node] = distance;
+        parents[node] = parent;
+        stamps[node] = epoch;
+    }
+
+    // Like update for searches that never read parent links; the node's parent is left undefined
+    void updateDistance(int node, double distance) {
+        distances[node] = distance;
+        stamps[node] = epoch;
+    }
+
+    // Path from the search root to end; every node on it was reached in this epoch
+    PathResult pathTo(IGraphView view, int end) {
+        if (!isReached(end)) {
+            return Paths.noPath();
+        }
+        return Paths.fromParents(view, parents, end, distances[end]);
+    }
+}
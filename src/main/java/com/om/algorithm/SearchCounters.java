@@ -0,0 +1,34 @@
+package com.om.algorithm;
+
+/**
+ * Running totals of search work on one thread. The kernels bump these plain fields as they go,
+ * which costs a few increments per settled node whether anyone reads them or not; an
+ * {@link InstrumentedAlgoShortestPath} turns the difference across one query into
+ * {@link SearchStats}. Work done on other threads (parallel rounds, matrix rows) is not seen.
+ */
+final class SearchCounters {
+    private static final ThreadLocal<SearchCounters> CURRENT = ThreadLocal.withInitial(SearchCounters::new);
+
+    long settled; // nodes whose distance became final: polled from a queue or scanned in a round
+    long relaxed; // edges looked at while scanning
+    long pushes; // queue insertions
+    long decreaseKeys; // queued nodes moved up after a shorter distance was found
+    long pops; // queue removals
+    long stalePops; // removals of entries that were already superseded
+
+    // The calling thread's counters
+    static SearchCounters forThread() {
+        return CURRENT.get();
+    }
+
+    SearchCounters copy() {
+        SearchCounters copy = new SearchCounters();
+        copy.settled = settled;
+        copy.relaxed = relaxed;
+        copy.pushes = pushes;
+        copy.decreaseKeys = decreaseKeys;
+        copy.pops = pops;
+        copy.stalePops = stalePops;
+        return copy;
+    }
+}
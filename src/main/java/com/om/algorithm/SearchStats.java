@@ -0,0 +1,83 @@
+package com.om.algorithm;
+
+/**
+ * Work and wall time of one query, as measured by {@link InstrumentedAlgoShortestPath}.
+ * The indexed heaps lower the key of a queued node in place, so they report decrease-keys and
+ * never stale pops; stale pops come from queues that keep superseded entries.
+ */
+public final class SearchStats {
+    private final String algorithm;
+    private final String startNode;
+    private final String endNode;
+    private final long settled;
+    private final long relaxed;
+    private final long pushes;
+    private final long decreaseKeys;
+    private final long pops;
+    private final long stalePops;
+    private final long wallNanos;
+
+    SearchStats(String algorithm, String startNode, String endNode, SearchCounters before, SearchCounters after,
+                long wallNanos) {
+        this.algorithm = algorithm;
+        this.startNode = startNode;
+        this.endNode = endNode;
+        this.settled = after.settled - before.settled;
+        this.relaxed = after.relaxed - before.relaxed;
+        this.pushes = after.pushes - before.pushes;
+        this.decreaseKeys = after.decreaseKeys - before.decreaseKeys;
+        this.pops = after.pops - before.pops;
+        this.stalePops = after.stalePops - before.stalePops;
+        this.wallNanos = wallNanos;
+    }
+
+    // Simple class name of the implementation that answered the query
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getStartNode() {
+        return startNode;
+    }
+
+    public String getEndNode() {
+        return endNode;
+    }
+
+    // Nodes whose distance became final
+    public long getSettled() {
+        return settled;
+    }
+
+    // Edges looked at while scanning settled nodes
+    public long getRelaxed() {
+        return relaxed;
+    }
+
+    public long getPushes() {
+        return pushes;
+    }
+
+    public long getDecreaseKeys() {
+        return decreaseKeys;
+    }
+
+    public long getPops() {
+        return pops;
+    }
+
+    public long getStalePops() {
+        return stalePops;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    @Override
+    public String toString() {
+        return algorithm + " " + startNode + " → " + endNode + ": settled=" + settled + ", relaxed=" + relaxed
+                + ", pushes=" + pushes + ", decreaseKeys=" + decreaseKeys + ", pops=" + pops
+                + ", stalePops=" + stalePops + ", wall=" + wallNanos / 1000 + "µs";
+    }
+}
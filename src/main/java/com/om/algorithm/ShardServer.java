@@ -0,0 +1,97 @@
+package com.om.algorithm;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serves one {@link CellShard} to {@link SocketShardTransport} clients on a TCP port, one
+ * daemon thread per connection. Run {@code main} with a cell file written by
+ * {@link CellShard#save} and a port to host a shard in a process of its own; it listens on the
+ * loopback interface unless an address to bind is given as well. Connections that fail are
+ * closed and counted, see {@link #getFailedConnectionCount()}.
+ */
+public final class ShardServer implements AutoCloseable {
+    private final CellShard shard;
+    private final ServerSocket server;
+    private final LongAdder failed = new LongAdder();
+
+    // Listens on the loopback interface; port 0 picks a free one, see getPort()
+    public ShardServer(CellShard shard, int port) throws IOException {
+        this(shard, new ServerSocket(port, 50, InetAddress.getLoopbackAddress()));
+    }
+
+    public ShardServer(CellShard shard, ServerSocket server) {
+        this.shard = shard;
+        this.server = server;
+        Thread acceptor = new Thread(this::accept, "shard-server-" + server.getLocalPort());
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 2 && args.length != 3) {
+            System.err.println("Usage: ShardServer <cell file> <port> [bind address, loopback by default]");
+            System.exit(2);
+        }
+        CellShard shard = CellShard.open(Path.of(args[0]));
+        InetAddress address = args.length == 3 ? InetAddress.getByName(args[2]) : InetAddress.getLoopbackAddress();
+        ShardServer server = new ShardServer(shard, new ServerSocket(Integer.parseInt(args[1]), 50, address));
+        System.out.println("Serving " + args[0] + " (" + shard.getNodeCount() + " nodes) on "
+                + address.getHostAddress() + ":" + server.getPort());
+        Thread.currentThread().join(); // until the process is stopped
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    // Connections dropped on an I/O error or a request the shard rejected, while the server was open
+    public long getFailedConnectionCount() {
+        return failed.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                Thread worker = new Thread(() -> serve(socket), "shard-connection");
+                worker.setDaemon(true);
+                worker.start();
+            } catch (IOException e) {
+                return; // closed
+            }
+        }
+    }
+
+    // Answers frames until the client disconnects; a request the shard rejects closes the connection
+    private void serve(Socket socket) {
+        try (socket) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            while (true) {
+                SocketShardTransport.writeFrame(out, shard.handle(SocketShardTransport.readFrame(in)));
+            }
+        } catch (EOFException e) {
+            // client closed the connection
+        } catch (IOException | RuntimeException e) {
+            if (!server.isClosed()) {
+                failed.increment(); // the client sees the closed connection as an IOException
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.om.algorithm;
+
+import jdk.jfr.*;
+
+// JFR event committed for each instrumented query while a recording has it enabled
+@Name("com.om.algorithm.ShortestPathQuery")
+@Label("Shortest Path Query")
+@Category("Shortest Path")
+@StackTrace(false)
+final class ShortestPathQueryEvent extends Event {
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Start Node")
+    String startNode;
+
+    @Label("End Node")
+    String endNode;
+
+    @Label("Found")
+    boolean found;
+
+    @Label("Total Weight")
+    double totalWeight;
+
+    @Label("Nodes Settled")
+    long settled;
+
+    @Label("Edges Relaxed")
+    long relaxed;
+
+    @Label("Heap Pushes")
+    long pushes;
+
+    @Label("Decrease Keys")
+    long decreaseKeys;
+
+    @Label("Heap Pops")
+    long pops;
+
+    @Label("Stale Pops")
+    long stalePops;
+}
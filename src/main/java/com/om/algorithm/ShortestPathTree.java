@@ -0,0 +1,239 @@
+package com.om.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Single-source shortest-path tree that an {@link AbstractAlgoShortestPath} keeps up to date
+ * as its graph changes. After each mutation only the part of the tree the change touches is
+ * recomputed, in the style of Ramalingam and Reps: a cheaper edge pushes the new distances
+ * outward from its head, and a dearer or removed tree edge resets the subtree below it, seeds
+ * that subtree from the incoming edges of the unaffected nodes, and settles it again.
+ * The tree follows every change as soon as it is made, including unpublished ones in snapshot
+ * mode. It needs non-negative weights; close it to stop the maintenance.
+ */
+public final class ShortestPathTree implements AutoCloseable {
+    private final AbstractAlgoShortestPath owner;
+    private final GraphStore graph;
+    private final String source;
+    private final int sourceId;
+    private final SearchCounters counters = new SearchCounters();
+    private IndexedDaryHeap heap;
+    private double[] distances = new double[0];
+    private int[] parents = new int[0];
+    private boolean[] affected = new boolean[0];
+    private long lastRepairSettled;
+
+    // Called by the owner with the store lock held
+    ShortestPathTree(AbstractAlgoShortestPath owner, GraphStore graph, String source) {
+        this.owner = owner;
+        this.graph = graph;
+        this.source = source;
+        this.sourceId = graph.indexOf(source);
+        heap = new IndexedDaryHeap(0, IndexedDaryHeap.DEFAULT_ARITY, counters);
+        recompute();
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    // Distance from the source, infinity when the node is unreachable or not in the graph
+    public double getDistance(String node) {
+        synchronized (graph) {
+            int id = graph.indexOf(node);
+            return id == -1 || id >= distances.length ? Double.POSITIVE_INFINITY : distances[id];
+        }
+    }
+
+    // Tree path from the source to the node, or an empty path with infinite weight when there is none
+    public PathResult getPath(String node) {
+        synchronized (graph) {
+            int id = graph.indexOf(node);
+            if (id == -1 || id >= distances.length || distances[id] == Double.POSITIVE_INFINITY) {
+                return Paths.noPath();
+            }
+            GraphSnapshot.Builder draft = graph.draft();
+            List<String> path = new ArrayList<>();
+            for (int u = id; u != -1; u = parents[u]) {
+                path.add(draft.get(u).name);
+            }
+            Collections.reverse(path);
+            return new PathResult(path, distances[id]);
+        }
+    }
+
+    // Nodes the last repair or full computation settled; a measure of how far a change reached
+    public long getLastRepairSettled() {
+        synchronized (graph) {
+            return lastRepairSettled;
+        }
+    }
+
+    // Stops keeping the tree up to date; later reads return the state at that point
+    @Override
+    public void close() {
+        owner.release(this);
+    }
+
+    // Runs Dijkstra from the source over the whole current graph
+    void recompute() {
+        GraphSnapshot.Builder draft = graph.draft();
+        ensureCapacity(draft.idLimit());
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(parents, -1);
+        long before = counters.settled;
+        heap.clear();
+        if (draft.get(sourceId) != null) {
+            distances[sourceId] = 0.0;
+            heap.push(sourceId, 0.0);
+            propagate(draft);
+        }
+        lastRepairSettled = counters.settled - before;
+    }
+
+    /**
+     * Brings the tree up to date after edges into the heads changed in any way, and the removed
+     * nodes disappeared. For a removed node, the heads must include the targets of its edges.
+     */
+    void repair(int[] heads, int headCount, int[] removed, int removedCount) {
+        GraphSnapshot.Builder draft = graph.draft();
+        ensureCapacity(draft.idLimit());
+        long before = counters.settled;
+        heap.clear();
+        for (int i = 0; i < removedCount; i++) {
+            distances[removed[i]] = Double.POSITIVE_INFINITY;
+            parents[removed[i]] = -1;
+        }
+
+        // Subtrees hanging off a tree edge that no longer gives the recorded distance
+        List<Integer> subtree = new ArrayList<>();
+        for (int i = 0; i < headCount; i++) {
+            int v = heads[i];
+            int parent = parents[v];
+            if (parent != -1 && !affected[v] && (draft.get(v) == null || draft.get(parent) == null
+                    || !(distances[parent] + arcWeight(draft, parent, v) <= distances[v]))) {
+                collectSubtree(draft, v, subtree);
+            }
+        }
+        for (int v : subtree) {
+            distances[v] = Double.POSITIVE_INFINITY;
+            parents[v] = -1;
+        }
+        for (int v : subtree) {
+            if (draft.get(v) != null) {
+                seedFromIncoming(draft, v);
+            }
+        }
+
+        // Heads whose incoming edges got cheaper or new
+        for (int i = 0; i < headCount; i++) {
+            int v = heads[i];
+            if (draft.get(v) == null) {
+                continue;
+            }
+            if (v == sourceId) {
+                if (distances[v] != 0.0) {
+                    distances[v] = 0.0;
+                    parents[v] = -1;
+                    heap.push(v, 0.0);
+                }
+            } else {
+                seedFromIncoming(draft, v);
+            }
+        }
+        for (int v : subtree) {
+            affected[v] = false;
+        }
+        propagate(draft);
+        lastRepairSettled = counters.settled - before;
+    }
+
+    // Marks v and every node below it in the tree as affected and adds them to subtree
+    private void collectSubtree(GraphSnapshot.Builder draft, int root, List<Integer> subtree) {
+        int[] stack = {root};
+        int size = 1;
+        affected[root] = true;
+        while (size > 0) {
+            int u = stack[--size];
+            subtree.add(u);
+            GraphSnapshot.NodeRecord record = draft.get(u);
+            if (record == null) {
+                continue;
+            }
+            for (int i = 0; i < record.degree; i++) {
+                int child = record.targets[i];
+                if (parents[child] == u && !affected[child]) {
+                    affected[child] = true;
+                    if (size == stack.length) {
+                        stack = Arrays.copyOf(stack, 2 * size);
+                    }
+                    stack[size++] = child;
+                }
+            }
+        }
+    }
+
+    // Queues v with the best distance over its incoming edges from nodes that are not affected
+    private void seedFromIncoming(GraphSnapshot.Builder draft, int v) {
+        GraphSnapshot.NodeRecord record = draft.get(v);
+        for (int i = 0; i < record.inDegree; i++) {
+            int u = record.sources[i];
+            if (affected[u] || distances[u] == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            double distance = distances[u] + arcWeight(draft, u, v);
+            if (distance < distances[v]) {
+                distances[v] = distance;
+                parents[v] = u;
+                heap.push(v, distance);
+            }
+        }
+    }
+
+    // Dijkstra from the queued nodes, lowering any distance it can
+    private void propagate(GraphSnapshot.Builder draft) {
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            GraphSnapshot.NodeRecord record = draft.get(u);
+            double distance = distances[u];
+            counters.relaxed += record.degree;
+            for (int i = 0; i < record.degree; i++) {
+                int v = record.targets[i];
+                double candidate = distance + record.weights[i];
+                if (candidate < distances[v]) {
+                    distances[v] = candidate;
+                    parents[v] = u;
+                    heap.push(v, candidate);
+                }
+            }
+        }
+    }
+
+    // Cheapest of the parallel arcs from -> to, infinity when there is none
+    private static double arcWeight(GraphSnapshot.Builder draft, int from, int to) {
+        GraphSnapshot.NodeRecord record = draft.get(from);
+        double best = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < record.degree; i++) {
+            if (record.targets[i] == to && record.weights[i] < best) {
+                best = record.weights[i];
+            }
+        }
+        return best;
+    }
+
+    private void ensureCapacity(int nodeCount) {
+        if (nodeCount > distances.length) {
+            int length = Math.max(nodeCount, distances.length + (distances.length >> 1));
+            int old = distances.length;
+            distances = Arrays.copyOf(distances, length);
+            Arrays.fill(distances, old, length, Double.POSITIVE_INFINITY);
+            parents = Arrays.copyOf(parents, length);
+            Arrays.fill(parents, old, length, -1);
+            affected = Arrays.copyOf(affected, length);
+            heap.ensureCapacity(length);
+        }
+    }
+}
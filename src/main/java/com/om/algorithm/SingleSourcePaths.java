@@ -0,0 +1,53 @@
+package com.om.algorithm;
+
+/**
+ * Shortest distances and parent links from one source to every node of a graph version.
+ * The arrays are indexed by the node ids of {@link #getGraph()}; unreachable nodes have an
+ * infinite distance and, like the source, parent -1.
+ */
+public final class SingleSourcePaths {
+    private final IGraphView view;
+    private final String source;
+    private final double[] distances;
+    private final int[] parents;
+
+    SingleSourcePaths(IGraphView view, String source, double[] distances, int[] parents) {
+        this.view = view;
+        this.source = source;
+        this.distances = distances;
+        this.parents = parents;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    // The graph version the paths were computed on; its ids index the arrays
+    public IGraphView getGraph() {
+        return view;
+    }
+
+    // Distance from the source, infinity when the node is unreachable or not in the graph
+    public double getDistance(String node) {
+        int id = view.indexOf(node);
+        return id == -1 ? Double.POSITIVE_INFINITY : distances[id];
+    }
+
+    public PathResult getPath(String node) {
+        int id = view.indexOf(node);
+        if (id == -1 || distances[id] == Double.POSITIVE_INFINITY) {
+            return Paths.noPath();
+        }
+        return Paths.fromParents(view, parents, id, distances[id]);
+    }
+
+    // Distances by node id; shared, not copied, so must not be modified
+    public double[] getDistances() {
+        return distances;
+    }
+
+    // Parent on the shortest path by node id; shared, not copied, so must not be modified
+    public int[] getParents() {
+        return parents;
+    }
+}
@@ -0,0 +1,110 @@
+package com.om.algorithm;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Reaches each shard over TCP, at the address of a {@link ShardServer}. Every frame is an int
+ * length followed by that many bytes, at most {@link #MAX_FRAME_BYTES}. One connection per shard
+ * is opened on first use and carries one call at a time; a connection that fails is dropped and
+ * reopened by the next call.
+ */
+public final class SocketShardTransport implements IShardTransport {
+    // Largest frame either side sends or accepts; enough for the overlay table of a cell with 5000 boundary nodes
+    static final int MAX_FRAME_BYTES = 256 << 20;
+
+    private final Connection[] connections;
+
+    public SocketShardTransport(List<InetSocketAddress> shards) {
+        connections = new Connection[shards.size()];
+        for (int i = 0; i < connections.length; i++) {
+            connections[i] = new Connection(shards.get(i));
+        }
+    }
+
+    @Override
+    public int shardCount() {
+        return connections.length;
+    }
+
+    @Override
+    public ByteBuffer call(int shard, ByteBuffer request) throws IOException {
+        return connections[shard].call(request);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Connection connection : connections) {
+            connection.close();
+        }
+    }
+
+    // Writes one length-prefixed frame
+    static void writeFrame(DataOutputStream out, ByteBuffer frame) throws IOException {
+        ByteBuffer data = frame.duplicate();
+        if (data.remaining() > MAX_FRAME_BYTES) {
+            throw new IOException("Frame of " + data.remaining() + " bytes exceeds the limit of " + MAX_FRAME_BYTES);
+        }
+        byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.flush();
+    }
+
+    // Reads one length-prefixed frame; the length is checked before anything is allocated for it
+    static ByteBuffer readFrame(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Corrupt frame length: " + length);
+        }
+        if (length > MAX_FRAME_BYTES) {
+            throw new IOException("Frame of " + length + " bytes exceeds the limit of " + MAX_FRAME_BYTES);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return ByteBuffer.wrap(bytes);
+    }
+
+    private static final class Connection {
+        private final InetSocketAddress address;
+        private Socket socket; // guarded by this
+        private DataInputStream in;
+        private DataOutputStream out;
+
+        Connection(InetSocketAddress address) {
+            this.address = address;
+        }
+
+        synchronized ByteBuffer call(ByteBuffer request) throws IOException {
+            try {
+                if (socket == null) {
+                    socket = new Socket(address.getAddress(), address.getPort());
+                    socket.setTcpNoDelay(true);
+                    in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                    out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                }
+                writeFrame(out, request);
+                return readFrame(in);
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        synchronized void close() throws IOException {
+            Socket open = socket;
+            socket = null;
+            if (open != null) {
+                open.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.om.algorithm;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Packed 2-d tree over the nodes of one graph version that have coordinates. Points live in
+ * three parallel arrays in implicit tree order: the median of a range is its root, split on x
+ * at even depths and on y at odd ones, so the tree has no node objects or pointers.
+ *
+ * <p>Every lookup takes the view to answer for and skips entries whose node no longer has the
+ * indexed coordinates in it, so one tree keeps serving later versions after node removals.
+ */
+final class SpatialIndex {
+    private final int[] ids;
+    private final double[] xs;
+    private final double[] ys;
+
+    private SpatialIndex(int[] ids, double[] xs, double[] ys) {
+        this.ids = ids;
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    static SpatialIndex build(IGraphView view) {
+        int n = view.nodeCount();
+        int count = 0;
+        for (int u = 0; u < n; u++) {
+            if (!Double.isNaN(view.x(u)) && !Double.isNaN(view.y(u))) {
+                count++;
+            }
+        }
+        int[] ids = new int[count];
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        int next = 0;
+        for (int u = 0; u < n; u++) {
+            if (!Double.isNaN(view.x(u)) && !Double.isNaN(view.y(u))) {
+                ids[next] = u;
+                xs[next] = view.x(u);
+                ys[next] = view.y(u);
+                next++;
+            }
+        }
+        SpatialIndex index = new SpatialIndex(ids, xs, ys);
+        index.arrange(0, count, 0);
+        return index;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    // Whether the node still sits at the indexed position in the view
+    static boolean isLive(IGraphView view, int id, double x, double y) {
+        return id < view.nodeCount() && view.x(id) == x && view.y(id) == y;
+    }
+
+    // Offers the nodes of the view closest to (x, y) to best
+    void nearest(IGraphView view, double x, double y, Nearest best) {
+        nearest(view, x, y, best, 0, ids.length, 0);
+    }
+
+    // Passes every live node inside the box, borders included, to out
+    void within(IGraphView view, double minX, double minY, double maxX, double maxY, IntConsumer out) {
+        within(view, minX, minY, maxX, maxY, out, 0, ids.length, 0);
+    }
+
+    private void nearest(IGraphView view, double x, double y, Nearest best, int lo, int hi, int depth) {
+        while (lo < hi) {
+            int middle = (lo + hi) >>> 1;
+            double dx = x - xs[middle];
+            double dy = y - ys[middle];
+            if (isLive(view, ids[middle], xs[middle], ys[middle])) {
+                best.offer(ids[middle], dx * dx + dy * dy);
+            }
+            double split = (depth & 1) == 0 ? dx : dy;
+            // Near side first; the far side only if the splitting line is closer than the current k-th best
+            if (split < 0) {
+                nearest(view, x, y, best, lo, middle, depth + 1);
+                if (split * split >= best.bound()) {
+                    return;
+                }
+                lo = middle + 1;
+            } else {
+                nearest(view, x, y, best, middle + 1, hi, depth + 1);
+                if (split * split >= best.bound()) {
+                    return;
+                }
+                hi = middle;
+            }
+            depth++;
+        }
+    }
+
+    private void within(IGraphView view, double minX, double minY, double maxX, double maxY, IntConsumer out,
+                        int lo, int hi, int depth) {
+        while (lo < hi) {
+            int middle = (lo + hi) >>> 1;
+            double x = xs[middle];
+            double y = ys[middle];
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY && isLive(view, ids[middle], x, y)) {
+                out.accept(ids[middle]);
+            }
+            double coordinate = (depth & 1) == 0 ? x : y;
+            double min = (depth & 1) == 0 ? minX : minY;
+            double max = (depth & 1) == 0 ? maxX : maxY;
+            boolean left = min <= coordinate;
+            boolean right = max >= coordinate;
+            if (left && right) {
+                within(view, minX, minY, maxX, maxY, out, lo, middle, depth + 1);
+                lo = middle + 1;
+            } else if (left) {
+                hi = middle;
+            } else {
+                lo = middle + 1;
+            }
+            depth++;
+        }
+    }
+
+    // Puts the median of [lo, hi) by the depth's axis in the middle and recurses on both halves
+    private void arrange(int lo, int hi, int depth) {
+        while (hi - lo > 1) {
+            int middle = (lo + hi) >>> 1;
+            select(lo, hi - 1, middle, (depth & 1) == 0 ? xs : ys);
+            arrange(lo, middle, depth + 1);
+            lo = middle + 1;
+            depth++;
+        }
+    }
+
+    // Quickselect: afterwards keys[k] is in sorted position, smaller or equal keys before it
+    private void select(int lo, int hi, int k, double[] keys) {
+        while (lo < hi) {
+            double pivot = keys[(lo + hi) >>> 1];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int a, int b) {
+        int id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        double x = xs[a];
+        xs[a] = xs[b];
+        xs[b] = x;
+        double y = ys[a];
+        ys[a] = ys[b];
+        ys[b] = y;
+    }
+
+    // The k closest candidates seen so far, kept as a binary max-heap on squared distance
+    static final class Nearest {
+        private final int[] ids;
+        private final double[] distances;
+        private int size;
+
+        Nearest(int k) {
+            ids = new int[k];
+            distances = new double[k];
+        }
+
+        // Squared distance a candidate must beat once k are known
+        double bound() {
+            return size < ids.length ? Double.POSITIVE_INFINITY : distances[0];
+        }
+
+        void offer(int id, double distance) {
+            if (distance >= bound()) {
+                return;
+            }
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    return; // also queued as a recent addition
+                }
+            }
+            int position;
+            if (size < ids.length) {
+                position = size++;
+                while (position > 0 && distances[(position - 1) / 2] < distance) {
+                    int parent = (position - 1) / 2;
+                    ids[position] = ids[parent];
+                    distances[position] = distances[parent];
+                    position = parent;
+                }
+            } else {
+                position = 0;
+                while (true) {
+                    int child = 2 * position + 1;
+                    if (child >= size) {
+                        break;
+                    }
+                    if (child + 1 < size && distances[child + 1] > distances[child]) {
+                        child++;
+                    }
+                    if (distances[child] <= distance) {
+                        break;
+                    }
+                    ids[position] = ids[child];
+                    distances[position] = distances[child];
+                    position = child;
+                }
+            }
+            ids[position] = id;
+            distances[position] = distance;
+        }
+
+        // Node ids, closest first
+        int[] sorted() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(distances[a], distances[b]));
+            int[] result = new int[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = ids[order[i]];
+            }
+            return result;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.om.algorithm;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import java.util.List;
+import java.util.Random;
 
 public class AStarAlgoShortestPathTest {
 
@@ -52,4 +53,119 @@ public class AStarAlgoShortestPathTest {
 
         assertTrue(exception.getMessage().contains("Z"));
     }
-} 
\ No newline at end of file
+
+    @Test
+    public void testNodeWithoutCoordinatesStaysAdmissible() {
+        IAlgoShortestPath algo = new AStarAlgoShortestPathImpl();
+        algo.addNode("A", 0, 0);
+        algo.addNode("C", 10, 0);
+        algo.addEdge("A", "B", 1); // B has no coordinates
+        algo.addEdge("B", "C", 1);
+        algo.addEdge("A", "C", 10);
+
+        PathResult result = algo.findShortestPath("A", "C");
+
+        assertEquals(2.0, result.getTotalWeight(), 0.01);
+        assertEquals(List.of("A", "B", "C"), result.getPath());
+    }
+
+    @Test
+    public void testLandmarkHeuristicMatchesDijkstra() {
+        for (LandmarkIndex.Selection selection : LandmarkIndex.Selection.values()) {
+            Random random = new Random(5);
+            IAlgoShortestPath algo = new AStarAlgoShortestPathImpl(4, 6, selection);
+            IAlgoShortestPath reference = new DijkstraAlgoShortestPathImpl();
+            // Travel times without coordinates, plus a second component
+            for (int i = 0; i < 400; i++) {
+                String from = "N" + random.nextInt(100);
+                String to = "N" + random.nextInt(100);
+                double weight = 1 + random.nextInt(50);
+                algo.addEdge(from, to, weight);
+                reference.addEdge(from, to, weight);
+            }
+            algo.addEdge("X", "Y", 1);
+            reference.addEdge("X", "Y", 1);
+
+            for (int i = 0; i < 100; i += 9) {
+                for (int j = 0; j < 100; j += 11) {
+                    double expected = reference.findShortestPath("N" + i, "N" + j).getTotalWeight();
+                    assertEquals(expected, algo.findShortestPath("N" + i, "N" + j).getTotalWeight(), 1e-9);
+                }
+            }
+            assertTrue(algo.findShortestPath("N0", "Y").getPath().isEmpty());
+
+            // Landmark tables follow graph changes
+            algo.addEdge("N0", "Y", 3);
+            assertEquals(3.0, algo.findShortestPath("N0", "Y").getTotalWeight(), 1e-9);
+        }
+    }
+
+    @Test
+    public void testLandmarksKeptWhenNoDistanceShrinks() {
+        AStarAlgoShortestPathImpl algo = new AStarAlgoShortestPathImpl(4, 4, LandmarkIndex.Selection.AVOID);
+        DijkstraAlgoShortestPathImpl reference = new DijkstraAlgoShortestPathImpl();
+        CsrGraph grid = GraphGenerator.grid(20, 20, 4);
+        algo.importGraph(grid);
+        reference.importGraph(grid);
+        assertFalse(algo.isUpToDate());
+        algo.rebuild();
+        assertTrue(algo.isUpToDate());
+
+        // Heavier edges, removals and nodes without edges keep the tables
+        for (IAlgoShortestPath target : List.of(algo, reference)) {
+            target.updateEdgeWeight("0", "1", 100);
+            target.removeEdge("20", "21");
+            target.addNode("lonely", 0, 0);
+        }
+        assertTrue(algo.isUpToDate());
+        assertSameDistances(reference, algo);
+        assertTrue(algo.findShortestPath("0", "lonely").getPath().isEmpty());
+
+        // A lighter or a new edge does not
+        for (IAlgoShortestPath target : List.of(algo, reference)) {
+            target.updateEdgeWeight("0", "1", 0.5);
+        }
+        assertFalse(algo.isUpToDate());
+        assertSameDistances(reference, algo);
+        assertTrue(algo.isUpToDate());
+        for (IAlgoShortestPath target : List.of(algo, reference)) {
+            target.addEdge("lonely", "399", 1);
+        }
+        assertFalse(algo.isUpToDate());
+        assertSameDistances(reference, algo);
+        assertEquals(reference.findShortestDistance("0", "lonely"), algo.findShortestDistance("0", "lonely"), 1e-9);
+    }
+
+    private static void assertSameDistances(IAlgoShortestPath expected, IAlgoShortestPath actual) {
+        for (int i = 0; i < 400; i += 37) {
+            for (int j = 0; j < 400; j += 29) {
+                assertEquals(expected.findShortestDistance("" + i, "" + j), actual.findShortestDistance("" + i, "" + j), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testLandmarkLowerBoundNeverOverestimates() {
+        GraphStore store = new GraphStore();
+        Random random = new Random(9);
+        for (int i = 0; i < 300; i++) {
+            store.addEdge("N" + random.nextInt(60), "N" + random.nextInt(60), 1 + random.nextInt(20));
+        }
+        CsrGraph graph = store.compact();
+        LandmarkIndex index = LandmarkIndex.build(graph, 4, LandmarkIndex.Selection.FARTHEST);
+        BellmanFordAlgoShortestPathImpl reference = new BellmanFordAlgoShortestPathImpl();
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            for (int i = 0; i < graph.degree(u); i++) {
+                reference.addEdge(graph.nameOf(u), graph.nameOf(graph.target(u, i)), graph.weight(u, i));
+            }
+        }
+
+        assertEquals(4, index.landmarkCount());
+        for (int u = 0; u < graph.nodeCount(); u += 3) {
+            for (int v = 0; v < graph.nodeCount(); v += 5) {
+                double exact = reference.findShortestPath(graph.nameOf(u), graph.nameOf(v)).getTotalWeight();
+                assertTrue(index.lowerBound(u, v) <= exact + 1e-9);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.om.algorithm;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class AsyncShortestPathServiceTest {
+
+    @Test
+    public void testAnswersLikeTheDelegate() throws Exception {
+        DijkstraAlgoShortestPathImpl dijkstra = new DijkstraAlgoShortestPathImpl();
+        dijkstra.importGraph(GraphGenerator.grid(20, 20, 1));
+        try (AsyncShortestPathService service = new AsyncShortestPathService(dijkstra, 4, 1000)) {
+            List<CompletableFuture<PathResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 400; i += 7) {
+                futures.add(service.findShortestPath(Integer.toString(i % 13), Integer.toString(i)));
+            }
+            for (int i = 0, j = 0; i < 400; i += 7, j++) {
+                PathResult expected = dijkstra.findShortestPath(Integer.toString(i % 13), Integer.toString(i));
+                assertEquals(expected.getTotalWeight(), futures.get(j).get(10, TimeUnit.SECONDS).getTotalWeight(), 0.0);
+            }
+            ExecutionException failure = assertThrows(ExecutionException.class,
+                    () -> service.findShortestPath("0", "missing").get(10, TimeUnit.SECONDS));
+            assertTrue(failure.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void testCoalescesPairsAndBatchesStarts() throws Exception {
+        GatedAlgo algo = new GatedAlgo();
+        try (AsyncShortestPathService service = new AsyncShortestPathService(algo, 1, 10)) {
+            CompletableFuture<PathResult> first = service.findShortestPath("A", "B");
+            assertTrue(algo.started.await(10, TimeUnit.SECONDS)); // A -> B now holds the only permit
+
+            assertSame(first, service.findShortestPath("A", "B"));
+            CompletableFuture<PathResult> toD = service.findShortestPath("C", "D");
+            CompletableFuture<PathResult> toA = service.findShortestPath("C", "A");
+            CompletableFuture<PathResult> missing = service.findShortestPath("C", "Z");
+            assertSame(toD, service.findShortestPath("C", "D"));
+            algo.gate.countDown();
+
+            assertEquals(1.0, first.get(10, TimeUnit.SECONDS).getTotalWeight(), 0.0);
+            assertEquals(List.of("C", "D"), toD.get(10, TimeUnit.SECONDS).getPath());
+            assertEquals(List.of("C", "B", "A"), toA.get(10, TimeUnit.SECONDS).getPath());
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> missing.get(10, TimeUnit.SECONDS));
+            assertTrue(failure.getCause() instanceof IllegalArgumentException);
+            assertEquals(List.of("C"), algo.batchStarts); // the lone A -> B query needs no batch call
+            assertEquals(2, service.getCoalescedCount());
+            assertEquals(2, service.getBatchedCount());
+        }
+    }
+
+    @Test
+    public void testShedsLoadPastTheQueueLimit() throws Exception {
+        GatedAlgo algo = new GatedAlgo();
+        AsyncShortestPathService service = new AsyncShortestPathService(algo, 1, 1);
+        CompletableFuture<PathResult> running = service.findShortestPath("A", "B");
+        assertTrue(algo.started.await(10, TimeUnit.SECONDS));
+        CompletableFuture<PathResult> queued = service.findShortestPath("B", "C");
+        CompletableFuture<PathResult> shed = service.findShortestPath("C", "D");
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> shed.get(10, TimeUnit.SECONDS));
+        assertTrue(failure.getCause() instanceof RejectedExecutionException);
+        assertEquals(1, service.getRejectedCount());
+        algo.gate.countDown();
+        assertEquals(1.0, running.get(10, TimeUnit.SECONDS).getTotalWeight(), 0.0);
+        assertEquals(1.0, queued.get(10, TimeUnit.SECONDS).getTotalWeight(), 0.0);
+
+        // Room again once the work is done
+        assertEquals(1.0, service.findShortestPath("C", "D").get(10, TimeUnit.SECONDS).getTotalWeight(), 0.0);
+        service.close();
+        assertThrows(ExecutionException.class, () -> service.findShortestPath("A", "D").get(10, TimeUnit.SECONDS));
+    }
+
+    // Dijkstra on A - B - C - D whose queries wait for a gate, recording the start of every batch call
+    private static final class GatedAlgo extends DijkstraAlgoShortestPathImpl {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+        final List<String> batchStarts = Collections.synchronizedList(new ArrayList<>());
+
+        GatedAlgo() {
+            addEdge("A", "B", 1);
+            addEdge("B", "C", 1);
+            addEdge("C", "D", 1);
+        }
+
+        @Override
+        public PathResult findShortestPath(String startNode, String endNode) {
+            await();
+            return super.findShortestPath(startNode, endNode);
+        }
+
+        @Override
+        public List<PathResult> findShortestPaths(String startNode, List<String> endNodes) {
+            batchStarts.add(startNode);
+            await();
+            return super.findShortestPaths(startNode, endNodes);
+        }
+
+        private void await() {
+            started.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
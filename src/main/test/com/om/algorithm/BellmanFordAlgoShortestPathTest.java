@@ -3,6 +3,7 @@ package com.om.algorithm;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import java.util.List;
+import java.util.Random;
 
 public class BellmanFordAlgoShortestPathTest {
 
@@ -103,4 +104,77 @@ public class BellmanFordAlgoShortestPathTest {
         assertEquals(0.0, result.getTotalWeight(), 0.01);
         assertEquals(List.of("A"), result.getPath());
     }
-} 
\ No newline at end of file
+
+    @Test
+    public void testNegativeCycleIsReported() {
+        for (BellmanFordAlgoShortestPathImpl.Strategy strategy : BellmanFordAlgoShortestPathImpl.Strategy.values()) {
+            IAlgoShortestPath algo = new BellmanFordAlgoShortestPathImpl(strategy);
+            algo.addEdge("S", "A", 1);
+            algo.addEdge("A", "B", 2);
+            algo.addEdge("B", "C", -4);
+            algo.addEdge("C", "A", 1);
+            algo.addEdge("C", "T", 1);
+
+            NegativeCycleException e = assertThrows(NegativeCycleException.class, () -> algo.findShortestPath("S", "T"));
+            List<String> cycle = e.getCycle();
+            assertEquals(4, cycle.size(), strategy.name());
+            assertEquals(cycle.get(0), cycle.get(3));
+            assertTrue(cycle.containsAll(List.of("A", "B", "C")), strategy.name());
+            assertEquals(-1.0, e.getWeight(), 0.0);
+        }
+    }
+
+    @Test
+    public void testUnreachableNegativeCycleIsIgnored() {
+        IAlgoShortestPath algo = new BellmanFordAlgoShortestPathImpl();
+        algo.addEdge("S", "T", 2);
+        algo.addEdge("X", "Y", -1);
+        algo.addEdge("Y", "X", -1);
+
+        assertEquals(2.0, algo.findShortestPath("S", "T").getTotalWeight(), 0.0);
+    }
+
+    @Test
+    public void testStrategiesAgreeOnRandomGraph() {
+        // Negative weights without cycles: edges go from lower to higher index only
+        Random random = new Random(9);
+        BellmanFordAlgoShortestPathImpl.Strategy[] strategies = BellmanFordAlgoShortestPathImpl.Strategy.values();
+        BellmanFordAlgoShortestPathImpl[] algos = new BellmanFordAlgoShortestPathImpl[strategies.length];
+        for (int k = 0; k < strategies.length; k++) {
+            algos[k] = new BellmanFordAlgoShortestPathImpl(strategies[k]);
+        }
+        int n = 300;
+        for (int e = 0; e < 1500; e++) {
+            int u = random.nextInt(n - 1);
+            int v = u + 1 + random.nextInt(n - u - 1);
+            double weight = random.nextInt(20) - 8;
+            for (BellmanFordAlgoShortestPathImpl algo : algos) {
+                algo.addEdge("N" + u, "N" + v, weight);
+            }
+        }
+        for (int q = 0; q < 40; q++) {
+            String start = "N" + random.nextInt(n / 2);
+            String end = "N" + (n / 2 + random.nextInt(n / 2));
+            PathResult expected = algos[0].findShortestPath(start, end);
+            for (BellmanFordAlgoShortestPathImpl algo : algos) {
+                PathResult result = algo.findShortestPath(start, end);
+                assertEquals(expected.getTotalWeight(), result.getTotalWeight(), 1e-9);
+                if (!result.getPath().isEmpty()) {
+                    assertEquals(result.getTotalWeight(), TestPaths.weightOf(algo.snapshot(), result.getPath()), 1e-9);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRemoveEdgeKeepsReverseEdge() {
+        IAlgoShortestPath algo = new BellmanFordAlgoShortestPathImpl();
+        algo.addEdge("A", "B", 1);
+        algo.addEdge("B", "A", 2);
+
+        algo.removeEdge("A", "B");
+
+        assertTrue(algo.findShortestPath("A", "B").getPath().isEmpty());
+        assertEquals(2.0, algo.findShortestPath("B", "A").getTotalWeight(), 0.0);
+    }
+}
\ No newline at end of file
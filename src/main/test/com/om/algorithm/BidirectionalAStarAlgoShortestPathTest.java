@@ -0,0 +1,74 @@
+package com.om.algorithm;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import java.util.Random;
+
+public class BidirectionalAStarAlgoShortestPathTest {
+
+    @Test
+    public void testShortestPathCorrect() {
+        IAlgoShortestPath algo = new BidirectionalAStarAlgoShortestPathImpl();
+        algo.addNode("A", 0, 0);
+        algo.addNode("B", 1, 0);
+        algo.addNode("C", 1, 1);
+        algo.addNode("D", 0, 1);
+
+        algo.addEdge("A", "B", 1);
+        algo.addEdge("B", "C", 2);
+        algo.addEdge("A", "D", 4);
+        algo.addEdge("D", "C", 1);
+
+        PathResult result = algo.findShortestPath("A", "C");
+
+        assertEquals(3.0, result.getTotalWeight(), 0.01);
+        assertEquals(List.of("A", "B", "C"), result.getPath());
+    }
+
+    @Test
+    public void testMatchesDijkstraOnGeometricGraph() {
+        Random random = new Random(11);
+        IAlgoShortestPath algo = new BidirectionalAStarAlgoShortestPathImpl();
+        IAlgoShortestPath reference = new DijkstraAlgoShortestPathImpl();
+        int n = 200;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = random.nextDouble() * 100;
+            ys[i] = random.nextDouble() * 100;
+            algo.addNode("N" + i, xs[i], ys[i]);
+            reference.addNode("N" + i, xs[i], ys[i]);
+        }
+        for (int i = 0; i < 4 * n; i++) {
+            int from = random.nextInt(n);
+            int to = random.nextInt(n);
+            // Never shorter than the straight line, so the Euclidean potential is consistent
+            double weight = Math.hypot(xs[from] - xs[to], ys[from] - ys[to]) * (1 + random.nextDouble());
+            algo.addEdge("N" + from, "N" + to, weight);
+            reference.addEdge("N" + from, "N" + to, weight);
+        }
+
+        for (int i = 0; i < n; i += 13) {
+            for (int j = 0; j < n; j += 17) {
+                double expected = reference.findShortestPath("N" + i, "N" + j).getTotalWeight();
+                assertEquals(expected, algo.findShortestPath("N" + i, "N" + j).getTotalWeight(), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    public void testNodeWithoutCoordinatesStaysExact() {
+        IAlgoShortestPath algo = new BidirectionalAStarAlgoShortestPathImpl();
+        algo.addNode("A", 0, 0);
+        algo.addNode("C", 10, 0);
+        algo.addEdge("A", "B", 1); // B has no coordinates
+        algo.addEdge("B", "C", 1);
+        algo.addEdge("A", "C", 10);
+
+        PathResult result = algo.findShortestPath("A", "C");
+
+        assertEquals(2.0, result.getTotalWeight(), 0.01);
+        assertEquals(List.of("A", "B", "C"), result.getPath());
+    }
+}
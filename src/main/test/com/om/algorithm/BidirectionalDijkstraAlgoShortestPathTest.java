@@ -0,0 +1,80 @@
+package com.om.algorithm;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import java.util.Random;
+
+public class BidirectionalDijkstraAlgoShortestPathTest {
+
+    private void setupGraph(IAlgoShortestPath algo) {
+        algo.addNode("A", 0, 0);
+        algo.addNode("B", 1, 0);
+        algo.addNode("C", 1, 1);
+        algo.addNode("D", 0, 1);
+
+        algo.addEdge("A", "B", 1);
+        algo.addEdge("B", "C", 2);
+        algo.addEdge("A", "D", 4);
+        algo.addEdge("D", "C", 1);
+    }
+
+    @Test
+    public void testShortestPathCorrect() {
+        IAlgoShortestPath algo = new BidirectionalDijkstraAlgoShortestPathImpl();
+        setupGraph(algo);
+        PathResult result = algo.findShortestPath("A", "C");
+
+        assertEquals(3.0, result.getTotalWeight(), 0.01);
+        assertEquals(List.of("A", "B", "C"), result.getPath());
+    }
+
+    @Test
+    public void testNoPathAndSameStartAndEnd() {
+        IAlgoShortestPath algo = new BidirectionalDijkstraAlgoShortestPathImpl();
+        setupGraph(algo);
+        assertEquals(List.of("A"), algo.findShortestPath("A", "A").getPath());
+
+        algo.removeEdge("A", "B");
+        algo.removeEdge("A", "D");
+        PathResult result = algo.findShortestPath("A", "C");
+
+        assertEquals(Double.POSITIVE_INFINITY, result.getTotalWeight());
+        assertTrue(result.getPath().isEmpty());
+    }
+
+    @Test
+    public void testNonExistingNode() {
+        IAlgoShortestPath algo = new BidirectionalDijkstraAlgoShortestPathImpl();
+        setupGraph(algo);
+
+        assertThrows(IllegalArgumentException.class, () -> algo.findShortestPath("A", "Z"));
+    }
+
+    @Test
+    public void testMatchesDijkstraOnRandomGraph() {
+        Random random = new Random(7);
+        IAlgoShortestPath algo = new BidirectionalDijkstraAlgoShortestPathImpl();
+        IAlgoShortestPath reference = new DijkstraAlgoShortestPathImpl();
+        for (int i = 0; i < 80; i++) {
+            algo.addNode("N" + i, 0, 0);
+            reference.addNode("N" + i, 0, 0);
+        }
+        for (int i = 0; i < 300; i++) {
+            String from = "N" + random.nextInt(80);
+            String to = "N" + random.nextInt(80);
+            double weight = 1 + random.nextInt(30);
+            algo.addEdge(from, to, weight);
+            reference.addEdge(from, to, weight);
+        }
+
+        for (int i = 0; i < 80; i += 3) {
+            for (int j = 0; j < 80; j += 7) {
+                PathResult expected = reference.findShortestPath("N" + i, "N" + j);
+                PathResult actual = algo.findShortestPath("N" + i, "N" + j);
+                assertEquals(expected.getTotalWeight(), actual.getTotalWeight(), 1e-9);
+                assertEquals(expected.getPath().isEmpty(), actual.getPath().isEmpty());
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.om.algorithm;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import java.util.Random;
+
+public class CachedAlgoShortestPathTest {
+
+    private void setupGraph(IAlgoShortestPath algo) {
+        algo.addEdge("A", "B", 1);
+        algo.addEdge("B", "C", 2);
+        algo.addEdge("C", "D", 1);
+        algo.addEdge("A", "D", 10);
+        algo.addEdge("D", "E", 3);
+    }
+
+    @Test
+    public void testRepeatedQueriesHitTheCache() {
+        CachedAlgoShortestPath cache = new CachedAlgoShortestPath(new DijkstraAlgoShortestPathImpl(), 100);
+        setupGraph(cache);
+
+        PathResult first = cache.findShortestPath("A", "E");
+        PathResult second = cache.findShortestPath("A", "E");
+
+        assertSame(first, second);
+        assertTrue(first instanceof CompactPathResult); // kept as the delegate returned it, names unbuilt
+        assertEquals(List.of("A", "B", "C", "D", "E"), second.getPath());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertThrows(IllegalArgumentException.class, () -> cache.findShortestPath("A", "Z"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testBatchQueriesOnlySendMissesToTheDelegate() {
+        CachedAlgoShortestPath cache = new CachedAlgoShortestPath(new DijkstraAlgoShortestPathImpl(), 100);
+        setupGraph(cache);
+        PathResult cached = cache.findShortestPath("A", "D");
+
+        List<PathResult> results = cache.findShortestPaths("A", List.of("D", "E", "C"));
+
+        assertSame(cached, results.get(0));
+        assertEquals(List.of("A", "B", "C", "D", "E"), results.get(1).getPath());
+        assertEquals(3.0, results.get(2).getTotalWeight());
+        assertEquals(1, cache.hitCount());
+        assertEquals(3, cache.missCount());
+        assertEquals(3, cache.size());
+        assertSame(results.get(1), cache.findShortestPath("A", "E"));
+    }
+
+    @Test
+    public void testMutationsDropOnlyAffectedRoutes() {
+        CachedAlgoShortestPath cache = new CachedAlgoShortestPath(new DijkstraAlgoShortestPathImpl(), 100);
+        setupGraph(cache);
+        cache.findShortestPath("A", "B"); // 1
+        cache.findShortestPath("C", "E"); // 4
+        cache.findShortestPath("A", "E"); // 7
+
+        cache.addEdge("X", "B", 1); // X is new, nothing can change
+        assertEquals(3, cache.size());
+
+        cache.addEdge("A", "E", 5); // only A -> E gets shorter
+        assertEquals(2, cache.size());
+        assertEquals(5.0, cache.findShortestPath("A", "E").getTotalWeight(), 0.0);
+
+        cache.removeEdge("C", "D"); // used by C -> E only
+        assertEquals(2, cache.size());
+        assertEquals(List.of("C", "B", "A", "E"), cache.findShortestPath("C", "E").getPath());
+
+        cache.removeNode("B"); // drops A -> B and the new C -> E
+        assertEquals(1, cache.size());
+        assertThrows(IllegalArgumentException.class, () -> cache.findShortestPath("A", "B"));
+        assertEquals(4, cache.invalidationCount());
+    }
+
+    @Test
+    public void testEdgesThatShortenNoRouteKeepEveryEntry() {
+        CachedAlgoShortestPath cache = new CachedAlgoShortestPath(new DijkstraAlgoShortestPathImpl(), 100);
+        setupGraph(cache);
+        cache.addEdge("X", "Y", 1); // a second component
+        cache.findShortestPath("A", "B"); // 1
+        cache.findShortestPath("C", "E"); // 4
+        cache.findShortestPath("A", "E"); // 7
+        cache.findShortestPath("A", "X"); // no path
+
+        cache.addEdge("B", "E", 6); // A -> B -> E is 7, no better than the cached route
+        cache.updateEdgeWeight("A", "D", 8); // cheaper, but A -> D -> E is still 11
+        cache.addEdge("Y", "Z", 1); // grows the other component only
+        assertEquals(4, cache.size());
+        assertEquals(0, cache.invalidationCount());
+        assertEquals(7.0, cache.findShortestPath("A", "E").getTotalWeight(), 0.0);
+
+        cache.addEdge("E", "Y", 1); // joins the components, so only the "no path" result goes
+        assertEquals(3, cache.size());
+        assertEquals(9.0, cache.findShortestPath("A", "X").getTotalWeight(), 0.0);
+    }
+
+    @Test
+    public void testDirectedDelegatesOnlyDropRoutesInTheEdgeDirection() {
+        CachedAlgoShortestPath cache = new CachedAlgoShortestPath(new BellmanFordAlgoShortestPathImpl(), 100);
+        setupGraph(cache);
+        cache.findShortestPath("A", "E"); // 7
+        cache.findShortestPath("E", "A"); // no path
+
+        cache.addEdge("C", "A", 1); // leads back to A, shortens neither
+        assertEquals(2, cache.size());
+        cache.addEdge("B", "D", 1); // A -> B -> D -> E is 5
+        assertEquals(1, cache.size());
+        assertEquals(5.0, cache.findShortestPath("A", "E").getTotalWeight(), 0.0);
+        assertEquals(Double.POSITIVE_INFINITY, cache.findShortestPath("E", "A").getTotalWeight());
+    }
+
+    @Test
+    public void testWeightUpdatesDropRoutesTheyCanChange() {
+        CachedAlgoShortestPath cache = new CachedAlgoShortestPath(new DijkstraAlgoShortestPathImpl(), 100);
+        setupGraph(cache);
+        cache.findShortestPath("A", "B"); // 1
+        cache.findShortestPath("D", "E"); // 3
+        cache.findShortestPath("A", "E"); // 7
+
+        cache.updateEdgeWeight("B", "C", 4); // dearer, used by A -> E only
+        assertEquals(2, cache.size());
+        assertEquals(9.0, cache.findShortestPath("A", "E").getTotalWeight(), 0.0);
+
+        cache.updateEdgeWeight("A", "D", 2); // cheaper, and A -> D -> E now undercuts A -> E
+        assertEquals(2, cache.size());
+        assertEquals(5.0, cache.findShortestPath("A", "E").getTotalWeight(), 0.0);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.updateEdgeWeight("A", "E", 1)); // creates nothing
+        assertEquals(5.0, cache.findShortestPath("A", "E").getTotalWeight(), 0.0);
+    }
+
+    @Test
+    public void testMatchesUncachedResultsUnderRandomMutations() {
+        Random random = new Random(5);
+        IAlgoShortestPath plain = new DijkstraAlgoShortestPathImpl();
+        CachedAlgoShortestPath cache = new CachedAlgoShortestPath(new DijkstraAlgoShortestPathImpl(), 64);
+        int n = 40;
+        for (int i = 0; i < 120; i++) {
+            String u = "N" + random.nextInt(n);
+            String v = "N" + random.nextInt(n);
+            double weight = 1 + random.nextInt(20);
+            plain.addEdge(u, v, weight);
+            cache.addEdge(u, v, weight);
+        }
+        for (int step = 0; step < 2000; step++) {
+            String u = "N" + random.nextInt(n + 5);
+            String v = "N" + random.nextInt(n + 5);
+            int action = random.nextInt(20);
+            if (action == 0) {
+                double weight = 1 + random.nextInt(20);
+                plain.addEdge(u, v, weight);
+                cache.addEdge(u, v, weight);
+            } else if (action == 1) {
+                plain.removeEdge(u, v);
+                cache.removeEdge(u, v);
+            } else if (action == 2 && random.nextInt(5) == 0) {
+                plain.removeNode(u);
+                cache.removeNode(u);
+            } else {
+                try {
+                    assertEquals(plain.findShortestPath(u, v).getTotalWeight(),
+                            cache.findShortestPath(u, v).getTotalWeight(), 1e-9, u + " -> " + v);
+                } catch (IllegalArgumentException e) {
+                    assertThrows(IllegalArgumentException.class, () -> cache.findShortestPath(u, v));
+                }
+            }
+        }
+        assertTrue(cache.hitCount() > 0);
+        assertTrue(cache.size() <= 64);
+    }
+
+    @Test
+    public void testEvictionKeepsPopularRoutes() {
+        for (CachedAlgoShortestPath.Eviction eviction : CachedAlgoShortestPath.Eviction.values()) {
+            CachedAlgoShortestPath cache = new CachedAlgoShortestPath(new DijkstraAlgoShortestPathImpl(), 20,
+                    Long.MAX_VALUE, eviction);
+            for (int i = 0; i < 200; i++) {
+                cache.addEdge("N" + i, "N" + (i + 1), 1);
+            }
+            for (int round = 0; round < 10; round++) {
+                cache.findShortestPath("N0", "N5"); // hot route
+                for (int i = 0; i < 30; i++) {
+                    cache.findShortestPath("N" + (round * 30 + i) % 200, "N200"); // scan
+                }
+            }
+            assertEquals(20, cache.size(), eviction.name());
+            assertTrue(cache.evictionCount() > 0);
+            if (eviction == CachedAlgoShortestPath.Eviction.TINY_LFU) {
+                assertTrue(cache.hitCount() >= 9, "hot route should survive the scans");
+            }
+        }
+    }
+
+    @Test
+    public void testMemoryBound() {
+        CachedAlgoShortestPath cache = new CachedAlgoShortestPath(new DijkstraAlgoShortestPathImpl(), 1000,
+                20_000, CachedAlgoShortestPath.Eviction.LRU);
+        for (int i = 0; i < 300; i++) {
+            cache.addEdge("N" + i, "N" + (i + 1), 1);
+        }
+        for (int i = 0; i < 50; i++) {
+            cache.findShortestPath("N" + i, "N" + (i + 250));
+        }
+        assertTrue(cache.estimatedBytes() <= 20_000);
+        assertTrue(cache.size() < 50);
+    }
+
+    @Test
+    public void testSnapshotModeDelegatesAreNotCachedStale() {
+        DijkstraAlgoShortestPathImpl dijkstra = new DijkstraAlgoShortestPathImpl();
+        dijkstra.addEdge("A", "B", 1);
+        dijkstra.addEdge("B", "C", 1);
+        dijkstra.setSnapshotMode(true);
+        assertThrows(IllegalArgumentException.class, () -> new CachedAlgoShortestPath(dijkstra, 10));
+
+        dijkstra.setSnapshotMode(false);
+        CachedAlgoShortestPath cache = new CachedAlgoShortestPath(dijkstra, 10);
+        cache.findShortestPath("A", "C");
+        dijkstra.setSnapshotMode(true); // switched on behind the cache
+        cache.removeEdge("B", "C");
+        assertEquals(2.0, cache.findShortestPath("A", "C").getTotalWeight(), 0.0); // the published version
+        dijkstra.publish();
+        assertEquals(Double.POSITIVE_INFINITY, cache.findShortestPath("A", "C").getTotalWeight());
+    }
+}
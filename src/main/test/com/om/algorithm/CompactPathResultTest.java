@@ -0,0 +1,74 @@
+package com.om.algorithm;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import java.util.Random;
+
+public class CompactPathResultTest {
+
+    @Test
+    public void testDistanceQueriesMatchPathQueries() {
+        CsrGraph graph = GraphGenerator.roadLike(2_000, 11);
+        List<IAlgoShortestPath> algos = List.of(new DijkstraAlgoShortestPathImpl(), new AStarAlgoShortestPathImpl(),
+                new BidirectionalDijkstraAlgoShortestPathImpl(), new BidirectionalAStarAlgoShortestPathImpl(),
+                new ContractionHierarchiesAlgoShortestPathImpl(), new BellmanFordAlgoShortestPathImpl());
+        Random random = new Random(3);
+        for (IAlgoShortestPath algo : algos) {
+            ((AbstractAlgoShortestPath) algo).importGraph(graph);
+            if (algo.getClass() == BellmanFordAlgoShortestPathImpl.class) {
+                ((AbstractAlgoShortestPath) algo).importGraph(graph.reverse()); // directed: add the other direction too
+            }
+            InstrumentedAlgoShortestPath instrumented = new InstrumentedAlgoShortestPath(algo);
+            CachedAlgoShortestPath cached = new CachedAlgoShortestPath(algo, 100);
+            for (int q = 0; q < 30; q++) {
+                String start = Integer.toString(random.nextInt(2_000));
+                String end = q == 0 ? start : Integer.toString(random.nextInt(2_000));
+                double expected = algo.findShortestPath(start, end).getTotalWeight();
+                String name = algo.getClass().getSimpleName();
+                assertEquals(expected, algo.findShortestDistance(start, end), 1e-9, name);
+                assertEquals(expected, instrumented.findShortestDistance(start, end), 1e-9, name);
+                assertEquals(expected, cached.findShortestDistance(start, end), 1e-9, name);
+                cached.findShortestPath(start, end);
+                assertEquals(expected, cached.findShortestDistance(start, end), 1e-9, name); // now a hit
+            }
+            assertEquals(30, instrumented.getWallNanosHistogram().getCount());
+        }
+        DijkstraAlgoShortestPathImpl split = new DijkstraAlgoShortestPathImpl();
+        split.addEdge("A", "B", 1);
+        split.addNode("C", 0, 0);
+        assertEquals(Double.POSITIVE_INFINITY, split.findShortestDistance("A", "C"));
+        assertThrows(IllegalArgumentException.class, () -> split.findShortestDistance("A", "Z"));
+    }
+
+    @Test
+    public void testPathIsBuiltOnlyWhenAsked() {
+        DijkstraAlgoShortestPathImpl algo = new DijkstraAlgoShortestPathImpl();
+        for (int i = 0; i < 50; i++) {
+            algo.addEdge("N" + i, "N" + (i + 1), 1 + i % 3);
+        }
+        algo.addEdge("N0", "N1", 10); // parallel edge the search does not take
+        PathResult result = algo.findShortestPath("N0", "N50");
+        assertTrue(result instanceof CompactPathResult);
+        CompactPathResult path = (CompactPathResult) result;
+
+        assertEquals(51, path.getNodeCount());
+        assertEquals("N7", path.getNode(7));
+        List<Edge> edges = path.getEdges();
+        assertEquals(50, edges.size());
+        assertEquals(1.0, edges.get(0).getWeight(), 0.0);
+        assertEquals(path.getTotalWeight(), edges.stream().mapToDouble(Edge::getWeight).sum(), 0.0);
+
+        CompactPathResult slice = path.slice(3, 6);
+        assertEquals(List.of("N3", "N4", "N5"), slice.getPath());
+        assertEquals(1.0 + 2.0, slice.getTotalWeight(), 0.0); // N3 -> N4 and N4 -> N5
+        assertEquals(0.0, path.slice(9, 10).getTotalWeight(), 0.0);
+        assertThrows(IndexOutOfBoundsException.class, () -> path.slice(5, 52));
+
+        assertEquals(path.getPath(), path.getPath());
+        assertThrows(UnsupportedOperationException.class, () -> path.getPath().set(0, "X"));
+        String text = path.toString();
+        assertTrue(text.startsWith("Path: N0 -> N1"), text);
+        assertTrue(text.contains("(19 more)") && text.endsWith("N50| Distance: " + path.getTotalWeight()), text);
+    }
+}
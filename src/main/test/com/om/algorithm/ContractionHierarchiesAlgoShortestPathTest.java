@@ -0,0 +1,104 @@
+package com.om.algorithm;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import java.util.Random;
+
+public class ContractionHierarchiesAlgoShortestPathTest {
+
+    private void setupGraph(IAlgoShortestPath algo) {
+        algo.addNode("A", 0, 0);
+        algo.addNode("B", 1, 0);
+        algo.addNode("C", 1, 1);
+        algo.addNode("D", 0, 1);
+
+        algo.addEdge("A", "B", 1);
+        algo.addEdge("B", "C", 2);
+        algo.addEdge("A", "D", 4);
+        algo.addEdge("D", "C", 1);
+    }
+
+    @Test
+    public void testShortestPathCorrect() {
+        ContractionHierarchiesAlgoShortestPathImpl algo = new ContractionHierarchiesAlgoShortestPathImpl();
+        setupGraph(algo);
+        algo.rebuild();
+        assertTrue(algo.isUpToDate());
+
+        PathResult result = algo.findShortestPath("A", "C");
+
+        assertEquals(3.0, result.getTotalWeight(), 0.01);
+        assertEquals(List.of("A", "B", "C"), result.getPath());
+        assertEquals(List.of("A"), algo.findShortestPath("A", "A").getPath());
+    }
+
+    @Test
+    public void testQueryAfterMutationSeesChange() {
+        ContractionHierarchiesAlgoShortestPathImpl algo = new ContractionHierarchiesAlgoShortestPathImpl();
+        setupGraph(algo);
+        algo.rebuild();
+
+        algo.removeEdge("B", "C");
+        assertFalse(algo.isUpToDate());
+        PathResult result = algo.findShortestPath("A", "C");
+
+        assertEquals(5.0, result.getTotalWeight(), 0.01);
+        assertEquals(List.of("A", "D", "C"), result.getPath());
+        assertTrue(algo.isUpToDate());
+
+        algo.removeEdge("A", "D");
+        assertTrue(algo.findShortestPath("A", "C").getPath().isEmpty());
+    }
+
+    @Test
+    public void testUnpackedPathsMatchDijkstra() {
+        Random random = new Random(3);
+        ContractionHierarchiesAlgoShortestPathImpl algo = new ContractionHierarchiesAlgoShortestPathImpl();
+        IAlgoShortestPath reference = new DijkstraAlgoShortestPathImpl();
+        int side = 15;
+        // Grid with random weights plus a few long range edges, close to a road network
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                if (c + 1 < side) {
+                    double weight = 1 + random.nextInt(9);
+                    algo.addEdge(r + "," + c, r + "," + (c + 1), weight);
+                    reference.addEdge(r + "," + c, r + "," + (c + 1), weight);
+                }
+                if (r + 1 < side) {
+                    double weight = 1 + random.nextInt(9);
+                    algo.addEdge(r + "," + c, (r + 1) + "," + c, weight);
+                    reference.addEdge(r + "," + c, (r + 1) + "," + c, weight);
+                }
+            }
+        }
+        for (int i = 0; i < 20; i++) {
+            String from = random.nextInt(side) + "," + random.nextInt(side);
+            String to = random.nextInt(side) + "," + random.nextInt(side);
+            double weight = 10 + random.nextInt(20);
+            algo.addEdge(from, to, weight);
+            reference.addEdge(from, to, weight);
+        }
+        algo.rebuild();
+
+        for (int i = 0; i < 100; i++) {
+            String from = random.nextInt(side) + "," + random.nextInt(side);
+            String to = random.nextInt(side) + "," + random.nextInt(side);
+            double expected = reference.findShortestPath(from, to).getTotalWeight();
+            PathResult result = algo.findShortestPath(from, to);
+            assertEquals(expected, result.getTotalWeight(), 1e-9);
+
+            // The unpacked path only uses original edges and adds up to the reported weight
+            List<String> path = result.getPath();
+            assertEquals(from, path.get(0));
+            assertEquals(to, path.get(path.size() - 1));
+            double sum = 0;
+            for (int j = 0; j + 1 < path.size(); j++) {
+                PathResult hop = reference.findShortestPath(path.get(j), path.get(j + 1));
+                assertEquals(2, hop.getPath().size());
+                sum += hop.getTotalWeight();
+            }
+            assertEquals(expected, sum, 1e-9);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.om.algorithm;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class DeltaSteppingAlgoShortestPathTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterAll
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    public void testShortestPathCorrect() {
+        IAlgoShortestPath algo = new DeltaSteppingAlgoShortestPathImpl(POOL);
+        algo.addEdge("A", "B", 1);
+        algo.addEdge("B", "C", 2);
+        algo.addEdge("A", "D", 4);
+        algo.addEdge("D", "C", 1);
+        algo.addEdge("C", "E", 0);
+        algo.addNode("F", 0, 0);
+
+        PathResult result = algo.findShortestPath("A", "E");
+        assertEquals(3.0, result.getTotalWeight(), 0.0);
+        assertEquals(List.of("A", "B", "C", "E"), result.getPath());
+        assertEquals(Double.POSITIVE_INFINITY, algo.findShortestPath("A", "F").getTotalWeight());
+        assertThrows(IllegalArgumentException.class, () -> algo.findShortestPath("A", "Z"));
+        assertThrows(IllegalArgumentException.class, () -> new DeltaSteppingAlgoShortestPathImpl(POOL, 0));
+    }
+
+    @Test
+    public void testMatchesDijkstraForAnyDelta() {
+        CsrGraph road = GraphGenerator.roadLike(60_000, 5);
+        DijkstraAlgoShortestPathImpl dijkstra = new DijkstraAlgoShortestPathImpl();
+        dijkstra.importGraph(road);
+        double[] expected = dijkstra.computeShortestPaths("0").getDistances();
+
+        // Tiny buckets, automatic ones over an off-heap graph, and buckets so wide that frontiers span many tasks
+        for (double delta : new double[]{0.05, Double.NaN, 50}) {
+            DeltaSteppingAlgoShortestPathImpl algo = Double.isNaN(delta)
+                    ? new DeltaSteppingAlgoShortestPathImpl(POOL, GraphStorage.OFF_HEAP) : new DeltaSteppingAlgoShortestPathImpl(POOL, delta);
+            algo.importGraph(road);
+            SingleSourcePaths paths = algo.computeShortestPaths("0");
+            assertTrue(algo.attached() == null || !algo.attached().hasHeapCopy()); // searched in place
+            assertArrayEquals(expected, paths.getDistances(), 1e-9);
+            for (String node : List.of("1", "30000", "59999")) {
+                PathResult path = paths.getPath(node);
+                assertEquals(expected[road.indexOf(node)], path.getTotalWeight(), 1e-9);
+                assertEquals(TestPaths.weightOf(road, path.getPath()), path.getTotalWeight(), 1e-9);
+                assertEquals(dijkstra.findShortestPath("0", node).getTotalWeight(),
+                        algo.findShortestPath("0", node).getTotalWeight(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testSingleThreadPool() {
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            CsrGraph grid = GraphGenerator.grid(60, 60, 2);
+            DeltaSteppingAlgoShortestPathImpl algo = new DeltaSteppingAlgoShortestPathImpl(single, 3);
+            algo.importGraph(grid);
+            DijkstraAlgoShortestPathImpl dijkstra = new DijkstraAlgoShortestPathImpl();
+            dijkstra.importGraph(grid);
+            assertArrayEquals(dijkstra.computeShortestPaths("1234").getDistances(),
+                    algo.computeShortestPaths("1234").getDistances(), 1e-9);
+        } finally {
+            single.shutdown();
+        }
+    }
+}
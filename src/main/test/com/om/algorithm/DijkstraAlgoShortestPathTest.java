@@ -2,10 +2,59 @@ package com.om.algorithm;
 
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class DijkstraAlgoShortestPathTest {
 
+    @Test
+    public void testReachableWithinBudget() {
+        DijkstraAlgoShortestPathImpl algo = new DijkstraAlgoShortestPathImpl();
+        CsrGraph grid = GraphGenerator.grid(30, 30, 3);
+        algo.importGraph(grid);
+        double[] all = algo.computeShortestPaths("465").getDistances();
+        double budget = 10;
+
+        Map<String, Double> reached = new HashMap<>();
+        double[] last = {0};
+        int count = algo.findReachable("465", budget, (node, distance) -> {
+            assertTrue(distance >= last[0], "not in distance order");
+            last[0] = distance;
+            assertNull(reached.put(node, distance), "reported twice: " + node);
+        });
+        assertEquals(reached.size(), count);
+        for (int u = 0; u < all.length; u++) {
+            if (all[u] <= budget) {
+                assertEquals(all[u], reached.get(grid.nameOf(u)), 1e-9);
+            } else {
+                assertFalse(reached.containsKey(grid.nameOf(u)));
+            }
+        }
+        assertEquals(1, algo.findReachable("465", 0, (node, distance) -> assertEquals("465", node)));
+        assertThrows(IllegalArgumentException.class, () -> algo.findReachable("465", -1, (node, distance) -> { }));
+        assertThrows(IllegalArgumentException.class, () -> algo.findReachable("missing", 1, (node, distance) -> { }));
+    }
+
+    @Test
+    public void testReachableFromSeveralSources() {
+        DijkstraAlgoShortestPathImpl algo = new DijkstraAlgoShortestPathImpl();
+        algo.addEdge("A", "B", 2);
+        algo.addEdge("B", "C", 2);
+        algo.addEdge("C", "D", 2);
+        algo.addEdge("D", "E", 2);
+        algo.addEdge("E", "F", 5);
+
+        Map<String, Double> reached = new LinkedHashMap<>();
+        int count = algo.findReachable(List.of("A", "E", "A"), 2, reached::put);
+        assertEquals(4, count);
+        assertEquals(Map.of("A", 0.0, "E", 0.0, "B", 2.0, "D", 2.0), reached);
+    }
+
     private void setupGraph(IAlgoShortestPath algo) {
         algo.addNode("A", 0, 0);
         algo.addNode("B", 1, 0);
@@ -103,4 +152,103 @@ public class DijkstraAlgoShortestPathTest {
             algo.findShortestPath("A", "B");
         });
     }
-} 
\ No newline at end of file
+
+    @Test
+    public void testMatchesBellmanFordOnRandomGraph() {
+        Random random = new Random(42);
+        IAlgoShortestPath binary = new DijkstraAlgoShortestPathImpl(2);
+        IAlgoShortestPath octal = new DijkstraAlgoShortestPathImpl(8);
+        IAlgoShortestPath reference = new BellmanFordAlgoShortestPathImpl();
+        for (int i = 0; i < 60; i++) {
+            for (IAlgoShortestPath algo : List.of(binary, octal, reference)) {
+                algo.addNode("N" + i, i, 0);
+            }
+        }
+        for (int i = 0; i < 200; i++) {
+            String from = "N" + random.nextInt(60);
+            String to = "N" + random.nextInt(60);
+            double weight = 1 + random.nextInt(20);
+            binary.addEdge(from, to, weight);
+            octal.addEdge(from, to, weight);
+            reference.addEdge(from, to, weight); // Bellman-Ford is directed
+            reference.addEdge(to, from, weight);
+        }
+
+        for (int i = 0; i < 60; i += 7) {
+            for (int j = 0; j < 60; j += 5) {
+                double expected = reference.findShortestPath("N" + i, "N" + j).getTotalWeight();
+                assertEquals(expected, binary.findShortestPath("N" + i, "N" + j).getTotalWeight(), 1e-9);
+                assertEquals(expected, octal.findShortestPath("N" + i, "N" + j).getTotalWeight(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testRepeatedQueriesWhileGraphGrows() {
+        IAlgoShortestPath algo = new DijkstraAlgoShortestPathImpl();
+        setupGraph(algo);
+        assertEquals(3.0, algo.findShortestPath("A", "C").getTotalWeight(), 0.01);
+
+        // Grow well past the size the pooled search state was created for
+        for (int i = 0; i < 1000; i++) {
+            algo.addEdge(i == 0 ? "C" : "X" + (i - 1), "X" + i, 1);
+        }
+        assertEquals(1003.0, algo.findShortestPath("A", "X999").getTotalWeight(), 0.01);
+        assertEquals(List.of("A", "B", "C"), algo.findShortestPath("A", "C").getPath());
+        assertEquals(List.of("D", "C"), algo.findShortestPath("D", "C").getPath());
+    }
+
+    @Test
+    public void testSnapshotModeHidesChangesUntilPublish() {
+        DijkstraAlgoShortestPathImpl algo = new DijkstraAlgoShortestPathImpl();
+        setupGraph(algo);
+        algo.setSnapshotMode(true);
+        algo.publish();
+
+        algo.addEdge("A", "C", 1);
+        algo.removeNode("B");
+        assertEquals(List.of("A", "B", "C"), algo.findShortestPath("A", "C").getPath());
+
+        algo.publish();
+        assertEquals(List.of("A", "C"), algo.findShortestPath("A", "C").getPath());
+        assertThrows(IllegalArgumentException.class, () -> algo.findShortestPath("A", "B"));
+    }
+
+    @Test
+    public void testQueriesRunWhileAnotherThreadPublishes() throws Exception {
+        DijkstraAlgoShortestPathImpl algo = new DijkstraAlgoShortestPathImpl();
+        algo.setSnapshotMode(true);
+        int length = 200;
+        for (int i = 0; i < length; i++) {
+            algo.addEdge("N" + i, "N" + (i + 1), 1);
+        }
+        algo.publish();
+
+        // The writer toggles a shortcut on and off; every reader must see one of the two versions
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        ExecutorService readers = Executors.newFixedThreadPool(3);
+        for (int r = 0; r < 3; r++) {
+            readers.execute(() -> {
+                try {
+                    for (int q = 0; q < 300; q++) {
+                        double weight = algo.findShortestPath("N0", "N" + length).getTotalWeight();
+                        if (weight != length && weight != 1.0) {
+                            throw new AssertionError("Inconsistent distance: " + weight);
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+        }
+        for (int round = 0; round < 300; round++) {
+            algo.addEdge("N0", "N" + length, 1);
+            algo.publish();
+            algo.removeEdge("N0", "N" + length);
+            algo.publish();
+        }
+        readers.shutdown();
+        assertTrue(readers.awaitTermination(1, TimeUnit.MINUTES));
+        assertNull(failure.get());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.om.algorithm;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class DistanceMatrixTest {
+
+    @Test
+    public void testMatrixMatchesPointToPointQueries() {
+        Random random = new Random(17);
+        DijkstraAlgoShortestPathImpl algo = new DijkstraAlgoShortestPathImpl();
+        for (int i = 0; i < 500; i++) {
+            algo.addEdge("N" + random.nextInt(150), "N" + random.nextInt(150), 1 + random.nextInt(40));
+        }
+        algo.addEdge("X", "Y", 1); // separate component
+        List<String> sources = new ArrayList<>();
+        List<String> targets = new ArrayList<>(List.of("X"));
+        for (int i = 0; i < 150; i += 4) {
+            sources.add("N" + i);
+            targets.add("N" + (149 - i));
+        }
+        targets.add(targets.get(1)); // duplicate target
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        DistanceMatrix matrix = algo.computeDistanceMatrix(sources, targets, pool);
+        pool.shutdown();
+
+        for (int i = 0; i < sources.size(); i++) {
+            for (int j = 0; j < targets.size(); j++) {
+                PathResult expected = algo.findShortestPath(sources.get(i), targets.get(j));
+                assertEquals(expected.getTotalWeight(), matrix.getDistance(i, j), 1e-9);
+                assertEquals(expected.getTotalWeight(), matrix.getPath(i, j).getTotalWeight(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testUnknownNode() {
+        DijkstraAlgoShortestPathImpl algo = new DijkstraAlgoShortestPathImpl();
+        algo.addEdge("A", "B", 1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> algo.computeDistanceMatrix(List.of("A"), List.of("Z")));
+    }
+
+    @Test
+    public void testPathOnDemand() {
+        DijkstraAlgoShortestPathImpl algo = new DijkstraAlgoShortestPathImpl();
+        algo.addEdge("A", "B", 1);
+        algo.addEdge("B", "C", 2);
+        algo.addEdge("A", "C", 5);
+
+        DistanceMatrix matrix = algo.computeDistanceMatrix(List.of("A", "C"), List.of("A", "C"));
+
+        assertEquals(0.0, matrix.getDistance(0, 0), 0.0);
+        assertEquals(3.0, matrix.getDistance(0, 1), 0.0);
+        assertEquals(3.0, matrix.getDistance(1, 0), 0.0);
+        assertEquals(List.of("C", "B", "A"), matrix.getPath(1, 0).getPath());
+    }
+}
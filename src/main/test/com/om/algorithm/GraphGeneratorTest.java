@@ -0,0 +1,70 @@
+package com.om.algorithm;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphGeneratorTest {
+
+    @Test
+    public void testSameSeedGivesSameGraph() {
+        assertSameGraph(GraphGenerator.roadLike(2000, 1), GraphGenerator.roadLike(2000, 1));
+        assertSameGraph(GraphGenerator.scaleFree(2000, 3, 1), GraphGenerator.scaleFree(2000, 3, 1));
+        assertSameGraph(GraphGenerator.randomGeometric(2000, 6, 1), GraphGenerator.randomGeometric(2000, 6, 1));
+        assertNotEquals(totalWeight(GraphGenerator.grid(40, 50, 1)), totalWeight(GraphGenerator.grid(40, 50, 2)));
+    }
+
+    @Test
+    public void testShapes() {
+        CsrGraph grid = GraphGenerator.grid(40, 50, 1);
+        assertEquals(2000, grid.nodeCount());
+        assertEquals(39 * 50 + 40 * 49, grid.edgeCount());
+
+        CsrGraph scaleFree = GraphGenerator.scaleFree(2000, 3, 1);
+        assertEquals(3 * 2000 - 6, scaleFree.edgeCount());
+        int maxDegree = 0;
+        CsrGraph undirected = scaleFree.reverse();
+        for (int u = 0; u < 2000; u++) {
+            maxDegree = Math.max(maxDegree, scaleFree.degree(u) + undirected.degree(u));
+        }
+        assertTrue(maxDegree > 50, "hubs expected, max degree " + maxDegree);
+
+        CsrGraph geometric = GraphGenerator.randomGeometric(20000, 6, 1);
+        double averageDegree = 2.0 * geometric.edgeCount() / geometric.nodeCount();
+        assertEquals(6.0, averageDegree, 0.5);
+    }
+
+    @Test
+    public void testWeightsKeepEuclideanHeuristicAdmissible() {
+        CsrGraph road = GraphGenerator.roadLike(5000, 3);
+        for (int u = 0; u < road.nodeCount(); u++) {
+            for (int i = 0; i < road.degree(u); i++) {
+                int v = road.target(u, i);
+                double distance = Math.hypot(road.x(u) - road.x(v), road.y(u) - road.y(v));
+                assertTrue(road.weight(u, i) >= distance - 1e-12);
+            }
+        }
+    }
+
+    private static double totalWeight(CsrGraph graph) {
+        double total = 0;
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            for (int i = 0; i < graph.degree(u); i++) {
+                total += graph.weight(u, i);
+            }
+        }
+        return total;
+    }
+
+    private static void assertSameGraph(CsrGraph expected, CsrGraph actual) {
+        assertEquals(expected.nodeCount(), actual.nodeCount());
+        assertEquals(expected.edgeCount(), actual.edgeCount());
+        for (int u = 0; u < expected.nodeCount(); u++) {
+            assertEquals(expected.x(u), actual.x(u), 0.0);
+            assertEquals(expected.degree(u), actual.degree(u));
+            for (int i = 0; i < expected.degree(u); i++) {
+                assertEquals(expected.target(u, i), actual.target(u, i));
+                assertEquals(expected.weight(u, i), actual.weight(u, i), 0.0);
+            }
+        }
+    }
+}
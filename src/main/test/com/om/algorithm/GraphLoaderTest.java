@@ -0,0 +1,87 @@
+package com.om.algorithm;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class GraphLoaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testDimacsFilesAcrossManySmallChunks() throws IOException {
+        Random random = new Random(7);
+        StringBuilder arcs = new StringBuilder("c random graph\np sp 50 400\n");
+        IAlgoShortestPath expected = new BellmanFordAlgoShortestPathImpl();
+        for (int i = 0; i < 400; i++) {
+            int from = 1 + random.nextInt(50);
+            int to = 1 + random.nextInt(50);
+            int weight = random.nextInt(100);
+            arcs.append("a ").append(from).append(' ').append(to).append(' ').append(weight).append("\r\n");
+            expected.addEdge(String.valueOf(from), String.valueOf(to), weight);
+        }
+        Path graphFile = directory.resolve("random.gr");
+        Path coordinateFile = directory.resolve("random.co");
+        Files.writeString(graphFile, arcs);
+        Files.writeString(coordinateFile, "p aux sp co 50\nv 1 -73530767 41085396\nv 50 -73.5 41.2\n");
+
+        AtomicLong parsed = new AtomicLong();
+        GraphLoader loader = new GraphLoader(new ForkJoinPool(3), 64,
+                (file, bytes, total, records, nanos) -> {
+                    if (file.equals(graphFile)) {
+                        parsed.set(bytes);
+                    }
+                });
+        CsrGraph graph = loader.loadDimacs(graphFile, coordinateFile);
+
+        assertEquals(Files.size(graphFile), parsed.get());
+        assertEquals(50, graph.nodeCount());
+        assertEquals(400, graph.edgeCount());
+        assertEquals(-73530767.0, graph.x(graph.indexOf("1")), 0.0);
+        assertEquals(41.2, graph.y(graph.indexOf("50")), 0.0);
+
+        BellmanFordAlgoShortestPathImpl algo = new BellmanFordAlgoShortestPathImpl();
+        algo.importGraph(graph);
+        for (int i = 0; i < 30; i++) {
+            String start = String.valueOf(1 + random.nextInt(50));
+            String end = String.valueOf(1 + random.nextInt(50));
+            if (graph.degree(graph.indexOf(start)) == 0) {
+                continue;
+            }
+            assertEquals(expected.findShortestPath(start, end).getTotalWeight(),
+                    algo.findShortestPath(start, end).getTotalWeight(), 0.0);
+        }
+    }
+
+    @Test
+    public void testCsvWithHeaderIntoUndirectedImplementation() throws IOException {
+        Path file = directory.resolve("edges.csv");
+        Files.writeString(file, "from,to,weight\nA, B ,1.5\n# closed road\n\nB,C,2\nA,C,4\n");
+
+        CsrGraph graph = new GraphLoader().loadCsv(file);
+        assertEquals(3, graph.edgeCount());
+        assertEquals(0, graph.indexOf("A"));
+
+        IAlgoShortestPath algo = new DijkstraAlgoShortestPathImpl();
+        ((AbstractAlgoShortestPath) algo).importGraph(graph);
+        PathResult result = algo.findShortestPath("C", "A");
+        assertEquals(List.of("C", "B", "A"), result.getPath());
+        assertEquals(3.5, result.getTotalWeight(), 0.0);
+    }
+
+    @Test
+    public void testMalformedLineNamesItsPosition() throws IOException {
+        Path file = directory.resolve("broken.gr");
+        Files.writeString(file, "p sp 2 1\na 1 2 x\n");
+        IOException error = assertThrows(IOException.class, () -> new GraphLoader().loadDimacs(file));
+        assertTrue(error.getMessage().contains("byte 9"));
+    }
+}
@@ -0,0 +1,175 @@
+package com.om.algorithm;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class GraphStoreTest {
+
+    @Test
+    public void testCompactBuildsCsrAdjacency() {
+        GraphStore store = new GraphStore();
+        store.addNode("A", 0, 0);
+        store.addEdge("A", "B", 1);
+        store.addEdge("A", "C", 2);
+        store.addEdge("B", "C", 3);
+
+        CsrGraph csr = store.compact();
+        int a = csr.indexOf("A");
+
+        assertEquals(3, csr.edgeCount());
+        assertEquals(2, csr.degree(a));
+        assertEquals("B", csr.nameOf(csr.target(a, 0)));
+        assertEquals(2.0, csr.weight(a, 1), 0.0);
+        assertEquals(0.0, csr.x(a), 0.0);
+        assertTrue(Double.isNaN(csr.x(csr.indexOf("B"))));
+        assertSame(csr, store.compact());
+    }
+
+    @Test
+    public void testRemoveNodeDropsIncomingEdgesAndKeepsId() {
+        GraphStore store = new GraphStore();
+        store.addEdge("A", "B", 1);
+        store.addEdge("C", "B", 1);
+        int b = store.indexOf("B");
+
+        assertTrue(store.removeNode("B"));
+        assertEquals(0, store.edgeCount());
+        assertEquals(-1, store.compact().indexOf("B"));
+        assertNotEquals(b, store.addNode("D"));
+        assertEquals(b, store.addNode("B"));
+        assertEquals(0, store.compact().degree(b));
+    }
+
+    @Test
+    public void testPublishedSnapshotIsUnaffectedByLaterWrites() {
+        GraphStore store = new GraphStore();
+        store.setAutoPublish(false);
+        store.addEdge("A", "B", 1);
+        GraphSnapshot first = store.publish();
+
+        store.addEdge("A", "C", 2);
+        store.removeEdge("A", "B");
+        store.removeNode("B");
+        assertSame(first, store.snapshot());
+
+        GraphSnapshot second = store.publish();
+        int a = first.indexOf("A");
+        assertEquals(first.version() + 1, second.version());
+        assertEquals(1, first.degree(a));
+        assertEquals("B", first.nameOf(first.target(a, 0)));
+        assertEquals(1, second.degree(a));
+        assertEquals("C", second.nameOf(second.target(a, 0)));
+        assertEquals(-1, second.indexOf("B"));
+        assertEquals(-1, first.indexOf("C"));
+        assertEquals(-1, first.compact().indexOf("C"));
+    }
+
+    @Test
+    public void testReverseFlipsEdges() {
+        GraphStore store = new GraphStore();
+        store.addEdge("A", "B", 4);
+
+        CsrGraph reverse = store.compact().reverse();
+        int b = reverse.indexOf("B");
+
+        assertEquals(1, reverse.degree(b));
+        assertEquals("A", reverse.nameOf(reverse.target(b, 0)));
+        assertEquals(4.0, reverse.weight(b, 0), 0.0);
+    }
+
+    @Test
+    public void testIncomingEdgesAreIndexed() {
+        GraphStore store = new GraphStore();
+        store.addEdge("A", "C", 1);
+        store.addEdge("B", "C", 1);
+        store.addEdge("B", "C", 2);
+        GraphSnapshot snapshot = store.snapshot();
+        int c = snapshot.indexOf("C");
+        assertEquals(3, snapshot.inDegree(c));
+
+        store.removeEdge("B", "C");
+        snapshot = store.snapshot();
+        assertEquals(1, snapshot.inDegree(c));
+        assertEquals("A", snapshot.nameOf(snapshot.source(c, 0)));
+
+        store.removeNode("A");
+        assertEquals(0, store.snapshot().inDegree(c));
+        assertEquals(0, store.edgeCount());
+    }
+
+    @Test
+    public void testBulkRemovalMatchesSingleRemovals() {
+        Random random = new Random(3);
+        GraphStore bulk = new GraphStore();
+        GraphStore single = new GraphStore();
+        for (int i = 0; i < 2000; i++) {
+            String u = "N" + random.nextInt(300);
+            String v = "N" + random.nextInt(300);
+            bulk.addEdge(u, v, i);
+            single.addEdge(u, v, i);
+        }
+        List<String> closed = new ArrayList<>();
+        for (int i = 0; i < 300; i += 3) {
+            closed.add("N" + i);
+        }
+        closed.add("missing");
+
+        assertEquals(100, bulk.removeNodes(closed));
+        for (String node : closed) {
+            single.removeNode(node);
+        }
+
+        CsrGraph expected = single.compact();
+        CsrGraph actual = bulk.compact();
+        assertEquals(expected.edgeCount(), actual.edgeCount());
+        assertEquals(single.edgeCount(), bulk.edgeCount());
+        for (int u = 0; u < expected.nodeCount(); u++) {
+            assertEquals(expected.nameOf(u), actual.nameOf(u));
+            assertEquals(expected.degree(u), actual.degree(u));
+            for (int i = 0; i < expected.degree(u); i++) {
+                assertEquals(expected.target(u, i), actual.target(u, i));
+                assertEquals(expected.weight(u, i), actual.weight(u, i), 0.0);
+            }
+            assertEquals(bulk.snapshot().inDegree(u), single.snapshot().inDegree(u));
+        }
+    }
+
+    @Test
+    public void testBatchEdgeRemovalMatchesSingleRemovals() {
+        Random random = new Random(4);
+        GraphStore bulk = new GraphStore();
+        GraphStore single = new GraphStore();
+        for (int i = 0; i < 2000; i++) {
+            String u = "N" + random.nextInt(200);
+            String v = "N" + random.nextInt(200);
+            bulk.addEdge(u, v, i);
+            single.addEdge(u, v, i);
+        }
+        List<Edge> closed = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            closed.add(new Edge("N" + random.nextInt(200), "N" + random.nextInt(200), 0)); // some twice, some absent
+        }
+        closed.add(new Edge("N1", "missing", 0));
+
+        bulk.removeEdges(closed, true);
+        for (Edge edge : closed) {
+            single.removeEdge(edge.getFromNode(), edge.getToNode());
+            single.removeEdge(edge.getToNode(), edge.getFromNode());
+        }
+
+        GraphSnapshot expected = single.snapshot();
+        GraphSnapshot actual = bulk.snapshot();
+        assertEquals(expected.edgeCount(), actual.edgeCount());
+        for (int u = 0; u < expected.nodeCount(); u++) {
+            assertEquals(expected.degree(u), actual.degree(u));
+            for (int i = 0; i < expected.degree(u); i++) {
+                assertEquals(expected.target(u, i), actual.target(u, i));
+                assertEquals(expected.weight(u, i), actual.weight(u, i), 0.0);
+            }
+            assertEquals(expected.inDegree(u), actual.inDegree(u));
+        }
+    }
+}
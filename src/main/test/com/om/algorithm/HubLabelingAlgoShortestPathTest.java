@@ -0,0 +1,95 @@
+package com.om.algorithm;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class HubLabelingAlgoShortestPathTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testLabelsMatchDijkstra() {
+        CsrGraph graph = GraphGenerator.roadLike(1_500, 6);
+        DijkstraAlgoShortestPathImpl reference = new DijkstraAlgoShortestPathImpl();
+        reference.importGraph(graph);
+        for (HubLabels.Order order : HubLabels.Order.values()) {
+            HubLabelingAlgoShortestPathImpl algo = new HubLabelingAlgoShortestPathImpl(order, true, ForkJoinPool.commonPool());
+            algo.importGraph(graph);
+            HubLabels labels = algo.rebuild();
+            assertTrue(algo.isUpToDate());
+            assertTrue(labels.entryCount() < 1_500L * 1_500L / 4, order + ": " + labels.entryCount()); // pruning works
+            CsrGraph view = algo.snapshot().compact();
+            Random random = new Random(5);
+            for (int q = 0; q < 100; q++) {
+                String start = Integer.toString(random.nextInt(1_500));
+                String end = q == 0 ? start : Integer.toString(random.nextInt(1_500));
+                double expected = reference.findShortestDistance(start, end);
+                assertEquals(expected, algo.findShortestDistance(start, end), 1e-9, order + " " + start + " -> " + end);
+                PathResult path = algo.findShortestPath(start, end);
+                assertEquals(expected, path.getTotalWeight(), 1e-9);
+                assertEquals(start, path.getNode(0));
+                assertEquals(end, path.getNode(path.getNodeCount() - 1));
+                assertEquals(expected, TestPaths.weightOf(view, path.getPath()), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testDirectedLabelsOnSeveralWorkers() {
+        CsrGraph graph = GraphGenerator.randomGeometric(800, 6, 2); // one arc per pair, so directed
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            HubLabels labels = HubLabels.build(graph, HubLabels.Order.DEGREE, true, pool);
+            Random random = new Random(8);
+            for (int q = 0; q < 200; q++) {
+                int start = random.nextInt(800);
+                int end = random.nextInt(800);
+                double expected = DijkstraAlgoShortestPathImpl.shortestDistance(graph, start, end, IndexedDaryHeap.DEFAULT_ARITY);
+                assertEquals(expected, labels.findShortestDistance(start, end), 1e-9, start + " -> " + end);
+                PathResult path = labels.findShortestPath(start, end);
+                assertEquals(expected, path.getTotalWeight(), 1e-9);
+                if (expected < Double.POSITIVE_INFINITY) {
+                    assertEquals(expected, TestPaths.weightOf(graph, path.getPath()), 1e-9);
+                } else {
+                    assertTrue(path.getPath().isEmpty());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testSavedLabelsAreReusedAndRebuiltAfterChanges() throws Exception {
+        HubLabelingAlgoShortestPathImpl original = new HubLabelingAlgoShortestPathImpl(HubLabels.Order.DEGREE, false,
+                ForkJoinPool.commonPool());
+        original.importGraph(GraphGenerator.grid(12, 12, 3));
+        assertFalse(original.findShortestPath("0", "143").getPath().isEmpty());
+        assertFalse(original.isUpToDate()); // paths alone never build labels without paths
+        Path file = dir.resolve("grid.graph");
+        original.save(file);
+
+        HubLabelingAlgoShortestPathImpl served = new HubLabelingAlgoShortestPathImpl();
+        served.attach(MappedGraph.open(file));
+        assertTrue(served.isUpToDate()); // nothing to build
+        assertFalse(served.rebuild().hasPaths());
+        assertEquals(original.findShortestDistance("0", "143"), served.findShortestDistance("0", "143"), 0.0);
+        PathResult path = served.findShortestPath("0", "143"); // found by a search instead
+        assertEquals(original.findShortestDistance("0", "143"), path.getTotalWeight(), 1e-9);
+        assertEquals(List.of("5"), served.findShortestPath("5", "5").getPath());
+
+        served.removeNode("1");
+        served.removeNode("12");
+        assertFalse(served.isUpToDate());
+        assertEquals(Double.POSITIVE_INFINITY, served.findShortestDistance("0", "143"));
+        assertTrue(served.isUpToDate());
+        assertTrue(served.rebuild().hasPaths());
+        assertThrows(IllegalArgumentException.class, () -> served.findShortestDistance("0", "missing"));
+    }
+}
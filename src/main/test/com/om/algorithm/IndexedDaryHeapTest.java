@@ -0,0 +1,51 @@
+package com.om.algorithm;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Random;
+
+public class IndexedDaryHeapTest {
+
+    @Test
+    public void testPollsInKeyOrderWithDecreaseKey() {
+        for (int arity = 2; arity <= 8; arity++) {
+            Random random = new Random(arity);
+            int n = 500;
+            IndexedDaryHeap heap = new IndexedDaryHeap(n, arity);
+            double[] best = new double[n];
+            for (int i = 0; i < 3 * n; i++) {
+                int node = random.nextInt(n);
+                double key = random.nextDouble() * 100;
+                if (!heap.contains(node) || key < best[node]) {
+                    best[node] = key;
+                }
+                heap.push(node, key);
+            }
+            assertTrue(heap.size() <= n);
+
+            double previous = Double.NEGATIVE_INFINITY;
+            while (!heap.isEmpty()) {
+                double key = heap.peekKey();
+                int node = heap.poll();
+                assertEquals(best[node], key, 0.0);
+                assertTrue(key >= previous);
+                assertTrue(heap.isSettled(node));
+                previous = key;
+            }
+        }
+    }
+
+    @Test
+    public void testPushIgnoresLargerKey() {
+        IndexedDaryHeap heap = new IndexedDaryHeap(4);
+        assertTrue(heap.push(1, 5.0));
+        assertFalse(heap.push(1, 7.0));
+        assertEquals(5.0, heap.keyOf(1), 0.0);
+        assertEquals(1, heap.size());
+    }
+
+    @Test
+    public void testInvalidArity() {
+        assertThrows(IllegalArgumentException.class, () -> new IndexedDaryHeap(4, 1));
+    }
+}
@@ -0,0 +1,108 @@
+package com.om.algorithm;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class InstrumentedAlgoShortestPathTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testStatsDescribeTheSearch() {
+        DijkstraAlgoShortestPathImpl dijkstra = new DijkstraAlgoShortestPathImpl();
+        dijkstra.importGraph(GraphGenerator.grid(30, 30, 5));
+        InstrumentedAlgoShortestPath algo = new InstrumentedAlgoShortestPath(dijkstra);
+        List<SearchStats> seen = new ArrayList<>();
+        algo.addListener((stats, result) -> seen.add(stats));
+
+        MeasuredPathResult result = algo.findShortestPathWithStats("0", "899");
+        SearchStats stats = result.getStats();
+        assertEquals(dijkstra.findShortestPath("0", "899").getTotalWeight(), result.getTotalWeight(), 0.0);
+        assertEquals("DijkstraAlgoShortestPathImpl", stats.getAlgorithm());
+        assertTrue(stats.getSettled() > 0 && stats.getSettled() <= 900);
+        assertEquals(stats.getSettled(), stats.getPops());
+        assertTrue(stats.getRelaxed() >= 2 * (stats.getSettled() - 1)); // every grid node has 2 to 4 edges
+        assertTrue(stats.getPushes() >= stats.getPops());
+        assertEquals(0, stats.getStalePops());
+        assertTrue(stats.getWallNanos() > 0);
+        assertEquals(List.of(stats), seen);
+
+        // A neighbour query settles far fewer nodes
+        SearchStats near = ((MeasuredPathResult) algo.findShortestPath("0", "1")).getStats();
+        assertTrue(near.getSettled() < stats.getSettled());
+        assertEquals(2, algo.getSettledHistogram().getCount());
+
+        algo.setEnabled(false);
+        assertFalse(algo.findShortestPath("0", "1") instanceof MeasuredPathResult);
+        assertEquals(2, algo.getWallNanosHistogram().getCount());
+    }
+
+    @Test
+    public void testBatchQueriesAreMeasuredAsOneSearch() {
+        DijkstraAlgoShortestPathImpl dijkstra = new DijkstraAlgoShortestPathImpl();
+        dijkstra.importGraph(GraphGenerator.grid(30, 30, 5));
+        InstrumentedAlgoShortestPath algo = new InstrumentedAlgoShortestPath(dijkstra);
+
+        List<PathResult> results = algo.findShortestPaths("0", List.of("1", "899"));
+
+        assertEquals(dijkstra.findShortestPath("0", "899").getTotalWeight(), results.get(1).getTotalWeight(), 0.0);
+        assertEquals(1, algo.getSettledHistogram().getCount());
+        assertTrue(algo.getSettledHistogram().getMax() <= 900);
+    }
+
+    @Test
+    public void testBellmanFordCountsQueueWork() {
+        InstrumentedAlgoShortestPath algo = new InstrumentedAlgoShortestPath(new BellmanFordAlgoShortestPathImpl());
+        algo.addEdge("A", "B", 4);
+        algo.addEdge("A", "C", 1);
+        algo.addEdge("C", "B", -2);
+        SearchStats stats = algo.findShortestPathWithStats("A", "B").getStats();
+        assertEquals(stats.getPushes(), stats.getPops());
+        assertTrue(stats.getRelaxed() >= 3);
+    }
+
+    @Test
+    public void testHistogramPercentilesWithinBucketError() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 100_000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000, histogram.getMax());
+        assertEquals(50_000.5, histogram.getMean(), 1e-9);
+        assertEquals(50_000, histogram.getValueAtPercentile(50), 50_000 * 0.04);
+        assertEquals(99_000, histogram.getValueAtPercentile(99), 99_000 * 0.04);
+        assertEquals(1, histogram.getValueAtPercentile(0));
+        for (long value : new long[]{0, 31, 32, 33, 1000, Long.MAX_VALUE}) {
+            int bucket = Histogram.bucketOf(value);
+            assertTrue(value <= Histogram.highestValueIn(bucket));
+            assertTrue(bucket == 0 || value > Histogram.highestValueIn(bucket - 1));
+        }
+    }
+
+    @Test
+    public void testQueriesEmitJfrEvents() throws Exception {
+        InstrumentedAlgoShortestPath algo = new InstrumentedAlgoShortestPath(new AStarAlgoShortestPathImpl());
+        algo.addEdge("A", "B", 1);
+        Path file = directory.resolve("queries.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.om.algorithm.ShortestPathQuery");
+            recording.start();
+            algo.findShortestPath("A", "B");
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertEquals(1, events.size());
+        assertEquals("B", events.get(0).getString("endNode"));
+        assertEquals(2, events.get(0).getLong("settled"));
+    }
+}
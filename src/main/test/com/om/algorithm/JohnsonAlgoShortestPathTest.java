@@ -0,0 +1,89 @@
+package com.om.algorithm;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class JohnsonAlgoShortestPathTest {
+
+    @Test
+    public void testNegativeWeights() {
+        IAlgoShortestPath algo = new JohnsonAlgoShortestPathImpl();
+        algo.addEdge("A", "B", 4);
+        algo.addEdge("B", "C", -2);
+        algo.addEdge("A", "C", 3);
+        algo.addEdge("C", "D", -1);
+
+        PathResult result = algo.findShortestPath("A", "D");
+
+        assertEquals(1.0, result.getTotalWeight(), 0.0);
+        assertEquals(List.of("A", "B", "C", "D"), result.getPath());
+        // Lazy on the original weights, not the reduced ones the search used
+        assertEquals(-2.0, ((CompactPathResult) result).getEdges().get(1).getWeight(), 0.0);
+        assertTrue(algo.findShortestPath("D", "A").getPath().isEmpty());
+    }
+
+    @Test
+    public void testPotentialsFollowMutations() {
+        JohnsonAlgoShortestPathImpl algo = new JohnsonAlgoShortestPathImpl();
+        algo.addEdge("A", "B", 2);
+        algo.addEdge("B", "C", 2);
+        assertEquals(4.0, algo.findShortestPath("A", "C").getTotalWeight(), 0.0);
+        assertTrue(algo.isUpToDate());
+
+        algo.addEdge("A", "C", -5);
+        assertFalse(algo.isUpToDate());
+        assertEquals(-5.0, algo.findShortestPath("A", "C").getTotalWeight(), 0.0);
+
+        algo.addEdge("C", "D", 1);
+        algo.addEdge("D", "A", 2);
+        assertThrows(NegativeCycleException.class, () -> algo.findShortestPath("A", "B"));
+
+        algo.removeNode("D");
+        algo.refreshPotentials();
+        assertTrue(algo.isUpToDate());
+        assertEquals(-5.0, algo.findShortestPath("A", "C").getTotalWeight(), 0.0);
+    }
+
+    @Test
+    public void testMatchesBellmanFordOnRandomGraph() {
+        // Weights p(v) - p(u) + c with c >= 0 can be negative but never form a negative cycle
+        Random random = new Random(21);
+        JohnsonAlgoShortestPathImpl algo = new JohnsonAlgoShortestPathImpl();
+        IAlgoShortestPath reference = new BellmanFordAlgoShortestPathImpl();
+        int n = 200;
+        int[] p = new int[n];
+        for (int v = 0; v < n; v++) {
+            p[v] = random.nextInt(50);
+            algo.addNode("N" + v, 0, 0);
+            reference.addNode("N" + v, 0, 0);
+        }
+        for (int e = 0; e < 1200; e++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            double weight = p[v] - p[u] + random.nextInt(20);
+            algo.addEdge("N" + u, "N" + v, weight);
+            reference.addEdge("N" + u, "N" + v, weight);
+        }
+        for (int q = 0; q < 60; q++) {
+            String start = "N" + random.nextInt(n);
+            String end = "N" + random.nextInt(n);
+            assertEquals(reference.findShortestPath(start, end).getTotalWeight(),
+                    algo.findShortestPath(start, end).getTotalWeight(), 1e-9);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        DistanceMatrix all = algo.computeAllPairs(pool);
+        pool.shutdown();
+        List<String> nodes = all.getSources();
+        for (int i = 0; i < nodes.size(); i += 7) {
+            for (int j = 0; j < nodes.size(); j += 5) {
+                double expected = reference.findShortestPath(nodes.get(i), nodes.get(j)).getTotalWeight();
+                assertEquals(expected, all.getDistance(i, j), 1e-9);
+                assertEquals(expected, all.getPath(i, j).getTotalWeight(), 1e-9);
+            }
+        }
+    }
+}
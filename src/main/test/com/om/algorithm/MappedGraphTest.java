@@ -0,0 +1,165 @@
+package com.om.algorithm;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class MappedGraphTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testRoundTripKeepsIdsNamesAndEdges() throws IOException {
+        GraphStore store = new GraphStore();
+        store.addNode("A", 1.5, 2.5);
+        store.addEdge("A", "B", 1);
+        store.addEdge("A", "Zürich", 2);
+        store.addEdge("B", "C", 3);
+        store.removeNode("C");
+        CsrGraph csr = store.compact();
+
+        Path file = directory.resolve("graph.bin");
+        MappedGraph.write(file, csr);
+        MappedGraph mapped = MappedGraph.open(file);
+
+        assertEquals(csr.nodeCount(), mapped.nodeCount());
+        assertEquals(csr.edgeCount(), mapped.edgeCount());
+        assertEquals(csr.indexOf("Zürich"), mapped.indexOf("Zürich"));
+        assertEquals(-1, mapped.indexOf("C"));
+        assertEquals(-1, mapped.indexOf("missing"));
+        assertNull(mapped.nameOf(mapped.nodeCount() - 1)); // C keeps its id but is gone
+        int a = mapped.indexOf("A");
+        assertEquals(2.5, mapped.y(a), 0.0);
+        assertEquals(2, mapped.degree(a));
+        assertEquals("Zürich", mapped.nameOf(mapped.target(a, 1)));
+        assertEquals(2.0, mapped.weight(a, 1), 0.0);
+        assertEquals(0, mapped.degree(mapped.indexOf("B")));
+    }
+
+    @Test
+    public void testRejectsOtherFiles() throws IOException {
+        Path file = directory.resolve("other.bin");
+        Files.write(file, new byte[64]);
+        assertThrows(IOException.class, () -> MappedGraph.open(file));
+    }
+
+    @Test
+    public void testAttachedGraphAnswersLikeTheOriginal() throws IOException {
+        Random random = new Random(13);
+        IAlgoShortestPath original = new ContractionHierarchiesAlgoShortestPathImpl();
+        for (int i = 0; i < 300; i++) {
+            original.addEdge("N" + random.nextInt(80), "N" + random.nextInt(80), 1 + random.nextInt(20));
+        }
+        Path file = directory.resolve("ch.bin");
+        ((AbstractAlgoShortestPath) original).save(file);
+
+        ContractionHierarchiesAlgoShortestPathImpl algo = new ContractionHierarchiesAlgoShortestPathImpl();
+        MappedGraph mapped = MappedGraph.open(file);
+        assertTrue(mapped.artifactNames().contains(ContractionHierarchiesAlgoShortestPathImpl.ARTIFACT));
+        algo.attach(mapped);
+        assertTrue(algo.isUpToDate()); // hierarchy came from the file
+
+        DijkstraAlgoShortestPathImpl dijkstra = new DijkstraAlgoShortestPathImpl();
+        dijkstra.attach(mapped);
+        for (int i = 0; i < 50; i++) {
+            String start = "N" + random.nextInt(80);
+            String end = "N" + random.nextInt(80);
+            if (mapped.indexOf(start) == -1 || mapped.indexOf(end) == -1) {
+                continue;
+            }
+            double expected = original.findShortestPath(start, end).getTotalWeight();
+            assertEquals(expected, algo.findShortestPath(start, end).getTotalWeight(), 1e-9);
+            assertEquals(expected, dijkstra.findShortestPath(start, end).getTotalWeight(), 1e-9);
+        }
+    }
+
+    @Test
+    public void testMutationMovesAttachedGraphIntoMemory() throws IOException {
+        IAlgoShortestPath source = new DijkstraAlgoShortestPathImpl();
+        source.addEdge("A", "B", 1);
+        source.addEdge("B", "C", 1);
+        Path file = directory.resolve("small.bin");
+        ((AbstractAlgoShortestPath) source).save(file);
+
+        DijkstraAlgoShortestPathImpl algo = new DijkstraAlgoShortestPathImpl();
+        algo.attach(MappedGraph.open(file));
+        assertEquals(List.of("A", "B", "C"), algo.findShortestPath("A", "C").getPath());
+
+        algo.addEdge("A", "C", 1);
+        assertNull(algo.attached());
+        assertEquals(1.0, algo.findShortestPath("A", "C").getTotalWeight(), 0.0);
+        assertEquals(List.of("C", "A"), algo.findShortestPath("C", "A").getPath());
+        assertThrows(IllegalStateException.class, () -> algo.attach(MappedGraph.open(file)));
+    }
+
+    @Test
+    public void testOffHeapStorageAnswersLikeTheHeap() {
+        CsrGraph grid = GraphGenerator.grid(40, 40, 6);
+        DijkstraAlgoShortestPathImpl heap = new DijkstraAlgoShortestPathImpl();
+        heap.importGraph(grid);
+        DijkstraAlgoShortestPathImpl offHeap = new DijkstraAlgoShortestPathImpl(IndexedDaryHeap.DEFAULT_ARITY, GraphStorage.OFF_HEAP);
+        offHeap.importGraph(grid);
+
+        MappedGraph copy = offHeap.attached();
+        assertNotNull(copy);
+        assertNull(copy.file());
+        assertEquals(2 * grid.edgeCount(), copy.edgeCount()); // both directions of every undirected edge
+        assertEquals(grid.x(17), copy.x(copy.indexOf(grid.nameOf(17))), 0.0);
+        Random random = new Random(5);
+        for (int i = 0; i < 50; i++) {
+            String start = Integer.toString(random.nextInt(1600));
+            String end = Integer.toString(random.nextInt(1600));
+            assertEquals(heap.findShortestPath(start, end).getPath(), offHeap.findShortestPath(start, end).getPath());
+        }
+        assertEquals(heap.findNearestNodes(3.2, 7.9, 3), offHeap.findNearestNodes(3.2, 7.9, 3));
+
+        AStarAlgoShortestPathImpl alt = new AStarAlgoShortestPathImpl(4, 8, LandmarkIndex.Selection.AVOID, GraphStorage.OFF_HEAP);
+        alt.importGraph(grid);
+        assertEquals(heap.findShortestDistance("0", "1599"), alt.findShortestDistance("0", "1599"), 1e-9);
+        assertFalse(alt.attached().hasHeapCopy()); // landmarks are built over the direct buffers
+
+        // Read-only: the graph stays in the direct buffers instead of being copied back onto the heap
+        assertThrows(IllegalStateException.class, () -> offHeap.updateEdgeWeight("0", "1", 100));
+        assertThrows(IllegalStateException.class, () -> offHeap.addNode("X", 0, 0));
+        assertThrows(IllegalStateException.class, () -> offHeap.importGraph(grid));
+        assertThrows(IllegalStateException.class, () -> alt.removeEdge("0", "1"));
+        assertSame(copy, offHeap.attached());
+        assertEquals(heap.findShortestPath("0", "1").getTotalWeight(), offHeap.findShortestPath("0", "1").getTotalWeight(), 0.0);
+    }
+
+    @Test
+    public void testEveryStorageConstructorSearchesOffHeap() {
+        CsrGraph grid = GraphGenerator.grid(20, 20, 8);
+        List<AbstractAlgoShortestPath> heap = List.of(
+                new BidirectionalAStarAlgoShortestPathImpl(),
+                new BellmanFordAlgoShortestPathImpl(),
+                new JohnsonAlgoShortestPathImpl(),
+                new ContractionHierarchiesAlgoShortestPathImpl(),
+                new HubLabelingAlgoShortestPathImpl());
+        List<AbstractAlgoShortestPath> offHeap = List.of(
+                new BidirectionalAStarAlgoShortestPathImpl(IndexedDaryHeap.DEFAULT_ARITY, GraphStorage.OFF_HEAP),
+                new BellmanFordAlgoShortestPathImpl(BellmanFordAlgoShortestPathImpl.Strategy.QUEUE,
+                        ForkJoinPool.commonPool(), GraphStorage.OFF_HEAP),
+                new JohnsonAlgoShortestPathImpl(IndexedDaryHeap.DEFAULT_ARITY, GraphStorage.OFF_HEAP),
+                new ContractionHierarchiesAlgoShortestPathImpl(GraphStorage.OFF_HEAP),
+                new HubLabelingAlgoShortestPathImpl(HubLabels.Order.DEGREE, true, ForkJoinPool.commonPool(), GraphStorage.OFF_HEAP));
+        Random random = new Random(8);
+        for (int i = 0; i < heap.size(); i++) {
+            heap.get(i).importGraph(grid);
+            offHeap.get(i).importGraph(grid);
+            assertNotNull(offHeap.get(i).attached());
+            for (int query = 0; query < 20; query++) {
+                String start = Integer.toString(random.nextInt(400));
+                String end = Integer.toString(random.nextInt(400));
+                assertEquals(heap.get(i).findShortestDistance(start, end), offHeap.get(i).findShortestDistance(start, end), 1e-9);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.om.algorithm;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class PartitionedShortestPathTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testRoutesAcrossInProcessShards() throws Exception {
+        DijkstraAlgoShortestPathImpl dijkstra = new DijkstraAlgoShortestPathImpl();
+        dijkstra.importGraph(GraphGenerator.grid(20, 20, 5));
+        dijkstra.addEdge("island", "shore", 1); // a component of its own
+        CsrGraph graph = dijkstra.snapshot().compact();
+        List<CellShard> cells = GraphPartitioner.partition(graph, 6);
+        assertEquals(6, cells.size());
+        assertEquals(402, cells.stream().mapToInt(CellShard::getNodeCount).sum());
+
+        try (PartitionedShortestPath partitioned = new PartitionedShortestPath(new InProcessShardTransport(cells))) {
+            assertEquals(cells.stream().mapToInt(CellShard::getBoundaryCount).sum(), partitioned.getOverlayNodeCount());
+            Random random = new Random(9);
+            for (int q = 0; q < 60; q++) {
+                String start = Integer.toString(random.nextInt(400));
+                String end = q < 5 ? Integer.toString(Integer.parseInt(start) + 1) : Integer.toString(random.nextInt(400));
+                PathResult expected = dijkstra.findShortestPath(start, end);
+                PathResult actual = partitioned.findShortestPath(start, end);
+                assertEquals(expected.getTotalWeight(), actual.getTotalWeight(), 1e-9, start + " -> " + end);
+                assertEquals(expected.getTotalWeight(), partitioned.findShortestDistance(start, end), 1e-9);
+                assertEquals(start, actual.getNode(0));
+                assertEquals(end, actual.getNode(actual.getNodeCount() - 1));
+                assertEquals(actual.getTotalWeight(), TestPaths.weightOf(graph, actual.getPath()), 1e-9);
+            }
+            assertEquals(List.of("7"), partitioned.findShortestPath("7", "7").getPath());
+            assertEquals(Double.POSITIVE_INFINITY, partitioned.findShortestDistance("0", "island"));
+            assertTrue(partitioned.findShortestPath("island", "0").getPath().isEmpty());
+            assertThrows(IllegalArgumentException.class, () -> partitioned.findShortestPath("0", "missing"));
+        }
+    }
+
+    @Test
+    public void testRoutesOverSocketsToSavedCells() throws Exception {
+        DijkstraAlgoShortestPathImpl dijkstra = new DijkstraAlgoShortestPathImpl();
+        dijkstra.importGraph(GraphGenerator.roadLike(1_500, 4));
+        List<CellShard> cells = GraphPartitioner.partition(dijkstra.snapshot().compact(), 4);
+        List<ShardServer> servers = new ArrayList<>();
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        try {
+            for (int i = 0; i < cells.size(); i++) {
+                Path file = dir.resolve("cell" + i + ".graph");
+                cells.get(i).save(file);
+                CellShard shard = CellShard.open(file); // as a worker process would load it
+                assertEquals(cells.get(i).getBoundaryCount(), shard.getBoundaryCount());
+                ShardServer server = new ShardServer(shard, 0);
+                servers.add(server);
+                addresses.add(new InetSocketAddress("127.0.0.1", server.getPort()));
+            }
+            try (PartitionedShortestPath partitioned = new PartitionedShortestPath(new SocketShardTransport(addresses))) {
+                Random random = new Random(2);
+                for (int q = 0; q < 30; q++) {
+                    String start = Integer.toString(random.nextInt(1_500));
+                    String end = Integer.toString(random.nextInt(1_500));
+                    PathResult actual = partitioned.findShortestPath(start, end);
+                    assertEquals(dijkstra.findShortestDistance(start, end), actual.getTotalWeight(), 1e-9, start + " -> " + end);
+                }
+            }
+            for (ShardServer server : servers) {
+                assertEquals(0, server.getFailedConnectionCount());
+            }
+        } finally {
+            for (ShardServer server : servers) {
+                server.close();
+            }
+        }
+    }
+
+    @Test
+    public void testOversizedFramesAreRejectedBeforeAllocation() throws Exception {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        new DataOutputStream(header).writeInt(SocketShardTransport.MAX_FRAME_BYTES + 1);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(header.toByteArray()));
+        IOException error = assertThrows(IOException.class, () -> SocketShardTransport.readFrame(in));
+        assertTrue(error.getMessage().contains("exceeds the limit"));
+    }
+}
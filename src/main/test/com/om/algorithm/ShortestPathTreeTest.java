@@ -0,0 +1,106 @@
+package com.om.algorithm;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class ShortestPathTreeTest {
+
+    @Test
+    public void testUpdateKeepsParallelEdges() {
+        DijkstraAlgoShortestPathImpl algo = new DijkstraAlgoShortestPathImpl();
+        algo.addEdge("A", "B", 5);
+        algo.addEdge("A", "B", 7);
+        algo.addEdge("B", "C", 1);
+        algo.updateEdgeWeight("A", "B", 2);
+        assertEquals(6, algo.snapshot().edgeCount()); // three undirected edges, both directions each
+        assertEquals(3.0, algo.findShortestPath("C", "A").getTotalWeight(), 0.0);
+        assertThrows(IllegalArgumentException.class, () -> algo.updateEdgeWeight("A", "C", 1));
+    }
+
+    @Test
+    public void testRepairsMatchFullRecomputation() {
+        for (boolean directed : new boolean[]{false, true}) {
+            AbstractAlgoShortestPath algo = directed ? new AStarAlgoShortestPathImpl() : new DijkstraAlgoShortestPathImpl();
+            CsrGraph grid = GraphGenerator.grid(15, 15, 4);
+            algo.importGraph(grid);
+            ShortestPathTree tree = algo.maintainShortestPathTree("0");
+            SplittableRandom random = new SplittableRandom(directed ? 2 : 1);
+            for (int step = 0; step < 300; step++) {
+                String u = Integer.toString(random.nextInt(225));
+                String v = Integer.toString(random.nextInt(225));
+                switch (random.nextInt(6)) {
+                    case 0, 1 -> {
+                        int w = random.nextInt(225);
+                        if (algo.snapshot().compact().degree(w) > 0) {
+                            CsrGraph view = algo.snapshot().compact();
+                            String target = view.nameOf(view.target(w, 0));
+                            algo.updateEdgeWeight(Integer.toString(w), target, 1 + random.nextInt(20));
+                        }
+                    }
+                    case 2 -> algo.addEdge(u, v, 1 + random.nextInt(20));
+                    case 3 -> algo.removeEdge(u, v);
+                    case 4 -> algo.removeNode(u);
+                    default -> algo.addEdge(u, Integer.toString(random.nextInt(225)), 1 + random.nextInt(5));
+                }
+                assertMatchesDijkstra(algo, tree);
+            }
+            algo.removeNodes(List.of("0", "1", "2"));
+            assertMatchesDijkstra(algo, tree);
+            algo.addEdge("0", "100", 3);
+            assertMatchesDijkstra(algo, tree);
+            assertEquals(0.0, tree.getDistance("0"), 0.0);
+        }
+    }
+
+    @Test
+    public void testRepairCostFollowsTheChange() {
+        DijkstraAlgoShortestPathImpl algo = new DijkstraAlgoShortestPathImpl();
+        algo.importGraph(GraphGenerator.grid(100, 100, 9));
+        ShortestPathTree tree = algo.maintainShortestPathTree("0");
+        assertEquals(10_000, tree.getLastRepairSettled());
+
+        // The far corner is a leaf or close to one, so a dearer edge there moves few nodes
+        PathResult toCorner = tree.getPath("9999");
+        List<String> path = toCorner.getPath();
+        String last = path.get(path.size() - 1);
+        String beforeLast = path.get(path.size() - 2);
+        algo.updateEdgeWeight(beforeLast, last, 1000);
+        assertTrue(tree.getLastRepairSettled() < 100, "settled " + tree.getLastRepairSettled());
+        assertEquals(algo.findShortestPath("0", "9999").getTotalWeight(), tree.getDistance("9999"), 1e-9);
+
+        tree.close();
+        algo.updateEdgeWeight(beforeLast, last, 1);
+        assertNotEquals(algo.findShortestPath("0", "9999").getTotalWeight(), tree.getDistance("9999"));
+        assertThrows(IllegalArgumentException.class, () -> algo.maintainShortestPathTree("missing"));
+    }
+
+    @Test
+    public void testRejectsNegativeWeights() {
+        BellmanFordAlgoShortestPathImpl algo = new BellmanFordAlgoShortestPathImpl();
+        algo.addEdge("A", "B", 1);
+        ShortestPathTree tree = algo.maintainShortestPathTree("A");
+        assertThrows(IllegalArgumentException.class, () -> algo.addEdge("B", "C", -1));
+        tree.close();
+        algo.addEdge("B", "C", -1);
+        assertThrows(IllegalArgumentException.class, () -> algo.maintainShortestPathTree("A"));
+    }
+
+    private static void assertMatchesDijkstra(AbstractAlgoShortestPath algo, ShortestPathTree tree) {
+        CsrGraph view = algo.snapshot().compact();
+        boolean sourceExists = view.indexOf("0") != -1;
+        for (int u = 0; u < view.nodeCount(); u++) {
+            String name = view.nameOf(u);
+            if (name == null) {
+                continue;
+            }
+            double expected = sourceExists
+                    ? DijkstraAlgoShortestPathImpl.shortestPath(view, view.indexOf("0"), u, 4).getTotalWeight()
+                    : Double.POSITIVE_INFINITY;
+            assertEquals(expected, tree.getDistance(name), 1e-9, name);
+            PathResult path = tree.getPath(name);
+            assertEquals(expected, path.getTotalWeight(), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.om.algorithm;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class SpatialIndexTest {
+
+    @Test
+    public void testMatchesBruteForce() {
+        CsrGraph road = GraphGenerator.roadLike(5000, 7);
+        DijkstraAlgoShortestPathImpl algo = new DijkstraAlgoShortestPathImpl();
+        algo.importGraph(road);
+        SplittableRandom random = new SplittableRandom(1);
+        for (int query = 0; query < 200; query++) {
+            double x = random.nextDouble(-5, 75);
+            double y = random.nextDouble(-5, 75);
+            List<String> nearest = algo.findNearestNodes(x, y, 5);
+            List<String> expected = closest(road, x, y, 5);
+            assertEquals(distances(road, x, y, expected), distances(road, x, y, nearest));
+
+            double minX = random.nextDouble(0, 70);
+            double minY = random.nextDouble(0, 70);
+            List<String> inside = algo.findNodesWithin(minX, minY, minX + 4, minY + 3);
+            assertEquals(new HashSet<>(within(road, minX, minY, minX + 4, minY + 3)), new HashSet<>(inside));
+            assertEquals(new HashSet<>(inside).size(), inside.size());
+        }
+    }
+
+    @Test
+    public void testFollowsAdditionsAndRemovals() {
+        DijkstraAlgoShortestPathImpl algo = new DijkstraAlgoShortestPathImpl();
+        algo.addNode("A", 0, 0);
+        algo.addNode("B", 10, 0);
+        algo.addEdge("A", "B", 10);
+        assertEquals(List.of("A", "B"), algo.findNearestNodes(1, 0, 2));
+
+        algo.addNode("C", 2, 0);
+        assertEquals(List.of("A", "C"), algo.findNearestNodes(0.9, 0, 2));
+        algo.removeNode("A");
+        assertEquals(List.of("C", "B"), algo.findNearestNodes(1, 0, 5));
+
+        // Re-added at another spot, the old position must not match any more
+        algo.addNode("A", 9, 0);
+        assertEquals(List.of("A"), algo.findNearestNodes(9.2, 0, 1));
+        assertEquals(List.of("C"), algo.findNodesWithin(-1, -1, 3, 1));
+        assertEquals(List.of("C"), algo.findNearestNodes(0, 0, 1));
+
+        // Enough changes to trigger a rebuild keep the answers the same
+        for (int i = 0; i < 600; i++) {
+            algo.addNode("N" + i, 100 + i, 100);
+        }
+        for (int i = 0; i < 600; i += 2) {
+            algo.removeNode("N" + i);
+        }
+        assertEquals(List.of("N1", "N3"), algo.findNearestNodes(99, 100, 2));
+        assertEquals(List.of("A"), algo.findNearestNodes(9.2, 0, 1));
+        assertEquals(3, algo.findNodesWithin(-1, -1, 20, 1).size());
+    }
+
+    @Test
+    public void testSnapshotModeWaitsForPublish() {
+        DijkstraAlgoShortestPathImpl algo = new DijkstraAlgoShortestPathImpl();
+        algo.setSnapshotMode(true);
+        algo.addNode("A", 0, 0);
+        algo.publish();
+        assertEquals(List.of("A"), algo.findNearestNodes(5, 5, 3));
+        algo.addNode("B", 5, 5);
+        assertEquals(List.of("A"), algo.findNearestNodes(5, 5, 3));
+        algo.publish();
+        assertEquals(List.of("B", "A"), algo.findNearestNodes(5, 5, 3));
+    }
+
+    @Test
+    public void testRoutesBetweenCoordinates() {
+        CsrGraph grid = GraphGenerator.grid(20, 20, 3);
+        AStarAlgoShortestPathImpl algo = new AStarAlgoShortestPathImpl();
+        algo.importGraph(grid);
+        algo.importGraph(grid.reverse());
+        PathResult snapped = algo.findShortestPath(0.2, -0.3, 18.9, 19.4);
+        PathResult direct = algo.findShortestPath("0", "399");
+        assertEquals(direct.getTotalWeight(), snapped.getTotalWeight(), 0.0);
+        assertEquals("0", snapped.getPath().get(0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DijkstraAlgoShortestPathImpl().findShortestPath(0, 0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> algo.findNearestNodes(0, 0, 0));
+    }
+
+    private static List<String> closest(CsrGraph graph, double x, double y, int k) {
+        List<String> names = new ArrayList<>();
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            names.add(graph.nameOf(u));
+        }
+        names.sort(Comparator.comparingDouble(name -> distance(graph, x, y, name)));
+        return names.subList(0, k);
+    }
+
+    private static List<String> within(CsrGraph graph, double minX, double minY, double maxX, double maxY) {
+        List<String> names = new ArrayList<>();
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            if (graph.x(u) >= minX && graph.x(u) <= maxX && graph.y(u) >= minY && graph.y(u) <= maxY) {
+                names.add(graph.nameOf(u));
+            }
+        }
+        return names;
+    }
+
+    private static List<Double> distances(CsrGraph graph, double x, double y, List<String> names) {
+        List<Double> distances = new ArrayList<>();
+        for (String name : names) {
+            distances.add(distance(graph, x, y, name));
+        }
+        return distances;
+    }
+
+    private static double distance(CsrGraph graph, double x, double y, String name) {
+        int u = graph.indexOf(name);
+        return Math.hypot(graph.x(u) - x, graph.y(u) - y);
+    }
+}
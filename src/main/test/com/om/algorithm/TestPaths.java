@@ -0,0 +1,27 @@
+package com.om.algorithm;
+
+import java.util.List;
+
+// Helpers shared by the path tests
+final class TestPaths {
+
+    private TestPaths() {
+    }
+
+    // Sum of the cheapest arc between each pair of consecutive nodes, infinite if a pair has no arc
+    static double weightOf(IGraphView graph, List<String> path) {
+        double total = 0;
+        for (int k = 1; k < path.size(); k++) {
+            int u = graph.indexOf(path.get(k - 1));
+            int v = graph.indexOf(path.get(k));
+            double cheapest = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < graph.degree(u); i++) {
+                if (graph.target(u, i) == v) {
+                    cheapest = Math.min(cheapest, graph.weight(u, i));
+                }
+            }
+            total += cheapest;
+        }
+        return total;
+    }
+}